@@ -1,13 +1,12 @@
 USE blogapi;
 
-UNLOCK TABLES;
-
 DROP TABLE IF EXISTS `post_tag`;
 DROP TABLE IF EXISTS `tags`;
 DROP TABLE IF EXISTS `user_role`;
 DROP TABLE IF EXISTS `roles`;
 DROP TABLE IF EXISTS `comments`;
 DROP TABLE IF EXISTS `posts`;
+DROP TABLE IF EXISTS `categories`;
 DROP TABLE IF EXISTS `photos`;
 DROP TABLE IF EXISTS `albums`;
 DROP TABLE IF EXISTS `todos`;
@@ -15,15 +14,23 @@ DROP TABLE IF EXISTS `users`;
 DROP TABLE IF EXISTS `address`;
 DROP TABLE IF EXISTS `company`;
 DROP TABLE IF EXISTS `geo`;
+DROP TABLE IF EXISTS `revoked_tokens`;
+DROP TABLE IF EXISTS `principal_invalidations`;
+DROP TABLE IF EXISTS `user_profiles`;
+DROP TABLE IF EXISTS `replica_heartbeat`;
+DROP TABLE IF EXISTS `response_cache_generations`;
 
 CREATE TABLE `tags` (
   `id` bigint(19) unsigned NOT NULL AUTO_INCREMENT,
   `name` varchar(255) NOT NULL,
-  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  `post_count` bigint(19) NOT NULL DEFAULT 0,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `created_by` bigint(19) unsigned NOT NULL,
   `updated_by` bigint(19) unsigned NOT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_tags_name` (`name`),
+  KEY `idx_tags_created_at` (`created_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8;
 
 CREATE TABLE `geo` (
@@ -96,6 +103,7 @@ CREATE TABLE `todos` (
   `updated_by` bigint(19) unsigned DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `fk_user_todos` (`user_id`),
+  KEY `idx_todos_created_by` (`created_by`, `created_at`, `id`),
   CONSTRAINT `fk_user_todos` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
@@ -109,6 +117,8 @@ CREATE TABLE `albums` (
   `updated_by` bigint(19) unsigned DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `fk_user_album` (`user_id`),
+  KEY `idx_albums_created_at` (`created_at`, `id`),
+  KEY `idx_albums_created_by` (`created_by`, `created_at`, `id`),
   CONSTRAINT `fk_user_album` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
@@ -124,21 +134,40 @@ CREATE TABLE `photos` (
   `updated_by` bigint(19) unsigned DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `fk_album` (`album_id`),
+  KEY `idx_photos_created_at` (`created_at`, `id`),
+  KEY `idx_photos_album_created_at` (`album_id`, `created_at`, `id`),
   CONSTRAINT `fk_album` FOREIGN KEY (`album_id`) REFERENCES `albums` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
+CREATE TABLE `categories` (
+  `id` bigint(19) unsigned NOT NULL AUTO_INCREMENT,
+  `name` varchar(255) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `created_by` bigint(19) unsigned DEFAULT NULL,
+  `updated_by` bigint(19) unsigned DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_categories_created_at` (`created_at`, `id`)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
 CREATE TABLE `posts` (
   `id` bigint(19) unsigned NOT NULL AUTO_INCREMENT,
   `title` varchar(255) NOT NULL,
   `body` text NOT NULL,
   `user_id` bigint(19) unsigned DEFAULT NULL,
+  `category_id` bigint(19) unsigned DEFAULT NULL,
   `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `created_by` bigint(19) unsigned DEFAULT NULL,
   `updated_by` bigint(19) unsigned DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `fk_user_post` (`user_id`),
-  CONSTRAINT `fk_user_post` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
+  KEY `fk_category_post` (`category_id`, `created_at`, `id`),
+  KEY `idx_posts_created_at` (`created_at`, `id`),
+  KEY `idx_posts_created_by` (`created_by`, `created_at`, `id`),
+  KEY `idx_posts_updated_at` (`updated_at`, `id`),
+  CONSTRAINT `fk_user_post` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`),
+  CONSTRAINT `fk_category_post` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
 CREATE TABLE `post_tag` (
@@ -166,6 +195,8 @@ CREATE TABLE `comments` (
   PRIMARY KEY (`id`),
   KEY `fk_comment_post` (`post_id`),
   KEY `fk_comment_user` (`user_id`),
+  KEY `idx_comments_post_created_at` (`post_id`, `created_at`, `id`),
+  KEY `idx_comments_updated_at` (`updated_at`, `id`),
   CONSTRAINT `fk_comment_post` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`),
   CONSTRAINT `fk_comment_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
@@ -187,6 +218,58 @@ CREATE TABLE `user_role` (
   CONSTRAINT `fk_security_role_id` FOREIGN KEY (`role_id`) REFERENCES `roles` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
-LOCK TABLES `roles` WRITE;
+CREATE TABLE `user_profiles` (
+  `user_id` bigint(19) unsigned NOT NULL,
+  `username` varchar(255) NOT NULL,
+  `first_name` varchar(255),
+  `last_name` varchar(255),
+  `email` varchar(255),
+  `phone` varchar(255),
+  `website` varchar(255),
+  `joined_at` timestamp NULL DEFAULT NULL,
+  `street` varchar(255),
+  `suite` varchar(255),
+  `city` varchar(255),
+  `zipcode` varchar(255),
+  `lat` varchar(255),
+  `lng` varchar(255),
+  `company_name` varchar(255),
+  `catch_phrase` varchar(255),
+  `bs` varchar(255),
+  `post_count` bigint(19) NOT NULL DEFAULT 0,
+  `album_count` bigint(19) NOT NULL DEFAULT 0,
+  `todo_count` bigint(19) NOT NULL DEFAULT 0,
+  `comment_count` bigint(19) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`user_id`),
+  UNIQUE KEY `uk_user_profiles_username` (`username`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `revoked_tokens` (
+  `jti` varchar(36) NOT NULL,
+  `expires_at` timestamp NOT NULL,
+  `revoked_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`jti`),
+  KEY `idx_revoked_tokens_expires_at` (`expires_at`),
+  KEY `idx_revoked_tokens_revoked_at` (`revoked_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `principal_invalidations` (
+  `user_id` bigint(19) unsigned NOT NULL,
+  `invalidated_at` timestamp NOT NULL,
+  PRIMARY KEY (`user_id`),
+  KEY `idx_principal_invalidations_invalidated_at` (`invalidated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `replica_heartbeat` (
+  `id` bigint(19) unsigned NOT NULL,
+  `beat` bigint(19) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `response_cache_generations` (
+  `stripe` int(11) NOT NULL,
+  `generation` bigint(19) NOT NULL,
+  PRIMARY KEY (`stripe`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
 INSERT INTO `roles` VALUES (1,'ROLE_ADMIN'),(2,'ROLE_USER');
-UNLOCK TABLES;
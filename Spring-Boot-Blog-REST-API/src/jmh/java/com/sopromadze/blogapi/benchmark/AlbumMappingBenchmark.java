@@ -0,0 +1,81 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.BlogApiApplication;
+import com.sopromadze.blogapi.model.Album;
+import com.sopromadze.blogapi.payload.AlbumResponse;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Album} to {@code AlbumResponse} mapping of {@code AlbumServiceImpl.getAllAlbums}, through the
+ * {@link ModelMapper} built by {@link BlogApiApplication#modelMapper()} with its album converter, as the service
+ * does it, and through ModelMapper's implicit mapping and by hand as baselines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlbumMappingBenchmark {
+
+	@Param({ "10", "30" })
+	private int size;
+
+	private ModelMapper modelMapper;
+
+	private ModelMapper implicitModelMapper;
+
+	private List<Album> albums;
+
+	@Setup
+	public void setup() {
+		modelMapper = new BlogApiApplication().modelMapper();
+		implicitModelMapper = new ModelMapper();
+		albums = BenchmarkData.albums(size);
+		modelMapper.map(albums, AlbumResponse[].class);
+		implicitModelMapper.map(albums, AlbumResponse[].class);
+	}
+
+	@Benchmark
+	public List<AlbumResponse> modelMapper() {
+		return Arrays.asList(modelMapper.map(albums, AlbumResponse[].class));
+	}
+
+	@Benchmark
+	public List<AlbumResponse> implicitModelMapper() {
+		return Arrays.asList(implicitModelMapper.map(albums, AlbumResponse[].class));
+	}
+
+	@Benchmark
+	public List<AlbumResponse> handWritten() {
+		List<AlbumResponse> responses = new ArrayList<>(albums.size());
+		for (Album album : albums) {
+			AlbumResponse response = new AlbumResponse();
+			response.setId(album.getId());
+			response.setTitle(album.getTitle());
+			response.setPhoto(album.getPhoto());
+			response.setCreatedAt(album.getCreatedAt());
+			response.setUpdatedAt(album.getUpdatedAt());
+			response.setCreatedBy(album.getCreatedBy());
+			response.setUpdatedBy(album.getUpdatedBy());
+			responses.add(response);
+		}
+		return responses;
+	}
+}
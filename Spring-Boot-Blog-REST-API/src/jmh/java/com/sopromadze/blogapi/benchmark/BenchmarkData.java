@@ -0,0 +1,86 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.model.Album;
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Comment;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.model.audit.UserDateAudit;
+import com.sopromadze.blogapi.model.role.Role;
+import com.sopromadze.blogapi.model.role.RoleName;
+import com.sopromadze.blogapi.model.user.User;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entities shaped like the ones the endpoints return, so that benchmarks measure realistic object graphs.
+ */
+final class BenchmarkData {
+	private static final Instant CREATED_AT = Instant.parse("2021-03-01T10:15:30Z");
+
+	private BenchmarkData() {
+	}
+
+	static User user() {
+		User user = new User("Leanne", "Graham", "leanne", "leanne.graham@gmail.com", "$2a$10$hashedpassword");
+		user.setId(1L);
+		user.setRoles(List.of(new Role(RoleName.ROLE_USER), new Role(RoleName.ROLE_ADMIN)));
+		return user;
+	}
+
+	static List<Post> posts(int count) {
+		User user = user();
+		Category category = new Category("Viajes");
+		category.setId(1L);
+		List<Tag> tags = new ArrayList<>();
+		for (long i = 1; i <= 3; i++) {
+			Tag tag = new Tag("tag" + i);
+			tag.setId(i);
+			tags.add(tag);
+		}
+
+		List<Post> posts = new ArrayList<>(count);
+		for (long i = 1; i <= count; i++) {
+			Post post = new Post();
+			post.setId(i);
+			post.setTitle("Viaje a Francia " + i);
+			post.setBody("Quaerat velit veniam amet cupiditate aut numquam ut sequi. ".repeat(10));
+			post.setUser(user);
+			post.setCategory(category);
+			post.setTags(tags);
+			List<Comment> comments = new ArrayList<>();
+			for (long c = 1; c <= 5; c++) {
+				Comment comment = new Comment("Comentario número " + c);
+				comment.setId(i * 10 + c);
+				comments.add(comment);
+			}
+			post.setComments(comments);
+			audit(post);
+			posts.add(post);
+		}
+		return posts;
+	}
+
+	static List<Album> albums(int count) {
+		User user = user();
+		List<Album> albums = new ArrayList<>(count);
+		for (long i = 1; i <= count; i++) {
+			Album album = new Album();
+			album.setId(i);
+			album.setTitle("Álbum " + i);
+			album.setUser(user);
+			audit(album);
+			albums.add(album);
+		}
+		return albums;
+	}
+
+	private static void audit(UserDateAudit entity) {
+		entity.setCreatedAt(CREATED_AT);
+		entity.setUpdatedAt(CREATED_AT);
+		entity.setCreatedBy(1L);
+		entity.setUpdatedBy(1L);
+	}
+}
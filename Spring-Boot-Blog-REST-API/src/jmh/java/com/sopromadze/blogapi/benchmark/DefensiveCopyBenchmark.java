@@ -0,0 +1,67 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.model.Comment;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.model.role.Role;
+import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The collection getters of {@link Post}, {@link User} and {@link PagedResponse}, which return a copy on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefensiveCopyBenchmark {
+
+	private Post post;
+
+	private User user;
+
+	private PagedResponse<Post> page;
+
+	@Setup
+	public void setup() {
+		List<Post> posts = BenchmarkData.posts(30);
+		post = posts.get(0);
+		user = BenchmarkData.user();
+		page = new PagedResponse<>(posts, 0, 30, 30, 1, true);
+	}
+
+	@Benchmark
+	public List<Tag> postTags() {
+		return post.getTags();
+	}
+
+	@Benchmark
+	public List<Comment> postComments() {
+		return post.getComments();
+	}
+
+	@Benchmark
+	public List<Role> userRoles() {
+		return user.getRoles();
+	}
+
+	@Benchmark
+	public List<Post> pagedResponseContent() {
+		return page.getContent();
+	}
+}
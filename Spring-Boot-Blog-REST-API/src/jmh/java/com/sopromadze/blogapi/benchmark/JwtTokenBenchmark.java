@@ -0,0 +1,75 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.security.JwtTokenProvider;
+import com.sopromadze.blogapi.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+	private JwtTokenProvider jwtTokenProvider;
+
+	private Authentication authentication;
+
+	private String token;
+
+	@Setup
+	public void setup() {
+		jwtTokenProvider = new JwtTokenProvider();
+		ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "secret");
+		ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", 3600000);
+		ReflectionTestUtils.setField(jwtTokenProvider, "jwtStatelessPrincipal", true);
+		ReflectionTestUtils.setField(jwtTokenProvider, "jwtCacheMaxSize", 10000);
+		ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+
+		UserPrincipal userPrincipal = new UserPrincipal(1L, "jesus", "garcia", "jesus", "jesus@gmail.com", null,
+				List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		authentication = new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
+		token = jwtTokenProvider.generateToken(authentication);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtTokenProvider.generateToken(authentication);
+	}
+
+	@Benchmark
+	public Long validateThenGetUserId() {
+		if (jwtTokenProvider.validateToken(token)) {
+			return jwtTokenProvider.getUserIdFromJWT(token);
+		}
+		return null;
+	}
+
+	@Benchmark
+	public Claims parseTokenUncached() {
+		return jwtTokenProvider.getClaimsFromJWT(token);
+	}
+
+	@Benchmark
+	public Claims parseTokenCached() {
+		return jwtTokenProvider.parseToken(token);
+	}
+}
@@ -0,0 +1,76 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.perf.MethodMetrics;
+import com.sopromadze.blogapi.perf.MethodMetricsAspect;
+import com.sopromadze.blogapi.service.impl.TagPostCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost {@link MethodMetricsAspect} adds to a service call: a method that does nothing, called directly, through
+ * a Spring proxy without advice, as most services already are for their transactions, and through one with the
+ * aspect. Run with {@code -t 4} as well to see the cost under contention on the same method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class MethodMetricsBenchmark {
+
+	private final List<Long> noTags = Collections.emptyList();
+
+	private TagPostCounter direct;
+
+	private TagPostCounter proxied;
+
+	private TagPostCounter instrumented;
+
+	@Setup
+	public void setup() {
+		direct = new TagPostCounter(null, null);
+
+		ProxyFactory proxyFactory = new ProxyFactory(direct);
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice((org.aopalliance.intercept.MethodInterceptor) invocation -> invocation.proceed());
+		proxied = (TagPostCounter) proxyFactory.getProxy();
+
+		AspectJProxyFactory aspectProxyFactory = new AspectJProxyFactory(direct);
+		aspectProxyFactory.setProxyTargetClass(true);
+		aspectProxyFactory.addAspect(new MethodMetricsAspect(new MethodMetrics(new SimpleMeterRegistry())));
+		instrumented = aspectProxyFactory.getProxy();
+	}
+
+	@Benchmark
+	public void direct() {
+		direct.postAdded(noTags);
+	}
+
+	@Benchmark
+	public void proxied() {
+		proxied.postAdded(noTags);
+	}
+
+	@Benchmark
+	public void instrumented() {
+		instrumented.postAdded(noTags);
+	}
+}
@@ -0,0 +1,48 @@
+package com.sopromadze.blogapi.benchmark;
+
+import com.sopromadze.blogapi.exception.BlogapiException;
+import com.sopromadze.blogapi.utils.AppUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AppUtils#validatePageNumberAndSize} for a valid page and for one it rejects, which costs an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageValidationBenchmark {
+
+	private int page = 1;
+
+	private int size = 30;
+
+	private int tooLarge = 31;
+
+	@Benchmark
+	public void valid() {
+		AppUtils.validatePageNumberAndSize(page, size);
+	}
+
+	@Benchmark
+	public BlogapiException rejected() {
+		try {
+			AppUtils.validatePageNumberAndSize(page, tooLarge);
+			return null;
+		} catch (BlogapiException ex) {
+			return ex;
+		}
+	}
+}
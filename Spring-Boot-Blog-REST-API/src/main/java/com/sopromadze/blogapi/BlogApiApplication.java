@@ -1,5 +1,7 @@
 package com.sopromadze.blogapi;
 
+import com.sopromadze.blogapi.model.Album;
+import com.sopromadze.blogapi.payload.AlbumResponse;
 import com.sopromadze.blogapi.security.JwtAuthenticationFilter;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
@@ -32,7 +34,21 @@ public class BlogApiApplication {
 
 	@Bean
 	public ModelMapper modelMapper() {
-		return new ModelMapper();
+		ModelMapper modelMapper = new ModelMapper();
+		// The implicit mapping would copy the album's owner and each photo's album, loading them one by one
+		modelMapper.typeMap(Album.class, AlbumResponse.class).setConverter(context -> {
+			Album album = context.getSource();
+			AlbumResponse response = context.getDestination() == null ? new AlbumResponse() : context.getDestination();
+			response.setId(album.getId());
+			response.setTitle(album.getTitle());
+			response.setPhoto(album.getPhoto());
+			response.setCreatedBy(album.getCreatedBy());
+			response.setUpdatedBy(album.getUpdatedBy());
+			response.setCreatedAt(album.getCreatedAt());
+			response.setUpdatedAt(album.getUpdatedAt());
+			return response;
+		});
+		return modelMapper;
 	}
 
 }
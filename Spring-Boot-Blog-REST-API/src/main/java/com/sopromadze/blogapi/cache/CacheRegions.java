@@ -0,0 +1,35 @@
+package com.sopromadze.blogapi.cache;
+
+/**
+ * Hibernate second-level cache regions, created by {@link com.sopromadze.blogapi.config.SecondLevelCacheConfig}.
+ */
+public final class CacheRegions {
+	public static final String USER = "user";
+
+	public static final String USER_NATURAL_ID = "userNaturalId";
+
+	public static final String ROLE = "role";
+
+	public static final String POST = "post";
+
+	public static final String ALBUM = "album";
+
+	public static final String PHOTO = "photo";
+
+	public static final String USER_PROFILE = "userProfile";
+
+	public static final String USER_PROFILE_NATURAL_ID = "userProfileNaturalId";
+
+	/**
+	 * Query results of user lookups by username or email.
+	 */
+	public static final String USER_LOOKUPS = "userLookups";
+
+	/**
+	 * Query results of the albums of a user and the photos of an album, with their counts.
+	 */
+	public static final String LISTINGS = "listings";
+
+	private CacheRegions() {
+	}
+}
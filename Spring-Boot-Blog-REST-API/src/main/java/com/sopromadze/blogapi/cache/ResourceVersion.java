@@ -0,0 +1,65 @@
+package com.sopromadze.blogapi.cache;
+
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * Version of a single resource as its JSON shows it: the latest {@code updatedAt} of the resource and of the rows
+ * embedded in it, and how many of those rows there are, so that removing one also changes the version. Repositories
+ * select it with a constructor expression, which is much cheaper than loading the resource, and controllers use it
+ * as a strong ETag and {@code Last-Modified} to answer conditional GETs with {@code 304} before loading anything.
+ * Counters the JSON shows, such as {@code tags.post_count}, are moved by bulk updates that leave {@code updatedAt}
+ * alone, so their sum is part of the ETag too. List responses use {@link ResponseCache#etag(String)} instead.
+ */
+public final class ResourceVersion {
+	private final Instant lastModified;
+
+	private final long parts;
+
+	private final long counts;
+
+	public ResourceVersion(Instant updatedAt) {
+		this(updatedAt, 0L);
+	}
+
+	public ResourceVersion(Instant updatedAt, Long counts) {
+		this(updatedAt, null, 0L, counts);
+	}
+
+	public ResourceVersion(Instant updatedAt, Instant partsUpdatedAt, Long parts) {
+		this(updatedAt, partsUpdatedAt, parts, 0L);
+	}
+
+	public ResourceVersion(Instant updatedAt, Instant partsUpdatedAt, Long parts, Long counts) {
+		this.lastModified = partsUpdatedAt != null && partsUpdatedAt.isAfter(updatedAt) ? partsUpdatedAt : updatedAt;
+		this.parts = parts;
+		this.counts = counts != null ? counts : 0L;
+	}
+
+	public ResourceVersion(Instant updatedAt, Instant parentUpdatedAt, Instant partsUpdatedAt, Long parts,
+			Long counts) {
+		this(parentUpdatedAt != null && parentUpdatedAt.isAfter(updatedAt) ? parentUpdatedAt : updatedAt,
+				partsUpdatedAt, parts, counts);
+	}
+
+	public Instant getLastModified() {
+		return lastModified;
+	}
+
+	public String getETag() {
+		String etag = Long.toString(lastModified.toEpochMilli(), 36) + '-' + Long.toString(parts, 36);
+		return "\"" + (counts == 0L ? etag : etag + '-' + Long.toString(counts, 36)) + '"';
+	}
+
+	/**
+	 * Adds the validators of {@code version} to the response. {@code If-Modified-Since} alone cannot tell that an
+	 * embedded row was removed or a counter moved, so clients should prefer {@code If-None-Match}, which is checked
+	 * first.
+	 *
+	 * @return whether the request's validators still match, in which case the response is already a {@code 304}
+	 */
+	public static boolean notModified(WebRequest request, ResourceVersion version) {
+		return version != null && request.checkNotModified(version.getETag(), version.lastModified.toEpochMilli());
+	}
+}
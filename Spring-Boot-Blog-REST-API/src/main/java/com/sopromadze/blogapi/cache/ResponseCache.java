@@ -0,0 +1,377 @@
+package com.sopromadze.blogapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sopromadze.blogapi.model.ResponseCacheGeneration;
+import com.sopromadze.blogapi.perf.jfr.CacheAccessEvent;
+import com.sopromadze.blogapi.repository.ResponseCacheGenerationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.sopromadze.blogapi.utils.Transactions.afterCommit;
+
+/**
+ * Serialized bodies of anonymous GET responses, filled and served by {@link ResponseCacheFilter}. Every cached
+ * route belongs to a group, and services evict the groups their writes affect. Entries are fresh for
+ * {@code app.responseCache.ttlInMs}; for {@code app.responseCache.staleInMs} after that they are still served while
+ * a single request refreshes them. The cache is bounded to {@code app.responseCache.maxBytes} of bodies.
+ *
+ * <p>Each group has a generation, bumped on eviction, and a response is only stored if its group's generation did
+ * not change while it was produced, so a read that raced with a write cannot put the old data back. The generation
+ * also versions the group's list responses through a weak ETag, whether or not the cache itself is enabled.
+ *
+ * <p>With {@code app.responseCache.sharedVersions} evictions also bump the group's row in
+ * {@code response_cache_generations} once their transaction commits, and every instance reads the table back every
+ * {@code app.responseCache.versionPollInMs}. List ETags are then built from those rows, so they match across
+ * instances, and a group bumped elsewhere gets a new ETag and loses its cached responses here within that interval.
+ * Without it generations stay in this instance, which is only safe for a single-instance deployment.
+ */
+@Component
+public class ResponseCache implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+	public static final String POSTS = "posts";
+
+	public static final String CATEGORIES = "categories";
+
+	public static final String TAGS = "tags";
+
+	private static final String COMMENTS = "comments:";
+
+	private static final String PROFILE = "profile:";
+
+	private static final Pattern POST_ROUTES = Pattern.compile("/api/posts(/category/\\d+|/tag/\\d+|/\\d+)?");
+
+	private static final Pattern COMMENT_ROUTES = Pattern.compile("/api/posts/(\\d+)/comments(/\\d+)?");
+
+	private static final Pattern CATEGORY_ROUTES = Pattern.compile("/api/categories(/\\d+)?");
+
+	private static final Pattern TAG_ROUTES = Pattern.compile("/api/tags(/\\d+)?");
+
+	private static final Pattern PROFILE_ROUTES = Pattern.compile("/api/users/([^/]+)/profile");
+
+	private static final int STRIPES = 64;
+
+	/**
+	 * The shared row bumped by {@link #clear()}, which every shared list ETag includes.
+	 */
+	private static final int CLEARED = STRIPES;
+
+	private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+	private final AtomicLongArray sharedGenerations = new AtomicLongArray(STRIPES + 1);
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	private final MeterRegistry meterRegistry;
+
+	private final ResponseCacheGenerationRepository generationRepository;
+
+	private final Counter hits;
+
+	private final Counter staleHits;
+
+	private final Counter misses;
+
+	@Value(value = "${app.responseCache.enabled:false}")
+	private boolean enabled;
+
+	@Value(value = "${app.responseCache.maxBytes:67108864}")
+	private long maxBytes;
+
+	@Value(value = "${app.responseCache.ttlInMs:30000}")
+	private long ttlInMs;
+
+	@Value(value = "${app.responseCache.staleInMs:30000}")
+	private long staleInMs;
+
+	@Value(value = "${app.responseCache.sharedVersions:false}")
+	private boolean shared;
+
+	@Value(value = "${app.responseCache.versionPollInMs:1000}")
+	private long versionPollInMs;
+
+	private Cache<String, Entry> entries;
+
+	private ScheduledExecutorService background;
+
+	public ResponseCache(MeterRegistry meterRegistry, ResponseCacheGenerationRepository generationRepository) {
+		this.meterRegistry = meterRegistry;
+		this.generationRepository = generationRepository;
+		this.hits = Counter.builder("blogapi.response.cache.requests").tag("result", "hit").register(meterRegistry);
+		this.staleHits = Counter.builder("blogapi.response.cache.requests").tag("result", "stale")
+				.register(meterRegistry);
+		this.misses = Counter.builder("blogapi.response.cache.requests").tag("result", "miss").register(meterRegistry);
+	}
+
+	@PostConstruct
+	void init() {
+		entries = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, Entry entry) -> entry.body.length + key.length() * 2)
+				.expireAfterWrite(Duration.ofMillis(ttlInMs + staleInMs))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, entries, "responseCache");
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!shared) {
+			return;
+		}
+		poll();
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "response-cache-versions");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::poll, versionPollInMs, versionPollInMs, TimeUnit.MILLISECONDS);
+	}
+
+	public static String comments(Long postId) {
+		return COMMENTS + postId;
+	}
+
+	public static String profile(String username) {
+		return PROFILE + username;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Drops every response of the given groups, now and again once the current transaction, if any, completes.
+	 */
+	public void evict(String... groups) {
+		evictNow(groups);
+		afterCompletion(() -> evictNow(groups));
+		if (shared) {
+			int[] stripes = new int[groups.length];
+			for (int i = 0; i < groups.length; i++) {
+				stripes[i] = stripe(groups[i]);
+			}
+			bumpShared(stripes);
+		}
+	}
+
+	/**
+	 * Drops every response, for writes whose effects are too broad to track by group.
+	 */
+	public void clear() {
+		clearNow();
+		afterCompletion(this::clearNow);
+		if (shared) {
+			bumpShared(CLEARED);
+		}
+	}
+
+	/**
+	 * @return a weak ETag for the list responses of {@code group}, which changes whenever the group is evicted
+	 */
+	public String etag(String group) {
+		if (shared) {
+			return "W/\"" + Long.toString(sharedGenerations.get(CLEARED), 36) + '.'
+					+ Long.toString(sharedGenerations.get(stripe(group)), 36) + '"';
+		}
+		return "W/\"" + epoch + '.' + Long.toString(generation(group), 36) + '"';
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the group {@code path} belongs to, or {@code null} if its responses are not cached
+	 */
+	String group(String path) {
+		if (POST_ROUTES.matcher(path).matches()) {
+			return POSTS;
+		}
+		Matcher matcher = COMMENT_ROUTES.matcher(path);
+		if (matcher.matches()) {
+			return comments(Long.valueOf(matcher.group(1)));
+		}
+		if (CATEGORY_ROUTES.matcher(path).matches()) {
+			return CATEGORIES;
+		}
+		if (TAG_ROUTES.matcher(path).matches()) {
+			return TAGS;
+		}
+		matcher = PROFILE_ROUTES.matcher(path);
+		if (matcher.matches()) {
+			return profile(matcher.group(1));
+		}
+		return null;
+	}
+
+	long generation(String group) {
+		return generations.get(stripe(group));
+	}
+
+	/**
+	 * @return the entry to serve, or {@code null} if the caller should produce the response, either because there
+	 *         is none or because it is stale and the caller won the right to refresh it
+	 */
+	Entry lookup(String key) {
+		Entry entry = entries.getIfPresent(key);
+		if (entry == null) {
+			misses.increment();
+			CacheAccessEvent.emit("responseCache", key, false);
+			return null;
+		}
+		if (System.nanoTime() - entry.storedAt < ttlInMs * 1_000_000) {
+			hits.increment();
+			CacheAccessEvent.emit("responseCache", key, true);
+			return entry;
+		}
+		if (entry.refreshing.compareAndSet(false, true)) {
+			misses.increment();
+			CacheAccessEvent.emit("responseCache", key, false);
+			return null;
+		}
+		staleHits.increment();
+		CacheAccessEvent.emit("responseCache", key, true);
+		return entry;
+	}
+
+	void store(String key, String group, long generation, Entry entry) {
+		if (generation(group) == generation) {
+			entries.put(key, entry);
+		}
+	}
+
+	void discard(String key) {
+		entries.invalidate(key);
+	}
+
+	/**
+	 * Takes in the shared generations, dropping the cached responses of every stripe bumped since the last read.
+	 */
+	void poll() {
+		try {
+			for (ResponseCacheGeneration row : generationRepository.findAll()) {
+				int stripe = row.getStripe();
+				if (stripe < 0 || stripe > CLEARED) {
+					continue;
+				}
+				long previous = sharedGenerations.getAndAccumulate(stripe, row.getGeneration(), Math::max);
+				if (previous >= row.getGeneration()) {
+					continue;
+				}
+				if (stripe == CLEARED) {
+					clearNow();
+				} else {
+					generations.incrementAndGet(stripe);
+					entries.asMap().keySet().removeIf(key -> stripe(key.substring(0, key.indexOf('|'))) == stripe);
+				}
+			}
+		} catch (Exception ex) {
+			LOGGER.error("Could not read the shared response cache generations", ex);
+		}
+	}
+
+	private void bumpShared(int... stripes) {
+		afterCommit(() -> {
+			try {
+				for (int stripe : stripes) {
+					generationRepository.increment(stripe);
+				}
+			} catch (RuntimeException ex) {
+				LOGGER.error("Could not bump the shared response cache generations", ex);
+			}
+			poll();
+		});
+	}
+
+	private void clearNow() {
+		for (int i = 0; i < STRIPES; i++) {
+			generations.incrementAndGet(i);
+		}
+		entries.invalidateAll();
+	}
+
+	private void evictNow(String... groups) {
+		for (String group : groups) {
+			generations.incrementAndGet(stripe(group));
+			String prefix = group + '|';
+			entries.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+		}
+	}
+
+	private static void afterCompletion(Runnable eviction) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	private static int stripe(String group) {
+		return Math.floorMod(group.hashCode(), STRIPES);
+	}
+
+	static final class Entry {
+		private final byte[] body;
+
+		private final String contentType;
+
+		private final String etag;
+
+		private final long lastModified;
+
+		private final long storedAt = System.nanoTime();
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		Entry(byte[] body, String contentType, String etag, long lastModified) {
+			this.body = body;
+			this.contentType = contentType;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		byte[] body() {
+			return body;
+		}
+
+		String contentType() {
+			return contentType;
+		}
+
+		String etag() {
+			return etag;
+		}
+
+		long lastModified() {
+			return lastModified;
+		}
+	}
+}
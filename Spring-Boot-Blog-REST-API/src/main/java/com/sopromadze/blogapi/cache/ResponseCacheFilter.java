@@ -0,0 +1,143 @@
+package com.sopromadze.blogapi.cache;
+
+import com.sopromadze.blogapi.datasource.PrimaryReads;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves anonymous GETs of the routes known to {@link ResponseCache} from it, before the request reaches Spring MVC,
+ * and stores successful JSON responses on the way out. Registered after the security filter chain.
+ *
+ * <p>Entries keep the response's {@code ETag} and {@code Last-Modified}, and conditional requests are answered from
+ * them. To always have a full body to store, a miss is passed on with its conditional headers hidden and the
+ * conditions are evaluated here once the response is produced.
+ *
+ * <p>Misses are read from the primary ({@link PrimaryReads}). A replica read right after a write has evicted the
+ * group would otherwise store the replica's older copy under the new generation, and serve it, with its
+ * {@code ETag}, until the next write.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+	static final String CACHE_HEADER = "X-Cache";
+
+	private final ResponseCache responseCache;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !responseCache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+				|| request.getHeader(HttpHeaders.AUTHORIZATION) != null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		String group = responseCache.group(path);
+		if (group == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String key = key(group, path, request);
+		ResponseCache.Entry entry = responseCache.lookup(key);
+		if (entry != null) {
+			response.setHeader(CACHE_HEADER, "HIT");
+			if (new ServletWebRequest(request, response).checkNotModified(entry.etag(), entry.lastModified())) {
+				return;
+			}
+			response.setContentType(entry.contentType());
+			response.setContentLength(entry.body().length);
+			response.getOutputStream().write(entry.body());
+			return;
+		}
+
+		long generation = responseCache.generation(group);
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		boolean stored = false;
+		boolean primaryRequired = PrimaryReads.setRequired(true);
+		try {
+			wrapper.setHeader(CACHE_HEADER, "MISS");
+			filterChain.doFilter(new UnconditionalRequest(request), wrapper);
+			String contentType = wrapper.getContentType();
+			if (wrapper.getStatus() == HttpStatus.OK.value() && contentType != null
+					&& MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+				ResponseCache.Entry produced = new ResponseCache.Entry(wrapper.getContentAsByteArray(), contentType,
+						wrapper.getHeader(HttpHeaders.ETAG), lastModified(wrapper.getHeader(HttpHeaders.LAST_MODIFIED)));
+				responseCache.store(key, group, generation, produced);
+				stored = true;
+				if (new ServletWebRequest(request, wrapper).checkNotModified(produced.etag(), produced.lastModified())) {
+					wrapper.resetBuffer();
+				}
+			}
+		} finally {
+			PrimaryReads.setRequired(primaryRequired);
+			if (!stored) {
+				responseCache.discard(key);
+			}
+			wrapper.copyBodyToResponse();
+		}
+	}
+
+	private static long lastModified(String header) {
+		return header == null ? -1
+				: ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+	}
+
+	private static String key(String group, String path, HttpServletRequest request) {
+		StringBuilder key = new StringBuilder(group).append('|').append(path);
+		char separator = '?';
+		for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+			for (String value : parameter.getValue()) {
+				key.append(separator).append(parameter.getKey()).append('=').append(value);
+				separator = '&';
+			}
+		}
+		return key.toString();
+	}
+
+	private static final class UnconditionalRequest extends HttpServletRequestWrapper {
+		UnconditionalRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return isConditional(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return isConditional(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public long getDateHeader(String name) {
+			return isConditional(name) ? -1 : super.getDateHeader(name);
+		}
+
+		private static boolean isConditional(String name) {
+			return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MODIFIED_SINCE.equalsIgnoreCase(name);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.sopromadze.blogapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.sopromadze.blogapi.cache.CacheRegions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the Caffeine caches behind Hibernate's second-level cache, one per region in {@link CacheRegions}, and
+ * publishes the hit ratio of each region as {@code blogapi.hibernate.cache.hit.ratio}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+	private static final List<String> ENTITY_REGIONS = List.of(CacheRegions.USER, CacheRegions.USER_NATURAL_ID,
+			CacheRegions.ROLE, CacheRegions.POST, CacheRegions.ALBUM, CacheRegions.PHOTO, CacheRegions.USER_PROFILE,
+			CacheRegions.USER_PROFILE_NATURAL_ID);
+
+	private static final List<String> QUERY_REGIONS = List.of(CacheRegions.USER_LOOKUPS, CacheRegions.LISTINGS,
+			RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+	@Value(value = "${app.secondLevelCache.maximumSize:10000}")
+	private long maximumSize;
+
+	@Value(value = "${app.secondLevelCache.expireAfterWriteInSeconds:600}")
+	private long expireAfterWriteInSeconds;
+
+	@Value(value = "${app.secondLevelCache.queryMaximumSize:1000}")
+	private long queryMaximumSize;
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheManager() {
+		return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager());
+	}
+
+	/**
+	 * The statistics are looked up when a gauge is read, as the registry can be created while the data source, and
+	 * so the entity manager factory, still is.
+	 */
+	@Bean
+	public MeterBinder secondLevelCacheMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+		return registry -> {
+			for (String region : ENTITY_REGIONS) {
+				hitRatio(entityManagerFactory, region).register(registry);
+			}
+			for (String region : QUERY_REGIONS) {
+				hitRatio(entityManagerFactory, region).register(registry);
+			}
+		};
+	}
+
+	/**
+	 * The update timestamps region must keep an entry per table for as long as cached queries on that table can be
+	 * read, so it is neither bounded nor expired.
+	 */
+	private CacheManager cacheManager() {
+		CaffeineCachingProvider provider = new CaffeineCachingProvider();
+		CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+		for (String region : ENTITY_REGIONS) {
+			cacheManager.createCache(region, region(maximumSize));
+		}
+		for (String region : QUERY_REGIONS) {
+			cacheManager.createCache(region, region(queryMaximumSize));
+		}
+		CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+		timestamps.setStoreByValue(false);
+		cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+		return cacheManager;
+	}
+
+	private CaffeineConfiguration<Object, Object> region(long size) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setStoreByValue(false);
+		configuration.setMaximumSize(OptionalLong.of(size));
+		configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(expireAfterWriteInSeconds)));
+		return configuration;
+	}
+
+	private static Gauge.Builder<ObjectProvider<EntityManagerFactory>> hitRatio(
+			ObjectProvider<EntityManagerFactory> entityManagerFactory, String region) {
+		return Gauge.builder("blogapi.hibernate.cache.hit.ratio", entityManagerFactory,
+				factory -> hitRatio(statistics(factory).getCacheRegionStatistics(region)))
+				.description("Share of second-level cache lookups in the region that were hits since startup")
+				.tag("region", region);
+	}
+
+	private static Statistics statistics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+		return entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private static double hitRatio(CacheRegionStatistics statistics) {
+		if (statistics == null) {
+			return Double.NaN;
+		}
+		long lookups = statistics.getHitCount() + statistics.getMissCount();
+		return lookups == 0 ? Double.NaN : (double) statistics.getHitCount() / lookups;
+	}
+}
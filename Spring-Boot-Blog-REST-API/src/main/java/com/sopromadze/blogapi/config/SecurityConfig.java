@@ -1,10 +1,13 @@
 package com.sopromadze.blogapi.config;
 
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.security.BoundedPasswordEncoder;
 import com.sopromadze.blogapi.security.JwtAuthenticationEntryPoint;
 import com.sopromadze.blogapi.security.JwtAuthenticationFilter;
 import com.sopromadze.blogapi.service.impl.CustomUserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -30,13 +33,28 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	private final CustomUserDetailsServiceImpl customUserDetailsService;
 	private final JwtAuthenticationEntryPoint unauthorizedHandler;
 	private final JwtAuthenticationFilter jwtAuthenticationFilter;
+	private final MeterRegistry meterRegistry;
+
+	@Value(value = "${app.passwordHashing.strength:10}")
+	private int passwordHashingStrength;
+
+	@Value(value = "${app.passwordHashing.threads:2}")
+	private int passwordHashingThreads;
+
+	@Value(value = "${app.passwordHashing.queueCapacity:64}")
+	private int passwordHashingQueueCapacity;
+
+	@Value(value = "${app.passwordHashing.timeoutInMs:5000}")
+	private long passwordHashingTimeoutInMs;
 
 	@Autowired
 	public SecurityConfig(UserRepository userRepository, CustomUserDetailsServiceImpl customUserDetailsService,
-						  JwtAuthenticationEntryPoint unauthorizedHandler, JwtAuthenticationFilter jwtAuthenticationFilter) {
+						  JwtAuthenticationEntryPoint unauthorizedHandler, JwtAuthenticationFilter jwtAuthenticationFilter,
+						  MeterRegistry meterRegistry) {
 		this.customUserDetailsService = customUserDetailsService;
 		this.unauthorizedHandler = unauthorizedHandler;
 		this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+		this.meterRegistry = meterRegistry;
 	}
 
 	@Override
@@ -71,6 +89,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(passwordHashingStrength), passwordHashingThreads,
+				passwordHashingQueueCapacity, passwordHashingTimeoutInMs, meterRegistry);
 	}
 }
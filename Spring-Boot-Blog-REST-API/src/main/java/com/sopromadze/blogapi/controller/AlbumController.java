@@ -1,9 +1,11 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.exception.ResponseEntityErrorException;
 import com.sopromadze.blogapi.model.Album;
 import com.sopromadze.blogapi.payload.AlbumResponse;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PhotoResponse;
 import com.sopromadze.blogapi.payload.request.AlbumRequest;
@@ -28,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -48,10 +51,14 @@ public class AlbumController {
 	@GetMapping
 	public PagedResponse<AlbumResponse> getAllAlbums(
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
-		return albumService.getAllAlbums(page, size);
+		return cursor != null ? albumService.getAllAlbums(cursor, size)
+				: mode != null ? albumService.getAllAlbums(page, size, PageMode.from(mode))
+				: albumService.getAllAlbums(page, size);
 	}
 
 	@PostMapping
@@ -61,7 +68,10 @@ public class AlbumController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<Album> getAlbum(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<Album> getAlbum(@PathVariable(name = "id") Long id, WebRequest request) {
+		if (ResourceVersion.notModified(request, albumService.getAlbumVersion(id))) {
+			return null;
+		}
 		return albumService.getAlbum(id);
 	}
 
@@ -81,9 +91,13 @@ public class AlbumController {
 	@GetMapping("/{id}/photos")
 	public ResponseEntity<PagedResponse<PhotoResponse>> getAllPhotosByAlbum(@PathVariable(name = "id") Long id,
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode) {
 
-		PagedResponse<PhotoResponse> response = photoService.getAllPhotosByAlbum(id, page, size);
+		PagedResponse<PhotoResponse> response = cursor != null ? photoService.getAllPhotosByAlbum(id, cursor, size)
+				: mode != null ? photoService.getAllPhotosByAlbum(id, page, size, PageMode.from(mode))
+				: photoService.getAllPhotosByAlbum(id, page, size);
 
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
@@ -9,9 +9,12 @@ import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.JwtAuthenticationResponse;
 import com.sopromadze.blogapi.payload.LoginRequest;
 import com.sopromadze.blogapi.payload.SignUpRequest;
+import com.sopromadze.blogapi.reference.ReferenceData;
 import com.sopromadze.blogapi.repository.RoleRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
 import com.sopromadze.blogapi.security.JwtTokenProvider;
+import com.sopromadze.blogapi.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -27,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.net.URI;
 import java.util.ArrayList;
@@ -49,6 +53,10 @@ public class AuthController {
 
 	private final JwtTokenProvider jwtTokenProvider;
 
+	private final TokenRevocationList tokenRevocationList;
+
+	private final ReferenceData referenceData;
+
 	@PostMapping("/signin")
 	public ResponseEntity<JwtAuthenticationResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
 		Authentication authentication = authenticationManager.authenticate(
@@ -85,13 +93,10 @@ public class AuthController {
 		List<Role> roles = new ArrayList<>();
 
 		if (userRepository.count() == 0) {
-			roles.add(roleRepository.findByName(RoleName.ROLE_USER)
-					.orElseThrow(() -> new AppException(USER_ROLE_NOT_SET)));
-			roles.add(roleRepository.findByName(RoleName.ROLE_ADMIN)
-					.orElseThrow(() -> new AppException(USER_ROLE_NOT_SET)));
+			roles.add(role(RoleName.ROLE_USER));
+			roles.add(role(RoleName.ROLE_ADMIN));
 		} else {
-			roles.add(roleRepository.findByName(RoleName.ROLE_USER)
-					.orElseThrow(() -> new AppException(USER_ROLE_NOT_SET)));
+			roles.add(role(RoleName.ROLE_USER));
 		}
 
 		user.setRoles(roles);
@@ -103,4 +108,29 @@ public class AuthController {
 
 		return ResponseEntity.created(location).body(new ApiResponse(Boolean.TRUE, "User registered successfully"));
 	}
+
+	@PostMapping("/logout")
+	public ResponseEntity<ApiResponse> logout(HttpServletRequest request) {
+		String jwt = jwtTokenProvider.getJwtFromRequest(request);
+		Claims claims = jwt == null ? null : jwtTokenProvider.parseToken(jwt);
+
+		if (claims == null || claims.getId() == null) {
+			throw new BlogapiException(HttpStatus.BAD_REQUEST, "Token can not be revoked");
+		}
+
+		tokenRevocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+
+		SecurityContextHolder.clearContext();
+
+		return ResponseEntity.ok(new ApiResponse(Boolean.TRUE, "You successfully logged out"));
+	}
+
+	/**
+	 * Takes the role from the reference data, falling back to the roles table until that is loaded.
+	 */
+	private Role role(RoleName name) {
+		Role role = referenceData.role(name);
+		return role != null ? role
+				: roleRepository.findByName(name).orElseThrow(() -> new AppException(USER_ROLE_NOT_SET));
+	}
 }
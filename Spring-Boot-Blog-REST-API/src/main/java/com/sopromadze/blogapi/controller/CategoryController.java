@@ -1,8 +1,11 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.CurrentUser;
 import com.sopromadze.blogapi.security.UserPrincipal;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -31,11 +35,20 @@ public class CategoryController {
 
 	private final CategoryService categoryService;
 
+	private final ResponseCache responseCache;
+
 	@GetMapping
 	public PagedResponse<Category> getAllCategories(
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-		return categoryService.getAllCategories(page, size);
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode, WebRequest request) {
+		if (request.checkNotModified(responseCache.etag(ResponseCache.CATEGORIES))) {
+			return null;
+		}
+		return cursor != null ? categoryService.getAllCategories(cursor, size)
+				: mode != null ? categoryService.getAllCategories(page, size, PageMode.from(mode))
+				: categoryService.getAllCategories(page, size);
 	}
 
 	@PostMapping
@@ -47,7 +60,10 @@ public class CategoryController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<Category> getCategory(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<Category> getCategory(@PathVariable(name = "id") Long id, WebRequest request) {
+		if (ResourceVersion.notModified(request, categoryService.getCategoryVersion(id))) {
+			return null;
+		}
 		return categoryService.getCategory(id);
 	}
 
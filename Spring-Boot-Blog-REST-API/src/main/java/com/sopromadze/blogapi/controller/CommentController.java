@@ -1,8 +1,10 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.model.Comment;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.CommentRequest;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.CurrentUser;
 import com.sopromadze.blogapi.security.UserPrincipal;
@@ -23,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -33,12 +36,21 @@ public class CommentController {
 
 	private final CommentService commentService;
 
+	private final ResponseCache responseCache;
+
 	@GetMapping
 	public ResponseEntity<PagedResponse<Comment>> getAllComments(@PathVariable(name = "postId") Long postId,
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-
-		PagedResponse<Comment> allComments = commentService.getAllComments(postId, page, size);
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode, WebRequest request) {
+		if (request.checkNotModified(responseCache.etag(ResponseCache.comments(postId)))) {
+			return null;
+		}
+
+		PagedResponse<Comment> allComments = cursor != null ? commentService.getAllComments(postId, cursor, size)
+				: mode != null ? commentService.getAllComments(postId, page, size, PageMode.from(mode))
+				: commentService.getAllComments(postId, page, size);
 
 		return new ResponseEntity< >(allComments, HttpStatus.OK);
 	}
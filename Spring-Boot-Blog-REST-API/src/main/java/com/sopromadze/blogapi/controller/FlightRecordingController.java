@@ -0,0 +1,39 @@
+package com.sopromadze.blogapi.controller;
+
+import com.sopromadze.blogapi.payload.FlightRecording;
+import com.sopromadze.blogapi.perf.jfr.FlightRecordings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+public class FlightRecordingController {
+	private final FlightRecordings flightRecordings;
+
+	@GetMapping
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<FlightRecording> getRecording() {
+		return new ResponseEntity<>(flightRecordings.status(), HttpStatus.OK);
+	}
+
+	@PostMapping("/start")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<FlightRecording> startRecording(
+			@RequestParam(value = "durationInSeconds", required = false) Long durationInSeconds) {
+		return new ResponseEntity<>(flightRecordings.start(durationInSeconds), HttpStatus.CREATED);
+	}
+
+	@PostMapping("/stop")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<FlightRecording> stopRecording() {
+		return new ResponseEntity<>(flightRecordings.stop(), HttpStatus.OK);
+	}
+}
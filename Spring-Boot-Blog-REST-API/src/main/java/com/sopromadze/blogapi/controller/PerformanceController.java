@@ -0,0 +1,31 @@
+package com.sopromadze.blogapi.controller;
+
+import com.sopromadze.blogapi.payload.PerformanceWindow;
+import com.sopromadze.blogapi.perf.MethodMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/perf")
+@RequiredArgsConstructor
+public class PerformanceController {
+	private final MethodMetrics methodMetrics;
+
+	@GetMapping
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<PerformanceWindow> getWindow() {
+		return new ResponseEntity<>(methodMetrics.window(), HttpStatus.OK);
+	}
+
+	@PostMapping("/reset")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<PerformanceWindow> reset() {
+		return new ResponseEntity<>(methodMetrics.reset(), HttpStatus.OK);
+	}
+}
@@ -1,6 +1,8 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PhotoRequest;
 import com.sopromadze.blogapi.payload.PhotoResponse;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -36,8 +39,12 @@ public class PhotoController {
 	@GetMapping
 	public PagedResponse<PhotoResponse> getAllPhotos(
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-		return photoService.getAllPhotos(page, size);
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode) {
+		return cursor != null ? photoService.getAllPhotos(cursor, size)
+				: mode != null ? photoService.getAllPhotos(page, size, PageMode.from(mode))
+				: photoService.getAllPhotos(page, size);
 	}
 
 	@PostMapping
@@ -50,7 +57,10 @@ public class PhotoController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<PhotoResponse> getPhoto(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<PhotoResponse> getPhoto(@PathVariable(name = "id") Long id, WebRequest request) {
+		if (ResourceVersion.notModified(request, photoService.getPhotoVersion(id))) {
+			return null;
+		}
 		PhotoResponse photoResponse = photoService.getPhoto(id);
 
 		return new ResponseEntity< >(photoResponse, HttpStatus.OK);
@@ -1,10 +1,15 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.model.Post;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PostRequest;
 import com.sopromadze.blogapi.payload.PostResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
+import com.sopromadze.blogapi.payload.TagMatch;
 import com.sopromadze.blogapi.security.CurrentUser;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.PostService;
@@ -23,8 +28,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -34,33 +41,60 @@ public class PostController {
 
 	private final PostService postService;
 
+	private final ResponseCache responseCache;
+
 	@GetMapping
-	public ResponseEntity<PagedResponse<Post>> getAllPosts(
+	public ResponseEntity<PagedResponse<PostSummary>> getAllPosts(
 			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-		PagedResponse<Post> response = postService.getAllPosts(page, size);
-
-		return new ResponseEntity<>(response, HttpStatus.OK);
+			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "mode", required = false) String mode,
+			@RequestParam(value = "tags", required = false) List<String> tags,
+			@RequestParam(value = "exclude", required = false) List<String> exclude, WebRequest request) {
+		if (request.checkNotModified(responseCache.etag(ResponseCache.POSTS))) {
+			return null;
+		}
+		PagedResponse<Post> response = tags != null || exclude != null
+				? postService.getPostsByTags(tags, TagMatch.from(mode), exclude, page, size)
+				: cursor != null ? postService.getAllPosts(cursor, size)
+				: mode != null ? postService.getAllPosts(page, size, PageMode.from(mode))
+				: postService.getAllPosts(page, size);
+
+		return new ResponseEntity<>(postService.summarize(response), HttpStatus.OK);
 	}
 
 	@GetMapping("/category/{id}")
-	public ResponseEntity<PagedResponse<Post>> getPostsByCategory(
+	public ResponseEntity<PagedResponse<PostSummary>> getPostsByCategory(
 			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
 			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
-			@PathVariable(name = "id") Long id) {
-		PagedResponse<Post> response = postService.getPostsByCategory(id, page, size);
-
-		return new ResponseEntity< >(response, HttpStatus.OK);
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "mode", required = false) String mode,
+			@PathVariable(name = "id") Long id, WebRequest request) {
+		if (request.checkNotModified(responseCache.etag(ResponseCache.POSTS))) {
+			return null;
+		}
+		PagedResponse<Post> response = cursor != null ? postService.getPostsByCategory(id, cursor, size)
+				: mode != null ? postService.getPostsByCategory(id, page, size, PageMode.from(mode))
+				: postService.getPostsByCategory(id, page, size);
+
+		return new ResponseEntity< >(postService.summarize(response), HttpStatus.OK);
 	}
 
 	@GetMapping("/tag/{id}")
-	public ResponseEntity<PagedResponse<Post>> getPostsByTag(
+	public ResponseEntity<PagedResponse<PostSummary>> getPostsByTag(
 			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
 			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
-			@PathVariable(name = "id") Long id) {
-		PagedResponse<Post> response = postService.getPostsByTag(id, page, size);
-
-		return new ResponseEntity< >(response, HttpStatus.OK);
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "mode", required = false) String mode,
+			@PathVariable(name = "id") Long id, WebRequest request) {
+		if (request.checkNotModified(responseCache.etag(ResponseCache.POSTS))) {
+			return null;
+		}
+		PagedResponse<Post> response = cursor != null ? postService.getPostsByTag(id, cursor, size)
+				: mode != null ? postService.getPostsByTag(id, page, size, PageMode.from(mode))
+				: postService.getPostsByTag(id, page, size);
+
+		return new ResponseEntity< >(postService.summarize(response), HttpStatus.OK);
 	}
 
 	@PostMapping
@@ -73,7 +107,10 @@ public class PostController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<Post> getPost(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<Post> getPost(@PathVariable(name = "id") Long id, WebRequest request) {
+		if (ResourceVersion.notModified(request, postService.getPostVersion(id))) {
+			return null;
+		}
 		Post post = postService.getPost(id);
 
 		return new ResponseEntity< >(post, HttpStatus.OK);
@@ -0,0 +1,31 @@
+package com.sopromadze.blogapi.controller;
+
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.SearchResult;
+import com.sopromadze.blogapi.service.SearchService;
+import com.sopromadze.blogapi.utils.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+	private final SearchService searchService;
+
+	@GetMapping
+	public ResponseEntity<PagedResponse<SearchResult>> search(
+			@RequestParam(value = "q") String query,
+			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
+			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
+		PagedResponse<SearchResult> response = searchService.search(query, page, size);
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+}
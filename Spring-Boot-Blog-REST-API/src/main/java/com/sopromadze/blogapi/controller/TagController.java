@@ -1,8 +1,13 @@
 package com.sopromadze.blogapi.controller;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.model.Tag;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.security.CurrentUser;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.TagService;
@@ -21,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -32,12 +38,24 @@ public class TagController {
 
 	private final TagService tagService;
 
+	private final ResponseCache responseCache;
+
+	private final ReferenceData referenceData;
+
 	@GetMapping
 	public ResponseEntity<PagedResponse<Tag>> getAllTags(
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-
-		PagedResponse<Tag> response = tagService.getAllTags(page, size);
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode, WebRequest request) {
+		Snapshot<Tag> tags = referenceData.tags();
+		if (request.checkNotModified(tags != null ? tags.getETag() : responseCache.etag(ResponseCache.TAGS))) {
+			return null;
+		}
+
+		PagedResponse<Tag> response = cursor != null ? tagService.getAllTags(cursor, size)
+				: mode != null ? tagService.getAllTags(page, size, PageMode.from(mode))
+				: tagService.getAllTags(page, size);
 
 		return new ResponseEntity< >(response, HttpStatus.OK);
 	}
@@ -51,7 +69,10 @@ public class TagController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<Tag> getTag(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<Tag> getTag(@PathVariable(name = "id") Long id, WebRequest request) {
+		if (ResourceVersion.notModified(request, tagService.getTagVersion(id))) {
+			return null;
+		}
 		Tag tag = tagService.getTag(id);
 
 		return new ResponseEntity< >(tag, HttpStatus.OK);
@@ -2,6 +2,7 @@ package com.sopromadze.blogapi.controller;
 
 import com.sopromadze.blogapi.model.Todo;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.CurrentUser;
 import com.sopromadze.blogapi.security.UserPrincipal;
@@ -37,9 +38,13 @@ public class TodoController {
 	public ResponseEntity<PagedResponse<Todo>> getAllTodos(
 			@CurrentUser UserPrincipal currentUser,
 			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode) {
 
-		PagedResponse<Todo> response = todoService.getAllTodos(currentUser, page, size);
+		PagedResponse<Todo> response = cursor != null ? todoService.getAllTodos(currentUser, cursor, size)
+				: mode != null ? todoService.getAllTodos(currentUser, page, size, PageMode.from(mode))
+				: todoService.getAllTodos(currentUser, page, size);
 
 		return new ResponseEntity< >(response, HttpStatus.OK);
 	}
@@ -5,7 +5,9 @@ import com.sopromadze.blogapi.model.Post;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.InfoRequest;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
 import com.sopromadze.blogapi.payload.UserIdentityAvailability;
 import com.sopromadze.blogapi.payload.UserProfile;
 import com.sopromadze.blogapi.payload.UserSummary;
@@ -74,20 +76,28 @@ public class UserController {
 	}
 
 	@GetMapping("/{username}/posts")
-	public ResponseEntity<PagedResponse<Post>> getPostsCreatedBy(@PathVariable(value = "username") String username,
+	public ResponseEntity<PagedResponse<PostSummary>> getPostsCreatedBy(@PathVariable(value = "username") String username,
 			@RequestParam(value = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
-		PagedResponse<Post> response = postService.getPostsByCreatedBy(username, page, size);
-
-		return new ResponseEntity<  >(response, HttpStatus.OK);
+			@RequestParam(value = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "mode", required = false) String mode) {
+		PagedResponse<Post> response = cursor != null ? postService.getPostsByCreatedBy(username, cursor, size)
+				: mode != null ? postService.getPostsByCreatedBy(username, page, size, PageMode.from(mode))
+				: postService.getPostsByCreatedBy(username, page, size);
+
+		return new ResponseEntity<  >(postService.summarize(response), HttpStatus.OK);
 	}
 
 	@GetMapping("/{username}/albums")
 	public ResponseEntity<PagedResponse<Album>> getUserAlbums(@PathVariable(name = "username") String username,
 			@RequestParam(name = "page", required = false, defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) Integer page,
-			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size) {
+			@RequestParam(name = "size", required = false, defaultValue = AppConstants.DEFAULT_PAGE_SIZE) Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "mode", required = false) String mode) {
 
-		PagedResponse<Album> response = albumService.getUserAlbums(username, page, size);
+		PagedResponse<Album> response = cursor != null ? albumService.getUserAlbums(username, cursor, size)
+				: mode != null ? albumService.getUserAlbums(username, page, size, PageMode.from(mode))
+				: albumService.getUserAlbums(username, page, size);
 
 		return new ResponseEntity<  >(response, HttpStatus.OK);
 	}
@@ -0,0 +1,29 @@
+package com.sopromadze.blogapi.datasource;
+
+/**
+ * Keeps every read of the current thread on the primary, for callers that keep what they read after the request,
+ * such as the response cache, and so must not keep a replica's older copy once a write has evicted theirs.
+ */
+public final class PrimaryReads {
+	private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+	private PrimaryReads() {
+	}
+
+	public static boolean isRequired() {
+		return Boolean.TRUE.equals(REQUIRED.get());
+	}
+
+	/**
+	 * @return whether the current thread required the primary before
+	 */
+	public static boolean setRequired(boolean required) {
+		boolean previous = isRequired();
+		if (required) {
+			REQUIRED.set(Boolean.TRUE);
+		} else {
+			REQUIRED.remove();
+		}
+		return previous;
+	}
+}
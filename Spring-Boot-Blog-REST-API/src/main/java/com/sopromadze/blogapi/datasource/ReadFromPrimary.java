@@ -0,0 +1,17 @@
+package com.sopromadze.blogapi.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a read-only service method on the primary. For reads that check an in-memory index against the database,
+ * where a replica that has not caught up yet would make rows just written look missing.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
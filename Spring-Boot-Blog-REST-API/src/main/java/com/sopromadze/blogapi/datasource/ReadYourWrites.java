@@ -0,0 +1,41 @@
+package com.sopromadze.blogapi.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users who wrote to the primary in the last {@code app.replicas.readYourWritesInMs}, whose reads are kept on the
+ * primary so they see their own writes however far behind the replicas are. Kept per instance.
+ */
+@Component
+public class ReadYourWrites {
+
+	@Value(value = "${app.replicas.readYourWritesInMs:5000}")
+	private long windowInMs;
+
+	@Value(value = "${app.replicas.readYourWritesMaxSize:100000}")
+	private long maxSize;
+
+	private Cache<Long, Boolean> writers;
+
+	@PostConstruct
+	void init() {
+		writers = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(windowInMs, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	public void wrote(Long userId) {
+		writers.put(userId, Boolean.TRUE);
+	}
+
+	public boolean isPinned(Long userId) {
+		return writers.getIfPresent(userId) != null;
+	}
+}
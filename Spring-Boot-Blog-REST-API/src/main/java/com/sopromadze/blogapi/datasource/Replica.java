@@ -0,0 +1,46 @@
+package com.sopromadze.blogapi.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * A replica pool and what the last health check found: whether it answered, and how far its heartbeat was behind
+ * the primary's.
+ */
+final class Replica {
+	private final String name;
+
+	private final DataSource dataSource;
+
+	private volatile boolean available;
+
+	private volatile long lagInMs = -1;
+
+	Replica(String name, DataSource dataSource) {
+		this.name = name;
+		this.dataSource = dataSource;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	DataSource getDataSource() {
+		return dataSource;
+	}
+
+	boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * @return the lag seen by the last health check in milliseconds, or -1 if the replica did not answer
+	 */
+	long getLagInMs() {
+		return lagInMs;
+	}
+
+	void checked(boolean available, long lagInMs) {
+		this.available = available;
+		this.lagInMs = lagInMs;
+	}
+}
@@ -0,0 +1,44 @@
+package com.sopromadze.blogapi.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Marks the read-only service transactions that may read from a replica. Runs before the transaction starts, and
+ * only for transactions that do not join an outer read-write one, so a read inside a write sees that write. Methods
+ * marked {@link ReadFromPrimary}, and every read while {@link PrimaryReads} are required, stay on the primary.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+	@Around("@annotation(org.springframework.transaction.annotation.Transactional) "
+			+ "&& within(com.sopromadze.blogapi.service.impl..*)")
+	public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+		Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+				joinPoint.getTarget().getClass());
+		Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+		boolean replicaRead = transactional != null && transactional.readOnly() && !PrimaryReads.isRequired()
+				&& !AnnotatedElementUtils.hasAnnotation(method, ReadFromPrimary.class)
+				&& (ReplicaRoutingDataSource.isReplicaRead()
+						|| !TransactionSynchronizationManager.isActualTransactionActive());
+		boolean previous = ReplicaRoutingDataSource.setReplicaRead(replicaRead);
+		try {
+			return joinPoint.proceed();
+		} finally {
+			ReplicaRoutingDataSource.setReplicaRead(previous);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.sopromadze.blogapi.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+/**
+ * Puts the session of every transaction started as a replica read in {@link CacheMode#GET}, so it reads the
+ * second-level and query caches but never fills them. Entities have no version to tell a replica's older copy from
+ * the primary's, and one put in the cache right after a write would otherwise be served to every later read,
+ * primary reads included, until it expires. The previous mode is restored when the transaction ends, as the session
+ * may outlive it.
+ */
+final class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+	@Override
+	public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+			throws SQLException {
+		Object transactionData = super.beginTransaction(entityManager, definition);
+		if (!ReplicaRoutingDataSource.isReplicaRead()) {
+			return transactionData;
+		}
+		Session session = entityManager.unwrap(Session.class);
+		CacheMode previous = session.getCacheMode();
+		session.setCacheMode(CacheMode.GET);
+		return new ReplicaReadData(transactionData, session, previous);
+	}
+
+	@Override
+	public void cleanupTransaction(Object transactionData) {
+		if (transactionData instanceof ReplicaReadData) {
+			ReplicaReadData replicaRead = (ReplicaReadData) transactionData;
+			replicaRead.session.setCacheMode(replicaRead.previous);
+			super.cleanupTransaction(replicaRead.transactionData);
+		} else {
+			super.cleanupTransaction(transactionData);
+		}
+	}
+
+	private static final class ReplicaReadData {
+		private final Object transactionData;
+
+		private final Session session;
+
+		private final CacheMode previous;
+
+		private ReplicaReadData(Object transactionData, Session session, CacheMode previous) {
+			this.transactionData = transactionData;
+			this.session = session;
+			this.previous = previous;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package com.sopromadze.blogapi.datasource;
+
+import com.sopromadze.blogapi.security.UserPrincipal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only service transactions ({@link ReplicaReadAspect}) and primary
+ * connections to everything else. Replicas are taken round robin among those the last health check found answering
+ * and at most {@code app.replicas.maxLagInMs} behind; a replica that fails to give a connection is left out until the
+ * next check. Users who committed a write in the last {@code app.replicas.readYourWritesInMs} read from the primary.
+ *
+ * <p>Lag is measured with a heartbeat: every check writes the current time to {@code replica_heartbeat} on the
+ * primary and reads it back from each replica, so it is only known to within one check interval.
+ */
+final class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+	private static final String UPDATE_HEARTBEAT = "update replica_heartbeat set beat = ? where id = 1";
+
+	private static final String INSERT_HEARTBEAT = "insert into replica_heartbeat (id, beat) values (1, ?)";
+
+	private static final String SELECT_HEARTBEAT = "select beat from replica_heartbeat where id = 1";
+
+	private static final String[] WRITES = { "insert", "update", "delete", "merge", "replace" };
+
+	private final DataSource primary;
+
+	private final List<Replica> replicas;
+
+	private final ReadYourWrites readYourWrites;
+
+	private final long maxLagInMs;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private ScheduledExecutorService checker;
+
+	private boolean heartbeatFailing;
+
+	ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReadYourWrites readYourWrites,
+			long maxLagInMs) {
+		this.primary = primary;
+		this.replicas = replicas;
+		this.readYourWrites = readYourWrites;
+		this.maxLagInMs = maxLagInMs;
+	}
+
+	static boolean isReplicaRead() {
+		return Boolean.TRUE.equals(REPLICA_READ.get());
+	}
+
+	/**
+	 * @return whether the current thread read from replicas before
+	 */
+	static boolean setReplicaRead(boolean replicaRead) {
+		boolean previous = isReplicaRead();
+		if (replicaRead) {
+			REPLICA_READ.set(Boolean.TRUE);
+		} else {
+			REPLICA_READ.remove();
+		}
+		return previous;
+	}
+
+	void start(long checkIntervalInMs) {
+		checker = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "replica-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checker.scheduleWithFixedDelay(this::check, 0, checkIntervalInMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Replica replica : replicas) {
+			Gauge.builder("blogapi.replica.lag", replica, Replica::getLagInMs)
+					.description("Replica heartbeat lag seen by the last health check, -1 when it did not answer")
+					.baseUnit("milliseconds")
+					.tag("replica", replica.getName())
+					.register(registry);
+			Gauge.builder("blogapi.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+					.description("Whether reads are sent to the replica")
+					.tag("replica", replica.getName())
+					.register(registry);
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (isReplicaRead()) {
+			Long userId = currentUserId();
+			if (userId == null || !readYourWrites.isPinned(userId)) {
+				Connection connection = replicaConnection();
+				if (connection != null) {
+					return connection;
+				}
+			}
+		}
+		Connection connection = primary.getConnection();
+		return (Connection) Proxy.newProxyInstance(ReplicaRoutingDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new PrimaryConnection(connection));
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return primary.getConnection(username, password);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || primary.isWrapperFor(iface);
+	}
+
+	private Connection replicaConnection() {
+		int size = replicas.size();
+		int start = Math.floorMod(next.getAndIncrement(), size);
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (!replica.isAvailable()) {
+				continue;
+			}
+			try {
+				return replica.getDataSource().getConnection();
+			} catch (SQLException e) {
+				replica.checked(false, -1);
+				LOGGER.warn("Replica {} gave no connection, leaving it out until the next check", replica.getName(), e);
+			}
+		}
+		return null;
+	}
+
+	void check() {
+		long now = System.currentTimeMillis();
+		try {
+			writeHeartbeat(now);
+			heartbeatFailing = false;
+		} catch (SQLException | RuntimeException e) {
+			if (!heartbeatFailing) {
+				LOGGER.warn("Could not write the replica heartbeat", e);
+			}
+			heartbeatFailing = true;
+		}
+		for (Replica replica : replicas) {
+			boolean wasAvailable = replica.isAvailable();
+			try {
+				long lagInMs = readLag(replica, now);
+				replica.checked(lagInMs >= 0 && lagInMs <= maxLagInMs, lagInMs);
+				if (wasAvailable != replica.isAvailable()) {
+					LOGGER.info("Replica {} is {} ms behind, {}", replica.getName(), lagInMs,
+							replica.isAvailable() ? "reading from it" : "reading from the primary instead");
+				}
+			} catch (SQLException | RuntimeException e) {
+				replica.checked(false, -1);
+				if (wasAvailable) {
+					LOGGER.warn("Replica {} did not answer, reading from the primary instead", replica.getName(), e);
+				}
+			}
+		}
+	}
+
+	private void writeHeartbeat(long now) throws SQLException {
+		try (Connection connection = primary.getConnection()) {
+			try (PreparedStatement update = connection.prepareStatement(UPDATE_HEARTBEAT)) {
+				update.setLong(1, now);
+				if (update.executeUpdate() == 0) {
+					try (PreparedStatement insert = connection.prepareStatement(INSERT_HEARTBEAT)) {
+						insert.setLong(1, now);
+						insert.executeUpdate();
+					}
+				}
+			}
+			if (!connection.getAutoCommit()) {
+				connection.commit();
+			}
+		}
+	}
+
+	/**
+	 * @return how far the replica's heartbeat is behind {@code now}, or -1 if no heartbeat reached it yet
+	 */
+	private static long readLag(Replica replica, long now) throws SQLException {
+		try (Connection connection = replica.getDataSource().getConnection();
+				PreparedStatement select = connection.prepareStatement(SELECT_HEARTBEAT);
+				ResultSet resultSet = select.executeQuery()) {
+			return resultSet.next() ? Math.max(0, now - resultSet.getLong(1)) : -1;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (checker != null) {
+			checker.shutdownNow();
+		}
+		for (Replica replica : replicas) {
+			if (replica.getDataSource() instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) replica.getDataSource()).close();
+				} catch (Exception e) {
+					LOGGER.warn("Could not close replica {}", replica.getName(), e);
+				}
+			}
+		}
+	}
+
+	private static Long currentUserId() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		Object principal = authentication == null ? null : authentication.getPrincipal();
+		return principal instanceof UserPrincipal ? ((UserPrincipal) principal).getId() : null;
+	}
+
+	static boolean isWrite(String sql) {
+		int start = 0;
+		while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+			start++;
+		}
+		for (String write : WRITES) {
+			if (sql.regionMatches(true, start, write, 0, write.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Remembers whether a primary connection prepared a write, and pins the current user to the primary once that
+	 * write is committed.
+	 */
+	private final class PrimaryConnection implements InvocationHandler {
+		private final Connection connection;
+
+		private boolean wrote;
+
+		PrimaryConnection(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			Object result;
+			try {
+				result = method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			if ((name.equals("prepareStatement") || name.equals("prepareCall")) && isWrite((String) args[0])) {
+				if (connection.getAutoCommit()) {
+					pin();
+				} else {
+					wrote = true;
+				}
+			} else if (name.equals("commit")) {
+				if (wrote) {
+					pin();
+				}
+				wrote = false;
+			} else if (name.equals("rollback") && args == null) {
+				wrote = false;
+			}
+			return result;
+		}
+
+		private void pin() {
+			Long userId = currentUserId();
+			if (userId != null) {
+				readYourWrites.wrote(userId);
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.sopromadze.blogapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts a {@link ReplicaRoutingDataSource} in front of the {@link DataSource} when {@code app.replicas.urls} lists
+ * replicas, with one read-only pool per replica. Runs before the other post processors, so the slow query log and
+ * statement counts cover replica reads too. The transaction manager then gets a {@link ReplicaReadJpaDialect}, so
+ * replica reads never fill the second-level cache.
+ */
+@Component
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+	private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final List<ReplicaRoutingDataSource> routers = new ArrayList<>();
+
+	@Value(value = "${app.replicas.urls:}")
+	private String[] urls;
+
+	@Value(value = "${app.replicas.username:${spring.datasource.username:}}")
+	private String username;
+
+	@Value(value = "${app.replicas.password:${spring.datasource.password:}}")
+	private String password;
+
+	@Value(value = "${app.replicas.maximumPoolSize:10}")
+	private int maximumPoolSize;
+
+	@Value(value = "${app.replicas.connectionTimeoutInMs:250}")
+	private long connectionTimeoutInMs;
+
+	@Value(value = "${app.replicas.checkIntervalInMs:1000}")
+	private long checkIntervalInMs;
+
+	@Value(value = "${app.replicas.maxLagInMs:2000}")
+	private long maxLagInMs;
+
+	public ReplicaRoutingPostProcessor(ObjectProvider<ReadYourWrites> readYourWrites,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this.readYourWrites = readYourWrites;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (urls.length == 0) {
+			return bean;
+		}
+		if (bean instanceof JpaTransactionManager) {
+			((JpaTransactionManager) bean).setJpaDialect(new ReplicaReadJpaDialect());
+			return bean;
+		}
+		if (!(bean instanceof DataSource)) {
+			return bean;
+		}
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		List<Replica> replicas = new ArrayList<>();
+		for (String url : urls) {
+			String name = "replica-" + (replicas.size() + 1);
+			replicas.add(new Replica(name, pool(name, url.trim(), registry)));
+		}
+		ReplicaRoutingDataSource router = new ReplicaRoutingDataSource((DataSource) bean, replicas,
+				readYourWrites.getObject(), maxLagInMs);
+		if (registry != null) {
+			router.bindTo(registry);
+		}
+		router.start(checkIntervalInMs);
+		routers.add(router);
+		return router;
+	}
+
+	private HikariDataSource pool(String name, String url, MeterRegistry registry) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setPoolName(name);
+		pool.setJdbcUrl(url);
+		pool.setUsername(username);
+		pool.setPassword(password);
+		pool.setReadOnly(true);
+		pool.setMaximumPoolSize(maximumPoolSize);
+		pool.setConnectionTimeout(connectionTimeoutInMs);
+		pool.setInitializationFailTimeout(-1);
+		if (registry != null) {
+			pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+		}
+		return pool;
+	}
+
+	@Override
+	public void destroy() {
+		routers.forEach(ReplicaRoutingDataSource::close);
+	}
+}
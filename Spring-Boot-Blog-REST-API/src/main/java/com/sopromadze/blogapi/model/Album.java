@@ -1,10 +1,13 @@
 package com.sopromadze.blogapi.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.audit.UserDateAudit;
 import com.sopromadze.blogapi.model.user.User;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -27,6 +30,7 @@ import java.util.List;
 @Entity
 @Data
 @Table(name = "albums", uniqueConstraints = { @UniqueConstraint(columnNames = { "title" }) })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ALBUM)
 public class Album extends UserDateAudit {
 	private static final long serialVersionUID = 1L;
 
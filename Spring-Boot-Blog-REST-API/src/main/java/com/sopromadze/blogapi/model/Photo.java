@@ -1,10 +1,13 @@
 package com.sopromadze.blogapi.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.audit.UserDateAudit;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -23,6 +26,7 @@ import javax.validation.constraints.NotBlank;
 @Data
 @NoArgsConstructor
 @Table(name = "photos", uniqueConstraints = { @UniqueConstraint(columnNames = { "title" }) })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PHOTO)
 public class Photo extends UserDateAudit {
 	private static final long serialVersionUID = 1L;
 
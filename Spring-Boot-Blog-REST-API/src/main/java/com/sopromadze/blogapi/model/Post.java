@@ -2,11 +2,15 @@ package com.sopromadze.blogapi.model;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.audit.UserDateAudit;
 import com.sopromadze.blogapi.model.user.User;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -31,6 +35,7 @@ import java.util.List;
 @Data
 @Table(name = "posts", uniqueConstraints = { @UniqueConstraint(columnNames = { "title" }) })
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.POST)
 public class Post extends UserDateAudit {
 	private static final long serialVersionUID = 1L;
 
@@ -50,6 +55,7 @@ public class Post extends UserDateAudit {
 
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "category_id")
+	@JsonIgnoreProperties({ "hibernateLazyInitializer", "posts" })
 	private Category category;
 
 	@JsonIgnore
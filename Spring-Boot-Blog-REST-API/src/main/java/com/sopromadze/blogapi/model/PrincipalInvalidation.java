@@ -0,0 +1,29 @@
+package com.sopromadze.blogapi.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "principal_invalidations")
+public class PrincipalInvalidation {
+
+	@Id
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Column(name = "invalidated_at", nullable = false)
+	private Instant invalidatedAt;
+
+	public PrincipalInvalidation(Long userId, Instant invalidatedAt) {
+		this.userId = userId;
+		this.invalidatedAt = invalidatedAt;
+	}
+}
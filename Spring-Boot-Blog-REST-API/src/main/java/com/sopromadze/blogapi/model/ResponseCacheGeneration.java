@@ -0,0 +1,23 @@
+package com.sopromadze.blogapi.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "response_cache_generations")
+public class ResponseCacheGeneration {
+
+	@Id
+	@Column(name = "stripe")
+	private Integer stripe;
+
+	@Column(name = "generation", nullable = false)
+	private Long generation;
+}
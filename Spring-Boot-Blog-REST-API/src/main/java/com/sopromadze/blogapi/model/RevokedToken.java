@@ -0,0 +1,33 @@
+package com.sopromadze.blogapi.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+	@Id
+	@Column(name = "jti")
+	private String jti;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	@Column(name = "revoked_at", nullable = false)
+	private Instant revokedAt;
+
+	public RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {
+		this.jti = jti;
+		this.expiresAt = expiresAt;
+		this.revokedAt = revokedAt;
+	}
+}
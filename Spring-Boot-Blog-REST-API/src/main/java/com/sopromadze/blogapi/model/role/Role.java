@@ -1,7 +1,11 @@
 package com.sopromadze.blogapi.model.role;
 
+import com.sopromadze.blogapi.cache.CacheRegions;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.NaturalId;
 
 import javax.persistence.Column;
@@ -17,6 +21,8 @@ import javax.persistence.Table;
 @Data
 @NoArgsConstructor
 @Table(name = "roles")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.ROLE)
 public class Role {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
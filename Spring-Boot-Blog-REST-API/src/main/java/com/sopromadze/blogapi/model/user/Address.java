@@ -1,11 +1,14 @@
 package com.sopromadze.blogapi.model.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.audit.UserDateAudit;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -23,6 +26,7 @@ import java.time.Instant;
 @Data
 @NoArgsConstructor
 @Table(name = "address")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
 public class Address extends UserDateAudit {
 	private static final long serialVersionUID = 1L;
 
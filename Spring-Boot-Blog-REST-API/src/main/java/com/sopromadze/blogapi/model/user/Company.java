@@ -1,10 +1,13 @@
 package com.sopromadze.blogapi.model.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.audit.UserDateAudit;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -20,6 +23,7 @@ import java.time.Instant;
 @Data
 @NoArgsConstructor
 @Table(name = "company")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
 public class Company extends UserDateAudit {
 	private static final long serialVersionUID = 1L;
 
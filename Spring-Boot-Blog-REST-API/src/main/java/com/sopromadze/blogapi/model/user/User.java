@@ -2,6 +2,7 @@ package com.sopromadze.blogapi.model.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.model.Album;
 import com.sopromadze.blogapi.model.audit.DateAudit;
 import com.sopromadze.blogapi.model.Comment;
@@ -11,7 +12,10 @@ import com.sopromadze.blogapi.model.Todo;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -40,6 +44,8 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "users", uniqueConstraints = { @UniqueConstraint(columnNames = { "username" }),
 		@UniqueConstraint(columnNames = { "email" }) })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
+@NaturalIdCache(region = CacheRegions.USER_NATURAL_ID)
 public class User extends DateAudit {
 	private static final long serialVersionUID = 1L;
 
@@ -88,6 +94,7 @@ public class User extends DateAudit {
 	private String website;
 
 	@ManyToMany(fetch = FetchType.EAGER)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
 	@JoinTable(name = "user_role", joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"), inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"))
 	private List<Role> roles;
 
@@ -0,0 +1,94 @@
+package com.sopromadze.blogapi.model.user;
+
+import com.sopromadze.blogapi.cache.CacheRegions;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Denormalized profile of a user: the user's own columns, address and company flattened into one row, and how many
+ * posts, albums, todos and comments they have. It is only written by the services' write paths, so a profile is read
+ * with one lookup by username rather than by loading the user and counting.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "user_profiles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_PROFILE)
+@NaturalIdCache(region = CacheRegions.USER_PROFILE_NATURAL_ID)
+public class UserProfileView {
+
+	@Id
+	@Column(name = "user_id")
+	private Long userId;
+
+	@NaturalId
+	@Column(name = "username", nullable = false)
+	private String username;
+
+	@Column(name = "first_name")
+	private String firstName;
+
+	@Column(name = "last_name")
+	private String lastName;
+
+	@Column(name = "email")
+	private String email;
+
+	@Column(name = "phone")
+	private String phone;
+
+	@Column(name = "website")
+	private String website;
+
+	@Column(name = "joined_at")
+	private Instant joinedAt;
+
+	@Column(name = "street")
+	private String street;
+
+	@Column(name = "suite")
+	private String suite;
+
+	@Column(name = "city")
+	private String city;
+
+	@Column(name = "zipcode")
+	private String zipcode;
+
+	@Column(name = "lat")
+	private String lat;
+
+	@Column(name = "lng")
+	private String lng;
+
+	@Column(name = "company_name")
+	private String companyName;
+
+	@Column(name = "catch_phrase")
+	private String catchPhrase;
+
+	@Column(name = "bs")
+	private String bs;
+
+	@Column(name = "post_count", nullable = false)
+	private long postCount;
+
+	@Column(name = "album_count", nullable = false)
+	private long albumCount;
+
+	@Column(name = "todo_count", nullable = false)
+	private long todoCount;
+
+	@Column(name = "comment_count", nullable = false)
+	private long commentCount;
+}
@@ -0,0 +1,18 @@
+package com.sopromadze.blogapi.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class FlightRecording {
+	private String name;
+	private String state;
+	private Instant startTime;
+	private Long durationInSeconds;
+	private Long maxSizeInBytes;
+	private Long sizeInBytes;
+	private String file;
+}
@@ -0,0 +1,23 @@
+package com.sopromadze.blogapi.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class MethodPerformance {
+	private String layer;
+	private String name;
+	private long calls;
+	private Map<String, Long> errors;
+	private int active;
+	private int peakActive;
+	private double meanMs;
+	private double p50Ms;
+	private double p90Ms;
+	private double p99Ms;
+	private double p999Ms;
+	private double maxMs;
+}
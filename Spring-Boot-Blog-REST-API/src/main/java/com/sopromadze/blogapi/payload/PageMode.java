@@ -0,0 +1,19 @@
+package com.sopromadze.blogapi.payload;
+
+import com.sopromadze.blogapi.exception.BlogapiException;
+import org.springframework.http.HttpStatus;
+
+public enum PageMode {
+	PAGE,
+	SLICE,
+	APPROXIMATE;
+
+	public static PageMode from(String mode) {
+		for (PageMode pageMode : values()) {
+			if (pageMode.name().equalsIgnoreCase(mode)) {
+				return pageMode;
+			}
+		}
+		throw new BlogapiException(HttpStatus.BAD_REQUEST, "Unknown page mode: " + mode);
+	}
+}
@@ -14,6 +14,7 @@ public class PagedResponse<T> {
 	private long totalElements;
 	private int totalPages;
 	private boolean last;
+	private String nextCursor;
 
 	public PagedResponse() {
 
@@ -28,6 +29,11 @@ public class PagedResponse<T> {
 		this.last = last;
 	}
 
+	public PagedResponse(List<T> content, int size, boolean last, String nextCursor) {
+		this(content, 0, size, -1, -1, last);
+		this.nextCursor = nextCursor;
+	}
+
 	public List<T> getContent() {
 		return content == null ? null : new ArrayList<>(content);
 	}
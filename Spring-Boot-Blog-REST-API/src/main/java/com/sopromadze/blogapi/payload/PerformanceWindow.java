@@ -0,0 +1,15 @@
+package com.sopromadze.blogapi.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PerformanceWindow {
+	private Instant start;
+	private Instant end;
+	private List<MethodPerformance> methods;
+}
@@ -0,0 +1,35 @@
+package com.sopromadze.blogapi.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class PostSummary {
+	private Long id;
+	private String title;
+	private String body;
+	private Long categoryId;
+	private String category;
+	private List<String> tags;
+	private Long createdBy;
+	private Instant createdAt;
+	private Instant updatedAt;
+
+	public List<String> getTags() {
+		return tags == null ? null : new ArrayList<>(tags);
+	}
+
+	public void setTags(List<String> tags) {
+		if (tags == null) {
+			this.tags = null;
+		} else {
+			this.tags = Collections.unmodifiableList(tags);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package com.sopromadze.blogapi.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class SearchResult {
+	private String type;
+	private Long id;
+	private Long postId;
+	private String title;
+	private String snippet;
+	private double score;
+}
@@ -0,0 +1,21 @@
+package com.sopromadze.blogapi.payload;
+
+import com.sopromadze.blogapi.exception.BlogapiException;
+import org.springframework.http.HttpStatus;
+
+public enum TagMatch {
+	ALL,
+	ANY;
+
+	public static TagMatch from(String mode) {
+		if (mode == null) {
+			return ALL;
+		}
+		for (TagMatch tagMatch : values()) {
+			if (tagMatch.name().equalsIgnoreCase(mode)) {
+				return tagMatch;
+			}
+		}
+		throw new BlogapiException(HttpStatus.BAD_REQUEST, "Unknown tag match mode: " + mode);
+	}
+}
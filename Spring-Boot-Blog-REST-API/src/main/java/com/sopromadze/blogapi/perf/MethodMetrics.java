@@ -0,0 +1,229 @@
+package com.sopromadze.blogapi.perf;
+
+import com.sopromadze.blogapi.payload.MethodPerformance;
+import com.sopromadze.blogapi.payload.PerformanceWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, calls, errors by exception type and calls in flight of every controller and service method, recorded by
+ * {@link MethodMetricsAspect}. Everything is published to Micrometer as {@code blogapi.method.latency},
+ * {@code blogapi.method.errors} and {@code blogapi.method.active}, tagged with the layer, class and method.
+ *
+ * <p>Each method also keeps an HdrHistogram of the current window, read through {@link #window()} and started over
+ * by {@link #reset()}, which is what {@code /api/admin/perf} reports. Overloads of a method share their metrics.
+ */
+@Component
+public class MethodMetrics {
+	private final MeterRegistry meterRegistry;
+
+	private final ConcurrentMap<Method, Stats> byMethod = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Stats> byName = new ConcurrentHashMap<>();
+
+	private volatile Instant windowStart = Instant.now();
+
+	public MethodMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	Stats stats(Method method, Object target) {
+		Stats stats = byMethod.get(method);
+		if (stats != null) {
+			return stats;
+		}
+		return byMethod.computeIfAbsent(method, key -> {
+			Class<?> targetClass = AopUtils.getTargetClass(target);
+			String layer = targetClass.getPackageName().endsWith(".controller") ? "controller" : "service";
+			String className = targetClass.getSimpleName();
+			return byName.computeIfAbsent(className + '.' + method.getName(),
+					name -> new Stats(layer, className, method.getName(), meterRegistry));
+		});
+	}
+
+	/**
+	 * @return every method called since the window started, the most time consuming first
+	 */
+	public PerformanceWindow window() {
+		return window(false);
+	}
+
+	/**
+	 * Closes the current window and starts a new one.
+	 *
+	 * @return the window that was closed
+	 */
+	public PerformanceWindow reset() {
+		return window(true);
+	}
+
+	private synchronized PerformanceWindow window(boolean reset) {
+		Instant end = Instant.now();
+		List<MethodPerformance> methods = new ArrayList<>();
+		for (Stats stats : byName.values()) {
+			MethodPerformance performance = stats.snapshot(reset);
+			if (performance.getCalls() > 0 || performance.getActive() > 0) {
+				methods.add(performance);
+			}
+		}
+		methods.sort(Comparator.comparingDouble((MethodPerformance method) -> method.getCalls() * method.getMeanMs())
+				.reversed());
+
+		PerformanceWindow window = new PerformanceWindow(windowStart, end, methods);
+		if (reset) {
+			windowStart = end;
+		}
+		return window;
+	}
+
+	static final class Stats {
+		private static final double NANOS_PER_MS = 1_000_000.0;
+
+		private final String layer;
+
+		private final boolean service;
+
+		private final String className;
+
+		private final String methodName;
+
+		private final MeterRegistry meterRegistry;
+
+		private final Timer timer;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private final AtomicInteger peakActive = new AtomicInteger();
+
+		private final Recorder recorder = new Recorder(3);
+
+		private final ConcurrentMap<Class<?>, Errors> errors = new ConcurrentHashMap<>();
+
+		private final Histogram window = new Histogram(3);
+
+		private Histogram interval;
+
+		Stats(String layer, String className, String methodName, MeterRegistry meterRegistry) {
+			this.layer = layer;
+			this.service = "service".equals(layer);
+			this.className = className;
+			this.methodName = methodName;
+			this.meterRegistry = meterRegistry;
+			this.timer = Timer.builder("blogapi.method.latency")
+					.tags("layer", layer, "class", className, "method", methodName)
+					.register(meterRegistry);
+			Gauge.builder("blogapi.method.active", active, AtomicInteger::get)
+					.description("Calls in flight")
+					.tags("layer", layer, "class", className, "method", methodName)
+					.register(meterRegistry);
+		}
+
+		boolean isService() {
+			return service;
+		}
+
+		String getClassName() {
+			return className;
+		}
+
+		String getMethodName() {
+			return methodName;
+		}
+
+		long enter() {
+			int now = active.incrementAndGet();
+			if (now > peakActive.get()) {
+				peakActive.accumulateAndGet(now, Math::max);
+			}
+			return System.nanoTime();
+		}
+
+		void exit(long start, Throwable failure) {
+			long elapsed = System.nanoTime() - start;
+			active.decrementAndGet();
+			recorder.recordValue(elapsed);
+			timer.record(elapsed, TimeUnit.NANOSECONDS);
+			if (failure != null) {
+				Errors count = errors.get(failure.getClass());
+				if (count == null) {
+					count = errors.computeIfAbsent(failure.getClass(), this::errors);
+				}
+				count.increment();
+			}
+		}
+
+		private Errors errors(Class<?> type) {
+			return new Errors(Counter.builder("blogapi.method.errors")
+					.tags("layer", layer, "class", className, "method", methodName, "exception", type.getSimpleName())
+					.register(meterRegistry));
+		}
+
+		MethodPerformance snapshot(boolean reset) {
+			interval = recorder.getIntervalHistogram(interval);
+			window.add(interval);
+
+			MethodPerformance performance = new MethodPerformance();
+			performance.setLayer(layer);
+			performance.setName(className + '.' + methodName);
+			performance.setCalls(window.getTotalCount());
+			performance.setActive(active.get());
+			performance.setPeakActive(peakActive.get());
+			if (window.getTotalCount() > 0) {
+				performance.setMeanMs(window.getMean() / NANOS_PER_MS);
+				performance.setP50Ms(window.getValueAtPercentile(50) / NANOS_PER_MS);
+				performance.setP90Ms(window.getValueAtPercentile(90) / NANOS_PER_MS);
+				performance.setP99Ms(window.getValueAtPercentile(99) / NANOS_PER_MS);
+				performance.setP999Ms(window.getValueAtPercentile(99.9) / NANOS_PER_MS);
+				performance.setMaxMs(window.getMaxValue() / NANOS_PER_MS);
+			}
+			Map<String, Long> errorsByType = new TreeMap<>();
+			for (Map.Entry<Class<?>, Errors> entry : errors.entrySet()) {
+				long count = reset ? entry.getValue().window.sumThenReset() : entry.getValue().window.sum();
+				if (count > 0) {
+					errorsByType.merge(entry.getKey().getSimpleName(), count, Long::sum);
+				}
+			}
+			performance.setErrors(errorsByType);
+
+			if (reset) {
+				window.reset();
+				peakActive.set(active.get());
+			}
+			return performance;
+		}
+	}
+
+	private static final class Errors {
+		private final Counter counter;
+
+		private final LongAdder window = new LongAdder();
+
+		Errors(Counter counter) {
+			this.counter = counter;
+		}
+
+		void increment() {
+			counter.increment();
+			window.increment();
+		}
+	}
+}
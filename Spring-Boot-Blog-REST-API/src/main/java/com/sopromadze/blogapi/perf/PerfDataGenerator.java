@@ -0,0 +1,319 @@
+package com.sopromadze.blogapi.perf;
+
+import com.sopromadze.blogapi.service.impl.UserProfileUpdater;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Fills an empty database with synthetic users, categories, tags, posts, comments, albums, photos and todos in the
+ * volumes of {@code app.perf.*}, before the application starts serving. The data depends only on
+ * {@code app.perf.seed}: authors, categories, tags, commented posts and photo albums are drawn with
+ * {@link SkewedIds}, so a few rows are much more popular than the rest, as in production. Every user is
+ * {@code user<id>} with the password {@link #PASSWORD}, user 1 is also an admin, and tag names follow
+ * {@link #tagName}, so that a load driver can address rows without reading them first.
+ *
+ * <p>Rows are written with batched JDBC rather than through the repositories, and get their ids from the tables, so
+ * they must start out empty; the generator does nothing if there are users already.
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class PerfDataGenerator implements ApplicationRunner {
+	public static final String PASSWORD = "password";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+	private static final Instant END = Instant.parse("2021-12-31T00:00:00Z");
+
+	private static final Duration SPAN = Duration.ofDays(3 * 365L);
+
+	private static final long ROLE_ADMIN = 1;
+
+	private static final long ROLE_USER = 2;
+
+	private static final String[] FIRST_NAMES = { "Leanne", "Ervin", "Clementine", "Patricia", "Chelsey", "Dennis",
+			"Kurtis", "Nicholas", "Glenna", "Clementina", "Jesus", "Lucia", "Daniel", "Marta", "Pablo", "Elena" };
+
+	private static final String[] LAST_NAMES = { "Graham", "Howell", "Bauch", "Lebsack", "Dietrich", "Schulist",
+			"Weissnat", "Runolfsdottir", "Reichert", "DuBuque", "Garcia", "Oliva", "Romero", "Navarro", "Molina" };
+
+	static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+			"elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua",
+			"enim", "ad", "minim", "veniam", "quis", "nostrud", "exercitation", "ullamco", "laboris", "nisi", "aliquip",
+			"ex", "ea", "commodo", "consequat", "duis", "aute", "irure", "in", "reprehenderit", "voluptate", "velit",
+			"esse", "cillum", "fugiat", "nulla", "pariatur", "excepteur", "sint", "occaecat", "cupidatat", "non",
+			"proident", "sunt", "culpa", "qui", "officia", "deserunt", "mollit", "anim", "id", "est", "laborum" };
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final UserProfileUpdater userProfileUpdater;
+
+	@Value(value = "${app.perf.generate:true}")
+	private boolean generate;
+
+	@Value(value = "${app.perf.seed:42}")
+	private long seed;
+
+	@Value(value = "${app.perf.skew:1.0}")
+	private double skew;
+
+	@Value(value = "${app.perf.batchSize:1000}")
+	private int batchSize;
+
+	@Value(value = "${app.perf.users:10000}")
+	private int users;
+
+	@Value(value = "${app.perf.categories:50}")
+	private int categories;
+
+	@Value(value = "${app.perf.tags:2000}")
+	private int tags;
+
+	@Value(value = "${app.perf.posts:200000}")
+	private int posts;
+
+	@Value(value = "${app.perf.maxTagsPerPost:5}")
+	private int maxTagsPerPost;
+
+	@Value(value = "${app.perf.comments:1000000}")
+	private int comments;
+
+	@Value(value = "${app.perf.albums:20000}")
+	private int albums;
+
+	@Value(value = "${app.perf.photos:400000}")
+	private int photos;
+
+	@Value(value = "${app.perf.todos:100000}")
+	private int todos;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!generate) {
+			return;
+		}
+		Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+		if (existing != null && existing > 0) {
+			LOGGER.info("Not generating perf data, the database already has {} users", existing);
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		SkewedIds userIds = SkewedIds.of("users", users, skew, seed);
+		SkewedIds categoryIds = SkewedIds.of("categories", categories, skew, seed);
+		SkewedIds tagIds = SkewedIds.of("tags", tags, skew, seed);
+		SkewedIds postIds = SkewedIds.of("posts", posts, skew, seed);
+		SkewedIds albumIds = SkewedIds.of("albums", albums, skew, seed);
+
+		String password = passwordEncoder.encode(PASSWORD);
+		insert("users", "INSERT INTO users (first_name, last_name, username, password, email, created_at, updated_at) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", users, id -> {
+					Timestamp createdAt = createdAt(id, users);
+					return new Object[] { firstName(id), lastName(id), username(id), password, email(id), createdAt,
+							createdAt };
+				});
+		Batch userRoles = new Batch("INSERT INTO user_role (user_id, role_id) VALUES (?, ?)");
+		userRoles.add(1L, ROLE_ADMIN);
+		for (long id = 1; id <= users; id++) {
+			userRoles.add(id, ROLE_USER);
+		}
+		userRoles.flush();
+
+		Random random = random("categories");
+		insert("categories", "INSERT INTO categories (name, created_at, updated_at, created_by, updated_by) "
+				+ "VALUES (?, ?, ?, ?, ?)", categories, id -> {
+					Timestamp createdAt = createdAt(id, categories);
+					return new Object[] { capitalize(words(random, 1, 2)) + ' ' + id, createdAt, createdAt, 1L, 1L };
+				});
+
+		insert("tags", "INSERT INTO tags (name, created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?)",
+				tags, id -> {
+					Timestamp createdAt = createdAt(id, tags);
+					return new Object[] { tagName(id), createdAt, createdAt, 1L, 1L };
+				});
+
+		Random postRandom = random("posts");
+		insert("posts", "INSERT INTO posts (title, body, user_id, category_id, created_at, updated_at, created_by, "
+				+ "updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", posts, id -> {
+					long userId = userIds.next(postRandom);
+					Timestamp createdAt = createdAt(id, posts);
+					return new Object[] { capitalize(words(postRandom, 3, 8)) + " #" + id,
+							paragraph(postRandom, 60, 2000), userId, categoryIds.next(postRandom), createdAt, createdAt,
+							userId, userId };
+				});
+		Random postTagRandom = random("post_tag");
+		Batch postTags = new Batch("INSERT INTO post_tag (post_id, tag_id) VALUES (?, ?)");
+		for (long postId = 1; postId <= posts; postId++) {
+			Set<Long> postTagIds = new LinkedHashSet<>();
+			int count = postTagRandom.nextInt(Math.min(maxTagsPerPost, tags) + 1);
+			while (postTagIds.size() < count) {
+				postTagIds.add(tagIds.next(postTagRandom));
+			}
+			for (Long tagId : postTagIds) {
+				postTags.add(postId, tagId);
+			}
+		}
+		postTags.flush();
+		jdbcTemplate.update("UPDATE tags SET post_count = (SELECT COUNT(*) FROM post_tag WHERE post_tag.tag_id = tags.id)");
+
+		Random commentRandom = random("comments");
+		insert("comments", "INSERT INTO comments (name, email, body, post_id, user_id, created_at, updated_at, "
+				+ "created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", comments, id -> {
+					long postId = postIds.next(commentRandom);
+					long userId = userIds.next(commentRandom);
+					Timestamp createdAt = after(createdAt(postId, posts), commentRandom);
+					return new Object[] { firstName(userId) + ' ' + lastName(userId), email(userId),
+							paragraph(commentRandom, 10, 400), postId, userId, createdAt, createdAt, userId, userId };
+				});
+
+		Random albumRandom = random("albums");
+		insert("albums", "INSERT INTO albums (title, user_id, created_at, updated_at, created_by, updated_by) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", albums, id -> {
+					long userId = userIds.next(albumRandom);
+					Timestamp createdAt = createdAt(id, albums);
+					return new Object[] { capitalize(words(albumRandom, 1, 4)) + " #" + id, userId, createdAt,
+							createdAt, userId, userId };
+				});
+
+		Random photoRandom = random("photos");
+		insert("photos", "INSERT INTO photos (title, url, thumbnail_url, album_id, created_at, updated_at, created_by, "
+				+ "updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", photos, id -> {
+					long albumId = albumIds.next(photoRandom);
+					Timestamp createdAt = after(createdAt(albumId, albums), photoRandom);
+					return new Object[] { capitalize(words(photoRandom, 1, 5)) + " #" + id,
+							"https://via.placeholder.com/600/" + Long.toHexString(id),
+							"https://via.placeholder.com/150/" + Long.toHexString(id), albumId, createdAt, createdAt,
+							1L, 1L };
+				});
+
+		Random todoRandom = random("todos");
+		insert("todos", "INSERT INTO todos (title, completed, user_id, created_at, updated_at, created_by, updated_by) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", todos, id -> {
+					long userId = userIds.next(todoRandom);
+					Timestamp createdAt = createdAt(id, todos);
+					return new Object[] { capitalize(words(todoRandom, 2, 6)) + " #" + id, todoRandom.nextBoolean(),
+							userId, createdAt, createdAt, userId, userId };
+				});
+		userProfileUpdater.buildAll();
+
+		LOGGER.info("Generated perf data in {} ms", System.currentTimeMillis() - start);
+	}
+
+	public static String username(long userId) {
+		return "user" + userId;
+	}
+
+	public static String tagName(long tagId) {
+		return WORDS[(int) (tagId % WORDS.length)] + tagId;
+	}
+
+	private void insert(String table, String sql, int rows, LongFunction<Object[]> row) {
+		long start = System.currentTimeMillis();
+		Batch batch = new Batch(sql);
+		for (long id = 1; id <= rows; id++) {
+			batch.add(row.apply(id));
+		}
+		batch.flush();
+
+		Long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+		if (lastId == null || lastId != rows) {
+			throw new IllegalStateException("Expected the ids of " + table + " to be 1.." + rows + " but the last one is "
+					+ lastId);
+		}
+		LOGGER.info("Generated {} {} in {} ms", rows, table, System.currentTimeMillis() - start);
+	}
+
+	private Random random(String table) {
+		return new Random(seed * 31 + table.hashCode() + 1);
+	}
+
+	private static Timestamp createdAt(long id, int rows) {
+		return Timestamp.from(END.minus(SPAN).plusMillis(SPAN.toMillis() * id / (rows + 1)));
+	}
+
+	private static Timestamp after(Timestamp parentCreatedAt, Random random) {
+		long range = END.toEpochMilli() - parentCreatedAt.getTime();
+		return new Timestamp(parentCreatedAt.getTime() + (long) (range * random.nextDouble()));
+	}
+
+	private static String firstName(long userId) {
+		return FIRST_NAMES[(int) (userId % FIRST_NAMES.length)];
+	}
+
+	private static String lastName(long userId) {
+		return LAST_NAMES[(int) (userId / FIRST_NAMES.length % LAST_NAMES.length)];
+	}
+
+	private static String email(long userId) {
+		return username(userId) + "@example.com";
+	}
+
+	static String words(Random random, int min, int max) {
+		StringBuilder words = new StringBuilder();
+		int count = min + random.nextInt(max - min + 1);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				words.append(' ');
+			}
+			words.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return words.toString();
+	}
+
+	static String paragraph(Random random, int minLength, int maxLength) {
+		int length = minLength + random.nextInt(maxLength - minLength + 1);
+		StringBuilder paragraph = new StringBuilder(length + 16);
+		while (paragraph.length() < length) {
+			paragraph.append(capitalize(words(random, 4, 14))).append(". ");
+		}
+		return paragraph.toString().trim();
+	}
+
+	private static String capitalize(String text) {
+		return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+	}
+
+	private final class Batch {
+		private final String sql;
+
+		private final List<Object[]> rows = new ArrayList<>();
+
+		Batch(String sql) {
+			this.sql = sql;
+		}
+
+		void add(Object... row) {
+			rows.add(row);
+			if (rows.size() >= batchSize) {
+				flush();
+			}
+		}
+
+		void flush() {
+			if (!rows.isEmpty()) {
+				jdbcTemplate.batchUpdate(sql, rows);
+				rows.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.sopromadze.blogapi.perf;
+
+import java.util.Arrays;
+
+/**
+ * Where the time of the current request went, by {@link Phase}, for {@link ServerTimingFilter}. Each thread keeps
+ * one instance whose slots are reset by {@link #start()}, so recording a phase costs a thread local lookup and a
+ * {@link System#nanoTime()} and allocates nothing. Nested calls of a phase, such as a service calling another, only
+ * count once; phases may overlap, so the SQL of {@code loadUserById} counts in both {@code user} and {@code sql}.
+ *
+ * <pre>
+ * RequestTiming.begin(RequestTiming.Phase.JWT);
+ * try {
+ *     ...
+ * } finally {
+ *     RequestTiming.end(RequestTiming.Phase.JWT);
+ * }
+ * </pre>
+ */
+public final class RequestTiming {
+
+	public enum Phase {
+		JWT("jwt"), USER("user"), SERVICE("service"), SQL("sql"), JSON("json");
+
+		private final String metric;
+
+		Phase(String metric) {
+			this.metric = metric;
+		}
+
+		public String getMetric() {
+			return metric;
+		}
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+
+	private static final ThreadLocal<RequestTiming> CURRENT = ThreadLocal.withInitial(RequestTiming::new);
+
+	private final long[] started = new long[PHASES.length];
+
+	private final long[] elapsed = new long[PHASES.length];
+
+	private final int[] depth = new int[PHASES.length];
+
+	private final int[] count = new int[PHASES.length];
+
+	private final StringBuilder text = new StringBuilder(256);
+
+	private boolean active;
+
+	private long requestStart;
+
+	private RequestTiming() {
+	}
+
+	/**
+	 * Starts timing the request of the current thread, discarding what its previous request recorded.
+	 */
+	public static RequestTiming start() {
+		RequestTiming timing = CURRENT.get();
+		Arrays.fill(timing.elapsed, 0);
+		Arrays.fill(timing.depth, 0);
+		Arrays.fill(timing.count, 0);
+		timing.active = true;
+		timing.requestStart = System.nanoTime();
+		return timing;
+	}
+
+	public static void stop() {
+		CURRENT.get().active = false;
+	}
+
+	public static void begin(Phase phase) {
+		RequestTiming timing = CURRENT.get();
+		if (timing.active && timing.depth[phase.ordinal()]++ == 0) {
+			timing.started[phase.ordinal()] = System.nanoTime();
+		}
+	}
+
+	public static void end(Phase phase) {
+		RequestTiming timing = CURRENT.get();
+		int index = phase.ordinal();
+		if (timing.active && timing.depth[index] > 0 && --timing.depth[index] == 0) {
+			timing.elapsed[index] += System.nanoTime() - timing.started[index];
+			timing.count[index]++;
+		}
+	}
+
+	public long getElapsedNanos(Phase phase) {
+		return elapsed[phase.ordinal()];
+	}
+
+	public int getCount(Phase phase) {
+		return count[phase.ordinal()];
+	}
+
+	public long getTotalNanos() {
+		return System.nanoTime() - requestStart;
+	}
+
+	/**
+	 * @return the phases recorded so far and the total, as a {@code Server-Timing} header value
+	 */
+	public String serverTiming() {
+		text.setLength(0);
+		for (Phase phase : PHASES) {
+			if (count[phase.ordinal()] > 0) {
+				appendMillis(text.append(phase.metric).append(";dur="), elapsed[phase.ordinal()]).append(", ");
+			}
+		}
+		return appendMillis(text.append("total;dur="), getTotalNanos()).toString();
+	}
+
+	/**
+	 * @return the phases recorded so far and the total, with the times each phase was entered, as JSON
+	 */
+	public String detail() {
+		text.setLength(0);
+		text.append('{');
+		for (Phase phase : PHASES) {
+			if (count[phase.ordinal()] > 0) {
+				text.append('"').append(phase.metric).append("\":{\"ms\":");
+				appendMillis(text, elapsed[phase.ordinal()])
+						.append(",\"count\":").append(count[phase.ordinal()]).append("},");
+			}
+		}
+		return appendMillis(text.append("\"total\":{\"ms\":"), getTotalNanos()).append("}}").toString();
+	}
+
+	/**
+	 * Appends {@code nanos} as milliseconds with three decimals, without formatting through a {@code double}.
+	 */
+	private static StringBuilder appendMillis(StringBuilder text, long nanos) {
+		long micros = nanos / 1000;
+		long fraction = micros % 1000;
+		text.append(micros / 1000).append('.');
+		if (fraction < 100) {
+			text.append('0');
+		}
+		if (fraction < 10) {
+			text.append('0');
+		}
+		return text.append(fraction);
+	}
+}
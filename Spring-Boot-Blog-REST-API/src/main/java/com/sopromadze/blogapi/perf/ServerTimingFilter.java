@@ -0,0 +1,188 @@
+package com.sopromadze.blogapi.perf;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Times each request with {@link RequestTiming} and returns the breakdown as a {@code Server-Timing} header.
+ * Registered ahead of the security filter chain, so JWT parsing and {@code loadUserById} are included. The body is
+ * timed as {@code json} from the moment it is opened; flushes are held back until the request completes, so the
+ * header covers serialization whenever the body fits in the response buffer, and the phases before it otherwise.
+ *
+ * <p>With {@code app.serverTiming.debug}, a request that sends {@value #DEBUG_HEADER} also gets the breakdown, with
+ * the number of times each phase was entered, as JSON in the {@value #DETAIL_TRAILER} trailer.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+	static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	static final String DEBUG_HEADER = "X-Timing-Debug";
+
+	static final String DETAIL_TRAILER = "X-Timing-Detail";
+
+	private static final ThreadLocal<TimedResponse> RESPONSE = new ThreadLocal<>();
+
+	@Value(value = "${app.serverTiming.enabled:true}")
+	private boolean enabled;
+
+	@Value(value = "${app.serverTiming.debug:false}")
+	private boolean debug;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestTiming timing = RequestTiming.start();
+		String[] detail = null;
+		if (debug && request.getHeader(DEBUG_HEADER) != null && !"HTTP/1.0".equals(request.getProtocol())) {
+			String[] trailer = new String[1];
+			response.setHeader("Trailer", DETAIL_TRAILER);
+			response.setTrailerFields(() -> trailer[0] == null ? Map.of() : Map.of(DETAIL_TRAILER, trailer[0]));
+			detail = trailer;
+		}
+
+		TimedResponse timedResponse = timedResponse(response, timing);
+		try {
+			filterChain.doFilter(request, timedResponse);
+		} finally {
+			RequestTiming.end(RequestTiming.Phase.JSON);
+			if (!response.isCommitted()) {
+				response.setHeader(SERVER_TIMING_HEADER, timing.serverTiming());
+			}
+			if (detail != null) {
+				detail[0] = timing.detail();
+			}
+			RequestTiming.stop();
+			timedResponse.complete();
+		}
+	}
+
+	private static TimedResponse timedResponse(HttpServletResponse response, RequestTiming timing) {
+		TimedResponse timedResponse = RESPONSE.get();
+		if (timedResponse == null) {
+			timedResponse = new TimedResponse(response);
+			RESPONSE.set(timedResponse);
+		}
+		timedResponse.reset(response, timing);
+		return timedResponse;
+	}
+
+	/**
+	 * Starts the {@code json} phase and sets the header with the phases so far when the body is opened, in case it
+	 * is committed before the request completes, and holds back flushes until then. Reused by the requests of a
+	 * thread.
+	 */
+	private static final class TimedResponse extends HttpServletResponseWrapper {
+		private final DeferredFlushOutputStream outputStream = new DeferredFlushOutputStream(this);
+
+		private RequestTiming timing;
+
+		private boolean opened;
+
+		private boolean flushRequested;
+
+		TimedResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		void reset(HttpServletResponse response, RequestTiming timing) {
+			setResponse(response);
+			this.timing = timing;
+			this.opened = false;
+			this.flushRequested = false;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			opened();
+			outputStream.delegate = super.getOutputStream();
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			opened();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() {
+			flushRequested = true;
+		}
+
+		private void opened() {
+			if (!opened) {
+				opened = true;
+				if (!isCommitted()) {
+					setHeader(SERVER_TIMING_HEADER, timing.serverTiming());
+				}
+				RequestTiming.begin(RequestTiming.Phase.JSON);
+			}
+		}
+
+		void complete() throws IOException {
+			if (flushRequested) {
+				getResponse().flushBuffer();
+			}
+		}
+	}
+
+	private static final class DeferredFlushOutputStream extends ServletOutputStream {
+		private final TimedResponse response;
+
+		private ServletOutputStream delegate;
+
+		DeferredFlushOutputStream(TimedResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+		}
+
+		@Override
+		public void flush() {
+			response.flushRequested = true;
+		}
+
+		@Override
+		public void close() {
+			response.flushRequested = true;
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.sopromadze.blogapi.perf;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ids from {@code 1..count} with Zipf-distributed popularity: the k-th most popular id is picked with a
+ * probability proportional to {@code 1 / k^skew}, so {@code skew} 0 is uniform and 1 gives the usual long tail. Which
+ * ids are the popular ones is a shuffle seeded with {@code seed}, so the generator and the load driver agree on them
+ * without sharing any state, and hot rows are spread over the table instead of being the oldest ones.
+ */
+public final class SkewedIds {
+	private final double[] cumulative;
+
+	private final int[] idByRank;
+
+	public SkewedIds(int count, double skew, long seed) {
+		if (count < 1) {
+			throw new IllegalArgumentException("count must be positive: " + count);
+		}
+		cumulative = new double[count];
+		double total = 0;
+		for (int rank = 0; rank < count; rank++) {
+			total += 1 / Math.pow(rank + 1, skew);
+			cumulative[rank] = total;
+		}
+		for (int rank = 0; rank < count; rank++) {
+			cumulative[rank] /= total;
+		}
+
+		idByRank = new int[count];
+		for (int i = 0; i < count; i++) {
+			idByRank[i] = i + 1;
+		}
+		Random random = new Random(seed);
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = idByRank[i];
+			idByRank[i] = idByRank[j];
+			idByRank[j] = swap;
+		}
+	}
+
+	/**
+	 * The ids of {@code table}, with a popularity order derived from {@code seed} and the table name.
+	 */
+	public static SkewedIds of(String table, int count, double skew, long seed) {
+		return new SkewedIds(count, skew, seed * 31 + table.hashCode());
+	}
+
+	public int count() {
+		return idByRank.length;
+	}
+
+	public long next(Random random) {
+		return idByRank[nextRank(random)];
+	}
+
+	/**
+	 * @return a popularity rank, 0 being the most popular, for callers that use the ranks themselves, such as pages
+	 */
+	public int nextRank(Random random) {
+		int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+		return rank >= 0 ? rank : Math.min(-rank - 1, cumulative.length - 1);
+	}
+
+	/**
+	 * @return the id with the given popularity rank, 0 being the most popular
+	 */
+	public long byRank(int rank) {
+		return idByRank[rank];
+	}
+}
@@ -0,0 +1,198 @@
+package com.sopromadze.blogapi.perf;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Wraps a {@link DataSource} so the statements of its connections are timed and handed to {@link SlowQueryLog}. The
+ * parameters bound to a prepared statement are kept until it executes; the rows of a query are only counted when
+ * the query is logged, until its result set is closed.
+ */
+final class SlowQueryDataSource {
+
+	private SlowQueryDataSource() {
+	}
+
+	static DataSource wrap(DataSource dataSource, SlowQueryLog slowQueryLog) {
+		return proxy(DataSource.class, (proxy, method, args) -> {
+			Object result = invoke(dataSource, method, args);
+			return result instanceof Connection ? connection((Connection) result, slowQueryLog) : result;
+		});
+	}
+
+	private static Connection connection(Connection connection, SlowQueryLog slowQueryLog) {
+		return proxy(Connection.class, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof Statement) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+				return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql, slowQueryLog));
+			}
+			return result;
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static final class StatementHandler implements InvocationHandler {
+		private static final Object[] NO_PARAMETERS = new Object[0];
+
+		private final Statement statement;
+
+		private final String sql;
+
+		private final SlowQueryLog slowQueryLog;
+
+		private Object[] parameters = NO_PARAMETERS;
+
+		private int lastParameter;
+
+		private boolean batched;
+
+		private Query openQuery;
+
+		StatementHandler(Statement statement, String sql, SlowQueryLog slowQueryLog) {
+			this.statement = statement;
+			this.sql = sql;
+			this.slowQueryLog = slowQueryLog;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("execute")) {
+				return execute(method, args);
+			}
+			if (name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class) {
+				bind((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+			} else if ("clearParameters".equals(name)) {
+				parameters = NO_PARAMETERS;
+				lastParameter = 0;
+			} else if ("addBatch".equals(name)) {
+				batched = true;
+			} else if ("close".equals(name)) {
+				closeQuery();
+			}
+			return SlowQueryDataSource.invoke(statement, method, args);
+		}
+
+		private void bind(int index, Object value) {
+			if (index >= parameters.length) {
+				parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+			}
+			parameters[index] = value;
+			lastParameter = Math.max(lastParameter, index);
+		}
+
+		private Object execute(Method method, Object[] args) throws Throwable {
+			long start = System.nanoTime();
+			Object result = SlowQueryDataSource.invoke(statement, method, args);
+			long elapsed = System.nanoTime() - start;
+			boolean batch = batched;
+			batched = false;
+			if (!slowQueryLog.isLogged(elapsed)) {
+				return result;
+			}
+
+			boolean plain = args != null && args.length > 0 && args[0] instanceof String;
+			String executed = plain ? (String) args[0] : sql;
+			Object[] bound = plain || batch ? null : Arrays.copyOf(parameters, lastParameter + 1);
+			if (result instanceof ResultSet) {
+				closeQuery();
+				openQuery = new Query(slowQueryLog, executed, bound, elapsed);
+				return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, openQuery));
+			}
+			slowQueryLog.log(executed, bound, elapsed, rows(result));
+			return result;
+		}
+
+		private void closeQuery() {
+			if (openQuery != null) {
+				openQuery.close();
+				openQuery = null;
+			}
+		}
+
+		private static long rows(Object result) {
+			if (result instanceof Number) {
+				return ((Number) result).longValue();
+			}
+			if (result instanceof int[]) {
+				return Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+			}
+			if (result instanceof long[]) {
+				return Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+			}
+			return -1;
+		}
+	}
+
+	private static final class Query {
+		private final SlowQueryLog slowQueryLog;
+
+		private final String sql;
+
+		private final Object[] parameters;
+
+		private final long elapsedNanos;
+
+		private long rows;
+
+		private boolean closed;
+
+		Query(SlowQueryLog slowQueryLog, String sql, Object[] parameters, long elapsedNanos) {
+			this.slowQueryLog = slowQueryLog;
+			this.sql = sql;
+			this.parameters = parameters;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		void close() {
+			if (!closed) {
+				closed = true;
+				slowQueryLog.log(sql, parameters, elapsedNanos, rows);
+			}
+		}
+	}
+
+	private static final class ResultSetHandler implements InvocationHandler {
+		private final ResultSet resultSet;
+
+		private final Query query;
+
+		ResultSetHandler(ResultSet resultSet, Query query) {
+			this.resultSet = resultSet;
+			this.query = query;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = SlowQueryDataSource.invoke(resultSet, method, args);
+			String name = method.getName();
+			if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+				query.rows++;
+			} else if ("close".equals(name)) {
+				query.close();
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.sopromadze.blogapi.perf;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the statements of every {@link DataSource} through {@link SlowQueryLog}, unless
+ * {@code app.slowQueries.enabled} is {@code false}.
+ */
+@Component
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+	@Value(value = "${app.slowQueries.enabled:true}")
+	private boolean enabled;
+
+	public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (enabled && bean instanceof DataSource) {
+			return SlowQueryDataSource.wrap((DataSource) bean, slowQueryLog.getObject());
+		}
+		return bean;
+	}
+}
@@ -0,0 +1,205 @@
+package com.sopromadze.blogapi.perf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logs the statements that took {@code app.slowQueries.thresholdInMs} or longer, and a sampled
+ * {@code app.slowQueries.sampleRate} fraction of the rest, with their bound parameters, the rows they returned or
+ * changed and the application method that ran them. Statements are timed by {@link SlowQueryDataSource}; whether one
+ * is logged is decided as soon as it has executed, so the others pay for nothing but the timing.
+ *
+ * <p>Parameters bound to a {@code password} column are redacted. Entries go to this class' logger, which
+ * {@code logback-spring.xml} sends through a bounded asynchronous appender that drops entries rather than block
+ * when it falls behind.
+ */
+@Component
+public class SlowQueryLog {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private static final String APPLICATION_PACKAGE = "com.sopromadze.blogapi.";
+
+	private static final String SERVICE_PACKAGE = APPLICATION_PACKAGE + "service.";
+
+	private static final String REDACTED_COLUMN = "password";
+
+	private static final Pattern INSERT_COLUMNS = Pattern.compile("^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final int MAX_PARAMETER_LENGTH = 64;
+
+	private final long thresholdNanos;
+
+	private final double sampleRate;
+
+	public SlowQueryLog(@Value(value = "${app.slowQueries.thresholdInMs:100}") long thresholdInMs,
+			@Value(value = "${app.slowQueries.sampleRate:0}") double sampleRate) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdInMs);
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * @return whether a statement that executed in {@code elapsedNanos} is logged
+	 */
+	boolean isLogged(long elapsedNanos) {
+		return isSlow(elapsedNanos) || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+	}
+
+	/**
+	 * Logs a statement {@link #isLogged(long)} accepted.
+	 *
+	 * @param parameters the bound parameters, by index, or {@code null} for a batch or a plain statement
+	 * @param rows the rows returned or changed, or -1 when the driver did not say
+	 */
+	void log(String sql, Object[] parameters, long elapsedNanos, long rows) {
+		if (!LOGGER.isInfoEnabled()) {
+			return;
+		}
+		String message = String.format("%s query %.1f ms, %d rows, %s: %s%s", isSlow(elapsedNanos) ? "Slow" : "Sampled",
+				elapsedNanos / 1e6, rows, origin(), sql, format(sql, parameters));
+		if (isSlow(elapsedNanos)) {
+			LOGGER.warn(message);
+		} else {
+			LOGGER.info(message);
+		}
+	}
+
+	private boolean isSlow(long elapsedNanos) {
+		return elapsedNanos >= thresholdNanos;
+	}
+
+	/**
+	 * The closest service method on the stack, or the closest application method when no service is involved, as
+	 * for lazy loading during serialization. Statements flushed on commit are attributed to the service method whose
+	 * transaction committed, through the frame of its proxy.
+	 */
+	private static String origin() {
+		return StackWalker.getInstance().walk(frames -> {
+			Optional<StackWalker.StackFrame> application = Optional.empty();
+			for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+				String className = frame.getClassName();
+				if (!className.startsWith(APPLICATION_PACKAGE) || isLogging(className)) {
+					continue;
+				}
+				if (className.startsWith(SERVICE_PACKAGE)) {
+					return describe(frame);
+				}
+				if (application.isEmpty()) {
+					application = Optional.of(frame);
+				}
+			}
+			return application.map(SlowQueryLog::describe).orElse("unknown");
+		});
+	}
+
+	private static boolean isLogging(String className) {
+		String topLevel = className.contains("$") ? className.substring(0, className.indexOf('$')) : className;
+		return topLevel.equals(SlowQueryLog.class.getName()) || topLevel.equals(SlowQueryDataSource.class.getName());
+	}
+
+	private static String describe(StackWalker.StackFrame frame) {
+		String className = frame.getClassName();
+		int proxy = className.indexOf("$$");
+		if (proxy >= 0) {
+			return simpleName(className.substring(0, proxy)) + "." + frame.getMethodName();
+		}
+		return simpleName(className) + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+	}
+
+	private static String simpleName(String className) {
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+
+	static String format(String sql, Object[] parameters) {
+		if (parameters == null || parameters.length <= 1) {
+			return "";
+		}
+		Set<Integer> redacted = redactedParameters(sql);
+		StringBuilder formatted = new StringBuilder(" [");
+		for (int index = 1; index < parameters.length; index++) {
+			if (index > 1) {
+				formatted.append(", ");
+			}
+			formatted.append(index).append('=');
+			if (redacted.contains(index)) {
+				formatted.append("<redacted>");
+			} else {
+				formatted.append(format(parameters[index]));
+			}
+		}
+		return formatted.append(']').toString();
+	}
+
+	private static String format(Object parameter) {
+		if (parameter instanceof CharSequence) {
+			String value = parameter.toString();
+			if (value.length() > MAX_PARAMETER_LENGTH) {
+				value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+			}
+			return "'" + value + "'";
+		}
+		if (parameter instanceof byte[]) {
+			return "<" + ((byte[]) parameter).length + " bytes>";
+		}
+		return String.valueOf(parameter);
+	}
+
+	/**
+	 * The indexes of the parameters bound to a password column: its position in the column list of an insert, or
+	 * any {@code password = ?} of an update or a where clause.
+	 */
+	static Set<Integer> redactedParameters(String sql) {
+		if (!sql.toLowerCase(Locale.ROOT).contains(REDACTED_COLUMN)) {
+			return Collections.emptySet();
+		}
+		Set<Integer> redacted = new HashSet<>();
+		Matcher insert = INSERT_COLUMNS.matcher(sql);
+		if (insert.find()) {
+			String[] columns = insert.group(1).split(",");
+			for (int column = 0; column < columns.length; column++) {
+				if (columns[column].trim().equalsIgnoreCase(REDACTED_COLUMN)) {
+					redacted.add(column + 1);
+				}
+			}
+			return redacted;
+		}
+		int index = 0;
+		for (int position = sql.indexOf('?'); position >= 0; position = sql.indexOf('?', position + 1)) {
+			index++;
+			if (isPasswordComparison(sql, position)) {
+				redacted.add(index);
+			}
+		}
+		return redacted;
+	}
+
+	private static boolean isPasswordComparison(String sql, int parameterPosition) {
+		int position = skipWhitespace(sql, parameterPosition - 1);
+		if (position < 0 || sql.charAt(position) != '=') {
+			return false;
+		}
+		int end = skipWhitespace(sql, position - 1) + 1;
+		int start = end - REDACTED_COLUMN.length();
+		return start >= 0 && sql.regionMatches(true, start, REDACTED_COLUMN, 0, REDACTED_COLUMN.length())
+				&& (start == 0 || !Character.isLetterOrDigit(sql.charAt(start - 1)) && sql.charAt(start - 1) != '_');
+	}
+
+	private static int skipWhitespace(String sql, int position) {
+		while (position >= 0 && Character.isWhitespace(sql.charAt(position))) {
+			position--;
+		}
+		return position;
+	}
+}
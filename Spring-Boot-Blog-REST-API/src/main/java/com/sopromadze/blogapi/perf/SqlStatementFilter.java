@@ -0,0 +1,101 @@
+package com.sopromadze.blogapi.perf;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements of each request and their JDBC time, published per endpoint as
+ * {@code blogapi.sql.statements} and {@code blogapi.sql.time}, along with how long the request held pooled
+ * connections as {@code blogapi.jdbc.connection.hold}. A request that runs the same select more than
+ * {@code app.sqlStatements.maxRepeatedSelects} times is logged and counted in {@code blogapi.sql.repeated}, and with
+ * {@code app.sqlStatements.failOnRepeatedSelects} fails, so N+1 regressions break the tests. Requests that do not
+ * reach a controller, such as response cache hits, are not recorded.
+ *
+ * <p>The statements are also left in the {@link SqlStatements#ATTRIBUTE} request attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementFilter extends OncePerRequestFilter {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+	private final MeterRegistry meterRegistry;
+
+	@Value(value = "${app.sqlStatements.maxRepeatedSelects:5}")
+	private int maxRepeatedSelects;
+
+	@Value(value = "${app.sqlStatements.failOnRepeatedSelects:false}")
+	private boolean failOnRepeatedSelects;
+
+	public SqlStatementFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		SqlStatements statements = SqlStatements.start();
+		request.setAttribute(SqlStatements.ATTRIBUTE, statements);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			SqlStatements.stop();
+		}
+
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern == null) {
+			return;
+		}
+		String method = request.getMethod();
+		String uri = pattern.toString();
+		DistributionSummary.builder("blogapi.sql.statements")
+				.description("SQL statements per request")
+				.tags("method", method, "uri", uri)
+				.register(meterRegistry)
+				.record(statements.getCount());
+		Timer.builder("blogapi.sql.time")
+				.description("JDBC execution time per request")
+				.tags("method", method, "uri", uri)
+				.register(meterRegistry)
+				.record(statements.getJdbcTimeNanos(), TimeUnit.NANOSECONDS);
+		if (statements.getConnections() > 0) {
+			Timer.builder("blogapi.jdbc.connection.hold")
+					.description("Time a request held JDBC connections")
+					.tags("method", method, "uri", uri)
+					.register(meterRegistry)
+					.record(statements.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+		}
+
+		Map<String, Integer> repeated = statements.getRepeatedSelects(maxRepeatedSelects);
+		if (!repeated.isEmpty()) {
+			Counter.builder("blogapi.sql.repeated")
+					.description("Requests that ran the same select too many times")
+					.tags("method", method, "uri", uri)
+					.register(meterRegistry)
+					.increment();
+			String message = String.format("%s %s ran %d statements, repeating %s", method, uri, statements.getCount(),
+					repeated);
+			if (failOnRepeatedSelects) {
+				throw new IllegalStateException(message);
+			}
+			LOGGER.warn(message);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.sopromadze.blogapi.perf;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares into the current thread's {@link SqlStatements}, if any, and remembers
+ * the last one for {@link SqlTimingListener}. Registered through {@code hibernate.session_factory.statement_inspector}
+ * in {@code application.yml}.
+ */
+public class SqlStatementInspector implements StatementInspector {
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<String> LAST_PREPARED = new ThreadLocal<>();
+
+	static String lastPrepared() {
+		return LAST_PREPARED.get();
+	}
+
+	@Override
+	public String inspect(String sql) {
+		LAST_PREPARED.set(sql);
+		SqlStatements statements = SqlStatements.current();
+		if (statements != null) {
+			statements.prepared(sql);
+		}
+		return sql;
+	}
+}
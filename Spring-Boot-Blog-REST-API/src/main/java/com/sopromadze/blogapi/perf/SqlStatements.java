@@ -0,0 +1,102 @@
+package com.sopromadze.blogapi.perf;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The SQL statements the current thread ran between {@link #start()} and {@link #stop()}, as seen by
+ * {@link SqlStatementInspector}, and the time spent executing them, as measured by {@link SqlTimingListener}.
+ * Statements are kept as Hibernate prepared them, with {@code ?} for the parameters, so the same select for
+ * different ids counts as one statement repeated: the signature of an N+1. The time the thread's sessions held a
+ * JDBC connection, from checking it out of the pool to giving it back, is added up as well.
+ */
+public final class SqlStatements {
+	public static final String ATTRIBUTE = SqlStatements.class.getName();
+
+	private static final ThreadLocal<SqlStatements> CURRENT = new ThreadLocal<>();
+
+	private final Map<String, Integer> countBySql = new HashMap<>();
+
+	private int count;
+
+	private long jdbcTimeNanos;
+
+	private long executeStart;
+
+	private int connections;
+
+	private long connectionHoldNanos;
+
+	/**
+	 * Starts counting the statements of the current thread, replacing any count in progress.
+	 */
+	public static SqlStatements start() {
+		SqlStatements statements = new SqlStatements();
+		CURRENT.set(statements);
+		return statements;
+	}
+
+	public static void stop() {
+		CURRENT.remove();
+	}
+
+	static SqlStatements current() {
+		return CURRENT.get();
+	}
+
+	void prepared(String sql) {
+		count++;
+		countBySql.merge(sql, 1, Integer::sum);
+	}
+
+	void executeStarted() {
+		executeStart = System.nanoTime();
+	}
+
+	void executeEnded() {
+		if (executeStart != 0) {
+			jdbcTimeNanos += System.nanoTime() - executeStart;
+			executeStart = 0;
+		}
+	}
+
+	void connectionReleased(long heldNanos) {
+		connections++;
+		connectionHoldNanos += heldNanos;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public long getJdbcTimeNanos() {
+		return jdbcTimeNanos;
+	}
+
+	public int getConnections() {
+		return connections;
+	}
+
+	public long getConnectionHoldNanos() {
+		return connectionHoldNanos;
+	}
+
+	/**
+	 * @return the selects run more than {@code maxRepeats} times, with how many times each ran
+	 */
+	public Map<String, Integer> getRepeatedSelects(int maxRepeats) {
+		Map<String, Integer> repeated = new TreeMap<>();
+		for (Map.Entry<String, Integer> entry : countBySql.entrySet()) {
+			if (entry.getValue() > maxRepeats && isSelect(entry.getKey())) {
+				repeated.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return repeated;
+	}
+
+	private static boolean isSelect(String sql) {
+		return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+	}
+}
@@ -0,0 +1,78 @@
+package com.sopromadze.blogapi.perf;
+
+import com.sopromadze.blogapi.perf.jfr.SqlStatementEvent;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time JDBC spends executing statements and batches to the current thread's {@link SqlStatements}, if
+ * any, and to its {@link RequestTiming}, and records each execution as a {@link SqlStatementEvent} for Flight
+ * Recorder. The time the session holds its JDBC connection is added to the {@link SqlStatements} when the connection
+ * is released. Hibernate creates one per session from {@code hibernate.session.events.auto} in
+ * {@code application.yml}.
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+	private static final long serialVersionUID = 1L;
+
+	private transient SqlStatementEvent event;
+
+	private long connectionAcquired;
+
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		connectionAcquired = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcConnectionReleaseEnd() {
+		if (connectionAcquired == 0) {
+			return;
+		}
+		SqlStatements statements = SqlStatements.current();
+		if (statements != null) {
+			statements.connectionReleased(System.nanoTime() - connectionAcquired);
+		}
+		connectionAcquired = 0;
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		started();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		ended(false);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		started();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		ended(true);
+	}
+
+	private void started() {
+		RequestTiming.begin(RequestTiming.Phase.SQL);
+		SqlStatements statements = SqlStatements.current();
+		if (statements != null) {
+			statements.executeStarted();
+		}
+		event = new SqlStatementEvent();
+		event.begin();
+	}
+
+	private void ended(boolean batch) {
+		if (event != null) {
+			event.complete(SqlStatementInspector.lastPrepared(), batch);
+			event = null;
+		}
+		SqlStatements statements = SqlStatements.current();
+		if (statements != null) {
+			statements.executeEnded();
+		}
+		RequestTiming.end(RequestTiming.Phase.SQL);
+	}
+}
@@ -0,0 +1,48 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The authentication of a request that carried a token, recorded by {@code JwtAuthenticationFilter}. Whether the
+ * token's signature check was skipped shows as a {@link CacheAccessEvent} of the {@code verifiedTokens} cache.
+ */
+@Name("com.sopromadze.blogapi.Authentication")
+@Label("Authentication")
+@Category("Blog API")
+@Description("The authentication of a request with a token")
+@StackTrace(false)
+@Threshold("5 ms")
+public class AuthenticationEvent extends Event {
+
+	@Label("User Id")
+	long userId;
+
+	@Label("Principal Cache Hit")
+	@Description("The principal was read from the token instead of loaded from the database")
+	boolean principalCacheHit;
+
+	@Label("Authenticated")
+	boolean authenticated;
+
+	public void authenticated(long userId, boolean principalCacheHit) {
+		this.userId = userId;
+		this.principalCacheHit = principalCacheHit;
+		this.authenticated = true;
+	}
+
+	/**
+	 * Ends the authentication and commits it if it is enabled and over its threshold.
+	 */
+	public void complete() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+}
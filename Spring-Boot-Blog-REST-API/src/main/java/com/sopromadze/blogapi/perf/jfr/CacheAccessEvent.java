@@ -0,0 +1,41 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lookup in one of the application's caches. Off unless a recording enables it, as {@code jfr/blogapi.jfc} does,
+ * since there can be several per request.
+ */
+@Name("com.sopromadze.blogapi.CacheAccess")
+@Label("Cache Access")
+@Category("Blog API")
+@Description("A lookup in an application cache")
+@StackTrace(false)
+@Enabled(false)
+public class CacheAccessEvent extends Event {
+
+	@Label("Cache")
+	String cache;
+
+	@Label("Key")
+	String key;
+
+	@Label("Hit")
+	boolean hit;
+
+	public static void emit(String cache, String key, boolean hit) {
+		CacheAccessEvent event = new CacheAccessEvent();
+		if (event.isEnabled()) {
+			event.cache = cache;
+			event.key = key;
+			event.hit = hit;
+			event.commit();
+		}
+	}
+}
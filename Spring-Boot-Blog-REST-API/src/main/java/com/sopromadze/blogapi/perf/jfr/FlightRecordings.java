@@ -0,0 +1,158 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import com.sopromadze.blogapi.exception.AppException;
+import com.sopromadze.blogapi.exception.BadRequestException;
+import com.sopromadze.blogapi.payload.FlightRecording;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts and stops one bounded Flight Recorder recording at a time, with the JDK's {@code app.jfr.settings}
+ * ({@code default} or {@code profile}) and the application's events as {@code jfr/blogapi.jfc} sets them, so they
+ * can be read alongside the GC, lock and allocation events. A recording is capped at
+ * {@code app.jfr.maxDurationInSeconds} and {@code app.jfr.maxSizeInMb}, and is written to a new file in
+ * {@code app.jfr.directory} when it is stopped or its duration elapses.
+ */
+@Component
+public class FlightRecordings {
+	private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecordings.class);
+
+	private static final String NAME = "blogapi";
+
+	private static final String EVENT_SETTINGS = "jfr/blogapi.jfc";
+
+	private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'blogapi-'yyyyMMdd-HHmmss'.jfr'")
+			.withZone(ZoneOffset.UTC);
+
+	@Value(value = "${app.jfr.settings:profile}")
+	private String settings;
+
+	@Value(value = "${app.jfr.directory:${java.io.tmpdir}/blogapi-jfr}")
+	private String directory;
+
+	@Value(value = "${app.jfr.maxDurationInSeconds:600}")
+	private long maxDurationInSeconds;
+
+	@Value(value = "${app.jfr.maxSizeInMb:100}")
+	private long maxSizeInMb;
+
+	private Recording recording;
+
+	private Path file;
+
+	/**
+	 * Starts a recording of {@code durationInSeconds}, or of the maximum duration if {@code null} or longer.
+	 */
+	public synchronized FlightRecording start(Long durationInSeconds) {
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			throw new BadRequestException("A recording is already running");
+		}
+		if (durationInSeconds != null && durationInSeconds <= 0) {
+			throw new BadRequestException("The duration must be positive");
+		}
+		long duration = durationInSeconds == null ? maxDurationInSeconds
+				: Math.min(durationInSeconds, maxDurationInSeconds);
+
+		Recording started = null;
+		try {
+			Path target = Files.createDirectories(Path.of(directory)).resolve(FILE_NAME.format(Instant.now()));
+			started = new Recording(settings());
+			started.setName(NAME);
+			started.setToDisk(true);
+			started.setMaxSize(maxSizeInMb * 1024 * 1024);
+			started.setDuration(Duration.ofSeconds(duration));
+			started.setDestination(target);
+			started.start();
+
+			if (recording != null) {
+				recording.close();
+			}
+			recording = started;
+			file = target;
+		} catch (IOException | ParseException ex) {
+			if (started != null) {
+				started.close();
+			}
+			throw new AppException("Could not start the recording", ex);
+		}
+		LOGGER.info("Started a flight recording of {} s into {}", duration, file);
+		return status();
+	}
+
+	/**
+	 * Stops the running recording and writes it to its file.
+	 */
+	public synchronized FlightRecording stop() {
+		if (recording == null || recording.getState() != RecordingState.RUNNING) {
+			throw new BadRequestException("No recording is running");
+		}
+		recording.stop();
+		LOGGER.info("Stopped the flight recording into {}", file);
+		return status();
+	}
+
+	/**
+	 * @return the running recording, or the last one, with the size of its file once written
+	 */
+	public synchronized FlightRecording status() {
+		FlightRecording status = new FlightRecording();
+		if (recording == null) {
+			status.setState(RecordingState.NEW.name());
+			return status;
+		}
+		status.setName(recording.getName());
+		status.setState(recording.getState().name());
+		status.setStartTime(recording.getStartTime());
+		status.setDurationInSeconds(recording.getDuration() == null ? null : recording.getDuration().getSeconds());
+		status.setMaxSizeInBytes(recording.getMaxSize());
+		status.setFile(file.toString());
+		if (Files.exists(file)) {
+			try {
+				status.setSizeInBytes(Files.size(file));
+			} catch (IOException ex) {
+				LOGGER.warn("Could not read the size of {}", file, ex);
+			}
+		} else {
+			status.setSizeInBytes(recording.getSize());
+		}
+		return status;
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+	}
+
+	private Map<String, String> settings() throws IOException, ParseException {
+		Map<String, String> combined = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+		try (Reader reader = new InputStreamReader(new ClassPathResource(EVENT_SETTINGS).getInputStream(),
+				StandardCharsets.UTF_8)) {
+			combined.putAll(Configuration.create(reader).getSettings());
+		}
+		return combined;
+	}
+}
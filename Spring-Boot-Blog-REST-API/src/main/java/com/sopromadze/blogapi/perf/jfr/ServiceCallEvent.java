@@ -0,0 +1,57 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A call to a public method of a service implementation, recorded by {@code MethodMetricsAspect}.
+ */
+@Name("com.sopromadze.blogapi.ServiceCall")
+@Label("Service Call")
+@Category("Blog API")
+@Description("A call to a service implementation")
+@StackTrace(false)
+@Threshold("10 ms")
+public class ServiceCallEvent extends Event {
+
+	@Label("Class")
+	String className;
+
+	@Label("Method")
+	String methodName;
+
+	@Label("Entity Id")
+	@Description("The first id or name the method was called with")
+	String entityId;
+
+	@Label("Exception")
+	Class<?> exception;
+
+	/**
+	 * Ends the call and commits it if it is enabled and over its threshold.
+	 */
+	public void complete(String className, String methodName, Object[] arguments, Throwable failure) {
+		end();
+		if (shouldCommit()) {
+			this.className = className;
+			this.methodName = methodName;
+			this.entityId = entityId(arguments);
+			this.exception = failure == null ? null : failure.getClass();
+			commit();
+		}
+	}
+
+	private static String entityId(Object[] arguments) {
+		for (Object argument : arguments) {
+			if (argument instanceof Number || argument instanceof CharSequence) {
+				return argument.toString();
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,40 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The JDBC execution of a statement or batch Hibernate prepared, recorded by {@code SqlTimingListener}. The stack
+ * trace is on so the repository and service that ran it can be found.
+ */
+@Name("com.sopromadze.blogapi.SqlStatement")
+@Label("SQL Statement")
+@Category("Blog API")
+@Description("A statement or batch executed by Hibernate")
+@StackTrace(true)
+@Threshold("10 ms")
+public class SqlStatementEvent extends Event {
+
+	@Label("SQL")
+	String sql;
+
+	@Label("Batch")
+	boolean batch;
+
+	/**
+	 * Ends the execution and commits it if it is enabled and over its threshold.
+	 */
+	public void complete(String sql, boolean batch) {
+		end();
+		if (shouldCommit()) {
+			this.sql = sql;
+			this.batch = batch;
+			commit();
+		}
+	}
+}
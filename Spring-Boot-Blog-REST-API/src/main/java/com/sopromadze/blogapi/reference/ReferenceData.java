@@ -0,0 +1,252 @@
+package com.sopromadze.blogapi.reference;
+
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.model.role.Role;
+import com.sopromadze.blogapi.model.role.RoleName;
+import com.sopromadze.blogapi.repository.CategoryRepository;
+import com.sopromadze.blogapi.repository.RoleRepository;
+import com.sopromadze.blogapi.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import static com.sopromadze.blogapi.utils.Transactions.afterCommit;
+
+/**
+ * Categories, tags and roles held in memory as {@link Snapshot}s, so services look them up and list them without
+ * the database. The tables are loaded once the application is ready and re-read every
+ * {@code app.referenceData.refreshIntervalInMs}, which picks up writes made through other instances and corrects any
+ * drift in the tag post counts; a refresh that finds nothing changed keeps the current version.
+ *
+ * <p>Writes through this instance swap in a new snapshot once their transaction commits, so a rolled back write is
+ * never seen. Every accessor returns {@code null} until the first load succeeds, and callers then fall back to the
+ * repositories.
+ */
+@Component
+public class ReferenceData implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceData.class);
+
+	private final CategoryRepository categoryRepository;
+
+	private final TagRepository tagRepository;
+
+	private final RoleRepository roleRepository;
+
+	private final TransactionTemplate readOnly;
+
+	private final AtomicReference<Snapshot<Category>> categories = new AtomicReference<>();
+
+	private final AtomicReference<Snapshot<Tag>> tags = new AtomicReference<>();
+
+	private final AtomicReference<Snapshot<Role>> roles = new AtomicReference<>();
+
+	private boolean refreshFailing;
+
+	private ScheduledExecutorService background;
+
+	@Value(value = "${app.referenceData.refreshIntervalInMs:60000}")
+	private long refreshIntervalInMs;
+
+	public ReferenceData(CategoryRepository categoryRepository, TagRepository tagRepository,
+			RoleRepository roleRepository, PlatformTransactionManager transactionManager) {
+		this.categoryRepository = categoryRepository;
+		this.tagRepository = tagRepository;
+		this.roleRepository = roleRepository;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	/**
+	 * Waits for the application to be ready rather than for this bean, as data may still be written by runners.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		refresh();
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "reference-data");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::refresh, refreshIntervalInMs, refreshIntervalInMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	public Snapshot<Category> categories() {
+		return categories.get();
+	}
+
+	public Snapshot<Tag> tags() {
+		return tags.get();
+	}
+
+	public Category category(Long id) {
+		Snapshot<Category> snapshot = categories.get();
+		return snapshot == null ? null : snapshot.get(id);
+	}
+
+	public Tag tag(Long id) {
+		Snapshot<Tag> snapshot = tags.get();
+		return snapshot == null ? null : snapshot.get(id);
+	}
+
+	public Role role(RoleName name) {
+		Snapshot<Role> snapshot = roles.get();
+		return snapshot == null ? null : snapshot.getByName(name.name());
+	}
+
+	/**
+	 * Adds or replaces the category once the current transaction commits, copying it only then so the copy has the
+	 * audit fields set on flush.
+	 */
+	public void put(Category category) {
+		afterCommit(() -> update(categories, snapshot -> snapshot.with(List.of(copy(category)))));
+	}
+
+	public void removeCategory(Long id) {
+		afterCommit(() -> update(categories, snapshot -> snapshot.without(id)));
+	}
+
+	public void put(Tag tag) {
+		putTags(List.of(tag));
+	}
+
+	public void putTags(Collection<Tag> changed) {
+		afterCommit(() -> update(tags, snapshot -> snapshot.with(copies(changed, ReferenceData::copy))));
+	}
+
+	public void removeTag(Long id) {
+		afterCommit(() -> update(tags, snapshot -> snapshot.without(id)));
+	}
+
+	/**
+	 * Mirrors {@link TagRepository#addToPostCount} once the current transaction commits.
+	 */
+	public void addToPostCount(Collection<Long> tagIds, long delta) {
+		Set<Long> ids = new HashSet<>(tagIds);
+		afterCommit(() -> update(tags, snapshot -> {
+			List<Tag> changed = new ArrayList<>(ids.size());
+			for (Long id : ids) {
+				Tag tag = snapshot.get(id);
+				if (tag != null) {
+					Tag counted = copy(tag);
+					counted.setPostCount(tag.getPostCount() + delta);
+					changed.add(counted);
+				}
+			}
+			return changed.isEmpty() ? snapshot : snapshot.with(changed);
+		}));
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reads the three tables in one transaction and swaps in each one that changed, unless a write was published
+	 * while it was being read, in which case the next refresh catches up instead.
+	 */
+	synchronized void refresh() {
+		Snapshot<Category> loadedCategories = categories.get();
+		Snapshot<Tag> loadedTags = tags.get();
+		Snapshot<Role> loadedRoles = roles.get();
+		try {
+			readOnly.executeWithoutResult(status -> {
+				replace(categories, loadedCategories, Snapshot.ofCategories(next(loadedCategories),
+						copies(categoryRepository.findAll(), ReferenceData::copy)));
+				replace(tags, loadedTags, Snapshot.ofTags(next(loadedTags),
+						copies(tagRepository.findAll(), ReferenceData::copy)));
+				replace(roles, loadedRoles, Snapshot.ofRoles(next(loadedRoles),
+						copies(roleRepository.findAll(), ReferenceData::copy)));
+			});
+			if (refreshFailing) {
+				LOGGER.info("Reference data refreshed again");
+				refreshFailing = false;
+			}
+		} catch (RuntimeException ex) {
+			if (!refreshFailing) {
+				LOGGER.warn("Reference data could not be refreshed, keeping the current snapshots", ex);
+				refreshFailing = true;
+			}
+		}
+	}
+
+	private static <T> void replace(AtomicReference<Snapshot<T>> reference, Snapshot<T> loaded, Snapshot<T> fresh) {
+		if (loaded == null || !loaded.sameRows(fresh)) {
+			reference.compareAndSet(loaded, fresh);
+		}
+	}
+
+	private static long next(Snapshot<?> snapshot) {
+		return snapshot == null ? 1L : snapshot.getVersion() + 1;
+	}
+
+	/**
+	 * Writes made before the first load are left to it.
+	 */
+	private static <T> void update(AtomicReference<Snapshot<T>> reference, UnaryOperator<Snapshot<T>> change) {
+		reference.updateAndGet(snapshot -> snapshot == null ? null : change.apply(snapshot));
+	}
+
+	private static <T> List<T> copies(Collection<T> rows, UnaryOperator<T> copy) {
+		if (rows.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<T> copies = new ArrayList<>(rows.size());
+		for (T row : rows) {
+			copies.add(copy.apply(row));
+		}
+		return copies;
+	}
+
+	/**
+	 * Copies the columns only, leaving out the posts so the copy never touches a lazy collection.
+	 */
+	private static Category copy(Category category) {
+		Category copy = new Category(category.getName());
+		copy.setId(category.getId());
+		copy.setCreatedAt(category.getCreatedAt());
+		copy.setUpdatedAt(category.getUpdatedAt());
+		copy.setCreatedBy(category.getCreatedBy());
+		copy.setUpdatedBy(category.getUpdatedBy());
+		return copy;
+	}
+
+	private static Tag copy(Tag tag) {
+		Tag copy = new Tag(tag.getName());
+		copy.setId(tag.getId());
+		copy.setPostCount(tag.getPostCount());
+		copy.setCreatedAt(tag.getCreatedAt());
+		copy.setUpdatedAt(tag.getUpdatedAt());
+		copy.setCreatedBy(tag.getCreatedBy());
+		copy.setUpdatedBy(tag.getUpdatedBy());
+		return copy;
+	}
+
+	private static Role copy(Role role) {
+		Role copy = new Role(role.getName());
+		copy.setId(role.getId());
+		return copy;
+	}
+}
@@ -0,0 +1,174 @@
+package com.sopromadze.blogapi.reference;
+
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.model.role.Role;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of a reference table, listed newest first in {@code createdAt DESC, id DESC} order like the
+ * repositories list it, and indexed by id and by name. Rows are detached copies that are never changed once
+ * published, so any number of threads read them without locks or allocation. Changes build a new snapshot with the
+ * next version, which versions the table's list responses through {@link #getETag()}.
+ */
+public final class Snapshot<T> {
+	private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+	private final long version;
+
+	private final String etag;
+
+	private final List<T> rows;
+
+	private final Map<Long, T> byId;
+
+	private final Map<String, T> byName;
+
+	private final Function<T, Long> idOf;
+
+	private final Function<T, String> nameOf;
+
+	private final Function<T, Instant> createdAtOf;
+
+	private Snapshot(long version, Collection<T> rows, Function<T, Long> idOf, Function<T, String> nameOf,
+			Function<T, Instant> createdAtOf) {
+		this.version = version;
+		this.etag = "\"" + EPOCH + '.' + Long.toString(version, 36) + '"';
+		this.idOf = idOf;
+		this.nameOf = nameOf;
+		this.createdAtOf = createdAtOf;
+
+		List<T> sorted = new ArrayList<>(rows);
+		sorted.sort(Comparator.comparing(createdAtOf, Comparator.nullsFirst(Comparator.<Instant>reverseOrder()))
+				.thenComparing(idOf, Comparator.reverseOrder()));
+		this.rows = Collections.unmodifiableList(sorted);
+
+		Map<Long, T> ids = new HashMap<>();
+		Map<String, T> names = new HashMap<>();
+		for (T row : sorted) {
+			ids.put(idOf.apply(row), row);
+			names.put(nameOf.apply(row), row);
+		}
+		this.byId = Collections.unmodifiableMap(ids);
+		this.byName = Collections.unmodifiableMap(names);
+	}
+
+	public static Snapshot<Category> ofCategories(long version, Collection<Category> rows) {
+		return new Snapshot<>(version, rows, Category::getId, Category::getName, Category::getCreatedAt);
+	}
+
+	public static Snapshot<Tag> ofTags(long version, Collection<Tag> rows) {
+		return new Snapshot<>(version, rows, Tag::getId, Tag::getName, Tag::getCreatedAt);
+	}
+
+	public static Snapshot<Role> ofRoles(long version, Collection<Role> rows) {
+		return new Snapshot<>(version, rows, Role::getId, role -> role.getName().name(), role -> null);
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return a strong ETag for the list responses built from this snapshot alone
+	 */
+	public String getETag() {
+		return etag;
+	}
+
+	public T get(Long id) {
+		return byId.get(id);
+	}
+
+	public T getByName(String name) {
+		return byName.get(name);
+	}
+
+	public int size() {
+		return rows.size();
+	}
+
+	public List<T> getRows() {
+		return rows;
+	}
+
+	public Page<T> page(Pageable pageable) {
+		return new PageImpl<>(rows(pageable.getOffset(), pageable.getPageSize()), pageable, rows.size());
+	}
+
+	public Slice<T> slice(Pageable pageable) {
+		long offset = pageable.getOffset();
+		return new SliceImpl<>(rows(offset, pageable.getPageSize()), pageable,
+				offset + pageable.getPageSize() < rows.size());
+	}
+
+	/**
+	 * @return the rows strictly after the keyset position {@code (createdAt, id)}, found by binary search
+	 */
+	public Slice<T> seek(Instant createdAt, Long id, Pageable pageable) {
+		int low = 0;
+		int high = rows.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (after(rows.get(middle), createdAt, id)) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return new SliceImpl<>(rows(low, pageable.getPageSize()), pageable, low + pageable.getPageSize() < rows.size());
+	}
+
+	/**
+	 * @return whether both snapshots hold equal rows in the same order, whatever their versions
+	 */
+	boolean sameRows(Snapshot<T> other) {
+		return rows.equals(other.rows);
+	}
+
+	/**
+	 * @return the next version with {@code changed} added, or replacing the rows with the same ids
+	 */
+	Snapshot<T> with(Collection<T> changed) {
+		Map<Long, T> merged = new LinkedHashMap<>(byId);
+		for (T row : changed) {
+			merged.put(idOf.apply(row), row);
+		}
+		return new Snapshot<>(version + 1, merged.values(), idOf, nameOf, createdAtOf);
+	}
+
+	Snapshot<T> without(Long id) {
+		if (!byId.containsKey(id)) {
+			return this;
+		}
+		Map<Long, T> remaining = new LinkedHashMap<>(byId);
+		remaining.remove(id);
+		return new Snapshot<>(version + 1, remaining.values(), idOf, nameOf, createdAtOf);
+	}
+
+	private List<T> rows(long offset, int size) {
+		int from = (int) Math.min(offset, rows.size());
+		return rows.subList(from, Math.min(from + size, rows.size()));
+	}
+
+	private boolean after(T row, Instant createdAt, Long id) {
+		Instant rowCreatedAt = createdAtOf.apply(row);
+		int order = rowCreatedAt.compareTo(createdAt);
+		return order < 0 || order == 0 && idOf.apply(row) < id;
+	}
+}
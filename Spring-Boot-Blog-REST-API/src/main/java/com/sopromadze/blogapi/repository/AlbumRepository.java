@@ -1,12 +1,52 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.CacheRegions;
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Album;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
 	Page<Album> findByCreatedBy(Long userId, Pageable pageable);
+
+	Slice<Album> findSliceBy(Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
+	Slice<Album> findSliceByCreatedBy(Long userId, Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
+	long countByCreatedBy(Long userId);
+
+	@Query("SELECT a FROM Album a WHERE (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) ORDER BY a.createdAt DESC, a.id DESC")
+	Slice<Album> seekAll(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT a FROM Album a WHERE a.createdBy = :userId AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) ORDER BY a.createdAt DESC, a.id DESC")
+	Slice<Album> seekByCreatedBy(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT NEW com.sopromadze.blogapi.cache.ResourceVersion(a.updatedAt, MAX(p.updatedAt), COUNT(p)) FROM Album a LEFT JOIN a.photo p WHERE a.id = :id GROUP BY a.id, a.updatedAt")
+	Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+	@EntityGraph(attributePaths = "photo")
+	List<Album> findWithPhotoByIdIn(Collection<Long> ids);
 }
@@ -1,10 +1,30 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+	Slice<Category> findSliceBy(Pageable pageable);
+
+	@Query("SELECT c FROM Category c WHERE (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+	Slice<Category> seekAll(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT NEW com.sopromadze.blogapi.cache.ResourceVersion(c.updatedAt, MAX(p.updatedAt), COUNT(p)) FROM Category c LEFT JOIN c.posts p WHERE c.id = :id GROUP BY c.id, c.updatedAt")
+	Optional<ResourceVersion> findVersionById(@Param("id") Long id);
 
+	@EntityGraph(attributePaths = "posts")
+	List<Category> findWithPostsByIdIn(Collection<Long> ids);
 }
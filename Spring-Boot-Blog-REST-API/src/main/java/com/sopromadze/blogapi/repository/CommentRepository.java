@@ -3,10 +3,39 @@ package com.sopromadze.blogapi.repository;
 import com.sopromadze.blogapi.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 	Page<Comment> findByPostId(Long postId, Pageable pageable);
+
+	Slice<Comment> findSliceByPostId(Long postId, Pageable pageable);
+
+	long countByPostId(Long postId);
+
+	@Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+	Slice<Comment> seekByPostId(@Param("postId") Long postId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT c.id, c.post.id, c.body FROM Comment c WHERE c.id > :id ORDER BY c.id")
+	List<Object[]> findSearchRowsAfter(@Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT c.id, c.post.id, c.body, c.updatedAt FROM Comment c WHERE c.updatedAt > :updatedAt OR (c.updatedAt = :updatedAt AND c.id > :id) ORDER BY c.updatedAt, c.id")
+	List<Object[]> findSearchRowsUpdatedAfter(@Param("updatedAt") Instant updatedAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT c.id FROM Comment c WHERE c.id > :id ORDER BY c.id")
+	List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT c.id FROM Comment c WHERE c.post.id IN :postIds")
+	List<Long> findIdsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+	@Query("SELECT c.id FROM Comment c WHERE c.user.id = :userId")
+	List<Long> findIdsByUserId(@Param("userId") Long userId);
 }
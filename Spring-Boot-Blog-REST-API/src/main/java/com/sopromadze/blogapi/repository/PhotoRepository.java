@@ -1,12 +1,46 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.CacheRegions;
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Photo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
 	Page<Photo> findByAlbumId(Long albumId, Pageable pageable);
+
+	Slice<Photo> findSliceBy(Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
+	Slice<Photo> findSliceByAlbumId(Long albumId, Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.LISTINGS) })
+	long countByAlbumId(Long albumId);
+
+	@Query("SELECT p FROM Photo p WHERE (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Photo> seekAll(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p FROM Photo p WHERE p.album.id = :albumId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Photo> seekByAlbumId(@Param("albumId") Long albumId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT NEW com.sopromadze.blogapi.cache.ResourceVersion(p.updatedAt) FROM Photo p WHERE p.id = :id")
+	Optional<ResourceVersion> findVersionById(@Param("id") Long id);
 }
@@ -1,21 +1,96 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Post;
 import com.sopromadze.blogapi.model.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+	@Override
+	@EntityGraph(attributePaths = "category")
+	Page<Post> findAll(Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
 	Page<Post> findByCreatedBy(Long userId, Pageable pageable);
 
-	Page<Post> findByCategory(Long categoryId, Pageable pageable);
+	@EntityGraph(attributePaths = "category")
+	Page<Post> findByCategoryId(Long categoryId, Pageable pageable);
 
+	@EntityGraph(attributePaths = "category")
 	Page<Post> findByTagsIn(List<Tag> tags, Pageable pageable);
 
 	Long countByCreatedBy(Long userId);
+
+	@EntityGraph(attributePaths = "category")
+	Slice<Post> findSliceBy(Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	Slice<Post> findSliceByCreatedBy(Long userId, Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	Slice<Post> findSliceByCategoryId(Long categoryId, Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	Slice<Post> findSliceByTagsIn(List<Tag> tags, Pageable pageable);
+
+	long countByCategoryId(Long categoryId);
+
+	@EntityGraph(attributePaths = "category")
+	@Query("SELECT p FROM Post p WHERE (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Post> seekAll(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	@Query("SELECT p FROM Post p WHERE p.createdBy = :userId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Post> seekByCreatedBy(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	@Query("SELECT p FROM Post p WHERE p.category.id = :categoryId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Post> seekByCategory(@Param("categoryId") Long categoryId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@EntityGraph(attributePaths = "category")
+	@Query("SELECT p FROM Post p JOIN p.tags t WHERE t.id = :tagId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+	Slice<Post> seekByTag(@Param("tagId") Long tagId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+	List<Object[]> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+	@Query("SELECT p.id, p.title, p.body FROM Post p WHERE p.id > :id ORDER BY p.id")
+	List<Object[]> findSearchRowsAfter(@Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p.id FROM Post p WHERE p.id > :id ORDER BY p.id")
+	List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p.id, p.title, p.body, p.updatedAt FROM Post p WHERE p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :id) ORDER BY p.updatedAt, p.id")
+	List<Object[]> findSearchRowsUpdatedAfter(@Param("updatedAt") Instant updatedAt, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p.id FROM Post p WHERE p.category.id = :categoryId")
+	List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+	@Query("SELECT p.id FROM Post p WHERE p.user.id = :userId")
+	List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT p.id, t.id FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+	List<Object[]> findTagIdsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+	@EntityGraph(attributePaths = "category")
+	List<Post> findByIdIn(Collection<Long> ids);
+
+	@EntityGraph(attributePaths = "tags")
+	List<Post> findWithTagsByCategoryIdIn(Collection<Long> categoryIds);
+
+	@Query("SELECT NEW com.sopromadze.blogapi.cache.ResourceVersion(p.updatedAt, c.updatedAt, MAX(t.updatedAt), COUNT(t), SUM(t.postCount)) FROM Post p LEFT JOIN p.category c LEFT JOIN p.tags t WHERE p.id = :id GROUP BY p.id, p.updatedAt, c.updatedAt")
+	Optional<ResourceVersion> findVersionById(@Param("id") Long id);
 }
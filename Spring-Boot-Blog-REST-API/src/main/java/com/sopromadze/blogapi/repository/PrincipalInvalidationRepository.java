@@ -0,0 +1,22 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.PrincipalInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PrincipalInvalidationRepository extends JpaRepository<PrincipalInvalidation, Long> {
+	List<PrincipalInvalidation> findByInvalidatedAtAfter(Instant since);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM PrincipalInvalidation p WHERE p.invalidatedAt < :before")
+	int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,29 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.ResponseCacheGeneration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Both methods run in their own transaction, as they are also called once an evicting transaction has committed.
+ */
+@Repository
+public interface ResponseCacheGenerationRepository extends JpaRepository<ResponseCacheGeneration, Integer> {
+
+	@Override
+	@Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+	List<ResponseCacheGeneration> findAll();
+
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query(value = "INSERT INTO response_cache_generations (stripe, generation) VALUES (:stripe, 1) "
+			+ "ON DUPLICATE KEY UPDATE generation = generation + 1", nativeQuery = true)
+	int increment(@Param("stripe") int stripe);
+}
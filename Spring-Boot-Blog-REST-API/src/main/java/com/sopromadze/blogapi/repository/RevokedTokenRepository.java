@@ -0,0 +1,24 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+	List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+	List<RevokedToken> findByRevokedAtAfter(Instant since);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+	int deleteExpired(@Param("now") Instant now);
+}
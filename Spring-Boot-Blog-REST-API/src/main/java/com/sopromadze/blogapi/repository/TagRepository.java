@@ -1,10 +1,52 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
 	Tag findByName(String name);
+
+	boolean existsByName(String name);
+
+	boolean existsByNameAndIdNot(String name, Long id);
+
+	@Query("SELECT t.id, t.name FROM Tag t WHERE t.name IN :names")
+	List<Object[]> findIdAndNameByNameIn(@Param("names") Collection<String> names);
+
+	Slice<Tag> findSliceBy(Pageable pageable);
+
+	@Query("SELECT t FROM Tag t WHERE (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC")
+	Slice<Tag> seekAll(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+	// Assigning created_at to itself keeps MySQL from touching it on tables still declared with ON UPDATE CURRENT_TIMESTAMP
+	@Modifying
+	@Transactional
+	@Query("UPDATE Tag t SET t.postCount = t.postCount + :delta, t.createdAt = t.createdAt WHERE t.id IN :ids")
+	int addToPostCount(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+	@Query("SELECT t.id, COUNT(p) FROM Post p JOIN p.tags t WHERE p.id = :postId GROUP BY t.id")
+	List<Object[]> countPostsPerTagByPostId(@Param("postId") Long postId);
+
+	@Query("SELECT t.id, COUNT(p) FROM Post p JOIN p.tags t WHERE p.category.id = :categoryId GROUP BY t.id")
+	List<Object[]> countPostsPerTagByCategoryId(@Param("categoryId") Long categoryId);
+
+	@Query("SELECT t.id, COUNT(p) FROM Post p JOIN p.tags t WHERE p.user.id = :userId GROUP BY t.id")
+	List<Object[]> countPostsPerTagByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT NEW com.sopromadze.blogapi.cache.ResourceVersion(t.updatedAt, t.postCount) FROM Tag t WHERE t.id = :id")
+	Optional<ResourceVersion> findVersionById(@Param("id") Long id);
 }
@@ -3,10 +3,22 @@ package com.sopromadze.blogapi.repository;
 import com.sopromadze.blogapi.model.Todo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
 	Page<Todo> findByCreatedBy(Long userId, Pageable pageable);
+
+	Slice<Todo> findSliceByCreatedBy(Long userId, Pageable pageable);
+
+	long countByCreatedBy(Long userId);
+
+	@Query("SELECT t FROM Todo t WHERE t.createdBy = :userId AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC")
+	Slice<Todo> seekByCreatedBy(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
 }
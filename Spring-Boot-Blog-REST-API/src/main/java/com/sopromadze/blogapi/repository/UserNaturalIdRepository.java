@@ -0,0 +1,12 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.user.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+	/**
+	 * Looks the user up by natural id, so a repeated lookup is answered by the natural id and entity caches.
+	 */
+	Optional<User> findByEmail(String email);
+}
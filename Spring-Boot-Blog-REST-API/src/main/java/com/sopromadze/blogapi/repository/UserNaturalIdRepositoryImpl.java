@@ -0,0 +1,21 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.user.User;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<User> findByEmail(String email) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+	}
+}
@@ -0,0 +1,12 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.user.UserProfileView;
+
+import java.util.Optional;
+
+public interface UserProfileViewNaturalIdRepository {
+	/**
+	 * Looks the profile up by natural id, so a repeated lookup is answered by the natural id and entity caches.
+	 */
+	Optional<UserProfileView> findByUsername(String username);
+}
@@ -0,0 +1,21 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.user.UserProfileView;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+class UserProfileViewNaturalIdRepositoryImpl implements UserProfileViewNaturalIdRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<UserProfileView> findByUsername(String username) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(UserProfileView.class).loadOptional(username);
+	}
+}
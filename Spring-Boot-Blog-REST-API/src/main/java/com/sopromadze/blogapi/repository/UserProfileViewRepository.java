@@ -0,0 +1,47 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.model.user.UserProfileView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserProfileViewRepository extends JpaRepository<UserProfileView, Long>,
+		UserProfileViewNaturalIdRepository {
+	/**
+	 * Locks the profiles in user id order, so transactions changing several of them cannot deadlock on each other.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM UserProfileView p WHERE p.userId IN :userIds ORDER BY p.userId")
+	List<UserProfileView> lockByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+	@Query("SELECT p.user.id, COUNT(p) FROM Post p WHERE p.category.id = :categoryId GROUP BY p.user.id")
+	List<Object[]> countPostsPerUserByCategoryId(@Param("categoryId") Long categoryId);
+
+	@Query("SELECT c.user.id, COUNT(c) FROM Comment c WHERE c.post.id = :postId GROUP BY c.user.id")
+	List<Object[]> countCommentsPerUserByPostId(@Param("postId") Long postId);
+
+	@Query("SELECT c.user.id, COUNT(c) FROM Comment c WHERE c.post.category.id = :categoryId GROUP BY c.user.id")
+	List<Object[]> countCommentsPerUserByCategoryId(@Param("categoryId") Long categoryId);
+
+	@Query("SELECT c.user.id, COUNT(c) FROM Comment c WHERE c.post.user.id = :userId GROUP BY c.user.id")
+	List<Object[]> countCommentsPerUserByPostUserId(@Param("userId") Long userId);
+
+	@Query("SELECT p.user.id, COUNT(p) FROM Post p WHERE p.user.id IN :userIds GROUP BY p.user.id")
+	List<Object[]> countPostsPerUserByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+	@Query("SELECT a.user.id, COUNT(a) FROM Album a WHERE a.user.id IN :userIds GROUP BY a.user.id")
+	List<Object[]> countAlbumsPerUserByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+	@Query("SELECT t.user.id, COUNT(t) FROM Todo t WHERE t.user.id IN :userIds GROUP BY t.user.id")
+	List<Object[]> countTodosPerUserByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+	@Query("SELECT c.user.id, COUNT(c) FROM Comment c WHERE c.user.id IN :userIds GROUP BY c.user.id")
+	List<Object[]> countCommentsPerUserByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,24 +1,32 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.CacheRegions;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import javax.validation.constraints.NotBlank;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.USER_LOOKUPS) })
 	Optional<User> findByUsername(@NotBlank String username);
 
-	Optional<User> findByEmail(@NotBlank String email);
-
 	Boolean existsByUsername(@NotBlank String username);
 
 	Boolean existsByEmail(@NotBlank String email);
 
+	@QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.USER_LOOKUPS) })
 	Optional<User> findByUsernameOrEmail(String username, String email);
 
 	default User getUser(UserPrincipal currentUser) {
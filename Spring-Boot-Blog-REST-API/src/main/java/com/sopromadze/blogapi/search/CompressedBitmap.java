@@ -0,0 +1,401 @@
+package com.sopromadze.blogapi.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of non-negative ints in the Roaring layout: values are grouped by their high 16 bits, and each group keeps
+ * its low 16 bits either as a sorted array, while it holds at most 4096 of them (8 KB or less), or as a
+ * 65536-bit bitmap (always 8 KB). Sparse sets therefore cost two bytes per value and dense ones one bit, and
+ * intersections, unions and differences work a group at a time.
+ *
+ * <p>Not thread-safe; {@link TagPostIndex} guards its instances.
+ */
+public final class CompressedBitmap {
+	private static final int ARRAY_MAX = 4096;
+
+	private static final int WORDS = 1024;
+
+	private static final byte ARRAY = 0;
+
+	private static final byte BITMAP = 1;
+
+	private final TreeMap<Integer, Container> containers = new TreeMap<>();
+
+	public void add(int value) {
+		int high = value >>> 16;
+		Container container = containers.get(high);
+		containers.put(high, (container == null ? new ArrayContainer() : container).add((char) value));
+	}
+
+	public void remove(int value) {
+		int high = value >>> 16;
+		Container container = containers.get(high);
+		if (container == null) {
+			return;
+		}
+		container = container.remove((char) value);
+		if (container.cardinality() == 0) {
+			containers.remove(high);
+		} else {
+			containers.put(high, container);
+		}
+	}
+
+	public boolean contains(int value) {
+		Container container = containers.get(value >>> 16);
+		return container != null && container.contains((char) value);
+	}
+
+	public long cardinality() {
+		long cardinality = 0;
+		for (Container container : containers.values()) {
+			cardinality += container.cardinality();
+		}
+		return cardinality;
+	}
+
+	public CompressedBitmap and(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			Container otherContainer = other.containers.get(entry.getKey());
+			if (otherContainer != null) {
+				result.putIfNotEmpty(entry.getKey(), entry.getValue().and(otherContainer));
+			}
+		}
+		return result;
+	}
+
+	public CompressedBitmap or(CompressedBitmap other) {
+		CompressedBitmap result = copy();
+		for (Map.Entry<Integer, Container> entry : other.containers.entrySet()) {
+			Container container = result.containers.get(entry.getKey());
+			result.containers.put(entry.getKey(),
+					container == null ? entry.getValue().copy() : container.or(entry.getValue()));
+		}
+		return result;
+	}
+
+	public CompressedBitmap andNot(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			Container otherContainer = other.containers.get(entry.getKey());
+			result.putIfNotEmpty(entry.getKey(),
+					otherContainer == null ? entry.getValue().copy() : entry.getValue().andNot(otherContainer));
+		}
+		return result;
+	}
+
+	public CompressedBitmap copy() {
+		CompressedBitmap copy = new CompressedBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			copy.containers.put(entry.getKey(), entry.getValue().copy());
+		}
+		return copy;
+	}
+
+	/**
+	 * @return up to {@code limit} values in descending order, after skipping the {@code offset} largest
+	 */
+	public int[] descending(long offset, int limit) {
+		int[] result = new int[limit];
+		int size = 0;
+		long skip = offset;
+		for (Map.Entry<Integer, Container> entry : containers.descendingMap().entrySet()) {
+			Container container = entry.getValue();
+			if (skip >= container.cardinality()) {
+				skip -= container.cardinality();
+				continue;
+			}
+			char[] values = container.values();
+			for (int i = values.length - 1 - (int) skip; i >= 0 && size < limit; i--) {
+				result[size++] = entry.getKey() << 16 | values[i];
+			}
+			skip = 0;
+			if (size == limit) {
+				break;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(containers.size());
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			out.writeShort(entry.getKey());
+			Container container = entry.getValue();
+			if (container instanceof ArrayContainer) {
+				char[] values = container.values();
+				out.writeByte(ARRAY);
+				out.writeShort(values.length);
+				for (char value : values) {
+					out.writeChar(value);
+				}
+			} else {
+				out.writeByte(BITMAP);
+				for (long word : container.words()) {
+					out.writeLong(word);
+				}
+			}
+		}
+	}
+
+	public static CompressedBitmap read(DataInputStream in) throws IOException {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			int high = in.readUnsignedShort();
+			if (in.readByte() == ARRAY) {
+				char[] values = new char[in.readUnsignedShort()];
+				for (int v = 0; v < values.length; v++) {
+					values[v] = in.readChar();
+				}
+				bitmap.containers.put(high, new ArrayContainer(values, values.length));
+			} else {
+				long[] words = new long[WORDS];
+				for (int w = 0; w < WORDS; w++) {
+					words[w] = in.readLong();
+				}
+				bitmap.putIfNotEmpty(high, Container.fromWords(words));
+			}
+		}
+		return bitmap;
+	}
+
+	private void putIfNotEmpty(int high, Container container) {
+		if (container.cardinality() > 0) {
+			containers.put(high, container);
+		}
+	}
+
+	private abstract static class Container {
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract boolean contains(char value);
+
+		abstract int cardinality();
+
+		abstract char[] values();
+
+		abstract long[] words();
+
+		abstract Container copy();
+
+		Container and(Container other) {
+			if (this instanceof ArrayContainer) {
+				char[] values = values();
+				char[] result = new char[values.length];
+				int size = 0;
+				for (char value : values) {
+					if (other.contains(value)) {
+						result[size++] = value;
+					}
+				}
+				return new ArrayContainer(result, size);
+			}
+			if (other instanceof ArrayContainer) {
+				return other.and(this);
+			}
+			long[] words = words();
+			long[] otherWords = other.words();
+			for (int i = 0; i < WORDS; i++) {
+				words[i] &= otherWords[i];
+			}
+			return fromWords(words);
+		}
+
+		Container or(Container other) {
+			long[] words = words();
+			long[] otherWords = other.words();
+			for (int i = 0; i < WORDS; i++) {
+				words[i] |= otherWords[i];
+			}
+			return fromWords(words);
+		}
+
+		Container andNot(Container other) {
+			if (this instanceof ArrayContainer) {
+				char[] values = values();
+				char[] result = new char[values.length];
+				int size = 0;
+				for (char value : values) {
+					if (!other.contains(value)) {
+						result[size++] = value;
+					}
+				}
+				return new ArrayContainer(result, size);
+			}
+			long[] words = words();
+			long[] otherWords = other.words();
+			for (int i = 0; i < WORDS; i++) {
+				words[i] &= ~otherWords[i];
+			}
+			return fromWords(words);
+		}
+
+		static Container fromWords(long[] words) {
+			int cardinality = 0;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+			}
+			if (cardinality > ARRAY_MAX) {
+				return new BitmapContainer(words, cardinality);
+			}
+
+			char[] values = new char[cardinality];
+			int size = 0;
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[size++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, size);
+		}
+	}
+
+	private static final class ArrayContainer extends Container {
+		private char[] values;
+
+		private int size;
+
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		ArrayContainer(char[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		Container add(char value) {
+			int index = Arrays.binarySearch(values, 0, size, value);
+			if (index >= 0) {
+				return this;
+			}
+			if (size == ARRAY_MAX) {
+				return new BitmapContainer(words(), size).add(value);
+			}
+			index = -index - 1;
+			if (size == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+			}
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = value;
+			size++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int index = Arrays.binarySearch(values, 0, size, value);
+			if (index >= 0) {
+				System.arraycopy(values, index + 1, values, index, size - index - 1);
+				size--;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, size, value) >= 0;
+		}
+
+		@Override
+		int cardinality() {
+			return size;
+		}
+
+		@Override
+		char[] values() {
+			return Arrays.copyOf(values, size);
+		}
+
+		@Override
+		long[] words() {
+			long[] words = new long[WORDS];
+			for (int i = 0; i < size; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+			return words;
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+		}
+	}
+
+	private static final class BitmapContainer extends Container {
+		private final long[] words;
+
+		private int cardinality;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			long bit = 1L << value;
+			if ((words[value >>> 6] & bit) == 0) {
+				words[value >>> 6] |= bit;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long bit = 1L << value;
+			if ((words[value >>> 6] & bit) != 0) {
+				words[value >>> 6] &= ~bit;
+				cardinality--;
+			}
+			return cardinality > ARRAY_MAX ? this : fromWords(words);
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & 1L << value) != 0;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		long[] words() {
+			return words.clone();
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		char[] values() {
+			char[] values = new char[cardinality];
+			int size = 0;
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[size++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return values;
+		}
+	}
+}
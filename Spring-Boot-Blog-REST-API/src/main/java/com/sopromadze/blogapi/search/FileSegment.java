@@ -0,0 +1,264 @@
+package com.sopromadze.blogapi.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable segment memory-mapped from disk. The document table and term dictionary are read into arrays on
+ * open, while postings stay in the mapping and are decoded on demand: each term's postings are varint-encoded
+ * {@code (ordinal delta, tf)} pairs, which keeps a posting to two or three bytes in the common case.
+ *
+ * <pre>
+ * int magic, int version
+ * int docCount, docCount x (long key, long parent, int length)
+ * int tombstoneCount, tombstoneCount x long key
+ * int termCount, termCount x (short byteLength, utf-8 bytes, int docFreq, int postingsOffset)
+ * postings
+ * </pre>
+ *
+ * Tombstones are keys removed from earlier segments since the previous one was written; they are replayed on
+ * open so deletes survive a restart.
+ */
+final class FileSegment extends Segment {
+	private static final int MAGIC = 0x424C4753;
+
+	private static final int VERSION = 1;
+
+	private final Path path;
+
+	private final MappedByteBuffer mapped;
+
+	private final long[] keys;
+
+	private final long[] parents;
+
+	private final int[] lengths;
+
+	private final long[] tombstones;
+
+	private final String[] terms;
+
+	private final int[] docFreqs;
+
+	private final int[] offsets;
+
+	private final int postingsStart;
+
+	private FileSegment(Path path) throws IOException {
+		this.path = path;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		ByteBuffer header = mapped.duplicate();
+		if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+			throw new IOException("Not a search segment: " + path);
+		}
+
+		int docCount = header.getInt();
+		keys = new long[docCount];
+		parents = new long[docCount];
+		lengths = new int[docCount];
+		for (int ord = 0; ord < docCount; ord++) {
+			keys[ord] = header.getLong();
+			parents[ord] = header.getLong();
+			lengths[ord] = header.getInt();
+		}
+
+		tombstones = new long[header.getInt()];
+		for (int i = 0; i < tombstones.length; i++) {
+			tombstones[i] = header.getLong();
+		}
+
+		int termCount = header.getInt();
+		terms = new String[termCount];
+		docFreqs = new int[termCount];
+		offsets = new int[termCount];
+		for (int i = 0; i < termCount; i++) {
+			byte[] bytes = new byte[header.getShort()];
+			header.get(bytes);
+			terms[i] = new String(bytes, StandardCharsets.UTF_8);
+			docFreqs[i] = header.getInt();
+			offsets[i] = header.getInt();
+		}
+		postingsStart = header.position();
+	}
+
+	static FileSegment open(Path path) throws IOException {
+		return new FileSegment(path);
+	}
+
+	/**
+	 * Writes the live documents of {@code source} to {@code path}, renumbering ordinals densely, and maps it.
+	 */
+	static FileSegment write(Path path, MemorySegment source, Collection<Long> tombstones) throws IOException {
+		int[] ordMap = new int[source.docCount()];
+		int live = 0;
+		for (int ord = 0; ord < ordMap.length; ord++) {
+			ordMap[ord] = source.deleted.get(ord) ? -1 : live++;
+		}
+
+		ByteArrayOutputStream postings = new ByteArrayOutputStream();
+		List<String> termList = new ArrayList<>();
+		List<int[]> termStats = new ArrayList<>();
+		for (Map.Entry<String, MemorySegment.IntList> entry : source.allPostings().entrySet()) {
+			MemorySegment.IntList list = entry.getValue();
+			int offset = postings.size();
+			int docFreq = 0;
+			int previous = 0;
+			for (int i = 0; i < list.size(); i += 2) {
+				int ord = ordMap[list.get(i)];
+				if (ord < 0) {
+					continue;
+				}
+				writeVarInt(postings, ord - previous);
+				writeVarInt(postings, list.get(i + 1));
+				previous = ord;
+				docFreq++;
+			}
+			if (docFreq > 0) {
+				termList.add(entry.getKey());
+				termStats.add(new int[] { docFreq, offset });
+			}
+		}
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(live);
+			for (int ord = 0; ord < ordMap.length; ord++) {
+				if (ordMap[ord] >= 0) {
+					out.writeLong(source.key(ord));
+					out.writeLong(source.parent(ord));
+					out.writeInt(source.length(ord));
+				}
+			}
+			out.writeInt(tombstones.size());
+			for (long key : tombstones) {
+				out.writeLong(key);
+			}
+			out.writeInt(termList.size());
+			for (int i = 0; i < termList.size(); i++) {
+				byte[] bytes = termList.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeShort(bytes.length);
+				out.write(bytes);
+				out.writeInt(termStats.get(i)[0]);
+				out.writeInt(termStats.get(i)[1]);
+			}
+			postings.writeTo(out);
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return open(path);
+	}
+
+	Path path() {
+		return path;
+	}
+
+	long[] tombstones() {
+		return tombstones;
+	}
+
+	@Override
+	int docCount() {
+		return keys.length;
+	}
+
+	@Override
+	long key(int ord) {
+		return keys[ord];
+	}
+
+	@Override
+	long parent(int ord) {
+		return parents[ord];
+	}
+
+	@Override
+	int length(int ord) {
+		return lengths[ord];
+	}
+
+	@Override
+	int docFreq(String term) {
+		int index = Arrays.binarySearch(terms, term);
+		return index < 0 ? 0 : docFreqs[index];
+	}
+
+	@Override
+	int[] postings(String term) {
+		int index = Arrays.binarySearch(terms, term);
+		if (index < 0) {
+			return null;
+		}
+
+		int[] result = new int[docFreqs[index] * 2];
+		int position = postingsStart + offsets[index];
+		int ord = 0;
+		for (int i = 0; i < result.length; i += 2) {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = mapped.get(position++);
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			ord += value;
+
+			int tf = 0;
+			shift = 0;
+			do {
+				b = mapped.get(position++);
+				tf |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+
+			result[i] = ord;
+			result[i + 1] = tf;
+		}
+		return result;
+	}
+
+	@Override
+	List<String> termsWithPrefix(String prefix, int limit) {
+		int index = Arrays.binarySearch(terms, prefix);
+		List<String> result = new ArrayList<>();
+		for (int i = index < 0 ? -index - 1 : index; i < terms.length && result.size() < limit; i++) {
+			if (!terms[i].startsWith(prefix)) {
+				break;
+			}
+			result.add(terms[i]);
+		}
+		return result;
+	}
+
+	@Override
+	Iterable<String> terms() {
+		return Arrays.asList(terms);
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+}
@@ -0,0 +1,76 @@
+package com.sopromadze.blogapi.search;
+
+import java.util.Set;
+
+/**
+ * Cuts a window of the original text around the first matched term and wraps every matched term in it with
+ * {@code <em>}. The rest of the text is HTML-escaped, so the snippet can be rendered as is.
+ */
+public final class Highlighter {
+	private static final int LEADING_CONTEXT = 40;
+
+	private static final String ELLIPSIS = "…";
+
+	private Highlighter() {
+	}
+
+	public static String snippet(String text, Set<String> terms, int maxLength) {
+		if (text == null) {
+			return "";
+		}
+
+		int start = 0;
+		for (TextAnalyzer.Token token : TextAnalyzer.tokenize(text)) {
+			if (terms.contains(token.getTerm())) {
+				start = Math.max(0, token.getStart() - LEADING_CONTEXT);
+				break;
+			}
+		}
+		while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+			start++;
+		}
+		int end = Math.min(text.length(), start + maxLength);
+
+		StringBuilder snippet = new StringBuilder();
+		if (start > 0) {
+			snippet.append(ELLIPSIS);
+		}
+		int position = start;
+		for (TextAnalyzer.Token token : TextAnalyzer.tokenize(text.substring(start, end))) {
+			if (terms.contains(token.getTerm())) {
+				escape(snippet, text, position, start + token.getStart());
+				snippet.append("<em>");
+				escape(snippet, text, start + token.getStart(), start + token.getEnd());
+				snippet.append("</em>");
+				position = start + token.getEnd();
+			}
+		}
+		escape(snippet, text, position, end);
+		if (end < text.length()) {
+			snippet.append(ELLIPSIS);
+		}
+		return snippet.toString();
+	}
+
+	private static void escape(StringBuilder out, String text, int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '<':
+					out.append("&lt;");
+					break;
+				case '>':
+					out.append("&gt;");
+					break;
+				case '&':
+					out.append("&amp;");
+					break;
+				case '"':
+					out.append("&quot;");
+					break;
+				default:
+					out.append(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.sopromadze.blogapi.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Write buffer of the index, and the staging area of a merge. Documents are appended with {@link #addDoc} and
+ * their postings with {@link #addPosting}, which must be called in ascending ordinal order per term.
+ */
+final class MemorySegment extends Segment {
+	private final TreeMap<String, IntList> postings = new TreeMap<>();
+
+	private long[] keys = new long[16];
+
+	private long[] parents = new long[16];
+
+	private int[] lengths = new int[16];
+
+	private int size;
+
+	int addDoc(long key, long parent, int length) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			parents = Arrays.copyOf(parents, size * 2);
+			lengths = Arrays.copyOf(lengths, size * 2);
+		}
+		keys[size] = key;
+		parents[size] = parent;
+		lengths[size] = length;
+		return size++;
+	}
+
+	void addPosting(String term, int ord, int tf) {
+		IntList list = postings.computeIfAbsent(term, t -> new IntList());
+		list.add(ord);
+		list.add(tf);
+	}
+
+	Map<String, IntList> allPostings() {
+		return postings;
+	}
+
+	@Override
+	int docCount() {
+		return size;
+	}
+
+	@Override
+	long key(int ord) {
+		return keys[ord];
+	}
+
+	@Override
+	long parent(int ord) {
+		return parents[ord];
+	}
+
+	@Override
+	int length(int ord) {
+		return lengths[ord];
+	}
+
+	@Override
+	int docFreq(String term) {
+		IntList list = postings.get(term);
+		return list == null ? 0 : list.size() / 2;
+	}
+
+	@Override
+	int[] postings(String term) {
+		IntList list = postings.get(term);
+		return list == null ? null : list.toArray();
+	}
+
+	@Override
+	List<String> termsWithPrefix(String prefix, int limit) {
+		List<String> terms = new ArrayList<>();
+		for (String term : postings.tailMap(prefix, true).keySet()) {
+			if (!term.startsWith(prefix) || terms.size() == limit) {
+				break;
+			}
+			terms.add(term);
+		}
+		return terms;
+	}
+
+	@Override
+	Iterable<String> terms() {
+		return postings.keySet();
+	}
+
+	static final class IntList {
+		private int[] values = new int[4];
+
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int get(int index) {
+			return values[index];
+		}
+
+		int size() {
+			return size;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
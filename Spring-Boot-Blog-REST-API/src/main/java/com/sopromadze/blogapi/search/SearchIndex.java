@@ -0,0 +1,682 @@
+package com.sopromadze.blogapi.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index ranked with BM25. Writes go to an in-memory buffer that is flushed to an immutable,
+ * memory-mapped segment file every {@code app.search.flushIntervalInMs} or {@code app.search.flushThreshold}
+ * documents; once there are more than {@code app.search.maxSegments} files they are merged in the background.
+ * The {@code segments} manifest lists the committed files in order, and is only written once the index holds
+ * everything, so a missing manifest means the index has to be rebuilt.
+ *
+ * <p>The manifest also records a high-water mark: a time before which every change is in a committed file. It is
+ * the time of the last flush, or of the last {@link #caughtUp} report if that is older, as changes made through
+ * other instances only arrive through the caller. Documents still buffered, and deletes not yet flushed, are lost
+ * on a crash, so on start the caller re-indexes what changed since {@link #getSyncedAt()} and drops what was
+ * deleted.
+ *
+ * <p>Documents are identified by a {@code long} key chosen by the caller, and carry a {@code parent} key that is
+ * handed back with each hit.
+ */
+@Component
+public class SearchIndex implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchIndex.class);
+
+	private static final String MANIFEST = "segments";
+
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private static final String SYNCED_AT = "synced-at ";
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	private static final int TITLE_BOOST = 2;
+
+	private static final double PREFIX_WEIGHT = 0.8;
+
+	private static final double FUZZY_WEIGHT = 0.6;
+
+	private static final int MAX_EXPANSIONS = 50;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final List<FileSegment> segments = new ArrayList<>();
+
+	private final Map<Long, Location> live = new HashMap<>();
+
+	private final List<Long> tombstones = new ArrayList<>();
+
+	private MemorySegment buffer = new MemorySegment();
+
+	private long totalLength;
+
+	private int nextSegment;
+
+	private long syncedAt;
+
+	private volatile long caughtUpTo;
+
+	private volatile boolean rebuildNeeded;
+
+	private ScheduledExecutorService background;
+
+	@Value(value = "${app.search.directory:${java.io.tmpdir}/blogapi-search}")
+	private String directory;
+
+	@Value(value = "${app.search.flushThreshold:1000}")
+	private int flushThreshold;
+
+	@Value(value = "${app.search.flushIntervalInMs:5000}")
+	private long flushIntervalInMs;
+
+	@Value(value = "${app.search.maxSegments:8}")
+	private int maxSegments;
+
+	@PostConstruct
+	public void open() throws IOException {
+		Path dir = Paths.get(directory);
+		Files.createDirectories(dir);
+
+		Path manifest = dir.resolve(MANIFEST);
+		List<String> names = Files.exists(manifest) ? Files.readAllLines(manifest, StandardCharsets.UTF_8)
+				: Collections.emptyList();
+		try {
+			for (String name : names) {
+				if (name.startsWith(SYNCED_AT)) {
+					syncedAt = Long.parseLong(name.substring(SYNCED_AT.length()));
+				} else if (!name.isBlank()) {
+					load(FileSegment.open(dir.resolve(name)));
+				}
+			}
+			rebuildNeeded = !Files.exists(manifest);
+		} catch (IOException | RuntimeException ex) {
+			LOGGER.error("Search index in {} is unreadable, it will be rebuilt", dir, ex);
+			segments.clear();
+			live.clear();
+			totalLength = 0;
+			syncedAt = 0;
+			names = Collections.emptyList();
+			rebuildNeeded = true;
+		}
+		caughtUpTo = syncedAt;
+		deleteUnlisted(dir, names);
+
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "search-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::flushQuietly, flushIntervalInMs, flushIntervalInMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	public boolean isRebuildNeeded() {
+		return rebuildNeeded;
+	}
+
+	/**
+	 * @return the high-water mark read from the manifest, in epoch milliseconds, or 0 without one
+	 */
+	public long getSyncedAt() {
+		return syncedAt;
+	}
+
+	/**
+	 * Reports that every change made before {@code at}, through any instance, has been passed to {@link #index} or
+	 * {@link #delete}, so the next flush may record it as the high-water mark.
+	 */
+	public void caughtUp(long at) {
+		caughtUpTo = at;
+	}
+
+	/**
+	 * Runs {@code loader}, which should {@link #index} every document, in the background and commits the manifest
+	 * once it completes. If it fails the manifest stays missing and the rebuild is retried on the next start.
+	 */
+	public void rebuild(Runnable loader) {
+		Thread thread = new Thread(() -> {
+			try {
+				long start = System.currentTimeMillis();
+				loader.run();
+				flush();
+				lock.writeLock().lock();
+				try {
+					rebuildNeeded = false;
+					writeManifest();
+				} finally {
+					lock.writeLock().unlock();
+				}
+				LOGGER.info("Search index rebuilt with {} documents in {} ms", size(),
+						System.currentTimeMillis() - start);
+			} catch (Exception ex) {
+				LOGGER.error("Could not rebuild the search index", ex);
+			}
+		}, "search-index-rebuild");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Adds the document, replacing any previous version with the same key. Title terms count double.
+	 */
+	public void index(long key, long parent, String title, String body) {
+		Map<String, Integer> termFreqs = new HashMap<>();
+		int length = 0;
+		for (TextAnalyzer.Token token : TextAnalyzer.tokenize(title)) {
+			termFreqs.merge(token.getTerm(), TITLE_BOOST, Integer::sum);
+			length++;
+		}
+		for (TextAnalyzer.Token token : TextAnalyzer.tokenize(body)) {
+			termFreqs.merge(token.getTerm(), 1, Integer::sum);
+			length++;
+		}
+
+		boolean full;
+		lock.writeLock().lock();
+		try {
+			remove(key);
+			int ord = buffer.addDoc(key, parent, length);
+			for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+				buffer.addPosting(entry.getKey(), ord, entry.getValue());
+			}
+			live.put(key, new Location(buffer, ord));
+			totalLength += length;
+			full = buffer.docCount() >= flushThreshold;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		if (full && background != null) {
+			background.execute(this::flushQuietly);
+		}
+	}
+
+	public void delete(long key) {
+		lock.writeLock().lock();
+		try {
+			remove(key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the keys of every live document, in ascending order
+	 */
+	public long[] keys() {
+		long[] keys;
+		lock.readLock().lock();
+		try {
+			keys = live.keySet().stream().mapToLong(Long::longValue).toArray();
+		} finally {
+			lock.readLock().unlock();
+		}
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return live.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Scores every live document matching any query word. A word ending in {@code *}, and the last word of the
+	 * query, also match terms starting with it; a word ending in {@code ~}, or one absent from the index, also
+	 * matches terms within one edit (two for words of eight letters or more).
+	 */
+	public Result search(String query, int limit) {
+		List<QueryTerm> queryTerms = parse(query);
+
+		lock.readLock().lock();
+		try {
+			List<Segment> all = new ArrayList<>(segments);
+			all.add(buffer);
+			int liveDocs = live.size();
+			double averageLength = liveDocs == 0 ? 1 : (double) totalLength / liveDocs;
+
+			Map<Long, Hit> hits = new HashMap<>();
+			Set<String> matchedTerms = new HashSet<>();
+			for (QueryTerm queryTerm : queryTerms) {
+				Map<Long, Double> termScores = new HashMap<>();
+				for (Map.Entry<String, Double> expansion : expand(queryTerm, all).entrySet()) {
+					String term = expansion.getKey();
+					int docFreq = 0;
+					for (Segment segment : all) {
+						docFreq += segment.docFreq(term);
+					}
+					if (docFreq == 0) {
+						continue;
+					}
+					docFreq = Math.min(docFreq, liveDocs);
+					matchedTerms.add(term);
+					double idf = Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+
+					for (Segment segment : all) {
+						int[] postings = segment.postings(term);
+						if (postings == null) {
+							continue;
+						}
+						for (int i = 0; i < postings.length; i += 2) {
+							int ord = postings[i];
+							if (segment.deleted.get(ord)) {
+								continue;
+							}
+							int tf = postings[i + 1];
+							double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * segment.length(ord) / averageLength));
+							long key = segment.key(ord);
+							termScores.merge(key, expansion.getValue() * idf * norm, Math::max);
+							hits.computeIfAbsent(key, k -> new Hit(k, segment.parent(ord)));
+						}
+					}
+				}
+				for (Map.Entry<Long, Double> entry : termScores.entrySet()) {
+					hits.get(entry.getKey()).score += entry.getValue();
+				}
+			}
+
+			Comparator<Hit> ranking = Comparator.comparingDouble(Hit::getScore).thenComparingLong(Hit::getKey);
+			PriorityQueue<Hit> top = new PriorityQueue<>(ranking);
+			for (Hit hit : hits.values()) {
+				top.add(hit);
+				if (top.size() > limit) {
+					top.poll();
+				}
+			}
+			List<Hit> ranked = new ArrayList<>(top);
+			ranked.sort(ranking.reversed());
+			return new Result(ranked, hits.size(), matchedTerms);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	void flush() throws IOException {
+		boolean mergeDue;
+		lock.writeLock().lock();
+		try {
+			if (buffer.docCount() == 0 && tombstones.isEmpty()) {
+				return;
+			}
+
+			MemorySegment flushed = buffer;
+			FileSegment segment = FileSegment.write(newSegmentPath(), flushed, tombstones);
+			int ord = 0;
+			for (int old = 0; old < flushed.docCount(); old++) {
+				if (!flushed.deleted.get(old)) {
+					live.put(flushed.key(old), new Location(segment, ord++));
+				}
+			}
+			segments.add(segment);
+			buffer = new MemorySegment();
+			tombstones.clear();
+			syncedAt = Math.min(System.currentTimeMillis(), caughtUpTo);
+			writeManifest();
+			mergeDue = segments.size() > maxSegments;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		if (mergeDue) {
+			merge();
+		}
+	}
+
+	/**
+	 * Rewrites the committed segments as one, dropping deleted documents. The copy is built without blocking
+	 * searches or writes; documents deleted meanwhile are flagged again in the merged segment before it is swapped
+	 * in.
+	 */
+	synchronized void merge() throws IOException {
+		List<FileSegment> merging;
+		List<BitSet> deletedAtStart = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			merging = new ArrayList<>(segments);
+			for (FileSegment segment : merging) {
+				deletedAtStart.add((BitSet) segment.deleted.clone());
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		if (merging.size() < 2) {
+			return;
+		}
+
+		MemorySegment staging = new MemorySegment();
+		List<int[]> ordMaps = new ArrayList<>();
+		for (int s = 0; s < merging.size(); s++) {
+			FileSegment segment = merging.get(s);
+			int[] ordMap = new int[segment.docCount()];
+			for (int ord = 0; ord < ordMap.length; ord++) {
+				ordMap[ord] = deletedAtStart.get(s).get(ord) ? -1
+						: staging.addDoc(segment.key(ord), segment.parent(ord), segment.length(ord));
+			}
+			ordMaps.add(ordMap);
+		}
+		for (int s = 0; s < merging.size(); s++) {
+			FileSegment segment = merging.get(s);
+			int[] ordMap = ordMaps.get(s);
+			for (String term : segment.terms()) {
+				int[] postings = segment.postings(term);
+				for (int i = 0; i < postings.length; i += 2) {
+					if (ordMap[postings[i]] >= 0) {
+						staging.addPosting(term, ordMap[postings[i]], postings[i + 1]);
+					}
+				}
+			}
+		}
+		FileSegment merged = FileSegment.write(newSegmentPath(), staging, Collections.emptyList());
+
+		lock.writeLock().lock();
+		try {
+			for (int s = 0; s < merging.size(); s++) {
+				FileSegment segment = merging.get(s);
+				int[] ordMap = ordMaps.get(s);
+				for (int ord = 0; ord < ordMap.length; ord++) {
+					if (ordMap[ord] < 0) {
+						continue;
+					}
+					if (segment.deleted.get(ord)) {
+						merged.deleted.set(ordMap[ord]);
+					} else {
+						live.put(segment.key(ord), new Location(merged, ordMap[ord]));
+					}
+				}
+			}
+			segments.subList(0, merging.size()).clear();
+			segments.add(0, merged);
+			writeManifest();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		for (FileSegment segment : merging) {
+			Files.deleteIfExists(segment.path());
+		}
+		LOGGER.debug("Merged {} search segments into {}", merging.size(), merged.path().getFileName());
+	}
+
+	int segmentCount() {
+		lock.readLock().lock();
+		try {
+			return segments.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+		flushQuietly();
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (IOException | RuntimeException ex) {
+			LOGGER.error("Could not flush the search index", ex);
+		}
+	}
+
+	/**
+	 * Caller holds the write lock.
+	 */
+	private void remove(long key) {
+		Location location = live.remove(key);
+		if (location == null) {
+			return;
+		}
+		location.segment.deleted.set(location.ord);
+		totalLength -= location.segment.length(location.ord);
+		if (location.segment instanceof FileSegment) {
+			tombstones.add(key);
+		}
+	}
+
+	private void load(FileSegment segment) {
+		for (long key : segment.tombstones()) {
+			remove(key);
+		}
+		for (int ord = 0; ord < segment.docCount(); ord++) {
+			remove(segment.key(ord));
+			live.put(segment.key(ord), new Location(segment, ord));
+			totalLength += segment.length(ord);
+		}
+		segments.add(segment);
+		tombstones.clear();
+		nextSegment = Math.max(nextSegment, segmentNumber(segment.path()) + 1);
+	}
+
+	/**
+	 * Caller holds the write lock. While rebuilding, segments are written but not yet committed.
+	 */
+	private void writeManifest() throws IOException {
+		if (rebuildNeeded) {
+			return;
+		}
+		List<String> names = new ArrayList<>(segments.size() + 1);
+		names.add(SYNCED_AT + syncedAt);
+		for (FileSegment segment : segments) {
+			names.add(segment.path().getFileName().toString());
+		}
+		Path manifest = Paths.get(directory, MANIFEST);
+		Path temp = Paths.get(directory, MANIFEST + ".tmp");
+		Files.write(temp, names, StandardCharsets.UTF_8);
+		Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private Path newSegmentPath() {
+		return Paths.get(directory, String.format("%08d%s", nextSegment++, SEGMENT_SUFFIX));
+	}
+
+	private static int segmentNumber(Path path) {
+		String name = path.getFileName().toString();
+		return Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static void deleteUnlisted(Path dir, List<String> names) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX + "*")) {
+			for (Path file : files) {
+				if (!names.contains(file.getFileName().toString())) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private static List<QueryTerm> parse(String query) {
+		List<QueryTerm> terms = new ArrayList<>();
+		String[] words = query.trim().split("\\s+");
+		for (int w = 0; w < words.length; w++) {
+			String word = words[w];
+			boolean prefix = word.endsWith("*") || w == words.length - 1;
+			boolean fuzzy = word.endsWith("~");
+			for (TextAnalyzer.Token token : TextAnalyzer.tokenize(word)) {
+				terms.add(new QueryTerm(token.getTerm(), prefix, fuzzy));
+			}
+		}
+		return terms;
+	}
+
+	private static Map<String, Double> expand(QueryTerm queryTerm, List<Segment> segments) {
+		String term = queryTerm.term;
+		Map<String, Double> expansions = new LinkedHashMap<>();
+		boolean exists = false;
+		for (Segment segment : segments) {
+			exists |= segment.docFreq(term) > 0;
+		}
+		if (exists) {
+			expansions.put(term, 1.0);
+		}
+
+		if (queryTerm.prefix && term.length() >= 2) {
+			for (Segment segment : segments) {
+				for (String candidate : segment.termsWithPrefix(term, MAX_EXPANSIONS)) {
+					expansions.putIfAbsent(candidate, PREFIX_WEIGHT);
+				}
+			}
+		}
+
+		int maxEdits = term.length() < 4 ? 0 : term.length() < 8 ? 1 : 2;
+		if ((queryTerm.fuzzy || !exists) && maxEdits > 0) {
+			for (Segment segment : segments) {
+				int found = 0;
+				for (String candidate : segment.terms()) {
+					if (found == MAX_EXPANSIONS) {
+						break;
+					}
+					if (candidate.charAt(0) == term.charAt(0)
+							&& Math.abs(candidate.length() - term.length()) <= maxEdits
+							&& withinEdits(term, candidate, maxEdits)) {
+						expansions.putIfAbsent(candidate, FUZZY_WEIGHT);
+						found++;
+					}
+				}
+			}
+		}
+		return expansions;
+	}
+
+	/**
+	 * Levenshtein distance bounded by {@code maxEdits}, abandoning a row as soon as every cell exceeds it.
+	 */
+	static boolean withinEdits(String a, String b, int maxEdits) {
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > maxEdits) {
+				return false;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()] <= maxEdits;
+	}
+
+	private static final class Location {
+		private final Segment segment;
+
+		private final int ord;
+
+		private Location(Segment segment, int ord) {
+			this.segment = segment;
+			this.ord = ord;
+		}
+	}
+
+	private static final class QueryTerm {
+		private final String term;
+
+		private final boolean prefix;
+
+		private final boolean fuzzy;
+
+		private QueryTerm(String term, boolean prefix, boolean fuzzy) {
+			this.term = term;
+			this.prefix = prefix;
+			this.fuzzy = fuzzy;
+		}
+	}
+
+	public static final class Hit {
+		private final long key;
+
+		private final long parent;
+
+		private double score;
+
+		private Hit(long key, long parent) {
+			this.key = key;
+			this.parent = parent;
+		}
+
+		public long getKey() {
+			return key;
+		}
+
+		public long getParent() {
+			return parent;
+		}
+
+		public double getScore() {
+			return score;
+		}
+	}
+
+	public static final class Result {
+		private final List<Hit> hits;
+
+		private final int total;
+
+		private final Set<String> matchedTerms;
+
+		private Result(List<Hit> hits, int total, Set<String> matchedTerms) {
+			this.hits = hits;
+			this.total = total;
+			this.matchedTerms = matchedTerms;
+		}
+
+		public List<Hit> getHits() {
+			return hits;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+
+		public Set<String> getMatchedTerms() {
+			return matchedTerms;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.sopromadze.blogapi.search;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A set of indexed documents addressed by ordinal. Postings are returned as {@code [ord, tf, ord, tf, ...]} in
+ * ascending ordinal order. Replaced or removed documents are only flagged in {@link #deleted}; they disappear
+ * when their segment is merged.
+ */
+abstract class Segment {
+	final BitSet deleted = new BitSet();
+
+	abstract int docCount();
+
+	abstract long key(int ord);
+
+	abstract long parent(int ord);
+
+	abstract int length(int ord);
+
+	abstract int docFreq(String term);
+
+	/**
+	 * @return the postings of the term, or {@code null} if the segment does not contain it
+	 */
+	abstract int[] postings(String term);
+
+	abstract List<String> termsWithPrefix(String prefix, int limit);
+
+	abstract Iterable<String> terms();
+}
@@ -0,0 +1,412 @@
+package com.sopromadze.blogapi.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.sopromadze.blogapi.utils.Transactions.afterCommit;
+
+/**
+ * In-memory map from tag id to the {@link CompressedBitmap} of its post ids, plus a bitmap of every post, so that
+ * tag filters are answered with set operations and the database is only asked for the page being returned.
+ * Posts are listed newest first by id, which follows creation order.
+ *
+ * <p>The index is written to {@code app.tagIndex.snapshot} every {@code app.tagIndex.snapshotIntervalInMs} when it
+ * has changed, and on shutdown. On start the snapshot is read back and only posts with a higher id than the
+ * newest one it holds are loaded; without a snapshot every post is. Queries are refused until that finishes.
+ *
+ * <p>Once ready, and every {@code app.tagIndex.reconcileIntervalInMs} after that, the index is rebuilt from the
+ * database in the background and swapped in, which drops posts deleted while this instance was down or through
+ * another instance and picks up the ones created there. Posts changed through this instance during the rebuild keep
+ * their current entries.
+ *
+ * <p>Changes made in a transaction are applied once it commits, so the index, and the snapshots taken of it, never
+ * hold a post that was rolled back or miss one whose delete was.
+ */
+@Component
+public class TagPostIndex implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TagPostIndex.class);
+
+	private static final int MAGIC = 0x424C4754;
+
+	private static final int VERSION = 1;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, CompressedBitmap> postsByTag = new HashMap<>();
+
+	private CompressedBitmap allPosts = new CompressedBitmap();
+
+	private long lastPostId;
+
+	private long snapshotPostId;
+
+	private boolean dirty;
+
+	private volatile boolean ready;
+
+	private Set<Integer> touched;
+
+	private Set<Long> removedTags;
+
+	private ScheduledExecutorService background;
+
+	@Value(value = "${app.tagIndex.snapshot:${java.io.tmpdir}/blogapi-tag-index}")
+	private String snapshot;
+
+	@Value(value = "${app.tagIndex.snapshotIntervalInMs:60000}")
+	private long snapshotIntervalInMs;
+
+	@Value(value = "${app.tagIndex.reconcileIntervalInMs:600000}")
+	private long reconcileIntervalInMs;
+
+	@PostConstruct
+	public void open() {
+		Path path = Paths.get(snapshot);
+		if (Files.exists(path)) {
+			try {
+				read(path);
+				LOGGER.info("Tag index snapshot loaded with {} posts up to id {}", allPosts.cardinality(), lastPostId);
+			} catch (IOException | RuntimeException ex) {
+				LOGGER.error("Tag index snapshot {} is unreadable, it will be rebuilt", path, ex);
+				postsByTag.clear();
+				allPosts = new CompressedBitmap();
+				lastPostId = 0;
+			}
+		}
+		snapshotPostId = lastPostId;
+
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tag-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalInMs, snapshotIntervalInMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Reads from {@code source} in the background every post with a higher id than the newest one the snapshot
+	 * holds; queries are accepted once that finishes. Reconciliation then reads every post from it, right away when
+	 * the index came from a snapshot.
+	 */
+	public void load(Source source) {
+		Thread thread = new Thread(() -> {
+			try {
+				long start = System.currentTimeMillis();
+				long lastId = snapshotPostId;
+				for (SortedMap<Long, List<Long>> batch = source.tagIdsAfter(lastId); !batch.isEmpty();
+						batch = source.tagIdsAfter(lastId)) {
+					batch.forEach(this::add);
+					lastId = batch.lastKey();
+				}
+				ready = true;
+				snapshotQuietly();
+				LOGGER.info("Tag index ready with {} posts in {} ms", size(), System.currentTimeMillis() - start);
+				background.scheduleWithFixedDelay(() -> reconcile(source), snapshotPostId > 0 ? 0 : reconcileIntervalInMs,
+						reconcileIntervalInMs, TimeUnit.MILLISECONDS);
+			} catch (Exception ex) {
+				LOGGER.error("Could not load the tag index", ex);
+			}
+		}, "tag-index-load");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void add(Long postId, Collection<Long> tagIds) {
+		int id = Math.toIntExact(postId);
+		List<Long> tags = List.copyOf(tagIds);
+		afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				allPosts.add(id);
+				for (Long tagId : tags) {
+					postsByTag.computeIfAbsent(tagId, key -> new CompressedBitmap()).add(id);
+				}
+				lastPostId = Math.max(lastPostId, postId);
+				dirty = true;
+				if (touched != null) {
+					touched.add(id);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void remove(Long postId) {
+		removeAll(List.of(postId));
+	}
+
+	public void removeAll(Collection<Long> postIds) {
+		if (postIds.isEmpty()) {
+			return;
+		}
+		int[] ids = postIds.stream().mapToInt(Math::toIntExact).toArray();
+		afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				for (int id : ids) {
+					allPosts.remove(id);
+					for (CompressedBitmap posts : postsByTag.values()) {
+						posts.remove(id);
+					}
+					if (touched != null) {
+						touched.add(id);
+					}
+				}
+				dirty = true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void removeTag(Long tagId) {
+		afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				dirty |= postsByTag.remove(tagId) != null;
+				if (removedTags != null) {
+					removedTags.add(tagId);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public long size() {
+		lock.readLock().lock();
+		try {
+			return allPosts.cardinality();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Posts tagged with all ({@code matchAll}) or any of {@code include}, or every post when it is empty, and with
+	 * none of {@code exclude}; newest first.
+	 */
+	public Result query(Collection<Long> include, boolean matchAll, Collection<Long> exclude, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			CompressedBitmap matches = null;
+			for (Long tagId : include) {
+				CompressedBitmap posts = postsByTag.getOrDefault(tagId, new CompressedBitmap());
+				matches = matches == null ? posts : matchAll ? matches.and(posts) : matches.or(posts);
+			}
+			if (matches == null) {
+				matches = allPosts;
+			}
+			for (Long tagId : exclude) {
+				CompressedBitmap posts = postsByTag.get(tagId);
+				if (posts != null) {
+					matches = matches.andNot(posts);
+				}
+			}
+
+			int[] ids = matches.descending(offset, limit);
+			long[] postIds = new long[ids.length];
+			for (int i = 0; i < ids.length; i++) {
+				postIds[i] = ids[i];
+			}
+			return new Result(postIds, matches.cardinality());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public synchronized void snapshot() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		lock.readLock().lock();
+		try {
+			if (!dirty || !ready) {
+				return;
+			}
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(lastPostId);
+				allPosts.write(out);
+				out.writeInt(postsByTag.size());
+				for (Map.Entry<Long, CompressedBitmap> entry : postsByTag.entrySet()) {
+					out.writeLong(entry.getKey());
+					entry.getValue().write(out);
+				}
+			}
+			dirty = false;
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		Path path = Paths.get(snapshot);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(temp, bytes.toByteArray());
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+		snapshotQuietly();
+	}
+
+	/**
+	 * Rebuilds the index from {@code source} and swaps it in. Posts added or removed through this instance while it
+	 * reads, and tags deleted meanwhile, are taken from the current index instead, as the batch holding them may
+	 * have been read before the change.
+	 */
+	void reconcile(Source source) {
+		lock.writeLock().lock();
+		try {
+			touched = new HashSet<>();
+			removedTags = new HashSet<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		try {
+			long start = System.currentTimeMillis();
+			CompressedBitmap posts = new CompressedBitmap();
+			Map<Long, CompressedBitmap> byTag = new HashMap<>();
+			long lastId = 0;
+			for (SortedMap<Long, List<Long>> batch = source.tagIdsAfter(lastId); !batch.isEmpty();
+					batch = source.tagIdsAfter(lastId)) {
+				for (Map.Entry<Long, List<Long>> entry : batch.entrySet()) {
+					int id = Math.toIntExact(entry.getKey());
+					posts.add(id);
+					for (Long tagId : entry.getValue()) {
+						byTag.computeIfAbsent(tagId, key -> new CompressedBitmap()).add(id);
+					}
+				}
+				lastId = batch.lastKey();
+			}
+
+			lock.writeLock().lock();
+			try {
+				removedTags.forEach(byTag::remove);
+				for (int id : touched) {
+					posts.remove(id);
+					byTag.values().forEach(tagged -> tagged.remove(id));
+					if (allPosts.contains(id)) {
+						posts.add(id);
+						postsByTag.forEach((tagId, tagged) -> {
+							if (tagged.contains(id)) {
+								byTag.computeIfAbsent(tagId, key -> new CompressedBitmap()).add(id);
+							}
+						});
+					}
+				}
+				long differing = posts.andNot(allPosts).cardinality() + allPosts.andNot(posts).cardinality();
+				allPosts = posts;
+				postsByTag.clear();
+				postsByTag.putAll(byTag);
+				lastPostId = Math.max(lastPostId, lastId);
+				dirty = true;
+				LOGGER.info("Tag index reconciled in {} ms, {} posts differed", System.currentTimeMillis() - start,
+						differing);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} catch (Exception ex) {
+			LOGGER.error("Could not reconcile the tag index", ex);
+		} finally {
+			lock.writeLock().lock();
+			try {
+				touched = null;
+				removedTags = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	private void snapshotQuietly() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException ex) {
+			LOGGER.error("Could not write the tag index snapshot", ex);
+		}
+	}
+
+	private void read(Path path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a tag index snapshot: " + path);
+			}
+			lastPostId = in.readLong();
+			allPosts = CompressedBitmap.read(in);
+			int tagCount = in.readInt();
+			for (int i = 0; i < tagCount; i++) {
+				postsByTag.put(in.readLong(), CompressedBitmap.read(in));
+			}
+		}
+	}
+
+	/**
+	 * Reads posts from the database for {@link #load} and {@link #reconcile}.
+	 */
+	@FunctionalInterface
+	public interface Source {
+		/**
+		 * @return the tag ids of the next batch of posts with an id above {@code lastId}, by post id; empty once
+		 * there are none
+		 */
+		SortedMap<Long, List<Long>> tagIdsAfter(long lastId);
+	}
+
+	public static final class Result {
+		private final long[] postIds;
+
+		private final long total;
+
+		private Result(long[] postIds, long total) {
+			this.postIds = postIds;
+			this.total = total;
+		}
+
+		public long[] getPostIds() {
+			return postIds;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+	}
+}
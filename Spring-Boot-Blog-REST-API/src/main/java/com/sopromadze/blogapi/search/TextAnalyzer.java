@@ -0,0 +1,76 @@
+package com.sopromadze.blogapi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text on anything that is not a letter or digit, then lower-cases and strips diacritics from each token
+ * so that "Canción" and "cancion" index to the same term. Offsets point into the original text for highlighting.
+ */
+public final class TextAnalyzer {
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private static final int MAX_TERM_LENGTH = 64;
+
+	private TextAnalyzer() {
+	}
+
+	public static List<Token> tokenize(String text) {
+		List<Token> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+
+		int length = text.length();
+		int start = -1;
+		for (int i = 0; i <= length; i++) {
+			boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				if (i - start <= MAX_TERM_LENGTH) {
+					tokens.add(new Token(normalize(text.substring(start, i)), start, i));
+				}
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	public static String normalize(String word) {
+		String lowerCase = word.toLowerCase(Locale.ROOT);
+		if (lowerCase.chars().allMatch(c -> c < 128)) {
+			return lowerCase;
+		}
+		return DIACRITICS.matcher(Normalizer.normalize(lowerCase, Normalizer.Form.NFD)).replaceAll("");
+	}
+
+	public static final class Token {
+		private final String term;
+
+		private final int start;
+
+		private final int end;
+
+		Token(String term, int start, int end) {
+			this.term = term;
+			this.start = start;
+			this.end = end;
+		}
+
+		public String getTerm() {
+			return term;
+		}
+
+		public int getStart() {
+			return start;
+		}
+
+		public int getEnd() {
+			return end;
+		}
+	}
+}
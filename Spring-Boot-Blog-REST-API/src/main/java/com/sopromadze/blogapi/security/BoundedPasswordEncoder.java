@@ -0,0 +1,110 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the wrapped (BCrypt) encoder on a dedicated, fixed-size pool with a bounded queue, so that a burst of
+ * sign-ins or sign-ups can only occupy that pool instead of every request thread. When the queue is full the
+ * call fails fast with {@link ServiceUnavailableException} (HTTP 503).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+	private static final String SATURATED = "Too many password operations in progress, please try again later";
+
+	private final PasswordEncoder delegate;
+
+	private final ThreadPoolExecutor executor;
+
+	private final long timeoutInMs;
+
+	private final Timer encodeTimer;
+
+	private final Timer matchesTimer;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutInMs,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.timeoutInMs = timeoutInMs;
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		Gauge.builder("blogapi.password.hashing.queue.depth", executor, e -> e.getQueue().size())
+				.description("Password hashing tasks waiting for a thread").register(meterRegistry);
+		Gauge.builder("blogapi.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Password hashing tasks running").register(meterRegistry);
+		this.encodeTimer = Timer.builder("blogapi.password.hashing.latency").tag("operation", "encode")
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("blogapi.password.hashing.latency").tag("operation", "matches")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private <T> T submit(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException ex) {
+			throw new ServiceUnavailableException(SATURATED, ex);
+		}
+
+		try {
+			return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			future.cancel(true);
+			throw new ServiceUnavailableException(SATURATED, ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			throw new ServiceUnavailableException(SATURATED, ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
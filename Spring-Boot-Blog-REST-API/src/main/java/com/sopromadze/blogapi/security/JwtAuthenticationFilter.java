@@ -1,6 +1,9 @@
 package com.sopromadze.blogapi.security;
 
+import com.sopromadze.blogapi.perf.RequestTiming;
+import com.sopromadze.blogapi.perf.jfr.AuthenticationEvent;
 import com.sopromadze.blogapi.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,34 +32,71 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 	private final CustomUserDetailsService customUserDetailsService;
 
+	private final PrincipalInvalidationRegistry principalInvalidationRegistry;
+
+	private final TokenRevocationList tokenRevocationList;
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 		try {
-			String jwt = getJwtFromRequest(request);
+			String jwt = tokenProvider.getJwtFromRequest(request);
+
+			if (StringUtils.hasText(jwt)) {
+				authenticate(jwt, request);
+			}
+		} catch (Exception ex) {
+			LOGGER.error("Could not set user authentication in security context", ex);
+		}
+
+		filterChain.doFilter(request, response);
+	}
+
+	private void authenticate(String jwt, HttpServletRequest request) {
+		AuthenticationEvent event = new AuthenticationEvent();
+		event.begin();
+		try {
+			Claims claims = parseClaims(jwt);
 
-			if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-				Long userId = tokenProvider.getUserIdFromJWT(jwt);
+			if (claims != null) {
+				Long userId = Long.valueOf(claims.getSubject());
 
-				UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+				UserDetails userDetails;
+				boolean principalFromToken = tokenProvider.isStatelessPrincipal(claims)
+						&& !principalInvalidationRegistry.isStale(userId, claims.getIssuedAt().getTime());
+				if (principalFromToken) {
+					userDetails = tokenProvider.getUserPrincipalFromClaims(claims);
+				} else {
+					RequestTiming.begin(RequestTiming.Phase.USER);
+					try {
+						userDetails = customUserDetailsService.loadUserById(userId);
+					} finally {
+						RequestTiming.end(RequestTiming.Phase.USER);
+					}
+				}
 				UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
 						userDetails.getAuthorities());
 				authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
 				SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+				event.authenticated(userId, principalFromToken);
 			}
-		} catch (Exception ex) {
-			LOGGER.error("Could not set user authentication in security context", ex);
+		} finally {
+			event.complete();
 		}
-
-		filterChain.doFilter(request, response);
 	}
 
-	private String getJwtFromRequest(HttpServletRequest request) {
-		String bearerToken = request.getHeader("Authorization");
-		if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-			return bearerToken.substring(7, bearerToken.length());
+	/**
+	 * @return the claims of the token, or {@code null} if it is not valid or was revoked
+	 */
+	private Claims parseClaims(String jwt) {
+		RequestTiming.begin(RequestTiming.Phase.JWT);
+		try {
+			Claims claims = tokenProvider.parseToken(jwt);
+
+			return claims != null && !tokenRevocationList.isRevoked(claims.getId()) ? claims : null;
+		} finally {
+			RequestTiming.end(RequestTiming.Phase.JWT);
 		}
-		return null;
 	}
 }
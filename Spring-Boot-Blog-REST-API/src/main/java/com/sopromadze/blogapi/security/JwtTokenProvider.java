@@ -1,7 +1,12 @@
 package com.sopromadze.blogapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sopromadze.blogapi.perf.jfr.CacheAccessEvent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -11,47 +16,168 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 	private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+	private static final String USERNAME_CLAIM = "username";
+
+	private static final String EMAIL_CLAIM = "email";
+
+	private static final String FIRST_NAME_CLAIM = "firstName";
+
+	private static final String LAST_NAME_CLAIM = "lastName";
+
+	private static final String ROLES_CLAIM = "roles";
+
 	@Value(value = "${app.jwtSecret}")
 	private String jwtSecret;
 
 	@Value(value = "${app.jwtExpirationInMs}")
 	private int jwtExpirationInMs;
 
+	@Value(value = "${app.jwtStatelessPrincipal:false}")
+	private boolean jwtStatelessPrincipal;
+
+	@Value(value = "${app.jwtCacheMaxSize:10000}")
+	private int jwtCacheMaxSize;
+
+	private JwtParser jwtParser;
+
+	private Cache<String, Claims> verifiedTokens;
+
+	@PostConstruct
+	void init() {
+		jwtParser = Jwts.parser().setSigningKey(jwtSecret);
+		verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(jwtCacheMaxSize)
+				.expireAfter(new Expiry<String, Claims>() {
+					@Override
+					public long expireAfterCreate(String key, Claims claims, long currentTime) {
+						long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+						return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+
+					@Override
+					public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+	}
+
 	public String generateToken(Authentication authentication) {
 		UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
 		Date now = new Date();
 		Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
+		Claims claims = Jwts.claims().setSubject(Long.toString(userPrincipal.getId()));
+
+		if (jwtStatelessPrincipal) {
+			List<String> roles = new ArrayList<>();
+			for (GrantedAuthority authority : userPrincipal.getAuthorities()) {
+				roles.add(authority.getAuthority());
+			}
+
+			claims.put(USERNAME_CLAIM, userPrincipal.getUsername());
+			claims.put(EMAIL_CLAIM, userPrincipal.getEmail());
+			claims.put(FIRST_NAME_CLAIM, userPrincipal.getFirstName());
+			claims.put(LAST_NAME_CLAIM, userPrincipal.getLastName());
+			claims.put(ROLES_CLAIM, roles);
+		}
+
 		return Jwts.builder()
-				.setSubject(Long.toString(userPrincipal.getId()))
-				.setIssuedAt(new Date())
+				.setClaims(claims)
+				.setId(UUID.randomUUID().toString())
+				.setIssuedAt(now)
 				.setExpiration(expiryDate)
 				.signWith(SignatureAlgorithm.HS512, jwtSecret)
 				.compact();
 	}
 
+	public String getJwtFromRequest(HttpServletRequest request) {
+		String bearerToken = request.getHeader("Authorization");
+		if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+			return bearerToken.substring(7);
+		}
+		return null;
+	}
+
 	public Long getUserIdFromJWT(String token) {
-		Claims claims = Jwts.parser()
-				.setSigningKey(jwtSecret)
-				.parseClaimsJws(token)
-				.getBody();
+		return Long.valueOf(getClaimsFromJWT(token).getSubject());
+	}
+
+	public Claims getClaimsFromJWT(String token) {
+		return jwtParser.parseClaimsJws(token).getBody();
+	}
+
+	/**
+	 * Verifies the token once and returns its claims, or {@code null} when the token is not valid.
+	 * Verified tokens are remembered by digest until their own expiration, so repeat requests with the
+	 * same token skip the signature check.
+	 */
+	public Claims parseToken(String authToken) {
+		String digest = digest(authToken);
+		Claims claims = verifiedTokens.getIfPresent(digest);
+		CacheAccessEvent.emit("verifiedTokens", null, claims != null);
+		if (claims != null) {
+			return claims;
+		}
 
-		return Long.valueOf(claims.getSubject());
+		claims = verifyToken(authToken);
+		if (claims != null && claims.getExpiration() != null) {
+			verifiedTokens.put(digest, claims);
+		}
+		return claims;
+	}
+
+	public boolean isStatelessPrincipal(Claims claims) {
+		return jwtStatelessPrincipal && claims.containsKey(USERNAME_CLAIM) && claims.containsKey(ROLES_CLAIM);
+	}
+
+	public UserPrincipal getUserPrincipalFromClaims(Claims claims) {
+		Collection<?> roles = claims.get(ROLES_CLAIM, Collection.class);
+		List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+		for (Object role : roles) {
+			authorities.add(new SimpleGrantedAuthority(role.toString()));
+		}
+
+		return new UserPrincipal(Long.valueOf(claims.getSubject()), claims.get(FIRST_NAME_CLAIM, String.class),
+				claims.get(LAST_NAME_CLAIM, String.class), claims.get(USERNAME_CLAIM, String.class),
+				claims.get(EMAIL_CLAIM, String.class), null, authorities);
 	}
 
 	public boolean validateToken(String authToken) {
+		return verifyToken(authToken) != null;
+	}
+
+	private Claims verifyToken(String authToken) {
 		try {
-			Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-			return true;
+			return jwtParser.parseClaimsJws(authToken).getBody();
 		} catch (SignatureException ex) {
 			LOGGER.error("Invalid JWT signature");
 		} catch (MalformedJwtException ex) {
@@ -63,6 +189,15 @@ public class JwtTokenProvider {
 		} catch (IllegalArgumentException ex) {
 			LOGGER.error("JWT claims string is empty");
 		}
-		return false;
+		return null;
+	}
+
+	private static String digest(String authToken) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(messageDigest.digest(authToken.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
 	}
 }
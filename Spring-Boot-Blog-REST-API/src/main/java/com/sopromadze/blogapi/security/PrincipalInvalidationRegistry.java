@@ -0,0 +1,106 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.model.PrincipalInvalidation;
+import com.sopromadze.blogapi.repository.PrincipalInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers, per user, the moment its roles or account data last changed. Tokens issued before that
+ * moment no longer carry a trustworthy principal, so the filter falls back to loading the user from the
+ * database. Entries are dropped once every token issued before them has expired.
+ *
+ * <p>With {@code app.jwtPrincipalInvalidationShared} each invalidation is also written to
+ * {@code principal_invalidations}, and every instance reads the table back every
+ * {@code app.jwtPrincipalInvalidationPollInMs}, so a change made through one instance reaches the others within
+ * that interval. Without it invalidations stay in this instance, which is only safe for a single-instance
+ * deployment.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalInvalidationRegistry implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalInvalidationRegistry.class);
+
+	private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+	private final PrincipalInvalidationRepository principalInvalidationRepository;
+
+	private ScheduledExecutorService background;
+
+	@Value(value = "${app.jwtExpirationInMs}")
+	private int jwtExpirationInMs;
+
+	@Value(value = "${app.jwtPrincipalInvalidationShared:false}")
+	private boolean shared;
+
+	@Value(value = "${app.jwtPrincipalInvalidationPollInMs:5000}")
+	private long pollInMs;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!shared) {
+			return;
+		}
+		poll();
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "principal-invalidations");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::poll, pollInMs, pollInMs, TimeUnit.MILLISECONDS);
+	}
+
+	public void invalidate(Long userId) {
+		if (userId == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		invalidatedAt.put(userId, now);
+		invalidatedAt.values().removeIf(version -> version + jwtExpirationInMs < now);
+		if (shared) {
+			principalInvalidationRepository.save(new PrincipalInvalidation(userId, Instant.ofEpochMilli(now)));
+		}
+	}
+
+	public boolean isStale(Long userId, long issuedAtMillis) {
+		Long version = invalidatedAt.get(userId);
+		return version != null && issuedAtMillis <= version;
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reads every invalidation that can still match a live token, rather than only the ones since the last poll,
+	 * so rows committed late by another instance are not missed, and deletes the ones that can no longer match.
+	 */
+	void poll() {
+		try {
+			Instant since = Instant.now().minusMillis(jwtExpirationInMs);
+			for (PrincipalInvalidation invalidation : principalInvalidationRepository.findByInvalidatedAtAfter(since)) {
+				invalidatedAt.merge(invalidation.getUserId(), invalidation.getInvalidatedAt().toEpochMilli(), Math::max);
+			}
+			invalidatedAt.values().removeIf(version -> version < since.toEpochMilli());
+			principalInvalidationRepository.deleteExpired(since);
+		} catch (Exception ex) {
+			LOGGER.error("Could not read principal invalidations", ex);
+		}
+	}
+}
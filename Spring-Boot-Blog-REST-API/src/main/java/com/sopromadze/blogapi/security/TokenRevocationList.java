@@ -0,0 +1,143 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.model.RevokedToken;
+import com.sopromadze.blogapi.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revoked token ids (jti) mapped to the expiration of their token. Lookups are a single hash probe on the
+ * jti string, whose hash is cached by {@link String}, so the check on every request allocates nothing.
+ * Entries are compacted away once their token would have expired anyway, every
+ * {@code app.jwtRevocationCompactionIntervalInMs}.
+ *
+ * <p>With {@code app.jwtRevocationPersistent} revocations are also written to {@code revoked_tokens}, loaded on
+ * startup and polled every {@code app.jwtRevocationPollInMs}, so a logout through one instance reaches the others
+ * within that interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationList.class);
+
+	/**
+	 * How far each poll reaches back before the previous one, to cover clock differences between instances.
+	 */
+	private static final long POLL_OVERLAP_IN_MS = 60000;
+
+	private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+	private final AtomicLong nextCompaction = new AtomicLong();
+
+	private final RevokedTokenRepository revokedTokenRepository;
+
+	private ScheduledExecutorService background;
+
+	private long lastPolledAt;
+
+	@Value(value = "${app.jwtRevocationPersistent:false}")
+	private boolean persistent;
+
+	@Value(value = "${app.jwtRevocationCompactionIntervalInMs:60000}")
+	private long compactionIntervalInMs;
+
+	@Value(value = "${app.jwtRevocationPollInMs:5000}")
+	private long pollInMs;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (persistent) {
+			try {
+				lastPolledAt = System.currentTimeMillis();
+				for (RevokedToken revokedToken : revokedTokenRepository.findByExpiresAtAfter(Instant.now())) {
+					revoked.put(revokedToken.getJti(), revokedToken.getExpiresAt().toEpochMilli());
+				}
+				LOGGER.info("Loaded {} revoked tokens", revoked.size());
+			} catch (Exception ex) {
+				LOGGER.error("Could not load revoked tokens", ex);
+			}
+		}
+
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "token-revocations");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::compactIfDue, compactionIntervalInMs, compactionIntervalInMs,
+				TimeUnit.MILLISECONDS);
+		if (persistent) {
+			background.scheduleWithFixedDelay(this::poll, pollInMs, pollInMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public boolean isRevoked(String jti) {
+		return jti != null && revoked.containsKey(jti);
+	}
+
+	public void revoke(String jti, long expiresAtMillis) {
+		revoked.put(jti, expiresAtMillis);
+		if (persistent) {
+			revokedTokenRepository.save(new RevokedToken(jti, Instant.ofEpochMilli(expiresAtMillis), Instant.now()));
+		}
+		compactIfDue();
+	}
+
+	public int size() {
+		return revoked.size();
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reads the rows revoked since shortly before the previous poll, including the ones written by this instance,
+	 * which are already known and simply put again.
+	 */
+	void poll() {
+		long startedAt = System.currentTimeMillis();
+		try {
+			Instant since = Instant.ofEpochMilli(lastPolledAt - POLL_OVERLAP_IN_MS);
+			for (RevokedToken revokedToken : revokedTokenRepository.findByRevokedAtAfter(since)) {
+				revoked.put(revokedToken.getJti(), revokedToken.getExpiresAt().toEpochMilli());
+			}
+			lastPolledAt = startedAt;
+		} catch (Exception ex) {
+			LOGGER.error("Could not poll revoked tokens", ex);
+		}
+	}
+
+	void compactIfDue() {
+		long now = System.currentTimeMillis();
+		long due = nextCompaction.get();
+		if (now < due || !nextCompaction.compareAndSet(due, now + compactionIntervalInMs)) {
+			return;
+		}
+
+		revoked.values().removeIf(expiresAt -> expiresAt < now);
+		if (persistent) {
+			try {
+				revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+			} catch (Exception ex) {
+				LOGGER.error("Could not delete expired revoked tokens", ex);
+			}
+		}
+	}
+}
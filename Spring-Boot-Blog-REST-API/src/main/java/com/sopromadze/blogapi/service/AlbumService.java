@@ -1,8 +1,10 @@
 package com.sopromadze.blogapi.service;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Album;
 import com.sopromadze.blogapi.payload.AlbumResponse;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.request.AlbumRequest;
 import com.sopromadze.blogapi.security.UserPrincipal;
@@ -12,14 +14,24 @@ public interface AlbumService {
 
 	PagedResponse<AlbumResponse> getAllAlbums(int page, int size);
 
+	PagedResponse<AlbumResponse> getAllAlbums(int page, int size, PageMode mode);
+
+	PagedResponse<AlbumResponse> getAllAlbums(String cursor, int size);
+
 	ResponseEntity<Album> addAlbum(AlbumRequest albumRequest, UserPrincipal currentUser);
 
 	ResponseEntity<Album> getAlbum(Long id);
 
+	ResourceVersion getAlbumVersion(Long id);
+
 	ResponseEntity<AlbumResponse> updateAlbum(Long id, AlbumRequest newAlbum, UserPrincipal currentUser);
 
 	ResponseEntity<ApiResponse> deleteAlbum(Long id, UserPrincipal currentUser);
 
 	PagedResponse<Album> getUserAlbums(String username, int page, int size);
 
+	PagedResponse<Album> getUserAlbums(String username, int page, int size, PageMode mode);
+
+	PagedResponse<Album> getUserAlbums(String username, String cursor, int size);
+
 }
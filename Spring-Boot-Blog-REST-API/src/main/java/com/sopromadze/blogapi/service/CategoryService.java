@@ -1,8 +1,10 @@
 package com.sopromadze.blogapi.service;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import org.springframework.http.ResponseEntity;
@@ -11,8 +13,14 @@ public interface CategoryService {
 
 	PagedResponse<Category> getAllCategories(int page, int size);
 
+	PagedResponse<Category> getAllCategories(int page, int size, PageMode mode);
+
+	PagedResponse<Category> getAllCategories(String cursor, int size);
+
 	ResponseEntity<Category> getCategory(Long id);
 
+	ResourceVersion getCategoryVersion(Long id);
+
 	ResponseEntity<Category> addCategory(Category category, UserPrincipal currentUser);
 
 	ResponseEntity<Category> updateCategory(Long id, Category newCategory, UserPrincipal currentUser)
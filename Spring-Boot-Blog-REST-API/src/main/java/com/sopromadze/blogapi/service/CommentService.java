@@ -3,6 +3,7 @@ package com.sopromadze.blogapi.service;
 import com.sopromadze.blogapi.model.Comment;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.CommentRequest;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.UserPrincipal;
 
@@ -10,6 +11,10 @@ public interface CommentService {
 
 	PagedResponse<Comment> getAllComments(Long postId, int page, int size);
 
+	PagedResponse<Comment> getAllComments(Long postId, int page, int size, PageMode mode);
+
+	PagedResponse<Comment> getAllComments(Long postId, String cursor, int size);
+
 	Comment addComment(CommentRequest commentRequest, Long postId, UserPrincipal currentUser);
 
 	Comment getComment(Long postId, Long id);
@@ -1,6 +1,8 @@
 package com.sopromadze.blogapi.service;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PhotoRequest;
 import com.sopromadze.blogapi.payload.PhotoResponse;
@@ -10,8 +12,14 @@ public interface PhotoService {
 
 	PagedResponse<PhotoResponse> getAllPhotos(int page, int size);
 
+	PagedResponse<PhotoResponse> getAllPhotos(int page, int size, PageMode mode);
+
+	PagedResponse<PhotoResponse> getAllPhotos(String cursor, int size);
+
 	PhotoResponse getPhoto(Long id);
 
+	ResourceVersion getPhotoVersion(Long id);
+
 	PhotoResponse updatePhoto(Long id, PhotoRequest photoRequest, UserPrincipal currentUser);
 
 	PhotoResponse addPhoto(PhotoRequest photoRequest, UserPrincipal currentUser);
@@ -20,4 +28,8 @@ public interface PhotoService {
 
 	PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, int page, int size);
 
+	PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, int page, int size, PageMode mode);
+
+	PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, String cursor, int size);
+
 }
\ No newline at end of file
@@ -1,22 +1,46 @@
 package com.sopromadze.blogapi.service;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Post;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PostRequest;
 import com.sopromadze.blogapi.payload.PostResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
+import com.sopromadze.blogapi.payload.TagMatch;
 import com.sopromadze.blogapi.security.UserPrincipal;
 
+import java.util.List;
+
 public interface PostService {
 
 	PagedResponse<Post> getAllPosts(int page, int size);
 
+	PagedResponse<Post> getAllPosts(int page, int size, PageMode mode);
+
+	PagedResponse<Post> getAllPosts(String cursor, int size);
+
 	PagedResponse<Post> getPostsByCreatedBy(String username, int page, int size);
 
+	PagedResponse<Post> getPostsByCreatedBy(String username, int page, int size, PageMode mode);
+
+	PagedResponse<Post> getPostsByCreatedBy(String username, String cursor, int size);
+
 	PagedResponse<Post> getPostsByCategory(Long id, int page, int size);
 
+	PagedResponse<Post> getPostsByCategory(Long id, int page, int size, PageMode mode);
+
+	PagedResponse<Post> getPostsByCategory(Long id, String cursor, int size);
+
 	PagedResponse<Post> getPostsByTag(Long id, int page, int size);
 
+	PagedResponse<Post> getPostsByTag(Long id, int page, int size, PageMode mode);
+
+	PagedResponse<Post> getPostsByTag(Long id, String cursor, int size);
+
+	PagedResponse<Post> getPostsByTags(List<String> tags, TagMatch match, List<String> exclude, int page, int size);
+
 	Post updatePost(Long id, PostRequest newPostRequest, UserPrincipal currentUser);
 
 	ApiResponse deletePost(Long id, UserPrincipal currentUser);
@@ -25,4 +49,8 @@ public interface PostService {
 
 	Post getPost(Long id);
 
+	ResourceVersion getPostVersion(Long id);
+
+	PagedResponse<PostSummary> summarize(PagedResponse<Post> posts);
+
 }
@@ -0,0 +1,25 @@
+package com.sopromadze.blogapi.service;
+
+import com.sopromadze.blogapi.model.Comment;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.SearchResult;
+
+import java.util.Collection;
+
+public interface SearchService {
+
+	PagedResponse<SearchResult> search(String query, int page, int size);
+
+	void indexPost(Post post);
+
+	void indexComment(Comment comment);
+
+	void removePost(Long id);
+
+	void removePosts(Collection<Long> ids);
+
+	void removeComment(Long id);
+
+	void removeCommentsOfUser(Long userId);
+}
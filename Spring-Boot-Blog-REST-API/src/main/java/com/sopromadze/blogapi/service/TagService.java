@@ -1,7 +1,9 @@
 package com.sopromadze.blogapi.service;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Tag;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.UserPrincipal;
 
@@ -9,8 +11,14 @@ public interface TagService {
 
 	PagedResponse<Tag> getAllTags(int page, int size);
 
+	PagedResponse<Tag> getAllTags(int page, int size, PageMode mode);
+
+	PagedResponse<Tag> getAllTags(String cursor, int size);
+
 	Tag getTag(Long id);
 
+	ResourceVersion getTagVersion(Long id);
+
 	Tag addTag(Tag tag, UserPrincipal currentUser);
 
 	Tag updateTag(Long id, Tag newTag, UserPrincipal currentUser);
@@ -2,6 +2,7 @@ package com.sopromadze.blogapi.service;
 
 import com.sopromadze.blogapi.model.Todo;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.security.UserPrincipal;
 
@@ -13,6 +14,10 @@ public interface TodoService {
 
 	PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, int page, int size);
 
+	PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, int page, int size, PageMode mode);
+
+	PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, String cursor, int size);
+
 	Todo addTodo(Todo todo, UserPrincipal currentUser);
 
 	Todo getTodo(Long id, UserPrincipal currentUser);
@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.exception.BlogapiException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.model.Album;
@@ -7,6 +8,7 @@ import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.AlbumResponse;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.request.AlbumRequest;
 import com.sopromadze.blogapi.repository.AlbumRepository;
@@ -14,18 +16,24 @@ import com.sopromadze.blogapi.repository.UserRepository;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.AlbumService;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -48,12 +56,31 @@ public class AlbumServiceImpl implements AlbumService {
 
 	private final ModelMapper modelMapper;
 
+	private final ApproximateCountCache approximateCountCache;
+
+	private final UserProfileUpdater userProfileUpdater;
+
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<AlbumResponse> getAllAlbums(int page, int size) {
+		return getAllAlbums(page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<AlbumResponse> getAllAlbums(int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Album> albums = albumRepository.findSliceBy(pageable);
+			long total = mode == PageMode.APPROXIMATE
+					? approximateCountCache.count("albums", albumRepository::count) : -1;
+
+			return AppUtils.toSliceResponse(albums, toAlbumResponses(albums.getContent()), total);
+		}
+
 		Page<Album> albums = albumRepository.findAll(pageable);
 
 		if (albums.getNumberOfElements() == 0) {
@@ -61,13 +88,31 @@ public class AlbumServiceImpl implements AlbumService {
 					albums.getTotalPages(), albums.isLast());
 		}
 
-		List<AlbumResponse> albumResponses = Arrays.asList(modelMapper.map(albums.getContent(), AlbumResponse[].class));
+		List<AlbumResponse> albumResponses = toAlbumResponses(albums.getContent());
 
 		return new PagedResponse<>(albumResponses, albums.getNumber(), albums.getSize(), albums.getTotalElements(), albums.getTotalPages(),
 				albums.isLast());
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<AlbumResponse> getAllAlbums(String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Album> albums = albumRepository.seekAll(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(albums, toAlbumResponses(albums.getContent()), Album::getId);
+	}
+
+	private List<AlbumResponse> toAlbumResponses(List<Album> albums) {
+		if (albums.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Arrays.asList(modelMapper.map(withPhotos(albums), AlbumResponse[].class));
+	}
+
+	@Override
+	@Transactional
 	public ResponseEntity<Album> addAlbum(AlbumRequest albumRequest, UserPrincipal currentUser) {
 		User user = userRepository.getUser(currentUser);
 
@@ -77,16 +122,26 @@ public class AlbumServiceImpl implements AlbumService {
 
 		album.setUser(user);
 		Album newAlbum = albumRepository.save(album);
+		userProfileUpdater.albumAdded(user.getId());
 		return new ResponseEntity<>(newAlbum, HttpStatus.CREATED);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public ResponseEntity<Album> getAlbum(Long id) {
 		Album album = albumRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(ALBUM_STR, ID, id));
+		Hibernate.initialize(album.getPhoto());
 		return new ResponseEntity<>(album, HttpStatus.OK);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public ResourceVersion getAlbumVersion(Long id) {
+		return albumRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(ALBUM_STR, ID, id));
+	}
+
+	@Override
+	@Transactional
 	public ResponseEntity<AlbumResponse> updateAlbum(Long id, AlbumRequest newAlbum, UserPrincipal currentUser) {
 		Album album = albumRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(ALBUM_STR, ID, id));
 		User user = userRepository.getUser(currentUser);
@@ -106,11 +161,13 @@ public class AlbumServiceImpl implements AlbumService {
 	}
 
 	@Override
+	@Transactional
 	public ResponseEntity<ApiResponse> deleteAlbum(Long id, UserPrincipal currentUser) {
 		Album album = albumRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(ALBUM_STR, ID, id));
 		User user = userRepository.getUser(currentUser);
 		if (album.getUser().getId().equals(user.getId()) || currentUser.getAuthorities()
 				.contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
+			userProfileUpdater.albumRemoved(album.getUser().getId());
 			albumRepository.deleteById(id);
 			return new ResponseEntity<>(new ApiResponse(Boolean.TRUE, "You successfully deleted album"), HttpStatus.OK);
 		}
@@ -119,15 +176,56 @@ public class AlbumServiceImpl implements AlbumService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Album> getUserAlbums(String username, int page, int size) {
+		return getUserAlbums(username, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Album> getUserAlbums(String username, int page, int size, PageMode mode) {
 		User user = userRepository.getUserByName(username);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Album> albums = albumRepository.findSliceByCreatedBy(user.getId(), pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("albums:createdBy:" + user.getId(),
+					() -> albumRepository.countByCreatedBy(user.getId())) : -1;
+
+			return AppUtils.toSliceResponse(albums, withPhotos(albums.getContent()), total);
+		}
+
 		Page<Album> albums = albumRepository.findByCreatedBy(user.getId(), pageable);
 
-		List<Album> content = albums.getNumberOfElements() > 0 ? albums.getContent() : Collections.emptyList();
+		List<Album> content = albums.getNumberOfElements() > 0 ? withPhotos(albums.getContent()) : Collections.emptyList();
 
 		return new PagedResponse<>(content, albums.getNumber(), albums.getSize(), albums.getTotalElements(), albums.getTotalPages(), albums.isLast());
 	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Album> getUserAlbums(String username, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+		User user = userRepository.getUserByName(username);
+
+		Slice<Album> albums = albumRepository.seekByCreatedBy(user.getId(), position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(albums, withPhotos(albums.getContent()), Album::getId);
+	}
+
+	/**
+	 * Loads the photos of the albums in one query, so they can be written after the transaction has ended.
+	 */
+	private List<Album> withPhotos(List<Album> albums) {
+		if (!albums.isEmpty()) {
+			List<Long> ids = new ArrayList<>(albums.size());
+			for (Album album : albums) {
+				ids.add(album.getId());
+			}
+			albumRepository.findWithPhotoByIdIn(ids);
+		}
+		return albums;
+	}
 }
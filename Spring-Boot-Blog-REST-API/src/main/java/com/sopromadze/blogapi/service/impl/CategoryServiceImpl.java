@@ -1,28 +1,43 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.repository.CategoryRepository;
+import com.sopromadze.blogapi.repository.PostRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.CategoryService;
+import com.sopromadze.blogapi.service.SearchService;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -30,39 +45,100 @@ public class CategoryServiceImpl implements CategoryService {
 
 	private final CategoryRepository categoryRepository;
 
+	private final PostRepository postRepository;
+
+	private final ApproximateCountCache approximateCountCache;
+
+	private final TagPostCounter tagPostCounter;
+
+	private final ResponseCache responseCache;
+
+	private final ReferenceData referenceData;
+
+	private final UserProfileUpdater userProfileUpdater;
+
+	private final SearchService searchService;
+
+	private final TagPostIndex tagPostIndex;
+
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Category> getAllCategories(int page, int size) {
+		return getAllCategories(page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Category> getAllCategories(int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
+		Snapshot<Category> snapshot = referenceData.categories();
+
+		if (mode != PageMode.PAGE) {
+			Slice<Category> categories = snapshot != null ? snapshot.slice(pageable)
+					: categoryRepository.findSliceBy(pageable);
+			long total = mode != PageMode.APPROXIMATE ? -1 : snapshot != null ? snapshot.size()
+					: approximateCountCache.count("categories", categoryRepository::count);
 
-		Page<Category> categories = categoryRepository.findAll(pageable);
+			return AppUtils.toSliceResponse(categories, withPosts(categories.getContent()), total);
+		}
 
-		List<Category> content = categories.getNumberOfElements() == 0 ? Collections.emptyList() : categories.getContent();
+		Page<Category> categories = snapshot != null ? snapshot.page(pageable) : categoryRepository.findAll(pageable);
+
+		List<Category> content = categories.getNumberOfElements() == 0 ? Collections.emptyList()
+				: withPosts(categories.getContent());
 
 		return new PagedResponse<>(content, categories.getNumber(), categories.getSize(), categories.getTotalElements(),
 				categories.getTotalPages(), categories.isLast());
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Category> getAllCategories(String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+		Snapshot<Category> snapshot = referenceData.categories();
+
+		Slice<Category> categories = snapshot != null
+				? snapshot.seek(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size))
+				: categoryRepository.seekAll(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(categories, withPosts(categories.getContent()), Category::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public ResponseEntity<Category> getCategory(Long id) {
 		Category category = categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+		withPosts(Collections.singletonList(category));
 		return new ResponseEntity<>(category, HttpStatus.OK);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public ResourceVersion getCategoryVersion(Long id) {
+		return categoryRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+	}
+
 	@Override
 	public ResponseEntity<Category> addCategory(Category category, UserPrincipal currentUser) {
 		Category newCategory = categoryRepository.save(category);
+		referenceData.put(newCategory);
+		responseCache.evict(ResponseCache.CATEGORIES);
 		return new ResponseEntity<>(newCategory, HttpStatus.CREATED);
 	}
 
 	@Override
+	@Transactional
 	public ResponseEntity<Category> updateCategory(Long id, Category newCategory, UserPrincipal currentUser) {
 		Category category = categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
 		if (category.getCreatedBy().equals(currentUser.getId()) || currentUser.getAuthorities()
 				.contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
 			category.setName(newCategory.getName());
 			Category updatedCategory = categoryRepository.save(category);
+			referenceData.put(updatedCategory);
+			withPosts(Collections.singletonList(updatedCategory));
+			responseCache.evict(ResponseCache.CATEGORIES, ResponseCache.POSTS);
 			return new ResponseEntity<>(updatedCategory, HttpStatus.OK);
 		}
 
@@ -70,35 +146,50 @@ public class CategoryServiceImpl implements CategoryService {
 	}
 
 	@Override
+	@Transactional
 	public ResponseEntity<ApiResponse> deleteCategory(Long id, UserPrincipal currentUser) {
 		Category category = categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("category", "id", id));
 		if (category.getCreatedBy().equals(currentUser.getId()) || currentUser.getAuthorities()
 				.contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
+			List<Long> postIds = postRepository.findIdsByCategoryId(id);
+			tagPostCounter.removePostsOfCategory(id);
+			userProfileUpdater.removePostsOfCategory(id);
+			searchService.removePosts(postIds);
 			categoryRepository.deleteById(id);
+			tagPostIndex.removeAll(postIds);
+			referenceData.removeCategory(id);
+			responseCache.clear();
 			return new ResponseEntity<>(new ApiResponse(Boolean.TRUE, "You successfully deleted category"), HttpStatus.OK);
 		}
 		throw new UnauthorizedException("You don't have permission to delete this category");
 	}
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
 
+	/**
+	 * Loads the categories with their posts, and the tags of those posts, in two queries, so they can be written
+	 * after the transaction has ended. Categories listed from the reference data are detached copies without posts,
+	 * so the loaded ones are returned in their place, in the same order; any deleted meanwhile is left out.
+	 */
+	private List<Category> withPosts(List<Category> categories) {
+		if (categories.isEmpty()) {
+			return categories;
+		}
+		List<Long> ids = new ArrayList<>(categories.size());
+		for (Category category : categories) {
+			ids.add(category.getId());
+		}
+		Map<Long, Category> loaded = new HashMap<>();
+		for (Category category : categoryRepository.findWithPostsByIdIn(ids)) {
+			loaded.put(category.getId(), category);
+		}
+		postRepository.findWithTagsByCategoryIdIn(ids);
+
+		List<Category> content = new ArrayList<>(categories.size());
+		for (Category category : categories) {
+			Category withPosts = loaded.get(category.getId());
+			if (withPosts != null) {
+				content.add(withPosts);
+			}
+		}
+		return content;
+	}
+}
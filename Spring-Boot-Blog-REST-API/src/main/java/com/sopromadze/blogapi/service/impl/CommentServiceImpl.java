@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.BlogapiException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.model.Comment;
@@ -8,22 +9,28 @@ import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.CommentRequest;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.repository.CommentRepository;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.CommentService;
+import com.sopromadze.blogapi.service.SearchService;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -46,11 +53,34 @@ public class CommentServiceImpl implements CommentService {
 
 	private final UserRepository userRepository;
 
+	private final ApproximateCountCache approximateCountCache;
+
+	private final SearchService searchService;
+
+	private final ResponseCache responseCache;
+
+	private final UserProfileUpdater userProfileUpdater;
+
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Comment> getAllComments(Long postId, int page, int size) {
+		return getAllComments(postId, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Comment> getAllComments(Long postId, int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
 
+		if (mode != PageMode.PAGE) {
+			Slice<Comment> comments = commentRepository.findSliceByPostId(postId, pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("comments:post:" + postId,
+					() -> commentRepository.countByPostId(postId)) : -1;
+
+			return AppUtils.toSliceResponse(comments, comments.getContent(), total);
+		}
+
 		Page<Comment> comments = commentRepository.findByPostId(postId, pageable);
 
 		return new PagedResponse<>(comments.getContent(), comments.getNumber(), comments.getSize(),
@@ -58,6 +88,18 @@ public class CommentServiceImpl implements CommentService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Comment> getAllComments(Long postId, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Comment> comments = commentRepository.seekByPostId(postId, position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(comments, comments.getContent(), Comment::getId);
+	}
+
+	@Override
+	@Transactional
 	public Comment addComment(CommentRequest commentRequest, Long postId, UserPrincipal currentUser) {
 		Post post = postRepository.findById(postId)
 				.orElseThrow(() -> new ResourceNotFoundException(POST_STR, ID_STR, postId));
@@ -67,10 +109,15 @@ public class CommentServiceImpl implements CommentService {
 		comment.setPost(post);
 		comment.setName(currentUser.getUsername());
 		comment.setEmail(currentUser.getEmail());
-		return commentRepository.save(comment);
+		Comment newComment = commentRepository.save(comment);
+		userProfileUpdater.commentAdded(user.getId());
+		searchService.indexComment(newComment);
+		responseCache.evict(ResponseCache.comments(postId));
+		return newComment;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Comment getComment(Long postId, Long id) {
 		Post post = postRepository.findById(postId)
 				.orElseThrow(() -> new ResourceNotFoundException(POST_STR, ID_STR, postId));
@@ -98,13 +145,17 @@ public class CommentServiceImpl implements CommentService {
 		if (comment.getUser().getId().equals(currentUser.getId())
 				|| currentUser.getAuthorities().contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
 			comment.setBody(commentRequest.getBody());
-			return commentRepository.save(comment);
+			Comment updatedComment = commentRepository.save(comment);
+			searchService.indexComment(updatedComment);
+			responseCache.evict(ResponseCache.comments(postId));
+			return updatedComment;
 		}
 
 		throw new BlogapiException(HttpStatus.UNAUTHORIZED, YOU_DON_T_HAVE_PERMISSION_TO + "update" + THIS_COMMENT);
 	}
 
 	@Override
+	@Transactional
 	public ApiResponse deleteComment(Long postId, Long id, UserPrincipal currentUser) {
 		Post post = postRepository.findById(postId)
 				.orElseThrow(() -> new ResourceNotFoundException(POST_STR, ID_STR, postId));
@@ -117,7 +168,10 @@ public class CommentServiceImpl implements CommentService {
 
 		if (comment.getUser().getId().equals(currentUser.getId())
 				|| currentUser.getAuthorities().contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
+			userProfileUpdater.commentRemoved(comment.getUser().getId());
 			commentRepository.deleteById(comment.getId());
+			searchService.removeComment(comment.getId());
+			responseCache.evict(ResponseCache.comments(postId));
 			return new ApiResponse(Boolean.TRUE, "You successfully deleted comment");
 		}
 
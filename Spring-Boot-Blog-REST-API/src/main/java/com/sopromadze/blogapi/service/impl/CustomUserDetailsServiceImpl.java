@@ -7,6 +7,7 @@ import com.sopromadze.blogapi.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -15,7 +16,7 @@ import javax.transaction.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsServiceImpl implements UserDetailsService, CustomUserDetailsService {
+public class CustomUserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService, CustomUserDetailsService {
 
 	private final UserRepository userRepository;
 
@@ -34,4 +35,13 @@ public class CustomUserDetailsServiceImpl implements UserDetailsService, CustomU
 
 		return UserPrincipal.create(user);
 	}
+
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		User user = userRepository.getUserByName(userDetails.getUsername());
+		user.setPassword(newPassword);
+
+		return UserPrincipal.create(userRepository.save(user));
+	}
 }
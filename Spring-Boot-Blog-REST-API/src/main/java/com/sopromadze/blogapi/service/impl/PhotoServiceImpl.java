@@ -1,11 +1,13 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Album;
 import com.sopromadze.blogapi.model.Photo;
 import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PhotoRequest;
 import com.sopromadze.blogapi.payload.PhotoResponse;
@@ -15,14 +17,18 @@ import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.PhotoService;
 import com.sopromadze.blogapi.utils.AppConstants;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,11 +47,29 @@ public class PhotoServiceImpl implements PhotoService {
 
 	private final AlbumRepository albumRepository;
 
+	private final ApproximateCountCache approximateCountCache;
+
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<PhotoResponse> getAllPhotos(int page, int size) {
+		return getAllPhotos(page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<PhotoResponse> getAllPhotos(int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
+
+		if (mode != PageMode.PAGE) {
+			Slice<Photo> photos = photoRepository.findSliceBy(pageable);
+			long total = mode == PageMode.APPROXIMATE
+					? approximateCountCache.count("photos", photoRepository::count) : -1;
+
+			return AppUtils.toSliceResponse(photos, toPhotoResponses(photos.getContent()), total);
+		}
+
 		Page<Photo> photos = photoRepository.findAll(pageable);
 
 		List<PhotoResponse> photoResponses = new ArrayList<>(photos.getContent().size());
@@ -64,6 +88,17 @@ public class PhotoServiceImpl implements PhotoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<PhotoResponse> getAllPhotos(String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Photo> photos = photoRepository.seekAll(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(photos, toPhotoResponses(photos.getContent()), Photo::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public PhotoResponse getPhoto(Long id) {
 		Photo photo = photoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(PHOTO, ID, id));
 
@@ -72,6 +107,13 @@ public class PhotoServiceImpl implements PhotoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public ResourceVersion getPhotoVersion(Long id) {
+		return photoRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(PHOTO, ID, id));
+	}
+
+	@Override
+	@Transactional
 	public PhotoResponse updatePhoto(Long id, PhotoRequest photoRequest, UserPrincipal currentUser) {
 		Album album = albumRepository.findById(photoRequest.getAlbumId())
 				.orElseThrow(() -> new ResourceNotFoundException(ALBUM, ID, photoRequest.getAlbumId()));
@@ -109,6 +151,7 @@ public class PhotoServiceImpl implements PhotoService {
 	}
 
 	@Override
+	@Transactional
 	public ApiResponse deletePhoto(Long id, UserPrincipal currentUser) {
 		Photo photo = photoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(PHOTO, ID, id));
 		if (photo.getAlbum().getUser().getId().equals(currentUser.getId())
@@ -123,11 +166,26 @@ public class PhotoServiceImpl implements PhotoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, int page, int size) {
+		return getAllPhotosByAlbum(albumId, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, AppConstants.CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Photo> photos = photoRepository.findSliceByAlbumId(albumId, pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("photos:album:" + albumId,
+					() -> photoRepository.countByAlbumId(albumId)) : -1;
+
+			return AppUtils.toSliceResponse(photos, toPhotoResponses(photos.getContent()), total);
+		}
+
 		Page<Photo> photos = photoRepository.findByAlbumId(albumId, pageable);
 
 		List<PhotoResponse> photoResponses = new ArrayList<>(photos.getContent().size());
@@ -139,4 +197,24 @@ public class PhotoServiceImpl implements PhotoService {
 		return new PagedResponse<>(photoResponses, photos.getNumber(), photos.getSize(), photos.getTotalElements(),
 				photos.getTotalPages(), photos.isLast());
 	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<PhotoResponse> getAllPhotosByAlbum(Long albumId, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Photo> photos = photoRepository.seekByAlbumId(albumId, position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(photos, toPhotoResponses(photos.getContent()), Photo::getId);
+	}
+
+	private List<PhotoResponse> toPhotoResponses(List<Photo> photos) {
+		List<PhotoResponse> photoResponses = new ArrayList<>(photos.size());
+		for (Photo photo : photos) {
+			photoResponses.add(new PhotoResponse(photo.getId(), photo.getTitle(), photo.getUrl(),
+					photo.getThumbnailUrl(), photo.getAlbum().getId()));
+		}
+		return photoResponses;
+	}
 }
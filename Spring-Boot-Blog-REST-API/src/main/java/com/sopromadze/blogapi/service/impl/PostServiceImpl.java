@@ -1,7 +1,11 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.datasource.ReadFromPrimary;
 import com.sopromadze.blogapi.exception.BadRequestException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
+import com.sopromadze.blogapi.exception.ServiceUnavailableException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.model.Post;
@@ -9,28 +13,50 @@ import com.sopromadze.blogapi.model.Tag;
 import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PostRequest;
 import com.sopromadze.blogapi.payload.PostResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
+import com.sopromadze.blogapi.payload.TagMatch;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.repository.CategoryRepository;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.TagRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.PostService;
+import com.sopromadze.blogapi.service.SearchService;
 import com.sopromadze.blogapi.utils.AppConstants;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static com.sopromadze.blogapi.utils.AppConstants.CATEGORY;
 import static com.sopromadze.blogapi.utils.AppConstants.CREATED_AT;
@@ -42,6 +68,7 @@ import static com.sopromadze.blogapi.utils.AppConstants.USER;
 @Service
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
+	private static final int TAG_INDEX_BATCH = 1000;
 
 	private final PostRepository postRepository;
 
@@ -51,12 +78,48 @@ public class PostServiceImpl implements PostService {
 
 	private final TagRepository tagRepository;
 
+	private final ApproximateCountCache approximateCountCache;
+
+	private final TagResolver tagResolver;
+
+	private final TagPostCounter tagPostCounter;
+
+	private final SearchService searchService;
+
+	private final TagPostIndex tagPostIndex;
+
+	private final ResponseCache responseCache;
+
+	private final ReferenceData referenceData;
+
+	private final UserProfileUpdater userProfileUpdater;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadTagIndex() {
+		tagPostIndex.load(this::tagIdsAfter);
+	}
+
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Post> getAllPosts(int page, int size) {
+		return getAllPosts(page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getAllPosts(int page, int size, PageMode mode) {
 		validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Post> posts = postRepository.findSliceBy(pageable);
+			long total = mode == PageMode.APPROXIMATE
+					? approximateCountCache.count("posts", postRepository::count) : -1;
+
+			return AppUtils.toSliceResponse(posts, posts.getContent(), total);
+		}
+
 		Page<Post> posts = postRepository.findAll(pageable);
 
 		List<Post> content = posts.getNumberOfElements() == 0 ? Collections.emptyList() : posts.getContent();
@@ -66,10 +129,36 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getAllPosts(String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Post> posts = postRepository.seekAll(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(posts, posts.getContent(), Post::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Post> getPostsByCreatedBy(String username, int page, int size) {
+		return getPostsByCreatedBy(username, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByCreatedBy(String username, int page, int size, PageMode mode) {
 		validatePageNumberAndSize(page, size);
 		User user = userRepository.getUserByName(username);
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
+
+		if (mode != PageMode.PAGE) {
+			Slice<Post> posts = postRepository.findSliceByCreatedBy(user.getId(), pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("posts:createdBy:" + user.getId(),
+					() -> postRepository.countByCreatedBy(user.getId())) : -1;
+
+			return AppUtils.toSliceResponse(posts, posts.getContent(), total);
+		}
+
 		Page<Post> posts = postRepository.findByCreatedBy(user.getId(), pageable);
 
 		List<Post> content = posts.getNumberOfElements() == 0 ? Collections.emptyList() : posts.getContent();
@@ -79,13 +168,40 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByCreatedBy(String username, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+		User user = userRepository.getUserByName(username);
+		Slice<Post> posts = postRepository.seekByCreatedBy(user.getId(), position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(posts, posts.getContent(), Post::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Post> getPostsByCategory(Long id, int page, int size) {
+		return getPostsByCategory(id, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByCategory(Long id, int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 		Category category = categoryRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException(CATEGORY, ID, id));
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
-		Page<Post> posts = postRepository.findByCategory(category.getId(), pageable);
+
+		if (mode != PageMode.PAGE) {
+			Slice<Post> posts = postRepository.findSliceByCategoryId(category.getId(), pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("posts:category:" + id,
+					() -> postRepository.countByCategoryId(id)) : -1;
+
+			return AppUtils.toSliceResponse(posts, posts.getContent(), total);
+		}
+
+		Page<Post> posts = postRepository.findByCategoryId(category.getId(), pageable);
 
 		List<Post> content = posts.getNumberOfElements() == 0 ? Collections.emptyList() : posts.getContent();
 
@@ -94,13 +210,40 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByCategory(Long id, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+		Category category = categoryRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException(CATEGORY, ID, id));
+
+		Slice<Post> posts = postRepository.seekByCategory(category.getId(), position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(posts, posts.getContent(), Post::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Post> getPostsByTag(Long id, int page, int size) {
+		return getPostsByTag(id, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByTag(Long id, int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Tag tag = tagRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(TAG, ID, id));
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Post> posts = postRepository.findSliceByTagsIn(Collections.singletonList(tag), pageable);
+			long total = mode == PageMode.APPROXIMATE ? tag.getPostCount() : -1;
+
+			return AppUtils.toSliceResponse(posts, posts.getContent(), total);
+		}
+
 		Page<Post> posts = postRepository.findByTagsIn(Collections.singletonList(tag), pageable);
 
 		List<Post> content = posts.getNumberOfElements() == 0 ? Collections.emptyList() : posts.getContent();
@@ -110,6 +253,68 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByTag(Long id, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Tag tag = tagRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(TAG, ID, id));
+
+		Slice<Post> posts = postRepository.seekByTag(tag.getId(), position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(posts, posts.getContent(), Post::getId);
+	}
+
+	@Override
+	@ReadFromPrimary
+	@Transactional(readOnly = true)
+	public PagedResponse<Post> getPostsByTags(List<String> tags, TagMatch match, List<String> exclude, int page,
+			int size) {
+		AppUtils.validatePageNumberAndSize(page, size);
+		if (!tagPostIndex.isReady()) {
+			throw new ServiceUnavailableException("Tag filtering is not available yet, please retry shortly");
+		}
+
+		int requested = distinctNames(tags);
+		Set<Long> included = tagIds(tags);
+		if (requested > 0 && (match == TagMatch.ALL ? included.size() < requested : included.isEmpty())) {
+			return new PagedResponse<>(Collections.emptyList(), page, size, 0, 0, true);
+		}
+
+		TagPostIndex.Result result = tagPostIndex.query(included, match == TagMatch.ALL, tagIds(exclude),
+				(long) page * size, size);
+
+		List<Long> ids = new ArrayList<>(result.getPostIds().length);
+		for (long id : result.getPostIds()) {
+			ids.add(id);
+		}
+		Map<Long, Post> posts = new HashMap<>();
+		if (!ids.isEmpty()) {
+			postRepository.findByIdIn(ids).forEach(post -> posts.put(post.getId(), post));
+		}
+
+		List<Post> content = new ArrayList<>(ids.size());
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			Post post = posts.get(id);
+			if (post != null) {
+				content.add(post);
+			} else {
+				missing.add(id);
+			}
+		}
+		// Read from the primary, so these were deleted through another instance; the index drops them now rather
+		// than at its next reconciliation.
+		tagPostIndex.removeAll(missing);
+
+		long total = result.getTotal();
+		int totalPages = size == 0 ? 0 : (int) Math.ceil((double) total / size);
+		return new PagedResponse<>(content.isEmpty() ? Collections.emptyList() : content, page, size, total,
+				totalPages, page + 1 >= totalPages);
+	}
+
+	@Override
+	@Transactional
 	public Post updatePost(Long id, PostRequest newPostRequest, UserPrincipal currentUser) {
 		Post post = postRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(POST, ID, id));
 		Category category = categoryRepository.findById(newPostRequest.getCategoryId())
@@ -119,7 +324,10 @@ public class PostServiceImpl implements PostService {
 			post.setTitle(newPostRequest.getTitle());
 			post.setBody(newPostRequest.getBody());
 			post.setCategory(category);
-			return postRepository.save(post);
+			Post updatedPost = postRepository.save(post);
+			searchService.indexPost(updatedPost);
+			responseCache.evict(ResponseCache.POSTS, ResponseCache.CATEGORIES);
+			return withCategoryAndTags(updatedPost);
 		}
 		ApiResponse apiResponse = new ApiResponse(Boolean.FALSE, "You don't have permission to edit this post");
 
@@ -127,11 +335,18 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional
 	public ApiResponse deletePost(Long id, UserPrincipal currentUser) {
 		Post post = postRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(POST, ID, id));
 		if (post.getUser().getId().equals(currentUser.getId())
 				|| currentUser.getAuthorities().contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
+			tagPostCounter.removePost(id);
+			userProfileUpdater.removePost(id, post.getUser().getId());
+			searchService.removePost(id);
 			postRepository.deleteById(id);
+			tagPostIndex.remove(id);
+			responseCache.evict(ResponseCache.POSTS, ResponseCache.CATEGORIES, ResponseCache.TAGS,
+					ResponseCache.comments(id));
 			return new ApiResponse(Boolean.TRUE, "You successfully deleted post");
 		}
 
@@ -141,19 +356,36 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional
 	public PostResponse addPost(PostRequest postRequest, UserPrincipal currentUser) {
 		User user = userRepository.findById(currentUser.getId())
 				.orElseThrow(() -> new ResourceNotFoundException(USER, ID, 1L));
-		Category category = categoryRepository.findById(postRequest.getCategoryId())
-				.orElseThrow(() -> new ResourceNotFoundException(CATEGORY, ID, postRequest.getCategoryId()));
-
-		List<Tag> tags = new ArrayList<>(postRequest.getTags().size());
+		Category known = referenceData.category(postRequest.getCategoryId());
+		Category category = known != null ? categoryRepository.getById(known.getId())
+				: categoryRepository.findById(postRequest.getCategoryId())
+						.orElseThrow(() -> new ResourceNotFoundException(CATEGORY, ID, postRequest.getCategoryId()));
+
+		Map<String, Long> resolved = tagResolver.resolve(postRequest.getTags(), user.getId());
+		Set<Long> tagIds = new LinkedHashSet<>(resolved.size());
+		List<String> tagNames = new ArrayList<>(resolved.size());
+		for (Map.Entry<String, Long> entry : resolved.entrySet()) {
+			if (tagIds.add(entry.getValue())) {
+				tagNames.add(entry.getKey());
+			}
+		}
 
-		for (String name : postRequest.getTags()) {
-			Tag tag = tagRepository.findByName(name);
-			tag = tag == null ? tagRepository.save(new Tag(name)) : tag;
+		List<Tag> tags = new ArrayList<>(tagIds.size());
+		Snapshot<Tag> knownTags = referenceData.tags();
+		List<Long> newTagIds = new ArrayList<>();
 
-			tags.add(tag);
+		for (Long tagId : tagIds) {
+			tags.add(tagRepository.getById(tagId));
+			if (knownTags != null && knownTags.get(tagId) == null) {
+				newTagIds.add(tagId);
+			}
+		}
+		if (!newTagIds.isEmpty()) {
+			referenceData.putTags(tagRepository.findAllById(newTagIds));
 		}
 
 		Post post = new Post();
@@ -164,18 +396,17 @@ public class PostServiceImpl implements PostService {
 		post.setTags(tags);
 
 		Post newPost = postRepository.save(post);
+		tagPostCounter.postAdded(tagIds);
+		userProfileUpdater.postAdded(user.getId());
+		tagPostIndex.add(newPost.getId(), tagIds);
+		searchService.indexPost(newPost);
+		responseCache.evict(ResponseCache.POSTS, ResponseCache.CATEGORIES, ResponseCache.TAGS);
 
 		PostResponse postResponse = new PostResponse();
 
 		postResponse.setTitle(newPost.getTitle());
 		postResponse.setBody(newPost.getBody());
-		postResponse.setCategory(newPost.getCategory().getName());
-
-		List<String> tagNames = new ArrayList<>(newPost.getTags().size());
-
-		for (Tag tag : newPost.getTags()) {
-			tagNames.add(tag.getName());
-		}
+		postResponse.setCategory(known != null ? known.getName() : category.getName());
 
 		postResponse.setTags(tagNames);
 
@@ -183,8 +414,100 @@ public class PostServiceImpl implements PostService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Post getPost(Long id) {
-		return postRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(POST, ID, id));
+		return withCategoryAndTags(postRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException(POST, ID, id)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ResourceVersion getPostVersion(Long id) {
+		return postRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(POST, ID, id));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<PostSummary> summarize(PagedResponse<Post> posts) {
+		List<Post> content = posts.getContent();
+
+		Map<Long, List<String>> tagNames = new HashMap<>();
+		if (!content.isEmpty()) {
+			List<Long> postIds = new ArrayList<>(content.size());
+			for (Post post : content) {
+				postIds.add(post.getId());
+			}
+			for (Object[] row : postRepository.findTagNamesByPostIds(postIds)) {
+				tagNames.computeIfAbsent((Long) row[0], postId -> new ArrayList<>()).add((String) row[1]);
+			}
+		}
+
+		List<PostSummary> summaries = new ArrayList<>(content.size());
+		for (Post post : content) {
+			PostSummary summary = new PostSummary();
+			summary.setId(post.getId());
+			summary.setTitle(post.getTitle());
+			summary.setBody(post.getBody());
+			if (post.getCategory() != null) {
+				summary.setCategoryId(post.getCategory().getId());
+				summary.setCategory(post.getCategory().getName());
+			}
+			summary.setTags(tagNames.getOrDefault(post.getId(), Collections.emptyList()));
+			summary.setCreatedBy(post.getCreatedBy());
+			summary.setCreatedAt(post.getCreatedAt());
+			summary.setUpdatedAt(post.getUpdatedAt());
+			summaries.add(summary);
+		}
+
+		PagedResponse<PostSummary> response = new PagedResponse<>(summaries, posts.getPage(), posts.getSize(),
+				posts.getTotalElements(), posts.getTotalPages(), posts.isLast());
+		response.setNextCursor(posts.getNextCursor());
+
+		return response;
+	}
+
+	/**
+	 * Loads what the post's JSON holds besides its own columns, so it can be written after the transaction has ended.
+	 */
+	private static Post withCategoryAndTags(Post post) {
+		Hibernate.initialize(post.getCategory());
+		Hibernate.initialize(post.getTags());
+		return post;
+	}
+
+	private Set<Long> tagIds(List<String> names) {
+		Set<Long> ids = new HashSet<>();
+		if (names != null && !names.isEmpty()) {
+			for (Object[] row : tagRepository.findIdAndNameByNameIn(names)) {
+				ids.add((Long) row[0]);
+			}
+		}
+		return ids;
+	}
+
+	private static int distinctNames(List<String> names) {
+		Set<String> distinct = new HashSet<>();
+		if (names != null) {
+			for (String name : names) {
+				distinct.add(name.toLowerCase(Locale.ROOT));
+			}
+		}
+		return distinct.size();
+	}
+
+	private SortedMap<Long, List<Long>> tagIdsAfter(long lastId) {
+		SortedMap<Long, List<Long>> tagIds = new TreeMap<>();
+		List<Long> ids = postRepository.findIdsAfter(lastId, PageRequest.of(0, TAG_INDEX_BATCH));
+		if (ids.isEmpty()) {
+			return tagIds;
+		}
+		for (Long id : ids) {
+			tagIds.put(id, new ArrayList<>());
+		}
+		for (Object[] row : postRepository.findTagIdsByPostIds(ids)) {
+			tagIds.get((Long) row[0]).add((Long) row[1]);
+		}
+		return tagIds;
 	}
 
 	private void validatePageNumberAndSize(int page, int size) {
@@ -0,0 +1,348 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.datasource.ReadFromPrimary;
+import com.sopromadze.blogapi.exception.BlogapiException;
+import com.sopromadze.blogapi.model.Comment;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.SearchResult;
+import com.sopromadze.blogapi.repository.CommentRepository;
+import com.sopromadze.blogapi.repository.PostRepository;
+import com.sopromadze.blogapi.search.Highlighter;
+import com.sopromadze.blogapi.search.SearchIndex;
+import com.sopromadze.blogapi.service.SearchService;
+import com.sopromadze.blogapi.utils.AppUtils;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static com.sopromadze.blogapi.utils.Transactions.afterCommit;
+
+/**
+ * Posts and comments share one index. Keys carry the type in their lowest bit; a comment's parent is its post.
+ * Changes made in a transaction reach the index once it commits, so a rolled back write never shows and a search
+ * never drops a row that is not committed yet. Hits are hydrated from the database, and those it does not return
+ * are left out of the page but stay indexed; deletes, including the posts and comments removed with a category or
+ * a user, are removed from the index by their write path.
+ *
+ * <p>Rows changed since the index's high-water mark are re-indexed once the application is ready and every
+ * {@code app.search.catchUpIntervalInMs} after that, which restores changes buffered when the process died and
+ * brings in those made through other instances. Deleted rows are dropped by a sweep over the ids at startup and
+ * every {@code app.search.sweepIntervalInMs}.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService, DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+	private static final int MAX_RESULTS = 1000;
+
+	private static final int SNIPPET_LENGTH = 160;
+
+	private static final int REBUILD_BATCH = 500;
+
+	private static final String POST = "post";
+
+	private static final String COMMENT = "comment";
+
+	/**
+	 * How far each catch-up reaches back before the previous one, to cover transactions still open when it ran and
+	 * clock differences between instances.
+	 */
+	private static final long CATCH_UP_OVERLAP_IN_MS = 60000;
+
+	private final SearchIndex searchIndex;
+
+	private final PostRepository postRepository;
+
+	private final CommentRepository commentRepository;
+
+	private ScheduledExecutorService background;
+
+	private long caughtUpTo;
+
+	@Value(value = "${app.search.catchUpIntervalInMs:60000}")
+	private long catchUpIntervalInMs;
+
+	@Value(value = "${app.search.sweepIntervalInMs:600000}")
+	private long sweepIntervalInMs;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void openIndex() {
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "search-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		boolean rebuilding = searchIndex.isRebuildNeeded();
+		if (rebuilding) {
+			caughtUpTo = System.currentTimeMillis();
+			searchIndex.caughtUp(caughtUpTo);
+			searchIndex.rebuild(this::indexAll);
+		} else {
+			caughtUpTo = searchIndex.getSyncedAt();
+		}
+		background.scheduleWithFixedDelay(this::catchUp, rebuilding ? catchUpIntervalInMs : 0, catchUpIntervalInMs,
+				TimeUnit.MILLISECONDS);
+		background.scheduleWithFixedDelay(this::sweep, rebuilding ? sweepIntervalInMs : 0, sweepIntervalInMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	@Override
+	@ReadFromPrimary
+	@Transactional(readOnly = true)
+	public PagedResponse<SearchResult> search(String query, int page, int size) {
+		AppUtils.validatePageNumberAndSize(page, size);
+		if (query == null || query.isBlank()) {
+			throw new BlogapiException(HttpStatus.BAD_REQUEST, "Search query must not be empty");
+		}
+		if (((long) page + 1) * size > MAX_RESULTS) {
+			throw new BlogapiException(HttpStatus.BAD_REQUEST, "Search results are limited to the first " + MAX_RESULTS);
+		}
+
+		SearchIndex.Result result = searchIndex.search(query, (page + 1) * size);
+		List<SearchIndex.Hit> hits = result.getHits().subList(Math.min(page * size, result.getHits().size()),
+				result.getHits().size());
+
+		List<Long> postIds = new ArrayList<>();
+		List<Long> commentIds = new ArrayList<>();
+		for (SearchIndex.Hit hit : hits) {
+			(isComment(hit.getKey()) ? commentIds : postIds).add(id(hit.getKey()));
+		}
+		Map<Long, Post> posts = new HashMap<>();
+		if (!postIds.isEmpty()) {
+			postRepository.findAllById(postIds).forEach(post -> posts.put(post.getId(), post));
+		}
+		Map<Long, Comment> comments = new HashMap<>();
+		if (!commentIds.isEmpty()) {
+			commentRepository.findAllById(commentIds).forEach(comment -> comments.put(comment.getId(), comment));
+		}
+
+		List<SearchResult> content = new ArrayList<>(hits.size());
+		for (SearchIndex.Hit hit : hits) {
+			SearchResult searchResult = new SearchResult();
+			searchResult.setId(id(hit.getKey()));
+			searchResult.setScore(hit.getScore());
+			if (isComment(hit.getKey())) {
+				Comment comment = comments.get(searchResult.getId());
+				if (comment == null) {
+					continue;
+				}
+				searchResult.setType(COMMENT);
+				searchResult.setPostId(id(hit.getParent()));
+				searchResult.setSnippet(Highlighter.snippet(comment.getBody(), result.getMatchedTerms(), SNIPPET_LENGTH));
+			} else {
+				Post post = posts.get(searchResult.getId());
+				if (post == null) {
+					continue;
+				}
+				searchResult.setType(POST);
+				searchResult.setPostId(post.getId());
+				searchResult.setTitle(post.getTitle());
+				searchResult.setSnippet(Highlighter.snippet(post.getBody(), result.getMatchedTerms(), SNIPPET_LENGTH));
+			}
+			content.add(searchResult);
+		}
+
+		long total = result.getTotal();
+		int totalPages = size == 0 ? 0 : (int) Math.ceil((double) total / size);
+		return new PagedResponse<>(content.isEmpty() ? Collections.emptyList() : content, page, size, total, totalPages,
+				page + 1 >= totalPages);
+	}
+
+	@Override
+	public void indexPost(Post post) {
+		long key = postKey(post.getId());
+		String title = post.getTitle();
+		String body = post.getBody();
+		afterCommit(() -> searchIndex.index(key, key, title, body));
+	}
+
+	@Override
+	public void indexComment(Comment comment) {
+		long key = commentKey(comment.getId());
+		long parent = postKey(comment.getPost().getId());
+		String body = comment.getBody();
+		afterCommit(() -> searchIndex.index(key, parent, null, body));
+	}
+
+	@Override
+	public void removePost(Long id) {
+		removePosts(List.of(id));
+	}
+
+	/**
+	 * Removes the posts and the comments on them, which are looked up here, so it must run before they are deleted.
+	 */
+	@Override
+	public void removePosts(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		List<Long> keys = new ArrayList<>();
+		ids.forEach(id -> keys.add(postKey(id)));
+		commentRepository.findIdsByPostIdIn(ids).forEach(id -> keys.add(commentKey(id)));
+		afterCommit(() -> keys.forEach(searchIndex::delete));
+	}
+
+	@Override
+	public void removeComment(Long id) {
+		long key = commentKey(id);
+		afterCommit(() -> searchIndex.delete(key));
+	}
+
+	@Override
+	public void removeCommentsOfUser(Long userId) {
+		List<Long> keys = new ArrayList<>();
+		commentRepository.findIdsByUserId(userId).forEach(id -> keys.add(commentKey(id)));
+		afterCommit(() -> keys.forEach(searchIndex::delete));
+	}
+
+	private void indexAll() {
+		long lastId = 0;
+		List<Object[]> rows;
+		do {
+			rows = postRepository.findSearchRowsAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+			for (Object[] row : rows) {
+				lastId = (Long) row[0];
+				searchIndex.index(postKey(lastId), postKey(lastId), (String) row[1], (String) row[2]);
+			}
+		} while (rows.size() == REBUILD_BATCH);
+
+		lastId = 0;
+		do {
+			rows = commentRepository.findSearchRowsAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+			for (Object[] row : rows) {
+				lastId = (Long) row[0];
+				searchIndex.index(commentKey(lastId), postKey((Long) row[1]), null, (String) row[2]);
+			}
+		} while (rows.size() == REBUILD_BATCH);
+	}
+
+	/**
+	 * Re-indexes the posts and comments updated since shortly before the previous catch-up, or before the index's
+	 * high-water mark on the first one.
+	 */
+	void catchUp() {
+		long startedAt = System.currentTimeMillis();
+		try {
+			Instant since = Instant.ofEpochMilli(caughtUpTo - CATCH_UP_OVERLAP_IN_MS);
+			Instant updatedAt = since;
+			long lastId = 0;
+			int count = 0;
+			List<Object[]> rows;
+			do {
+				rows = postRepository.findSearchRowsUpdatedAfter(updatedAt, lastId, PageRequest.of(0, REBUILD_BATCH));
+				for (Object[] row : rows) {
+					lastId = (Long) row[0];
+					updatedAt = (Instant) row[3];
+					searchIndex.index(postKey(lastId), postKey(lastId), (String) row[1], (String) row[2]);
+				}
+				count += rows.size();
+			} while (rows.size() == REBUILD_BATCH);
+
+			updatedAt = since;
+			lastId = 0;
+			do {
+				rows = commentRepository.findSearchRowsUpdatedAfter(updatedAt, lastId, PageRequest.of(0, REBUILD_BATCH));
+				for (Object[] row : rows) {
+					lastId = (Long) row[0];
+					updatedAt = (Instant) row[3];
+					searchIndex.index(commentKey(lastId), postKey((Long) row[1]), null, (String) row[2]);
+				}
+				count += rows.size();
+			} while (rows.size() == REBUILD_BATCH);
+
+			caughtUpTo = startedAt;
+			searchIndex.caughtUp(startedAt);
+			LOGGER.debug("Search index caught up with {} rows changed since {}", count, since);
+		} catch (Exception ex) {
+			LOGGER.error("Could not catch up the search index", ex);
+		}
+	}
+
+	/**
+	 * Drops the documents whose row no longer exists. Keys are taken first, so a row inserted while the ids are read
+	 * is never among them.
+	 */
+	void sweep() {
+		try {
+			long[] keys = searchIndex.keys();
+			int dropped = dropDeleted(keys, false, postRepository::findIdsAfter)
+					+ dropDeleted(keys, true, commentRepository::findIdsAfter);
+			if (dropped > 0) {
+				LOGGER.info("Dropped {} deleted rows from the search index", dropped);
+			}
+		} catch (Exception ex) {
+			LOGGER.error("Could not sweep the search index", ex);
+		}
+	}
+
+	private int dropDeleted(long[] keys, boolean comments, BiFunction<Long, Pageable, List<Long>> idsAfter) {
+		int dropped = 0;
+		int next = 0;
+		long lastId = 0;
+		List<Long> ids;
+		do {
+			ids = idsAfter.apply(lastId, PageRequest.of(0, REBUILD_BATCH));
+			long upTo = ids.size() == REBUILD_BATCH ? ids.get(ids.size() - 1) : Long.MAX_VALUE;
+			Set<Long> present = new HashSet<>(ids);
+			for (; next < keys.length && id(keys[next]) <= upTo; next++) {
+				if (isComment(keys[next]) == comments && !present.contains(id(keys[next]))) {
+					searchIndex.delete(keys[next]);
+					dropped++;
+				}
+			}
+			if (!ids.isEmpty()) {
+				lastId = ids.get(ids.size() - 1);
+			}
+		} while (ids.size() == REBUILD_BATCH);
+		return dropped;
+	}
+
+	private static long postKey(Long id) {
+		return id << 1;
+	}
+
+	private static long commentKey(Long id) {
+		return id << 1 | 1;
+	}
+
+	private static boolean isComment(long key) {
+		return (key & 1) == 1;
+	}
+
+	private static long id(long key) {
+		return key >>> 1;
+	}
+}
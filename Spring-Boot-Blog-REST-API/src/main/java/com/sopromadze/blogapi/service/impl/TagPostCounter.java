@@ -0,0 +1,58 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code tags.post_count} in step with {@code post_tag} through atomic relative updates, so tag listings
+ * can report popularity without counting the join table, and mirrors every update in the {@link ReferenceData}.
+ * The remove methods must run before the posts are deleted, in the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagPostCounter {
+	private final TagRepository tagRepository;
+
+	private final ReferenceData referenceData;
+
+	public void postAdded(Collection<Long> tagIds) {
+		if (!tagIds.isEmpty()) {
+			tagRepository.addToPostCount(tagIds, 1L);
+			referenceData.addToPostCount(tagIds, 1L);
+		}
+	}
+
+	public void removePost(Long postId) {
+		subtract(tagRepository.countPostsPerTagByPostId(postId));
+	}
+
+	public void removePostsOfCategory(Long categoryId) {
+		subtract(tagRepository.countPostsPerTagByCategoryId(categoryId));
+	}
+
+	public void removePostsOfUser(Long userId) {
+		subtract(tagRepository.countPostsPerTagByUserId(userId));
+	}
+
+	/**
+	 * Groups tags by how many of their posts go away, so it is one update per distinct count rather than per tag.
+	 */
+	private void subtract(List<Object[]> postsPerTag) {
+		Map<Long, List<Long>> tagIdsByCount = new HashMap<>();
+		for (Object[] row : postsPerTag) {
+			tagIdsByCount.computeIfAbsent((Long) row[1], count -> new ArrayList<>()).add((Long) row[0]);
+		}
+		for (Map.Entry<Long, List<Long>> entry : tagIdsByCount.entrySet()) {
+			tagRepository.addToPostCount(entry.getValue(), -entry.getKey());
+			referenceData.addToPostCount(entry.getValue(), -entry.getKey());
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sopromadze.blogapi.exception.AppException;
+import com.sopromadze.blogapi.perf.jfr.CacheAccessEvent;
+import com.sopromadze.blogapi.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves tag names to ids in a fixed number of statements: one {@code IN} lookup for the names not cached yet
+ * and, only if some are new, one batched {@code INSERT IGNORE} followed by a second lookup. Creators of the same
+ * name serialize on a striped lock so they coalesce on one row, while the unique key on {@code tags.name} keeps
+ * other nodes from duplicating it. Cached ids expire after {@code app.tagCacheExpireInMs}, so tags renamed or deleted
+ * through another instance stop resolving here.
+ */
+@Component
+public class TagResolver {
+	private static final String INSERT_IGNORE = "INSERT IGNORE INTO tags (name, post_count, created_at, updated_at, created_by, updated_by) VALUES (?, 0, ?, ?, ?, ?)";
+
+	private static final int STRIPES = 64;
+
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final TagRepository tagRepository;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate requiresNew;
+
+	private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+	@Value(value = "${app.tagCacheMaxSize:10000}")
+	private int tagCacheMaxSize;
+
+	@Value(value = "${app.tagCacheExpireInMs:600000}")
+	private long tagCacheExpireInMs;
+
+	private Cache<String, Long> tagIds;
+
+	public TagResolver(TagRepository tagRepository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager) {
+		this.tagRepository = tagRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.requiresNew = new TransactionTemplate(transactionManager);
+		this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	@PostConstruct
+	void init() {
+		tagIds = Caffeine.newBuilder()
+				.maximumSize(tagCacheMaxSize)
+				.expireAfterWrite(tagCacheExpireInMs, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * @return the id of every distinct name, in request order
+	 */
+	public Map<String, Long> resolve(Collection<String> names, Long userId) {
+		Map<String, Long> resolved = new LinkedHashMap<>();
+		for (String name : names) {
+			Long id = tagIds.getIfPresent(name);
+			CacheAccessEvent.emit("tagIds", name, id != null);
+			resolved.put(name, id);
+		}
+
+		Set<String> missing = missing(resolved);
+		if (!missing.isEmpty()) {
+			load(missing, resolved);
+			missing = missing(resolved);
+		}
+		if (!missing.isEmpty()) {
+			create(missing, resolved, userId);
+		}
+		return resolved;
+	}
+
+	/**
+	 * Drops every spelling cached for the tag, as {@link #load} caches each requested spelling against the id of the
+	 * stored one.
+	 */
+	public void evict(Long id) {
+		tagIds.asMap().values().removeIf(id::equals);
+	}
+
+	private void create(Set<String> names, Map<String, Long> resolved, Long userId) {
+		List<ReentrantLock> held = lock(names);
+		try {
+			for (int attempt = 1;; attempt++) {
+				for (String name : names) {
+					Long id = tagIds.getIfPresent(name);
+					if (id != null) {
+						resolved.put(name, id);
+					}
+				}
+				Set<String> missing = missing(resolved);
+				if (missing.isEmpty()) {
+					return;
+				}
+
+				requiresNew.executeWithoutResult(status -> insert(missing, userId));
+				load(missing, resolved);
+				if (missing(resolved).isEmpty()) {
+					return;
+				}
+				if (attempt == MAX_ATTEMPTS) {
+					throw new AppException("Could not create tags " + missing(resolved));
+				}
+			}
+		} finally {
+			for (ReentrantLock lock : held) {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void insert(Set<String> names, Long userId) {
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> rows = new ArrayList<>(names.size());
+		for (String name : names) {
+			rows.add(new Object[] { name, now, now, userId, userId });
+		}
+		jdbcTemplate.batchUpdate(INSERT_IGNORE, rows);
+	}
+
+	/**
+	 * Matches returned rows back to the requested names ignoring case, as a case-insensitive collation may hand
+	 * back an existing "Java" for a requested "java".
+	 */
+	private void load(Set<String> names, Map<String, Long> resolved) {
+		for (Object[] row : tagRepository.findIdAndNameByNameIn(names)) {
+			Long id = (Long) row[0];
+			String stored = (String) row[1];
+			for (String name : names) {
+				if (name.equalsIgnoreCase(stored) && resolved.get(name) == null) {
+					resolved.put(name, id);
+					tagIds.put(name, id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Acquires the stripes in ascending order so two requests with overlapping names cannot deadlock.
+	 */
+	private List<ReentrantLock> lock(Set<String> names) {
+		Set<Integer> stripes = new TreeSet<>();
+		for (String name : names) {
+			stripes.add(Math.floorMod(name.toLowerCase().hashCode(), STRIPES));
+		}
+
+		List<ReentrantLock> held = new ArrayList<>(stripes.size());
+		for (int stripe : stripes) {
+			locks[stripe].lock();
+			held.add(locks[stripe]);
+		}
+		return held;
+	}
+
+	private static Set<String> missing(Map<String, Long> resolved) {
+		Set<String> missing = new LinkedHashSet<>();
+		for (Map.Entry<String, Long> entry : resolved.entrySet()) {
+			if (entry.getValue() == null) {
+				missing.add(entry.getKey());
+			}
+		}
+		return missing;
+	}
+}
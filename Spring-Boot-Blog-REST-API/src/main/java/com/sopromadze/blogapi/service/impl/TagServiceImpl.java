@@ -1,20 +1,30 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.exception.BadRequestException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Tag;
 import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.repository.TagRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.TagService;
 import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
@@ -28,27 +38,84 @@ public class TagServiceImpl implements TagService {
 
 	private final TagRepository tagRepository;
 
+	private final ApproximateCountCache approximateCountCache;
+
+	private final TagResolver tagResolver;
+
+	private final TagPostIndex tagPostIndex;
+
+	private final ResponseCache responseCache;
+
+	private final ReferenceData referenceData;
+
 	@Override
 	public PagedResponse<Tag> getAllTags(int page, int size) {
+		return getAllTags(page, size, PageMode.PAGE);
+	}
+
+	@Override
+	public PagedResponse<Tag> getAllTags(int page, int size, PageMode mode) {
 		AppUtils.validatePageNumberAndSize(page, size);
 
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
+		Snapshot<Tag> snapshot = referenceData.tags();
+
+		if (mode != PageMode.PAGE) {
+			Slice<Tag> tags = snapshot != null ? snapshot.slice(pageable) : tagRepository.findSliceBy(pageable);
+			long total = mode != PageMode.APPROXIMATE ? -1 : snapshot != null ? snapshot.size()
+					: approximateCountCache.count("tags", tagRepository::count);
 
-		Page<Tag> tags = tagRepository.findAll(pageable);
+			return AppUtils.toSliceResponse(tags, tags.getContent(), total);
+		}
+
+		Page<Tag> tags = snapshot != null ? snapshot.page(pageable) : tagRepository.findAll(pageable);
 
 		List<Tag> content = tags.getNumberOfElements() == 0 ? Collections.emptyList() : tags.getContent();
 
 		return new PagedResponse<>(content, tags.getNumber(), tags.getSize(), tags.getTotalElements(), tags.getTotalPages(), tags.isLast());
 	}
 
+	@Override
+	public PagedResponse<Tag> getAllTags(String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+		Snapshot<Tag> snapshot = referenceData.tags();
+
+		Slice<Tag> tags = snapshot != null
+				? snapshot.seek(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size))
+				: tagRepository.seekAll(position.getCreatedAt(), position.getId(), AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(tags, tags.getContent(), Tag::getId);
+	}
+
 	@Override
 	public Tag getTag(Long id) {
+		Tag tag = referenceData.tag(id);
+		if (tag != null) {
+			return tag;
+		}
 		return tagRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Tag", "id", id));
 	}
 
+	@Override
+	public ResourceVersion getTagVersion(Long id) {
+		Tag tag = referenceData.tag(id);
+		if (tag != null) {
+			return new ResourceVersion(tag.getUpdatedAt(), tag.getPostCount());
+		}
+		return tagRepository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Tag", "id", id));
+	}
+
 	@Override
 	public Tag addTag(Tag tag, UserPrincipal currentUser) {
-		return tagRepository.save(tag);
+		if (tagRepository.existsByName(tag.getName())) {
+			ApiResponse apiResponse = new ApiResponse(Boolean.FALSE, "Tag name is already taken");
+			throw new BadRequestException(apiResponse);
+		}
+
+		Tag newTag = tagRepository.save(tag);
+		referenceData.put(newTag);
+		responseCache.evict(ResponseCache.TAGS);
+		return newTag;
 	}
 
 	@Override
@@ -56,8 +123,16 @@ public class TagServiceImpl implements TagService {
 		Tag tag = tagRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Tag", "id", id));
 		if (tag.getCreatedBy().equals(currentUser.getId()) || currentUser.getAuthorities()
 				.contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
+			if (tagRepository.existsByNameAndIdNot(newTag.getName(), id)) {
+				ApiResponse apiResponse = new ApiResponse(Boolean.FALSE, "Tag name is already taken");
+				throw new BadRequestException(apiResponse);
+			}
 			tag.setName(newTag.getName());
-			return tagRepository.save(tag);
+			Tag updatedTag = tagRepository.save(tag);
+			tagResolver.evict(id);
+			referenceData.put(updatedTag);
+			responseCache.evict(ResponseCache.TAGS, ResponseCache.POSTS);
+			return updatedTag;
 		}
 		ApiResponse apiResponse = new ApiResponse(Boolean.FALSE, "You don't have permission to edit this tag");
 
@@ -70,6 +145,10 @@ public class TagServiceImpl implements TagService {
 		if (tag.getCreatedBy().equals(currentUser.getId()) || currentUser.getAuthorities()
 				.contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString()))) {
 			tagRepository.deleteById(id);
+			tagResolver.evict(id);
+			tagPostIndex.removeTag(id);
+			referenceData.removeTag(id);
+			responseCache.evict(ResponseCache.TAGS, ResponseCache.POSTS);
 			return new ApiResponse(Boolean.TRUE, "You successfully deleted tag");
 		}
 
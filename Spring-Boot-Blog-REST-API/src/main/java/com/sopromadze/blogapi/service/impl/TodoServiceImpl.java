@@ -6,19 +6,25 @@ import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Todo;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.repository.TodoRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.TodoService;
 import com.sopromadze.blogapi.utils.AppConstants;
+import com.sopromadze.blogapi.utils.AppUtils;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import com.sopromadze.blogapi.utils.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +42,10 @@ public class TodoServiceImpl implements TodoService {
 
 	private final UserRepository userRepository;
 
+	private final ApproximateCountCache approximateCountCache;
+
+	private final UserProfileUpdater userProfileUpdater;
+
 	@Override
 	public Todo completeTodo(Long id, UserPrincipal currentUser) {
 		Todo todo = todoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(TODO, ID, id));
@@ -67,10 +77,25 @@ public class TodoServiceImpl implements TodoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, int page, int size) {
+		return getAllTodos(currentUser, page, size, PageMode.PAGE);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, int page, int size, PageMode mode) {
 		validatePageNumberAndSize(page, size);
 		Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, CREATED_AT);
 
+		if (mode != PageMode.PAGE) {
+			Slice<Todo> todos = todoRepository.findSliceByCreatedBy(currentUser.getId(), pageable);
+			long total = mode == PageMode.APPROXIMATE ? approximateCountCache.count("todos:createdBy:" + currentUser.getId(),
+					() -> todoRepository.countByCreatedBy(currentUser.getId())) : -1;
+
+			return AppUtils.toSliceResponse(todos, todos.getContent(), total);
+		}
+
 		Page<Todo> todos = todoRepository.findByCreatedBy(currentUser.getId(), pageable);
 
 		List<Todo> content = todos.getNumberOfElements() == 0 ? Collections.emptyList() : todos.getContent();
@@ -80,13 +105,28 @@ public class TodoServiceImpl implements TodoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PagedResponse<Todo> getAllTodos(UserPrincipal currentUser, String cursor, int size) {
+		Cursor position = Cursor.decode(cursor);
+
+		Slice<Todo> todos = todoRepository.seekByCreatedBy(currentUser.getId(), position.getCreatedAt(), position.getId(),
+				AppUtils.seekPageable(size));
+
+		return AppUtils.toCursorResponse(todos, todos.getContent(), Todo::getId);
+	}
+
+	@Override
+	@Transactional
 	public Todo addTodo(Todo todo, UserPrincipal currentUser) {
 		User user = userRepository.getUser(currentUser);
 		todo.setUser(user);
-		return todoRepository.save(todo);
+		Todo newTodo = todoRepository.save(todo);
+		userProfileUpdater.todoAdded(user.getId());
+		return newTodo;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Todo getTodo(Long id, UserPrincipal currentUser) {
 		User user = userRepository.getUser(currentUser);
 		Todo todo = todoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(TODO, ID, id));
@@ -116,11 +156,13 @@ public class TodoServiceImpl implements TodoService {
 	}
 
 	@Override
+	@Transactional
 	public ApiResponse deleteTodo(Long id, UserPrincipal currentUser) {
 		User user = userRepository.getUser(currentUser);
 		Todo todo = todoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(TODO, ID, id));
 
 		if (todo.getUser().getId().equals(user.getId())) {
+			userProfileUpdater.todoRemoved(user.getId());
 			todoRepository.deleteById(id);
 			return new ApiResponse(Boolean.TRUE, "You successfully deleted todo");
 		}
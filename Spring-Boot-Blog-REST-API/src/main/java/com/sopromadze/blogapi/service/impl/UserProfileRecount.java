@@ -0,0 +1,78 @@
+package com.sopromadze.blogapi.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks {@code user_profiles} every {@code app.userProfiles.recountIntervalInMs} and has {@link UserProfileUpdater}
+ * recount each batch, so a count left wrong by a race is corrected within that interval. Each batch is a
+ * transaction of its own, so writes to a user wait on at most one batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileRecount implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(UserProfileRecount.class);
+
+	private static final int RECOUNT_BATCH = 500;
+
+	private final UserProfileUpdater userProfileUpdater;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private ScheduledExecutorService background;
+
+	@Value(value = "${app.userProfiles.recountIntervalInMs:3600000}")
+	private long recountIntervalInMs;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void schedule() {
+		background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "user-profile-recount");
+			thread.setDaemon(true);
+			return thread;
+		});
+		background.scheduleWithFixedDelay(this::recount, recountIntervalInMs, recountIntervalInMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (background != null) {
+			background.shutdownNow();
+		}
+	}
+
+	void recount() {
+		try {
+			int corrected = 0;
+			long lastUserId = 0;
+			List<Long> userIds;
+			do {
+				userIds = jdbcTemplate.queryForList(
+						"SELECT user_id FROM user_profiles WHERE user_id > ? ORDER BY user_id LIMIT ?", Long.class,
+						lastUserId, RECOUNT_BATCH);
+				if (!userIds.isEmpty()) {
+					corrected += userProfileUpdater.recount(userIds);
+					lastUserId = userIds.get(userIds.size() - 1);
+				}
+			} while (userIds.size() == RECOUNT_BATCH);
+			if (corrected > 0) {
+				LOGGER.warn("Corrected the counts of {} user profiles", corrected);
+			}
+		} catch (Exception ex) {
+			LOGGER.error("Could not recount user profiles", ex);
+		}
+	}
+}
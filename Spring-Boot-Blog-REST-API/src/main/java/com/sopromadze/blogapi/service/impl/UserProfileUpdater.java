@@ -0,0 +1,242 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.exception.ResourceNotFoundException;
+import com.sopromadze.blogapi.model.user.Address;
+import com.sopromadze.blogapi.model.user.Company;
+import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.model.user.UserProfileView;
+import com.sopromadze.blogapi.repository.UserProfileViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@code user_profiles} in step with the users and what they own. The services report each write here, in
+ * the transaction making it, and the counts move by the change instead of being counted again. Profiles are locked
+ * in user id order before they change, so concurrent writes for one user queue up rather than lose an update, and
+ * the change reaches the second-level cache entry instead of evicting the whole region as a bulk update would.
+ * The remove methods must run before the rows are deleted.
+ *
+ * <p>A user's profile is built from the tables the first time it is read or the user changes, and until then
+ * their writes have nothing to update. A profile built while another transaction adds to the user misses that
+ * change for good, so {@link #recount} counts again from the tables and corrects the profiles that drifted.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileUpdater {
+	private static final String INSERT_IGNORE = "INSERT IGNORE INTO user_profiles (user_id, username, first_name, "
+			+ "last_name, email, phone, website, joined_at, street, suite, city, zipcode, lat, lng, company_name, "
+			+ "catch_phrase, bs, post_count, album_count, todo_count, comment_count) "
+			+ "SELECT u.id, u.username, u.first_name, u.last_name, u.email, u.phone, u.website, u.created_at, "
+			+ "a.street, a.suite, a.city, a.zipcode, g.lat, g.lng, c.name, c.catch_phrase, c.bs, "
+			+ "(SELECT COUNT(*) FROM posts WHERE posts.user_id = u.id), "
+			+ "(SELECT COUNT(*) FROM albums WHERE albums.user_id = u.id), "
+			+ "(SELECT COUNT(*) FROM todos WHERE todos.user_id = u.id), "
+			+ "(SELECT COUNT(*) FROM comments WHERE comments.user_id = u.id) "
+			+ "FROM users u LEFT JOIN address a ON a.id = u.address_id LEFT JOIN geo g ON g.id = a.geo_id "
+			+ "LEFT JOIN company c ON c.id = u.company_id";
+
+	private final UserProfileViewRepository userProfileViewRepository;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final ResponseCache responseCache;
+
+	/**
+	 * Builds the profile of the user from the tables, in a transaction of its own so it is written even when the
+	 * profile is being read in a read-only one.
+	 *
+	 * @throws ResourceNotFoundException if there is no such user
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public UserProfileView build(String username) {
+		jdbcTemplate.update(INSERT_IGNORE + " WHERE u.username = ?", username);
+		return userProfileViewRepository.findByUsername(username)
+				.orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+	}
+
+	/**
+	 * Builds the profile of every user who has none, in one statement.
+	 *
+	 * @return how many were built
+	 */
+	public int buildAll() {
+		return jdbcTemplate.update(INSERT_IGNORE);
+	}
+
+	/**
+	 * Counts the posts, albums, todos and comments of the users again and corrects the profiles whose counts
+	 * differ. The profiles are locked before counting, so a write that reported its change while waiting on the
+	 * lock has committed by the time its row is counted.
+	 *
+	 * @return how many profiles were corrected
+	 */
+	@Transactional
+	public int recount(Collection<Long> userIds) {
+		if (userIds.isEmpty()) {
+			return 0;
+		}
+		List<UserProfileView> locked = userProfileViewRepository.lockByUserIdIn(userIds);
+		Map<Long, Long> posts = countsByUserId(userProfileViewRepository.countPostsPerUserByUserIdIn(userIds));
+		Map<Long, Long> albums = countsByUserId(userProfileViewRepository.countAlbumsPerUserByUserIdIn(userIds));
+		Map<Long, Long> todos = countsByUserId(userProfileViewRepository.countTodosPerUserByUserIdIn(userIds));
+		Map<Long, Long> comments = countsByUserId(userProfileViewRepository.countCommentsPerUserByUserIdIn(userIds));
+
+		int corrected = 0;
+		for (UserProfileView profile : locked) {
+			long postCount = posts.getOrDefault(profile.getUserId(), 0L);
+			long albumCount = albums.getOrDefault(profile.getUserId(), 0L);
+			long todoCount = todos.getOrDefault(profile.getUserId(), 0L);
+			long commentCount = comments.getOrDefault(profile.getUserId(), 0L);
+			if (profile.getPostCount() != postCount || profile.getAlbumCount() != albumCount
+					|| profile.getTodoCount() != todoCount || profile.getCommentCount() != commentCount) {
+				profile.setPostCount(postCount);
+				profile.setAlbumCount(albumCount);
+				profile.setTodoCount(todoCount);
+				profile.setCommentCount(commentCount);
+				responseCache.evict(ResponseCache.profile(profile.getUsername()));
+				corrected++;
+			}
+		}
+		return corrected;
+	}
+
+	/**
+	 * Copies the changed columns of the user, building the profile first if the user has none yet.
+	 */
+	public UserProfileView userUpdated(User user) {
+		List<UserProfileView> locked = userProfileViewRepository.lockByUserIdIn(List.of(user.getId()));
+		if (locked.isEmpty()) {
+			userProfileViewRepository.flush();
+			jdbcTemplate.update(INSERT_IGNORE + " WHERE u.id = ?", user.getId());
+			locked = userProfileViewRepository.lockByUserIdIn(List.of(user.getId()));
+		}
+		UserProfileView profile = locked.get(0);
+		profile.setFirstName(user.getFirstName());
+		profile.setLastName(user.getLastName());
+		profile.setPhone(user.getPhone());
+		profile.setWebsite(user.getWebsite());
+
+		Address address = user.getAddress();
+		profile.setStreet(address == null ? null : address.getStreet());
+		profile.setSuite(address == null ? null : address.getSuite());
+		profile.setCity(address == null ? null : address.getCity());
+		profile.setZipcode(address == null ? null : address.getZipcode());
+		profile.setLat(address == null || address.getGeo() == null ? null : address.getGeo().getLat());
+		profile.setLng(address == null || address.getGeo() == null ? null : address.getGeo().getLng());
+
+		Company company = user.getCompany();
+		profile.setCompanyName(company == null ? null : company.getName());
+		profile.setCatchPhrase(company == null ? null : company.getCatchPhrase());
+		profile.setBs(company == null ? null : company.getBs());
+
+		responseCache.evict(ResponseCache.profile(profile.getUsername()));
+		return profile;
+	}
+
+	/**
+	 * Takes off the comments others wrote on the user's posts and drops the user's own profile.
+	 */
+	public void removeUser(Long userId) {
+		Map<Long, Consumer<UserProfileView>> changes = new HashMap<>();
+		subtractComments(changes, userProfileViewRepository.countCommentsPerUserByPostUserId(userId));
+		changes.remove(userId);
+		apply(changes);
+		userProfileViewRepository.findById(userId).ifPresent(profile -> {
+			userProfileViewRepository.delete(profile);
+			responseCache.evict(ResponseCache.profile(profile.getUsername()));
+		});
+	}
+
+	public void postAdded(Long userId) {
+		apply(Map.of(userId, profile -> profile.setPostCount(profile.getPostCount() + 1)));
+	}
+
+	/**
+	 * Takes the post off its author and its comments off theirs.
+	 */
+	public void removePost(Long postId, Long userId) {
+		Map<Long, Consumer<UserProfileView>> changes = new HashMap<>();
+		subtractComments(changes, userProfileViewRepository.countCommentsPerUserByPostId(postId));
+		changes.merge(userId, profile -> profile.setPostCount(profile.getPostCount() - 1), Consumer::andThen);
+		apply(changes);
+	}
+
+	public void removePostsOfCategory(Long categoryId) {
+		Map<Long, Consumer<UserProfileView>> changes = new HashMap<>();
+		subtractComments(changes, userProfileViewRepository.countCommentsPerUserByCategoryId(categoryId));
+		for (Object[] row : userProfileViewRepository.countPostsPerUserByCategoryId(categoryId)) {
+			long count = (Long) row[1];
+			if (row[0] != null) {
+				changes.merge((Long) row[0], profile -> profile.setPostCount(profile.getPostCount() - count),
+						Consumer::andThen);
+			}
+		}
+		apply(changes);
+	}
+
+	public void albumAdded(Long userId) {
+		apply(Map.of(userId, profile -> profile.setAlbumCount(profile.getAlbumCount() + 1)));
+	}
+
+	public void albumRemoved(Long userId) {
+		apply(Map.of(userId, profile -> profile.setAlbumCount(profile.getAlbumCount() - 1)));
+	}
+
+	public void todoAdded(Long userId) {
+		apply(Map.of(userId, profile -> profile.setTodoCount(profile.getTodoCount() + 1)));
+	}
+
+	public void todoRemoved(Long userId) {
+		apply(Map.of(userId, profile -> profile.setTodoCount(profile.getTodoCount() - 1)));
+	}
+
+	public void commentAdded(Long userId) {
+		apply(Map.of(userId, profile -> profile.setCommentCount(profile.getCommentCount() + 1)));
+	}
+
+	public void commentRemoved(Long userId) {
+		apply(Map.of(userId, profile -> profile.setCommentCount(profile.getCommentCount() - 1)));
+	}
+
+	private static Map<Long, Long> countsByUserId(List<Object[]> countsPerUser) {
+		Map<Long, Long> counts = new HashMap<>();
+		for (Object[] row : countsPerUser) {
+			counts.put((Long) row[0], (Long) row[1]);
+		}
+		return counts;
+	}
+
+	private static void subtractComments(Map<Long, Consumer<UserProfileView>> changes, List<Object[]> commentsPerUser) {
+		for (Object[] row : commentsPerUser) {
+			long count = (Long) row[1];
+			if (row[0] != null) {
+				changes.merge((Long) row[0], profile -> profile.setCommentCount(profile.getCommentCount() - count),
+						Consumer::andThen);
+			}
+		}
+	}
+
+	/**
+	 * Locks the profiles that exist among the changed ones and applies the changes, which are flushed with the
+	 * transaction.
+	 */
+	private void apply(Map<Long, Consumer<UserProfileView>> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		for (UserProfileView profile : userProfileViewRepository.lockByUserIdIn(changes.keySet())) {
+			changes.get(profile.getUserId()).accept(profile);
+			responseCache.evict(ResponseCache.profile(profile.getUsername()));
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.AccessDeniedException;
 import com.sopromadze.blogapi.exception.AppException;
 import com.sopromadze.blogapi.exception.BadRequestException;
@@ -11,15 +12,21 @@ import com.sopromadze.blogapi.model.user.Address;
 import com.sopromadze.blogapi.model.user.Company;
 import com.sopromadze.blogapi.model.user.Geo;
 import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.model.user.UserProfileView;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.InfoRequest;
 import com.sopromadze.blogapi.payload.UserIdentityAvailability;
 import com.sopromadze.blogapi.payload.UserProfile;
 import com.sopromadze.blogapi.payload.UserSummary;
+import com.sopromadze.blogapi.reference.ReferenceData;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.RoleRepository;
+import com.sopromadze.blogapi.repository.UserProfileViewRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
+import com.sopromadze.blogapi.security.PrincipalInvalidationRegistry;
 import com.sopromadze.blogapi.security.UserPrincipal;
+import com.sopromadze.blogapi.service.SearchService;
 import com.sopromadze.blogapi.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +34,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,12 +45,28 @@ public class UserServiceImpl implements UserService {
 
 	private final UserRepository userRepository;
 
-	private final PostRepository postRepository;
+	private final UserProfileViewRepository userProfileViewRepository;
 
 	private final RoleRepository roleRepository;
 
 	private final PasswordEncoder passwordEncoder;
 
+	private final PrincipalInvalidationRegistry principalInvalidationRegistry;
+
+	private final TagPostCounter tagPostCounter;
+
+	private final ResponseCache responseCache;
+
+	private final ReferenceData referenceData;
+
+	private final UserProfileUpdater userProfileUpdater;
+
+	private final PostRepository postRepository;
+
+	private final SearchService searchService;
+
+	private final TagPostIndex tagPostIndex;
+
 	@Override
 	public UserSummary getCurrentUser(UserPrincipal currentUser) {
 		return new UserSummary(currentUser.getId(), currentUser.getUsername(), currentUser.getFirstName(),
@@ -50,26 +74,25 @@ public class UserServiceImpl implements UserService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public UserIdentityAvailability checkUsernameAvailability(String username) {
 		Boolean isAvailable = !userRepository.existsByUsername(username);
 		return new UserIdentityAvailability(isAvailable);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public UserIdentityAvailability checkEmailAvailability(String email) {
 		Boolean isAvailable = !userRepository.existsByEmail(email);
 		return new UserIdentityAvailability(isAvailable);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public UserProfile getUserProfile(String username) {
-		User user = userRepository.getUserByName(username);
-
-		Long postCount = postRepository.countByCreatedBy(user.getId());
-
-		return new UserProfile(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
-				user.getCreatedAt(), user.getEmail(), user.getAddress(), user.getPhone(), user.getWebsite(),
-				user.getCompany(), postCount);
+		UserProfileView profile = userProfileViewRepository.findByUsername(username)
+				.orElseGet(() -> userProfileUpdater.build(username));
+		return profile(profile);
 	}
 
 	@Override
@@ -85,8 +108,7 @@ public class UserServiceImpl implements UserService {
 		}
 
 		List<Role> roles = new ArrayList<>();
-		roles.add(
-				roleRepository.findByName(RoleName.ROLE_USER).orElseThrow(() -> new AppException("User role not set")));
+		roles.add(role(RoleName.ROLE_USER));
 		user.setRoles(roles);
 
 		user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -94,6 +116,7 @@ public class UserServiceImpl implements UserService {
 	}
 
 	@Override
+	@Transactional
 	public User updateUser(User newUser, String username, UserPrincipal currentUser) {
 		User user = userRepository.getUserByName(username);
 		if (user.getId().equals(currentUser.getId())
@@ -106,7 +129,10 @@ public class UserServiceImpl implements UserService {
 			user.setWebsite(newUser.getWebsite());
 			user.setCompany(newUser.getCompany());
 
-			return userRepository.save(user);
+			User updatedUser = userRepository.save(user);
+			userProfileUpdater.userUpdated(updatedUser);
+			principalInvalidationRegistry.invalidate(user.getId());
+			return updatedUser;
 
 		}
 
@@ -116,6 +142,7 @@ public class UserServiceImpl implements UserService {
 	}
 
 	@Override
+	@Transactional
 	public ApiResponse deleteUser(String username, UserPrincipal currentUser) {
 		User user = userRepository.findByUsername(username)
 				.orElseThrow(() -> new ResourceNotFoundException("User", "id", username));
@@ -125,7 +152,15 @@ public class UserServiceImpl implements UserService {
 			throw new AccessDeniedException(apiResponse);
 		}
 
+		List<Long> postIds = postRepository.findIdsByUserId(user.getId());
+		tagPostCounter.removePostsOfUser(user.getId());
+		userProfileUpdater.removeUser(user.getId());
+		searchService.removePosts(postIds);
+		searchService.removeCommentsOfUser(user.getId());
 		userRepository.deleteById(user.getId());
+		tagPostIndex.removeAll(postIds);
+		principalInvalidationRegistry.invalidate(user.getId());
+		responseCache.clear();
 
 		return new ApiResponse(Boolean.TRUE, "You successfully deleted profile of: " + username);
 	}
@@ -134,12 +169,11 @@ public class UserServiceImpl implements UserService {
 	public ApiResponse giveAdmin(String username) {
 		User user = userRepository.getUserByName(username);
 		List<Role> roles = new ArrayList<>();
-		roles.add(roleRepository.findByName(RoleName.ROLE_ADMIN)
-				.orElseThrow(() -> new AppException("User role not set")));
-		roles.add(
-				roleRepository.findByName(RoleName.ROLE_USER).orElseThrow(() -> new AppException("User role not set")));
+		roles.add(role(RoleName.ROLE_ADMIN));
+		roles.add(role(RoleName.ROLE_USER));
 		user.setRoles(roles);
 		userRepository.save(user);
+		principalInvalidationRegistry.invalidate(user.getId());
 		return new ApiResponse(Boolean.TRUE, "You gave ADMIN role to user: " + username);
 	}
 
@@ -147,14 +181,15 @@ public class UserServiceImpl implements UserService {
 	public ApiResponse removeAdmin(String username) {
 		User user = userRepository.getUserByName(username);
 		List<Role> roles = new ArrayList<>();
-		roles.add(
-				roleRepository.findByName(RoleName.ROLE_USER).orElseThrow(() -> new AppException("User role not set")));
+		roles.add(role(RoleName.ROLE_USER));
 		user.setRoles(roles);
 		userRepository.save(user);
+		principalInvalidationRegistry.invalidate(user.getId());
 		return new ApiResponse(Boolean.TRUE, "You took ADMIN role from user: " + username);
 	}
 
 	@Override
+	@Transactional
 	public UserProfile setOrUpdateInfo(UserPrincipal currentUser, InfoRequest infoRequest) {
 		User user = userRepository.findByUsername(currentUser.getUsername())
 				.orElseThrow(() -> new ResourceNotFoundException("User", "username", currentUser.getUsername()));
@@ -169,16 +204,39 @@ public class UserServiceImpl implements UserService {
 			user.setWebsite(infoRequest.getWebsite());
 			user.setPhone(infoRequest.getPhone());
 			User updatedUser = userRepository.save(user);
-
-			Long postCount = postRepository.countByCreatedBy(updatedUser.getId());
-
-			return new UserProfile(updatedUser.getId(), updatedUser.getUsername(),
-					updatedUser.getFirstName(), updatedUser.getLastName(), updatedUser.getCreatedAt(),
-					updatedUser.getEmail(), updatedUser.getAddress(), updatedUser.getPhone(), updatedUser.getWebsite(),
-					updatedUser.getCompany(), postCount);
+			return profile(userProfileUpdater.userUpdated(updatedUser));
 		}
 
 		ApiResponse apiResponse = new ApiResponse(Boolean.FALSE, "You don't have permission to update users profile", HttpStatus.FORBIDDEN);
 		throw new AccessDeniedException(apiResponse);
 	}
+
+	/**
+	 * An address or company whose columns are all empty reads as none.
+	 */
+	private static UserProfile profile(UserProfileView profile) {
+		Geo geo = profile.getLat() == null && profile.getLng() == null ? null
+				: new Geo(profile.getLat(), profile.getLng());
+		Address address = geo == null && profile.getStreet() == null && profile.getSuite() == null
+				&& profile.getCity() == null && profile.getZipcode() == null ? null
+						: new Address(profile.getStreet(), profile.getSuite(), profile.getCity(), profile.getZipcode(),
+								geo);
+		Company company = profile.getCompanyName() == null && profile.getCatchPhrase() == null
+				&& profile.getBs() == null ? null
+						: new Company(profile.getCompanyName(), profile.getCatchPhrase(), profile.getBs());
+
+		return new UserProfile(profile.getUserId(), profile.getUsername(), profile.getFirstName(),
+				profile.getLastName(), profile.getJoinedAt(), profile.getEmail(), address, profile.getPhone(),
+				profile.getWebsite(), company, profile.getPostCount(), profile.getAlbumCount(), profile.getTodoCount(),
+				profile.getCommentCount());
+	}
+
+	/**
+	 * Takes the role from the reference data, falling back to the roles table until that is loaded.
+	 */
+	private Role role(RoleName name) {
+		Role role = referenceData.role(name);
+		return role != null ? role
+				: roleRepository.findByName(name).orElseThrow(() -> new AppException("User role not set"));
+	}
 }
@@ -1,8 +1,16 @@
 package com.sopromadze.blogapi.utils;
 
 import com.sopromadze.blogapi.exception.BlogapiException;
+import com.sopromadze.blogapi.model.audit.DateAudit;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
+import java.util.function.Function;
+
 public class AppUtils {
 	public static void validatePageNumberAndSize(int page, int size) {
 		if (page < 0) {
@@ -17,4 +25,33 @@ public class AppUtils {
 			throw new BlogapiException(HttpStatus.BAD_REQUEST, "Page size must not be greater than " + AppConstants.MAX_PAGE_SIZE);
 		}
 	}
+
+	public static Pageable seekPageable(int size) {
+		validatePageNumberAndSize(0, size);
+
+		return PageRequest.of(0, size);
+	}
+
+	public static <E extends DateAudit, T> PagedResponse<T> toCursorResponse(Slice<E> slice, List<T> content,
+			Function<E, Long> idOf) {
+		String nextCursor = null;
+		if (slice.hasNext()) {
+			E lastRow = slice.getContent().get(slice.getNumberOfElements() - 1);
+			nextCursor = Cursor.encode(lastRow.getCreatedAt(), idOf.apply(lastRow));
+		}
+
+		return new PagedResponse<>(content, slice.getSize(), !slice.hasNext(), nextCursor);
+	}
+
+	public static <T> PagedResponse<T> toSliceResponse(Slice<?> slice, List<T> content, long approximateTotal) {
+		long totalElements = -1;
+		int totalPages = -1;
+		if (approximateTotal >= 0) {
+			long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+			totalElements = slice.hasNext() ? Math.max(approximateTotal, seen + 1) : seen;
+			totalPages = (int) ((totalElements + slice.getSize() - 1) / slice.getSize());
+		}
+
+		return new PagedResponse<>(content, slice.getNumber(), slice.getSize(), totalElements, totalPages, !slice.hasNext());
+	}
 }
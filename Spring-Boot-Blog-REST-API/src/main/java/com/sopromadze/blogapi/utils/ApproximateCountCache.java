@@ -0,0 +1,94 @@
+package com.sopromadze.blogapi.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Row counts served to {@code mode=approximate} list requests. A count is computed on first use and then at most
+ * once per refresh interval; once stale it keeps being served while a single background thread recounts, so
+ * requests never wait on a {@code COUNT(*)} after warm-up. Keys include per-user, per-post and per-album counts, so
+ * the cache is bounded and drops counts nobody asked for within the expiry.
+ */
+@Component
+public class ApproximateCountCache implements DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ApproximateCountCache.class);
+
+	private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "approximate-count-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	@Value(value = "${app.approximateCountRefreshInMs:60000}")
+	private long refreshInMs;
+
+	@Value(value = "${app.approximateCountExpireInMs:600000}")
+	private long expireInMs;
+
+	@Value(value = "${app.approximateCountMaxSize:10000}")
+	private int maxSize;
+
+	private Cache<String, Count> counts;
+
+	@PostConstruct
+	void init() {
+		counts = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterAccess(expireInMs, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	public long count(String key, LongSupplier counter) {
+		Count count = counts.getIfPresent(key);
+		if (count == null) {
+			return counts.get(key, missing -> new Count(counter.getAsLong(), System.currentTimeMillis())).value;
+		}
+
+		if (System.currentTimeMillis() - count.countedAt >= refreshInMs && count.refreshing.compareAndSet(false, true)) {
+			refresher.execute(() -> refresh(key, count, counter));
+		}
+		return count.value;
+	}
+
+	@Override
+	public void destroy() {
+		refresher.shutdownNow();
+	}
+
+	/**
+	 * Replaces only the count it was started for, so a count evicted meanwhile is not brought back.
+	 */
+	private void refresh(String key, Count stale, LongSupplier counter) {
+		try {
+			counts.asMap().replace(key, stale, new Count(counter.getAsLong(), System.currentTimeMillis()));
+		} catch (RuntimeException ex) {
+			LOGGER.error("Could not refresh count {}", key, ex);
+			stale.refreshing.set(false);
+		}
+	}
+
+	private static final class Count {
+		private final long value;
+
+		private final long countedAt;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private Count(long value, long countedAt) {
+			this.value = value;
+			this.countedAt = countedAt;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.sopromadze.blogapi.utils;
+
+import com.sopromadze.blogapi.exception.BlogapiException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position {@code (createdAt, id)} of the last row returned. The next page is the rows strictly
+ * before it in {@code createdAt DESC, id DESC} order, so the database seeks straight to it through the
+ * {@code (created_at, id)} index instead of skipping {@code page * size} rows.
+ */
+public final class Cursor {
+	private static final String SEPARATOR = "|";
+
+	private static final Cursor FIRST = new Cursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+	private final Instant createdAt;
+
+	private final Long id;
+
+	private Cursor(Instant createdAt, Long id) {
+		this.createdAt = createdAt;
+		this.id = id;
+	}
+
+	public static Cursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return FIRST;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = value.lastIndexOf(SEPARATOR);
+			return new Cursor(Instant.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+			throw new BlogapiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+		}
+	}
+
+	public static String encode(Instant createdAt, Long id) {
+		String value = createdAt.toString() + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+}
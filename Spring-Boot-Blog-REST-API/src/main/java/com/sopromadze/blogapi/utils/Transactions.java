@@ -0,0 +1,26 @@
+package com.sopromadze.blogapi.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class Transactions {
+	private Transactions() {
+	}
+
+	/**
+	 * Runs {@code change} once the current transaction commits, so nothing is applied for a rollback, or right
+	 * away when there is no transaction.
+	 */
+	public static void afterCommit(Runnable change) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					change.run();
+				}
+			});
+		} else {
+			change.run();
+		}
+	}
+}
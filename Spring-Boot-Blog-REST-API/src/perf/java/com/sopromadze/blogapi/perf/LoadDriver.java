@@ -0,0 +1,400 @@
+package com.sopromadze.blogapi.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of reads and writes against a running instance, normally one started with the {@code perf}
+ * profile, and prints the throughput and the p50, p99 and p99.9 latency of each operation. Ids are drawn with the
+ * same {@link SkewedIds} as {@link PerfDataGenerator}, so the posts read most are the ones with most comments. Reads
+ * are anonymous, as most production traffic is; writes are made by the user each worker signs in as.
+ *
+ * <p>Options are {@code --name=value}: {@code baseUrl}, {@code threads}, {@code warmupSeconds},
+ * {@code durationSeconds}, {@code seed}, {@code skew} and the generated volumes {@code users}, {@code categories},
+ * {@code tags} and {@code posts}, which must match the instance's {@code app.perf.*}. {@code mix} replaces the
+ * default operation weights, e.g. {@code getPost=80,addComment=20}. Without {@code rate} every worker sends its next
+ * request as soon as the previous one returns; with {@code rate}, in requests per second over all workers, requests
+ * follow a fixed schedule and latency is measured from the time each one was due, so a stall counts against every
+ * request it delays instead of hiding them.
+ */
+public final class LoadDriver {
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final String baseUrl;
+
+	private final int threads;
+
+	private final long warmupNanos;
+
+	private final long durationNanos;
+
+	private final double rate;
+
+	private final long seed;
+
+	private final SkewedIds userIds;
+
+	private final SkewedIds categoryIds;
+
+	private final SkewedIds tagIds;
+
+	private final SkewedIds postIds;
+
+	private final SkewedIds pages;
+
+	private final Map<Operation, Integer> mix;
+
+	private final int totalWeight;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private LoadDriver(Map<String, String> options) {
+		baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080");
+		threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+		warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmupSeconds", "10")));
+		durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("durationSeconds", "60")));
+		rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+		seed = Long.parseLong(options.getOrDefault("seed", "42"));
+		double skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+		userIds = SkewedIds.of("users", Integer.parseInt(options.getOrDefault("users", "10000")), skew, seed);
+		categoryIds = SkewedIds.of("categories", Integer.parseInt(options.getOrDefault("categories", "50")), skew, seed);
+		tagIds = SkewedIds.of("tags", Integer.parseInt(options.getOrDefault("tags", "2000")), skew, seed);
+		postIds = SkewedIds.of("posts", Integer.parseInt(options.getOrDefault("posts", "200000")), skew, seed);
+		pages = new SkewedIds(20, skew, seed);
+
+		mix = new EnumMap<>(Operation.class);
+		if (options.containsKey("mix")) {
+			for (String entry : options.get("mix").split(",")) {
+				String[] weight = entry.split("=");
+				mix.put(Operation.named(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+			}
+		} else {
+			for (Operation operation : Operation.values()) {
+				mix.put(operation, operation.defaultWeight);
+			}
+		}
+		totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			options.put(arg.substring(2, separator), arg.substring(separator + 1));
+		}
+		new LoadDriver(options).run();
+	}
+
+	private void run() throws Exception {
+		System.out.printf("Signing in %d workers against %s%n", threads, baseUrl);
+		List<Worker> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Worker worker = new Worker(i);
+			worker.signIn();
+			workers.add(worker);
+		}
+
+		System.out.printf("Warming up for %d s, then measuring for %d s%n", TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+				TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> running = new ArrayList<>();
+		for (Worker worker : workers) {
+			running.add(executor.submit(() -> worker.run(start)));
+		}
+		for (Future<?> future : running) {
+			future.get();
+		}
+		executor.shutdown();
+
+		report(workers);
+	}
+
+	private void report(List<Worker> workers) {
+		double seconds = durationNanos / 1e9;
+		Histogram total = new Histogram(3);
+		long totalErrors = 0;
+		System.out.printf("%n%-16s %9s %7s %9s %9s %9s %9s %9s%n", "operation", "count", "errors", "ops/s", "p50 ms",
+				"p99 ms", "p99.9 ms", "max ms");
+		for (Operation operation : Operation.values()) {
+			Histogram histogram = new Histogram(3);
+			long errors = 0;
+			for (Worker worker : workers) {
+				histogram.add(worker.latencies.get(operation));
+				errors += worker.errors.get(operation)[0];
+			}
+			if (histogram.getTotalCount() == 0) {
+				continue;
+			}
+			total.add(histogram);
+			totalErrors += errors;
+			print(operation.name, histogram, errors, seconds);
+		}
+		print("total", total, totalErrors, seconds);
+
+		Map<Operation, String> firstErrors = new EnumMap<>(Operation.class);
+		for (Worker worker : workers) {
+			worker.firstErrors.forEach(firstErrors::putIfAbsent);
+		}
+		firstErrors.forEach((operation, error) -> System.out.printf("%s failed: %s%n", operation.name,
+				error.length() > 300 ? error.substring(0, 300) + "..." : error));
+	}
+
+	private static void print(String name, Histogram histogram, long errors, double seconds) {
+		System.out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+				histogram.getTotalCount() / seconds, millis(histogram.getValueAtPercentile(50)),
+				millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+				millis(histogram.getMaxValue()));
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	private static String json(Object value) {
+		try {
+			return JSON.writeValueAsString(value);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private enum Operation {
+		LIST_POSTS("listPosts", 25),
+		GET_POST("getPost", 20),
+		LIST_COMMENTS("listComments", 15),
+		POSTS_BY_CATEGORY("postsByCategory", 4),
+		POSTS_BY_TAG("postsByTag", 4),
+		FILTER_BY_TAGS("filterByTags", 2),
+		LIST_CATEGORIES("listCategories", 2),
+		LIST_TAGS("listTags", 2),
+		USER_PROFILE("userProfile", 4),
+		USER_POSTS("userPosts", 3),
+		SEARCH("search", 4),
+		ADD_COMMENT("addComment", 10),
+		ADD_POST("addPost", 3),
+		UPDATE_POST("updatePost", 2);
+
+		private final String name;
+
+		private final int defaultWeight;
+
+		Operation(String name, int defaultWeight) {
+			this.name = name;
+			this.defaultWeight = defaultWeight;
+		}
+
+		static Operation named(String name) {
+			for (Operation operation : values()) {
+				if (operation.name.equals(name)) {
+					return operation;
+				}
+			}
+			throw new IllegalArgumentException("Unknown operation " + name);
+		}
+	}
+
+	private final class Worker {
+		private final int index;
+
+		private final Random random;
+
+		private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+		private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+
+		private final Map<Operation, String> firstErrors = new EnumMap<>(Operation.class);
+
+		private final List<Long> ownPosts = new ArrayList<>();
+
+		private long userId;
+
+		private String token;
+
+		private long created;
+
+		Worker(int index) {
+			this.index = index;
+			this.random = new Random(seed * 31 + index);
+			for (Operation operation : Operation.values()) {
+				latencies.put(operation, new Histogram(3));
+				errors.put(operation, new long[1]);
+			}
+		}
+
+		void signIn() throws IOException, InterruptedException {
+			userId = userIds.next(random);
+			String username = PerfDataGenerator.username(userId);
+			HttpResponse<String> response = client.send(post("/api/auth/signin",
+					json(Map.of("usernameOrEmail", username, "password", PerfDataGenerator.PASSWORD))).build(),
+					HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("Could not sign in as " + username + ": " + response.statusCode() + ' '
+						+ response.body());
+			}
+			token = JSON.readTree(response.body()).get("accessToken").asText();
+
+			response = client.send(get("/api/users/" + username + "/posts?size=30"), HttpResponse.BodyHandlers.ofString());
+			for (JsonNode post : JSON.readTree(response.body()).path("content")) {
+				ownPosts.add(post.get("id").asLong());
+			}
+		}
+
+		void run(long start) {
+			long warmupEnd = start + warmupNanos;
+			long end = warmupEnd + durationNanos;
+			long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+			long due = start + interval * index / Math.max(threads, 1);
+			while (true) {
+				if (interval > 0) {
+					long wait = due - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+				} else {
+					due = System.nanoTime();
+				}
+				if (due >= end) {
+					return;
+				}
+
+				Operation operation = pick();
+				boolean failed;
+				try {
+					HttpResponse<String> response = client.send(request(operation), HttpResponse.BodyHandlers.ofString());
+					failed = response.statusCode() >= 400;
+					if (failed) {
+						firstErrors.putIfAbsent(operation, response.statusCode() + " " + response.body());
+					}
+				} catch (IOException ex) {
+					failed = true;
+					firstErrors.putIfAbsent(operation, ex.toString());
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				long latency = System.nanoTime() - due;
+				if (due >= warmupEnd) {
+					latencies.get(operation).recordValue(latency);
+					if (failed) {
+						errors.get(operation)[0]++;
+					}
+				}
+				due += interval;
+			}
+		}
+
+		private Operation pick() {
+			int target = random.nextInt(totalWeight);
+			for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+				target -= entry.getValue();
+				if (target < 0) {
+					return entry.getKey();
+				}
+			}
+			throw new IllegalStateException("Empty mix");
+		}
+
+		private HttpRequest request(Operation operation) {
+			switch (operation) {
+				case LIST_POSTS:
+					return get("/api/posts?page=" + pages.nextRank(random));
+				case GET_POST:
+					return get("/api/posts/" + postIds.next(random));
+				case LIST_COMMENTS:
+					return get("/api/posts/" + postIds.next(random) + "/comments");
+				case POSTS_BY_CATEGORY:
+					return get("/api/posts/category/" + categoryIds.next(random) + "?page=" + pages.nextRank(random));
+				case POSTS_BY_TAG:
+					return get("/api/posts/tag/" + tagIds.next(random));
+				case FILTER_BY_TAGS:
+					return get("/api/posts?mode=any&tags=" + encode(PerfDataGenerator.tagName(tagIds.next(random)) + ','
+							+ PerfDataGenerator.tagName(tagIds.next(random))));
+				case LIST_CATEGORIES:
+					return get("/api/categories");
+				case LIST_TAGS:
+					return get("/api/tags?page=" + pages.nextRank(random));
+				case USER_PROFILE:
+					return get("/api/users/" + PerfDataGenerator.username(userIds.next(random)) + "/profile");
+				case USER_POSTS:
+					return get("/api/users/" + PerfDataGenerator.username(userIds.next(random)) + "/posts");
+				case SEARCH:
+					return get("/api/search?q=" + encode(PerfDataGenerator.words(random, 1, 2)));
+				case ADD_COMMENT:
+					return authorized(post("/api/posts/" + postIds.next(random) + "/comments",
+							json(Map.of("body", PerfDataGenerator.paragraph(random, 10, 400)))));
+				case UPDATE_POST:
+					if (!ownPosts.isEmpty()) {
+						return authorized(HttpRequest.newBuilder(uri("/api/posts/" + ownPosts.get(random.nextInt(ownPosts.size()))))
+								.header("Content-Type", "application/json")
+								.PUT(HttpRequest.BodyPublishers.ofString(postBody())));
+					}
+					return authorized(post("/api/posts", postBody()));
+				case ADD_POST:
+					return authorized(post("/api/posts", postBody()));
+				default:
+					throw new IllegalArgumentException(operation.name);
+			}
+		}
+
+		private String postBody() {
+			Map<String, Object> post = new HashMap<>();
+			post.put("title", "Load " + userId + '-' + index + '-' + created++ + ' ' + PerfDataGenerator.words(random, 2, 6));
+			post.put("body", PerfDataGenerator.paragraph(random, 60, 2000));
+			post.put("categoryId", categoryIds.next(random));
+			post.put("tags", List.of(PerfDataGenerator.tagName(tagIds.next(random)),
+					PerfDataGenerator.tagName(tagIds.next(random))));
+			return json(post);
+		}
+
+		private HttpRequest authorized(HttpRequest.Builder request) {
+			return request.header("Authorization", "Bearer " + token).build();
+		}
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(uri(path)).GET().timeout(Duration.ofSeconds(30)).build();
+	}
+
+	private HttpRequest.Builder post(String path, String body) {
+		return HttpRequest.newBuilder(uri(path))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(30))
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+	}
+
+	private URI uri(String path) {
+		return URI.create(baseUrl + path);
+	}
+}
@@ -0,0 +1,169 @@
+package com.sopromadze.blogapi.cache;
+
+import com.sopromadze.blogapi.configuration.SpringSecurityTestWebConfig;
+import com.sopromadze.blogapi.datasource.PrimaryReads;
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.service.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {SpringSecurityTestWebConfig.class}, properties = {"spring.main.allow-bean-definition-overriding=true", "app.responseCache.enabled=true"})
+class ResponseCacheFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @MockBean
+    private CategoryServiceImpl categoryService;
+
+    @BeforeEach
+    void setUp() {
+        responseCache.clear();
+        Category category = new Category("Viajes");
+        category.setId(1L);
+        when(categoryService.getAllCategories(0, 30))
+                .thenReturn(new PagedResponse<>(List.of(category), 0, 30, 1, 1, true));
+    }
+
+    /*
+     * Test: Se comprueba que la segunda petición anónima se sirve desde la caché sin llamar al servicio
+     * Entrada: dos get("/api/categories")
+     * Salida esperada: Test se realiza con éxito, MISS y luego HIT con el mismo cuerpo y una sola llamada al servicio
+     */
+    @Test
+    @DisplayName("Repeated anonymous GET is served from the cache")
+    void get_isServedFromCache() throws Exception {
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"));
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "HIT"))
+                .andExpect(jsonPath("$.content[0].name").value("Viajes"));
+
+        verify(categoryService, times(1)).getAllCategories(0, 30);
+    }
+
+    /*
+     * Test: Se comprueba que un MISS que se va a guardar se lee del primario y no de una réplica
+     * Entrada: get("/api/categories") con el servicio anotando si se exigía el primario
+     * Salida esperada: Test se realiza con éxito, se exigía durante la petición y deja de exigirse al terminar
+     */
+    @Test
+    @DisplayName("Misses are read from the primary")
+    void get_missReadsFromPrimary() throws Exception {
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        when(categoryService.getAllCategories(0, 30)).thenAnswer(invocation -> {
+            primaryRequired.set(PrimaryReads.isRequired());
+            return new PagedResponse<>(List.of(new Category("Viajes")), 0, 30, 1, 1, true);
+        });
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"));
+
+        assertTrue(primaryRequired.get());
+        assertFalse(PrimaryReads.isRequired());
+    }
+
+    /*
+     * Test: Se comprueba que una petición condicional con el ETag de la respuesta cacheada recibe 304
+     * Entrada: get("/api/categories"), get("/api/categories") con If-None-Match igual al ETag recibido
+     * Salida esperada: Test se realiza con éxito, 304 desde la caché sin cuerpo y una sola llamada al servicio
+     */
+    @Test
+    @DisplayName("Conditional GET matching the cached ETag returns 304")
+    void get_withMatchingETag_returns304() throws Exception {
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "HIT"))
+                .andExpect(content().string(""));
+
+        verify(categoryService, times(1)).getAllCategories(0, 30);
+    }
+
+    /*
+     * Test: Se comprueba que una petición condicional que falla en la caché se resuelve y se guarda entera
+     * Entrada: get("/api/categories") con If-None-Match igual al ETag actual, y después get("/api/categories")
+     * Salida esperada: Test se realiza con éxito, 304 en el MISS y 200 con cuerpo en el HIT siguiente
+     */
+    @Test
+    @DisplayName("Conditional GET on a miss returns 304 and still caches the full response")
+    void get_withMatchingETagOnMiss_cachesBody() throws Exception {
+        mockMvc.perform(get("/api/categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, responseCache.etag(ResponseCache.CATEGORIES)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "HIT"))
+                .andExpect(jsonPath("$.content[0].name").value("Viajes"));
+
+        verify(categoryService, times(1)).getAllCategories(0, 30);
+    }
+
+    /*
+     * Test: Se comprueba que al desalojar el grupo la siguiente petición vuelve al servicio
+     * Entrada: get("/api/categories"), responseCache.evict(ResponseCache.CATEGORIES), get("/api/categories")
+     * Salida esperada: Test se realiza con éxito, dos llamadas al servicio
+     */
+    @Test
+    @DisplayName("Evicting the group sends the next GET to the service")
+    void evict_dropsGroup() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        responseCache.evict(ResponseCache.CATEGORIES);
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ResponseCacheFilter.CACHE_HEADER, "MISS"));
+
+        verify(categoryService, times(2)).getAllCategories(0, 30);
+    }
+
+    /*
+     * Test: Se comprueba que las peticiones con cabecera Authorization no usan la caché
+     * Entrada: dos get("/api/categories") con Authorization
+     * Salida esperada: Test se realiza con éxito, sin cabecera X-Cache y dos llamadas al servicio
+     */
+    @Test
+    @DisplayName("Authenticated GET bypasses the cache")
+    void get_withAuthorization_bypassesCache() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/categories").header(HttpHeaders.AUTHORIZATION, "Bearer invalid"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(ResponseCacheFilter.CACHE_HEADER));
+        }
+
+        verify(categoryService, times(2)).getAllCategories(0, 30);
+    }
+}
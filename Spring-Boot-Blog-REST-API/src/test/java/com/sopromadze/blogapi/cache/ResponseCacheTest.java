@@ -0,0 +1,82 @@
+package com.sopromadze.blogapi.cache;
+
+import com.sopromadze.blogapi.model.ResponseCacheGeneration;
+import com.sopromadze.blogapi.repository.ResponseCacheGenerationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheTest {
+
+    private final ResponseCacheGenerationRepository generationRepository =
+            mock(ResponseCacheGenerationRepository.class);
+
+    private ResponseCache responseCache;
+
+    private ResponseCache otherInstance;
+
+    @BeforeEach
+    void initData() {
+        responseCache = open();
+        otherInstance = open();
+    }
+
+    /*
+     * Test: Se comprueba que un desalojo hecho en otra instancia cambia el ETag de la lista y vacía su grupo aquí
+     * Entrada: otra instancia ejecuta evict(ResponseCache.CATEGORIES) y esta lee las generaciones compartidas
+     * Salida esperada: Test se realiza con éxito, el ETag de categorías cambia, el de posts no y solo se pierde la
+     * respuesta de categorías
+     */
+    @Test
+    @DisplayName("An eviction through another instance changes the list ETag and drops the group here")
+    void poll_takesInEvictionsOfOtherInstances() {
+        String categoriesETag = responseCache.etag(ResponseCache.CATEGORIES);
+        String postsETag = responseCache.etag(ResponseCache.POSTS);
+        store("categories|/api/categories", ResponseCache.CATEGORIES);
+        store("posts|/api/posts", ResponseCache.POSTS);
+
+        otherInstance.evict(ResponseCache.CATEGORIES);
+        ArgumentCaptor<Integer> stripe = ArgumentCaptor.forClass(Integer.class);
+        verify(generationRepository).increment(stripe.capture());
+        ResponseCacheGeneration row = new ResponseCacheGeneration();
+        row.setStripe(stripe.getValue());
+        row.setGeneration(1L);
+        when(generationRepository.findAll()).thenReturn(List.of(row));
+        responseCache.poll();
+        otherInstance.poll();
+
+        assertNotEquals(categoriesETag, responseCache.etag(ResponseCache.CATEGORIES));
+        assertEquals(otherInstance.etag(ResponseCache.CATEGORIES), responseCache.etag(ResponseCache.CATEGORIES));
+        assertEquals(postsETag, responseCache.etag(ResponseCache.POSTS));
+        assertNull(responseCache.lookup("categories|/api/categories"));
+        assertNotNull(responseCache.lookup("posts|/api/posts"));
+    }
+
+    private void store(String key, String group) {
+        responseCache.store(key, group, responseCache.generation(group),
+                new ResponseCache.Entry(new byte[] { '{', '}' }, "application/json", null, -1));
+    }
+
+    private ResponseCache open() {
+        ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), generationRepository);
+        ReflectionTestUtils.setField(cache, "shared", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlInMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "staleInMs", 60_000L);
+        cache.init();
+        return cache;
+    }
+}
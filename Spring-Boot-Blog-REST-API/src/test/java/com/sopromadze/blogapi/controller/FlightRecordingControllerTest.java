@@ -0,0 +1,67 @@
+package com.sopromadze.blogapi.controller;
+
+import com.sopromadze.blogapi.configuration.SpringSecurityTestWebConfig;
+import com.sopromadze.blogapi.configuration.TestDisableSecurityConfig;
+import com.sopromadze.blogapi.perf.jfr.FlightRecordings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {SpringSecurityTestWebConfig.class, TestDisableSecurityConfig.class}, properties = {"spring.main.allow-bean-definition-overriding=true", "app.jfr.settings=default"})
+class FlightRecordingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FlightRecordings flightRecordings;
+
+    @AfterEach
+    void tearDown() {
+        flightRecordings.close();
+    }
+
+    /*
+     * Test: Se comprueba que un administrador inicia y detiene una grabación que se escribe en un fichero
+     * Entrada: post("/api/admin/jfr/start?durationInSeconds=30"), post("/api/admin/jfr/stop")
+     * Salida esperada: Test se realiza con éxito, la grabación pasa de RUNNING a CLOSED con su fichero escrito
+     */
+    @Test
+    @WithMockUser(authorities = {"ROLE_USER", "ROLE_ADMIN"})
+    @DisplayName("Admins start and stop a recording")
+    void startAndStop_success() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/start").param("durationInSeconds", "30"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.durationInSeconds").value(30));
+
+        mockMvc.perform(post("/api/admin/jfr/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"))
+                .andExpect(jsonPath("$.file").exists());
+    }
+
+    /*
+     * Test: Se comprueba que un usuario sin rol de administrador no puede iniciar grabaciones
+     * Entrada: post("/api/admin/jfr/start")
+     * Salida esperada: Test se realiza con éxito y devuelve 403
+     */
+    @Test
+    @WithMockUser(authorities = {"ROLE_USER"})
+    @DisplayName("Users cannot start a recording")
+    void start_forbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/start")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/jfr")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,75 @@
+package com.sopromadze.blogapi.controller;
+
+import com.sopromadze.blogapi.configuration.SpringSecurityTestWebConfig;
+import com.sopromadze.blogapi.configuration.TestDisableSecurityConfig;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.service.impl.TagServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {SpringSecurityTestWebConfig.class, TestDisableSecurityConfig.class}, properties = {"spring.main.allow-bean-definition-overriding=true"})
+class PerformanceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TagServiceImpl tagService;
+
+    /*
+     * Test: Se comprueba que la ventana actual incluye las llamadas a los controladores
+     * Entrada: get("/api/admin/perf") tras get("/api/tags/1")
+     * Salida esperada: Test se realiza con éxito y la respuesta incluye TagController.getTag
+     */
+    @Test
+    @WithMockUser(authorities = {"ROLE_USER", "ROLE_ADMIN"})
+    @DisplayName("Admins read the current window")
+    void getWindow_success() throws Exception {
+        when(tagService.getTag(1L)).thenReturn(new Tag("viajes"));
+        mockMvc.perform(get("/api/tags/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/perf"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.methods[*].name", hasItem("TagController.getTag")));
+    }
+
+    /*
+     * Test: Se comprueba que reiniciar devuelve la ventana cerrada
+     * Entrada: post("/api/admin/perf/reset")
+     * Salida esperada: Test se realiza con éxito
+     */
+    @Test
+    @WithMockUser(authorities = {"ROLE_USER", "ROLE_ADMIN"})
+    @DisplayName("Admins reset the window")
+    void reset_success() throws Exception {
+        mockMvc.perform(post("/api/admin/perf/reset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start").exists());
+    }
+
+    /*
+     * Test: Se comprueba que un usuario sin rol de administrador no puede ver las métricas
+     * Entrada: get("/api/admin/perf")
+     * Salida esperada: Test se realiza con éxito y devuelve 403
+     */
+    @Test
+    @WithMockUser(authorities = {"ROLE_USER"})
+    @DisplayName("Users cannot read the window")
+    void getWindow_forbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/perf")).andExpect(status().isForbidden());
+    }
+}
@@ -1,6 +1,8 @@
 package com.sopromadze.blogapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sopromadze.blogapi.cache.ResourceVersion;
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.configuration.SpringSecurityTestWebConfig;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.model.Post;
@@ -12,6 +14,7 @@ import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PostRequest;
 import com.sopromadze.blogapi.payload.PostResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import com.sopromadze.blogapi.service.impl.PostServiceImpl;
 import lombok.extern.java.Log;
@@ -24,6 +27,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -38,6 +42,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -54,6 +60,9 @@ public class PostControllerTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    ResponseCache responseCache;
+
     @MockBean
     PostServiceImpl postServiceImpl;
 
@@ -226,12 +235,13 @@ public class PostControllerTest {
     void whenGetPostsByCategory_returns200() throws Exception {
 
         when(postServiceImpl.getPostsByCategory(category.getId(), 1, 10)).thenReturn(pagedResponse);
+        when(postServiceImpl.summarize(pagedResponse)).thenReturn(summaries(pagedResponse));
         mockMvc.perform(get("/api/posts/category/{id}", 2L)
                         .param("page", String.valueOf(1))
                         .param("size", String.valueOf(10))
                         .contentType("application/json"))
                 .andExpect(jsonPath("$.content", hasSize(1)))
-                .andExpect(content().json(objectMapper.writeValueAsString(pagedResponse)))
+                .andExpect(content().json(objectMapper.writeValueAsString(summaries(pagedResponse))))
                 .andExpect(status().isOk()).andDo(print());
 
     }
@@ -255,11 +265,12 @@ public class PostControllerTest {
         postPagedResponse.setTotalPages(1);
 
         when(postServiceImpl.getAllPosts(1,1)).thenReturn(postPagedResponse);
+        when(postServiceImpl.summarize(postPagedResponse)).thenReturn(summaries(postPagedResponse));
 
         mockMvc.perform(get("/api/posts")
                         .param("size","1").param("page","1")
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(content().json(objectMapper.writeValueAsString(postPagedResponse)))
+                .andExpect(content().json(objectMapper.writeValueAsString(summaries(postPagedResponse))))
                 .andExpect(status().isOk());
     }
 
@@ -331,10 +342,11 @@ public class PostControllerTest {
         postPagedResponse.setTotalPages(1);
 
         when(postServiceImpl.getPostsByTag(1L,1,1)).thenReturn(postPagedResponse);
+        when(postServiceImpl.summarize(postPagedResponse)).thenReturn(summaries(postPagedResponse));
         mockMvc.perform(get("/api/posts/tag/{id}",1L)
                         .param("size","1").param("page","1")
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(content().json(objectMapper.writeValueAsString(postPagedResponse)))
+                .andExpect(content().json(objectMapper.writeValueAsString(summaries(postPagedResponse))))
                 .andExpect(status().isOk());
     }
 
@@ -369,4 +381,58 @@ public class PostControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Get post with a matching If-None-Match returns 304 without loading it")
+    void getPost_notModified() throws Exception {
+        ResourceVersion version = new ResourceVersion(Instant.parse("2021-03-01T10:15:30Z"), null, 2L);
+        when(postServiceImpl.getPostVersion(1L)).thenReturn(version);
+
+        mockMvc.perform(get("/api/posts/{id}",1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, version.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.getETag()))
+                .andExpect(content().string(""));
+
+        verify(postServiceImpl, never()).getPost(1L);
+    }
+
+    @Test
+    @DisplayName("Get post returns its ETag and Last-Modified")
+    void getPost_returnsValidators() throws Exception {
+        ResourceVersion version = new ResourceVersion(Instant.parse("2021-03-01T10:15:30Z"), null, 2L);
+        Post post = new Post();
+        post.setId(1L);
+        post.setTitle("Viaje a Francia");
+        when(postServiceImpl.getPostVersion(1L)).thenReturn(version);
+        when(postServiceImpl.getPost(1L)).thenReturn(post);
+
+        mockMvc.perform(get("/api/posts/{id}",1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.getETag()))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, version.getLastModified().toEpochMilli()));
+    }
+
+    @Test
+    @DisplayName("Get all posts with the current list ETag returns 304 without querying")
+    void getAllPosts_notModified() throws Exception {
+        mockMvc.perform(get("/api/posts")
+                        .header(HttpHeaders.IF_NONE_MATCH, responseCache.etag(ResponseCache.POSTS)))
+                .andExpect(status().isNotModified());
+
+        verify(postServiceImpl, never()).getAllPosts(0, 30);
+    }
+
+    private PagedResponse<PostSummary> summaries(PagedResponse<Post> posts) {
+        List<PostSummary> content = new ArrayList<>();
+        for (Post post : posts.getContent()) {
+            PostSummary summary = new PostSummary();
+            summary.setId(post.getId());
+            summary.setTitle(post.getTitle());
+            summary.setBody(post.getBody());
+            content.add(summary);
+        }
+        return new PagedResponse<>(content, posts.getPage(), posts.getSize(), posts.getTotalElements(),
+                posts.getTotalPages(), posts.isLast());
+    }
 }
@@ -0,0 +1,70 @@
+package com.sopromadze.blogapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sopromadze.blogapi.configuration.SpringSecurityTestWebConfig;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.SearchResult;
+import com.sopromadze.blogapi.service.impl.SearchServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {SpringSecurityTestWebConfig.class}, properties = {"spring.main.allow-bean-definition-overriding=true"})
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SearchServiceImpl searchService;
+
+    /*
+     * Test: Se comprueba que la búsqueda es pública y devuelve los resultados del servicio
+     * Entrada: get("/api/search?q=paella")
+     * Salida esperada: Test se realiza con éxito, 200 con la página de resultados
+     */
+    @Test
+    @DisplayName("Search returns 200 without authentication")
+    void search_returns200() throws Exception {
+        SearchResult result = new SearchResult();
+        result.setType("post");
+        result.setId(1L);
+        result.setPostId(1L);
+        result.setTitle("Paella valenciana");
+        result.setSnippet("Receta de <em>paella</em>");
+        PagedResponse<SearchResult> response = new PagedResponse<>(List.of(result), 0, 30, 1, 1, true);
+
+        when(searchService.search("paella", 0, 30)).thenReturn(response);
+
+        mockMvc.perform(get("/api/search").param("q", "paella"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(response)));
+    }
+
+    /*
+     * Test: Se comprueba que la consulta es obligatoria
+     * Entrada: get("/api/search")
+     * Salida esperada: Test se realiza con éxito, 400
+     */
+    @Test
+    @DisplayName("Search without a query returns 400")
+    void search_withoutQuery_returns400() throws Exception {
+        mockMvc.perform(get("/api/search"))
+                .andExpect(status().isBadRequest());
+    }
+}
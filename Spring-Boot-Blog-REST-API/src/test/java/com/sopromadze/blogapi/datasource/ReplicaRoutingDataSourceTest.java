@@ -0,0 +1,211 @@
+package com.sopromadze.blogapi.datasource;
+
+import com.sopromadze.blogapi.security.UserPrincipal;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final JdbcDataSource primary = h2("primary");
+
+    private final JdbcDataSource replicaDatabase = h2("replica");
+
+    private final Replica replica = new Replica("replica-1", replicaDatabase);
+
+    private final ReadYourWrites readYourWrites = new ReadYourWrites();
+
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void initData() throws SQLException {
+        init(primary, "primary");
+        init(replicaDatabase, "replica");
+        ReflectionTestUtils.setField(readYourWrites, "windowInMs", 5000L);
+        ReflectionTestUtils.setField(readYourWrites, "maxSize", 100L);
+        readYourWrites.init();
+        router = new ReplicaRoutingDataSource(primary, List.of(replica), readYourWrites, 2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.setReplicaRead(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    /*
+     * Test: Se comprueba que las lecturas de réplica van a la réplica solo cuando su heartbeat está al día
+     * Entrada: check() sin heartbeat en la réplica, con heartbeat copiado y con heartbeat de hace 10 s
+     * Salida esperada: Test se realiza con éxito, solo lee de la réplica con el heartbeat al día
+     */
+    @Test
+    @DisplayName("Replica reads go to a replica only while it is within the maximum lag")
+    void replicaRead_followsLag() throws SQLException {
+        router.check();
+        assertFalse(replica.isAvailable());
+        assertEquals(-1, replica.getLagInMs());
+        assertEquals("primary", read(true));
+
+        copyHeartbeat(0);
+        router.check();
+        assertTrue(replica.isAvailable());
+        assertEquals("replica", read(true));
+        assertEquals("primary", read(false));
+
+        copyHeartbeat(10_000);
+        router.check();
+        assertFalse(replica.isAvailable());
+        assertTrue(replica.getLagInMs() >= 10_000);
+        assertEquals("primary", read(true));
+    }
+
+    /*
+     * Test: Se comprueba que un usuario que escribe lee del primario y los demás siguen leyendo de la réplica
+     * Entrada: insert confirmado por el usuario 1 en el primario, lecturas de réplica de los usuarios 1 y 2
+     * Salida esperada: Test se realiza con éxito, el usuario 1 lee del primario y el 2 de la réplica
+     */
+    @Test
+    @DisplayName("Users read their own committed writes from the primary")
+    void readYourWrites_pinsWriter() throws SQLException {
+        replica.checked(true, 0);
+        authenticate(1L);
+        assertEquals("replica", read(true));
+
+        try (Connection connection = router.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("insert into item (name) values (?)")) {
+                insert.setString(1, "written");
+                insert.executeUpdate();
+            }
+            assertFalse(readYourWrites.isPinned(1L));
+            connection.commit();
+        }
+        assertTrue(readYourWrites.isPinned(1L));
+        assertEquals("primary", read(true));
+
+        authenticate(2L);
+        assertEquals("replica", read(true));
+    }
+
+    /*
+     * Test: Se comprueba que una réplica que no da conexiones se aparta y se lee del primario
+     * Entrada: réplica disponible que apunta a una base de datos inexistente
+     * Salida esperada: Test se realiza con éxito, se lee del primario y la réplica queda no disponible
+     */
+    @Test
+    @DisplayName("Reads fall back to the primary when a replica fails")
+    void failingReplica_fallsBack() throws SQLException {
+        JdbcDataSource missing = new JdbcDataSource();
+        missing.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Replica down = new Replica("replica-2", missing);
+        down.checked(true, 0);
+        router = new ReplicaRoutingDataSource(primary, List.of(down), readYourWrites, 2000L);
+
+        assertEquals("primary", read(true));
+        assertFalse(down.isAvailable());
+    }
+
+    /*
+     * Test: Se comprueba que las transacciones de lectura de réplica leen la caché de segundo nivel sin llenarla
+     * Entrada: beginTransaction con lectura de réplica y sin ella y cleanupTransaction después
+     * Salida esperada: Test se realiza con éxito, solo la lectura de réplica pasa a CacheMode.GET y luego se restaura
+     */
+    @Test
+    @DisplayName("Replica read transactions read the second-level cache without filling it")
+    void replicaReadJpaDialect_cacheModeGet() throws SQLException {
+        SessionImplementor session = mock(SessionImplementor.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(any())).thenReturn(session);
+        when(entityManager.getTransaction()).thenReturn(mock(EntityTransaction.class));
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(session.getHibernateFlushMode()).thenReturn(FlushMode.AUTO);
+        ReplicaReadJpaDialect dialect = new ReplicaReadJpaDialect();
+
+        dialect.cleanupTransaction(dialect.beginTransaction(entityManager, new DefaultTransactionDefinition()));
+        verify(session, never()).setCacheMode(any());
+
+        ReplicaRoutingDataSource.setReplicaRead(true);
+        Object transactionData = dialect.beginTransaction(entityManager, new DefaultTransactionDefinition());
+        verify(session).setCacheMode(CacheMode.GET);
+        dialect.cleanupTransaction(transactionData);
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    private String read(boolean replicaRead) throws SQLException {
+        boolean previous = ReplicaRoutingDataSource.setReplicaRead(replicaRead);
+        try (Connection connection = router.getConnection(); Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("select name from item where id = 1")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } finally {
+            ReplicaRoutingDataSource.setReplicaRead(previous);
+        }
+    }
+
+    private void copyHeartbeat(long lagInMs) throws SQLException {
+        long beat;
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("select beat from replica_heartbeat where id = 1")) {
+            resultSet.next();
+            beat = resultSet.getLong(1);
+        }
+        try (Connection connection = replicaDatabase.getConnection();
+                PreparedStatement merge = connection
+                        .prepareStatement("merge into replica_heartbeat key (id) values (1, ?)")) {
+            merge.setLong(1, beat - lagInMs);
+            merge.executeUpdate();
+        }
+    }
+
+    private static void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "first", "last", "user" + userId, "user" + userId + "@mail.com",
+                "password", Collections.emptyList());
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "routing;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static void init(DataSource dataSource, String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists item");
+            statement.execute("drop table if exists replica_heartbeat");
+            statement.execute("create table item (id bigint auto_increment primary key, name varchar(64))");
+            statement.execute("create table replica_heartbeat (id bigint primary key, beat bigint not null)");
+            statement.execute("insert into item (name) values ('" + name + "')");
+        }
+    }
+}
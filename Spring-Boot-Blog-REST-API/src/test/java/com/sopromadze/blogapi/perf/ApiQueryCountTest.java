@@ -0,0 +1,63 @@
+package com.sopromadze.blogapi.perf;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@SpringBootTest(properties = {"app.perf.database=mem:perfgenerator", "app.perf.users=40", "app.perf.categories=4",
+        "app.perf.tags=20", "app.perf.posts=200", "app.perf.comments=600", "app.perf.albums=20", "app.perf.photos=100",
+        "app.perf.todos=50", "app.passwordHashing.strength=4"})
+class ApiQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+     * Test: Se comprueba que los endpoints de lectura más usados no repiten la misma consulta por cada fila
+     * Entrada: get(url) sobre los datos generados por el perfil perf
+     * Salida esperada: Test se realiza con éxito, ninguna select se ejecuta más de una vez en la misma petición
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "/api/posts?page=1", "/api/posts/3", "/api/posts/3/comments", "/api/posts/category/1",
+            "/api/posts/tag/1", "/api/tags", "/api/users/user1/profile", "/api/users/user1/posts",
+            "/api/users/user1/albums", "/api/albums/1/photos", "/api/search?q=lorem", "/api/albums", "/api/albums/1",
+            "/api/photos", "/api/photos/1", "/api/categories", "/api/categories/1", "/api/tags/1" })
+    @DisplayName("Read endpoints do not repeat selects")
+    void readEndpoints_noRepeatedSelects(String url) throws Exception {
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(SqlAssertions.noRepeatedSelects());
+    }
+
+    /*
+     * Test: Se comprueba que las sentencias de cada petición se publican por endpoint
+     * Entrada: get("/api/posts/5")
+     * Salida esperada: Test se realiza con éxito, blogapi.sql.statements y blogapi.jdbc.connection.hold registran la
+     * petición bajo /api/posts/{id}
+     */
+    @Test
+    @DisplayName("Statements are recorded per endpoint")
+    void statements_recordedPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/posts/5")).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("blogapi.sql.statements").tag("uri", "/api/posts/{id}").summary().count() > 0);
+        assertTrue(meterRegistry.get("blogapi.sql.time").tag("uri", "/api/posts/{id}").timer().count() > 0);
+        assertTrue(meterRegistry.get("blogapi.jdbc.connection.hold").tag("uri", "/api/posts/{id}").timer().count() > 0);
+    }
+}
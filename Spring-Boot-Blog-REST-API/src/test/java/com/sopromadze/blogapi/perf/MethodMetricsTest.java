@@ -0,0 +1,114 @@
+package com.sopromadze.blogapi.perf;
+
+import com.sopromadze.blogapi.exception.ResourceNotFoundException;
+import com.sopromadze.blogapi.payload.MethodPerformance;
+import com.sopromadze.blogapi.payload.PerformanceWindow;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.repository.TagRepository;
+import com.sopromadze.blogapi.service.impl.TagPostCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MethodMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+
+    private MethodMetrics methodMetrics;
+
+    private TagPostCounter tagPostCounter;
+
+    @BeforeEach
+    void initData() {
+        methodMetrics = new MethodMetrics(meterRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new TagPostCounter(tagRepository,
+                mock(ReferenceData.class)));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MethodMetricsAspect(methodMetrics));
+        tagPostCounter = proxyFactory.getProxy();
+    }
+
+    /*
+     * Test: Se comprueba que las llamadas a un servicio se registran en la ventana y en Micrometer
+     * Entrada: tagPostCounter.postAdded(...) tres veces
+     * Salida esperada: Tres llamadas sin errores ni llamadas en curso
+     */
+    @Test
+    @DisplayName("Service calls are timed")
+    void serviceCalls_recorded() {
+        for (int i = 0; i < 3; i++) {
+            tagPostCounter.postAdded(List.of(1L, 2L));
+        }
+
+        MethodPerformance performance = single(methodMetrics.window());
+        assertEquals("service", performance.getLayer());
+        assertEquals("TagPostCounter.postAdded", performance.getName());
+        assertEquals(3, performance.getCalls());
+        assertEquals(0, performance.getActive());
+        assertEquals(1, performance.getPeakActive());
+        assertTrue(performance.getErrors().isEmpty());
+        assertTrue(performance.getMaxMs() >= performance.getP50Ms());
+        assertEquals(3, meterRegistry.get("blogapi.method.latency").tag("class", "TagPostCounter")
+                .tag("method", "postAdded").timer().count());
+    }
+
+    /*
+     * Test: Se comprueba que las excepciones se cuentan por tipo y se propagan
+     * Entrada: tagPostCounter.removePost(1L) con el repositorio lanzando ResourceNotFoundException
+     * Salida esperada: Test se realiza con éxito y lanza la excepción ResourceNotFoundException, contada una vez
+     */
+    @Test
+    @DisplayName("Errors are counted by exception type")
+    void serviceErrors_countedByType() {
+        when(tagRepository.countPostsPerTagByPostId(anyLong())).thenThrow(new ResourceNotFoundException("Post", "id", 1L));
+
+        assertThrows(ResourceNotFoundException.class, () -> tagPostCounter.removePost(1L));
+
+        MethodPerformance performance = single(methodMetrics.window());
+        assertEquals(1, performance.getCalls());
+        assertEquals(Map.of("ResourceNotFoundException", 1L), performance.getErrors());
+        assertEquals(1, meterRegistry.get("blogapi.method.errors").tag("exception", "ResourceNotFoundException")
+                .counter().count());
+    }
+
+    /*
+     * Test: Se comprueba que reiniciar cierra la ventana actual y empieza una nueva
+     * Entrada: methodMetrics.reset() tras dos llamadas
+     * Salida esperada: La ventana cerrada tiene las dos llamadas, la nueva ninguna y Micrometer conserva el total
+     */
+    @Test
+    @DisplayName("Reset starts a new window")
+    void reset_startsNewWindow() {
+        when(tagRepository.addToPostCount(any(), anyLong())).thenReturn(1);
+        tagPostCounter.postAdded(List.of(1L));
+        tagPostCounter.postAdded(List.of(2L));
+
+        PerformanceWindow closed = methodMetrics.reset();
+        PerformanceWindow current = methodMetrics.window();
+
+        assertEquals(2, single(closed).getCalls());
+        assertEquals(closed.getEnd(), current.getStart());
+        assertTrue(current.getMethods().isEmpty());
+        assertEquals(2, meterRegistry.get("blogapi.method.latency").tag("method", "postAdded").timer().count());
+    }
+
+    private static MethodPerformance single(PerformanceWindow window) {
+        assertEquals(1, window.getMethods().size());
+        return window.getMethods().get(0);
+    }
+}
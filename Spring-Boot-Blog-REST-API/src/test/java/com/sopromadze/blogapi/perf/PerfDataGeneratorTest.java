@@ -0,0 +1,101 @@
+package com.sopromadze.blogapi.perf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@SpringBootTest(properties = {"app.perf.database=mem:perfgenerator", "app.perf.users=40", "app.perf.categories=4",
+        "app.perf.tags=20", "app.perf.posts=200", "app.perf.comments=600", "app.perf.albums=20", "app.perf.photos=100",
+        "app.perf.todos=50", "app.passwordHashing.strength=4"})
+class PerfDataGeneratorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /*
+     * Test: Se comprueba que el perfil perf arranca sobre H2 con blogapi.sql y genera los volúmenes configurados
+     * Entrada: perfil perf con 40 usuarios, 200 posts, 600 comentarios, 20 álbumes, 100 fotos y 50 tareas
+     * Salida esperada: Test se realiza con éxito, cada tabla con sus filas, el recuento de posts por etiqueta al día y
+     * un perfil por usuario cuyos recuentos suman las filas generadas
+     */
+    @Test
+    @DisplayName("Perf profile starts on the SQL schema and generates the configured volumes")
+    void run_generatesVolumes() {
+        assertEquals(40L, count("users"));
+        assertEquals(4L, count("categories"));
+        assertEquals(20L, count("tags"));
+        assertEquals(200L, count("posts"));
+        assertEquals(600L, count("comments"));
+        assertEquals(20L, count("albums"));
+        assertEquals(100L, count("photos"));
+        assertEquals(50L, count("todos"));
+        assertEquals(41L, count("user_role"));
+        assertEquals(count("post_tag"), jdbcTemplate.queryForObject("SELECT SUM(post_count) FROM tags", Long.class));
+        assertEquals(40L, count("user_profiles"));
+        assertEquals(200L, sum("post_count"));
+        assertEquals(600L, sum("comment_count"));
+        assertEquals(20L, sum("album_count"));
+        assertEquals(50L, sum("todo_count"));
+    }
+
+    /*
+     * Test: Se comprueba que los comentarios se concentran en los posts más populares
+     * Entrada: los 600 comentarios generados con sesgo 1.0 sobre 200 posts
+     * Salida esperada: Test se realiza con éxito, el post más popular tiene más comentarios que la media multiplicada por 5
+     */
+    @Test
+    @DisplayName("Comments concentrate on the most popular posts")
+    void run_skewsPopularity() {
+        long hottest = SkewedIds.of("posts", 200, 1.0, 42).byRank(0);
+
+        Long comments = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments WHERE post_id = ?", Long.class,
+                hottest);
+
+        assertTrue(comments > 600 / 200 * 5);
+    }
+
+    /*
+     * Test: Se comprueba que la API sirve los datos generados y que los usuarios pueden iniciar sesión
+     * Entrada: get("/api/posts") y post("/api/auth/signin") con user1 y la contraseña generada
+     * Salida esperada: Test se realiza con éxito, 200 con 200 posts en total y 200 con un token
+     */
+    @Test
+    @DisplayName("Generated data is served by the API and users can sign in")
+    void run_dataIsServed() throws Exception {
+        mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(200));
+        mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernameOrEmail\":\"" + PerfDataGenerator.username(1) + "\",\"password\":\""
+                                + PerfDataGenerator.PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+
+    private Long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private Long sum(String profileColumn) {
+        return jdbcTemplate.queryForObject("SELECT SUM(" + profileColumn + ") FROM user_profiles", Long.class);
+    }
+}
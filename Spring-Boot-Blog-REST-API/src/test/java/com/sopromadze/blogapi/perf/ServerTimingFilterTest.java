@@ -0,0 +1,110 @@
+package com.sopromadze.blogapi.perf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter serverTimingFilter = new ServerTimingFilter();
+
+    private final Servlet controller = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            RequestTiming.begin(RequestTiming.Phase.SERVICE);
+            RequestTiming.begin(RequestTiming.Phase.SERVICE);
+            RequestTiming.begin(RequestTiming.Phase.SQL);
+            RequestTiming.end(RequestTiming.Phase.SQL);
+            RequestTiming.end(RequestTiming.Phase.SERVICE);
+            RequestTiming.end(RequestTiming.Phase.SERVICE);
+
+            ServletOutputStream body = response.getOutputStream();
+            body.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            response.flushBuffer();
+        }
+    };
+
+    @BeforeEach
+    void initData() {
+        ReflectionTestUtils.setField(serverTimingFilter, "enabled", true);
+        ReflectionTestUtils.setField(serverTimingFilter, "debug", true);
+    }
+
+    /*
+     * Test: Se comprueba que la cabecera Server-Timing incluye las fases de la petición y la serialización
+     * Entrada: Una petición cuyo controlador llama a un servicio anidado, ejecuta una sentencia y escribe el cuerpo
+     * Salida esperada: Test se realiza con éxito, la cabecera tiene service, sql, json y total aunque el cuerpo se vacíe
+     */
+    @Test
+    @DisplayName("Server-Timing covers the phases and the serialization")
+    void serverTiming_phases() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        serverTimingFilter.doFilter(new MockHttpServletRequest("GET", "/api/posts/1"), response,
+                new MockFilterChain(controller));
+
+        String serverTiming = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.matches("service;dur=\\d+\\.\\d{3}, sql;dur=\\d+\\.\\d{3}, json;dur=\\d+\\.\\d{3}, "
+                + "total;dur=\\d+\\.\\d{3}"), serverTiming);
+        assertTrue(response.isCommitted());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    /*
+     * Test: Se comprueba que el detalle en JSON solo se envía como trailer cuando se pide
+     * Entrada: Una petición con la cabecera X-Timing-Debug y otra sin ella
+     * Salida esperada: Test se realiza con éxito, solo la primera recibe el trailer con el número de llamadas por fase
+     */
+    @Test
+    @DisplayName("The JSON detail is an opt-in trailer")
+    void detail_optInTrailer() throws Exception {
+        TrailerResponse response = new TrailerResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.addHeader(ServerTimingFilter.DEBUG_HEADER, "true");
+
+        serverTimingFilter.doFilter(request, response, new MockFilterChain(controller));
+
+        assertEquals(ServerTimingFilter.DETAIL_TRAILER, response.getHeader("Trailer"));
+        String detail = response.trailerFields.get().get(ServerTimingFilter.DETAIL_TRAILER);
+        assertTrue(detail.startsWith("{\"service\":{\"ms\":"), detail);
+        assertTrue(detail.contains("\"count\":1},\"sql\":"), detail);
+        assertTrue(detail.endsWith("}}"), detail);
+
+        TrailerResponse withoutDebug = new TrailerResponse();
+        serverTimingFilter.doFilter(new MockHttpServletRequest("GET", "/api/posts/1"), withoutDebug,
+                new MockFilterChain(controller));
+        assertNull(withoutDebug.trailerFields);
+        assertFalse(withoutDebug.containsHeader("Trailer"));
+    }
+
+    private static final class TrailerResponse extends MockHttpServletResponse {
+        private Supplier<Map<String, String>> trailerFields;
+
+        @Override
+        public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+            this.trailerFields = supplier;
+        }
+    }
+}
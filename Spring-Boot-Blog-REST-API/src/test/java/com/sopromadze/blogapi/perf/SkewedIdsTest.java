@@ -0,0 +1,73 @@
+package com.sopromadze.blogapi.perf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkewedIdsTest {
+
+    /*
+     * Test: Se comprueba que la misma semilla y tabla dan los mismos ids en el mismo orden
+     * Entrada: dos SkewedIds.of("posts", 1000, 1.0, 42) muestreados con Random(7)
+     * Salida esperada: Test se realiza con éxito, secuencias idénticas
+     */
+    @Test
+    @DisplayName("Same seed and table draw the same ids")
+    void of_isDeterministic() {
+        SkewedIds first = SkewedIds.of("posts", 1000, 1.0, 42);
+        SkewedIds second = SkewedIds.of("posts", 1000, 1.0, 42);
+        Random firstRandom = new Random(7);
+        Random secondRandom = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.next(firstRandom), second.next(secondRandom));
+        }
+    }
+
+    /*
+     * Test: Se comprueba que con sesgo 1 el id más popular concentra muchas más muestras que la media
+     * Entrada: SkewedIds de 1000 ids con sesgo 1.0 y 100000 muestras
+     * Salida esperada: Test se realiza con éxito, todos los ids en 1..1000 y el más popular con más del 10%
+     */
+    @Test
+    @DisplayName("Skewed draws stay in range and favour the most popular id")
+    void next_isSkewed() {
+        SkewedIds ids = new SkewedIds(1000, 1.0, 42);
+        Random random = new Random(7);
+        int[] counts = new int[1001];
+
+        for (int i = 0; i < 100000; i++) {
+            long id = ids.next(random);
+            assertTrue(id >= 1 && id <= 1000);
+            counts[(int) id]++;
+        }
+
+        assertTrue(counts[(int) ids.byRank(0)] > 10000);
+        assertTrue(counts[(int) ids.byRank(0)] > counts[(int) ids.byRank(99)] * 50);
+    }
+
+    /*
+     * Test: Se comprueba que con sesgo 0 la distribución es uniforme
+     * Entrada: SkewedIds de 10 ids con sesgo 0 y 100000 muestras
+     * Salida esperada: Test se realiza con éxito, cada id entre el 9% y el 11% de las muestras
+     */
+    @Test
+    @DisplayName("Zero skew draws ids uniformly")
+    void next_withoutSkew_isUniform() {
+        SkewedIds ids = new SkewedIds(10, 0, 42);
+        Random random = new Random(7);
+        int[] counts = new int[11];
+
+        for (int i = 0; i < 100000; i++) {
+            counts[(int) ids.next(random)]++;
+        }
+
+        for (int id = 1; id <= 10; id++) {
+            assertTrue(counts[id] > 9000 && counts[id] < 11000);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sopromadze.blogapi.perf;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private final JdbcDataSource h2 = new JdbcDataSource();
+
+    @BeforeEach
+    void initData() throws SQLException {
+        appender.start();
+        logger.addAppender(appender);
+        h2.setURL("jdbc:h2:mem:slowquerylog;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists users (id bigint primary key, username varchar(64), "
+                    + "password varchar(64))");
+            statement.execute("delete from users");
+            statement.execute("insert into users values (1, 'user1', 'x'), (2, 'user2', 'x'), (3, 'user3', 'x')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    /*
+     * Test: Se comprueba que una consulta por encima del umbral se registra con sus parámetros, filas y origen
+     * Entrada: select con un umbral de 0 ms
+     * Salida esperada: Una entrada WARN con los parámetros, 2 filas y el método de este test como origen
+     */
+    @Test
+    @DisplayName("Slow queries are logged with parameters, rows and origin")
+    void slowQuery_logged() throws SQLException {
+        DataSource dataSource = SlowQueryDataSource.wrap(h2, new SlowQueryLog(0, 0));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "select username from users where id > ? and username <> ?")) {
+            statement.setLong(1, 1);
+            statement.setString(2, "nobody");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertTrue(resultSet.getString(1).startsWith("user"));
+                }
+            }
+        }
+
+        ILoggingEvent event = single();
+        assertEquals(Level.WARN, event.getLevel());
+        String message = event.getFormattedMessage();
+        assertTrue(message.startsWith("Slow query "), message);
+        assertTrue(message.contains(", 2 rows, SlowQueryLogTest.slowQuery_logged:"), message);
+        assertTrue(message.endsWith("where id > ? and username <> ? [1=1, 2='nobody']"), message);
+    }
+
+    /*
+     * Test: Se comprueba que las contraseñas no aparecen en el registro
+     * Entrada: update users set password = ? con un umbral de 0 ms
+     * Salida esperada: La contraseña aparece como <redacted> y el resto de parámetros se registran
+     */
+    @Test
+    @DisplayName("Passwords are redacted")
+    void password_redacted() throws SQLException {
+        DataSource dataSource = SlowQueryDataSource.wrap(h2, new SlowQueryLog(0, 0));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("update users set password=? where id=?")) {
+            statement.setString(1, "s3cr3t");
+            statement.setLong(2, 2);
+            assertEquals(1, statement.executeUpdate());
+        }
+
+        String message = single().getFormattedMessage();
+        assertFalse(message.contains("s3cr3t"), message);
+        assertTrue(message.contains(", 1 rows, "), message);
+        assertTrue(message.endsWith("[1=<redacted>, 2=2]"), message);
+        assertEquals(Set.of(3), SlowQueryLog.redactedParameters(
+                "insert into users (username, email, password, id) values (?, ?, ?, ?)"));
+        assertEquals(Set.of(), SlowQueryLog.redactedParameters("update users set old_password=? where id=?"));
+    }
+
+    /*
+     * Test: Se comprueba que las consultas rápidas solo se registran cuando se muestrean
+     * Entrada: select con un umbral de 1 minuto y muestreo de 0 y de 1
+     * Salida esperada: Ninguna entrada sin muestreo y una entrada INFO con muestreo
+     */
+    @Test
+    @DisplayName("Fast queries are only logged when sampled")
+    void fastQuery_sampled() throws SQLException {
+        count(SlowQueryDataSource.wrap(h2, new SlowQueryLog(60000, 0)));
+        assertTrue(appender.list.isEmpty());
+
+        count(SlowQueryDataSource.wrap(h2, new SlowQueryLog(60000, 1)));
+        ILoggingEvent event = single();
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("Sampled query "), event.getFormattedMessage());
+        assertTrue(event.getFormattedMessage().contains(", 1 rows, SlowQueryLogTest.count:"),
+                event.getFormattedMessage());
+    }
+
+    private void count(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from users")) {
+            assertTrue(resultSet.next());
+            assertEquals(3, resultSet.getLong(1));
+        }
+    }
+
+    private ILoggingEvent single() {
+        List<ILoggingEvent> events = appender.list;
+        assertEquals(1, events.size(), () -> events.toString());
+        return events.get(0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sopromadze.blogapi.perf;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the SQL statements run by a call or a request, so query count and N+1 regressions fail the build.
+ *
+ * <pre>
+ * SqlStatements statements = SqlAssertions.capture(() -&gt; tagRepository.findByName("#VERANO"));
+ * SqlAssertions.assertStatementCount(1, statements);
+ *
+ * mockMvc.perform(get("/api/posts")).andExpect(SqlAssertions.noRepeatedSelects());
+ * </pre>
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    /**
+     * Runs {@code call} on the current thread and returns the statements it ran.
+     */
+    public static SqlStatements capture(Runnable call) {
+        SqlStatements statements = SqlStatements.start();
+        try {
+            call.run();
+            return statements;
+        } finally {
+            SqlStatements.stop();
+        }
+    }
+
+    public static void assertStatementCount(int expected, SqlStatements statements) {
+        assertEquals(expected, statements.getCount(), "SQL statements");
+    }
+
+    public static void assertNoRepeatedSelects(SqlStatements statements) {
+        assertSelectsRunAtMost(1, statements);
+    }
+
+    public static void assertSelectsRunAtMost(int times, SqlStatements statements) {
+        Map<String, Integer> repeated = statements.getRepeatedSelects(times);
+        assertTrue(repeated.isEmpty(), () -> "Selects run more than " + times + " times: " + repeated);
+    }
+
+    public static ResultMatcher statementCount(int expected) {
+        return result -> assertStatementCount(expected, statements(result.getRequest().getAttribute(SqlStatements.ATTRIBUTE)));
+    }
+
+    public static ResultMatcher noRepeatedSelects() {
+        return result -> assertNoRepeatedSelects(statements(result.getRequest().getAttribute(SqlStatements.ATTRIBUTE)));
+    }
+
+    private static SqlStatements statements(Object attribute) {
+        assertNotNull(attribute, "The request did not go through SqlStatementFilter");
+        return (SqlStatements) attribute;
+    }
+}
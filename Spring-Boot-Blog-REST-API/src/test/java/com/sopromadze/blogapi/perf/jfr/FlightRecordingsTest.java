@@ -0,0 +1,102 @@
+package com.sopromadze.blogapi.perf.jfr;
+
+import com.sopromadze.blogapi.exception.BadRequestException;
+import com.sopromadze.blogapi.payload.FlightRecording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingsTest {
+
+    private final FlightRecordings flightRecordings = new FlightRecordings();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void initData() {
+        ReflectionTestUtils.setField(flightRecordings, "settings", "default");
+        ReflectionTestUtils.setField(flightRecordings, "directory", directory.toString());
+        ReflectionTestUtils.setField(flightRecordings, "maxDurationInSeconds", 60L);
+        ReflectionTestUtils.setField(flightRecordings, "maxSizeInMb", 10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecordings.close();
+    }
+
+    /*
+     * Test: Se comprueba que la grabación incluye los eventos de la aplicación por encima de su umbral
+     * Entrada: start(30), una llamada a servicio de 20 ms, otra de 0 ms y un acceso a caché, stop()
+     * Salida esperada: Test se realiza con éxito, el fichero tiene la llamada lenta con su id y el acceso a caché
+     */
+    @Test
+    @DisplayName("Recordings hold the application events over their threshold")
+    void recording_holdsEvents() throws Exception {
+        FlightRecording started = flightRecordings.start(30L);
+        assertEquals("RUNNING", started.getState());
+        assertEquals(30L, started.getDurationInSeconds());
+
+        ServiceCallEvent slow = new ServiceCallEvent();
+        slow.begin();
+        Thread.sleep(20);
+        slow.complete("PostServiceImpl", "getPost", new Object[] { 42L }, null);
+        ServiceCallEvent fast = new ServiceCallEvent();
+        fast.begin();
+        fast.complete("PostServiceImpl", "getPost", new Object[] { 7L }, null);
+        CacheAccessEvent.emit("tagIds", "#verano", true);
+
+        FlightRecording stopped = flightRecordings.stop();
+        assertEquals("CLOSED", stopped.getState());
+        Path file = Path.of(stopped.getFile());
+        assertTrue(Files.size(file) > 0);
+        assertEquals(Files.size(file), stopped.getSizeInBytes());
+
+        List<RecordedEvent> serviceCalls = events(file, "com.sopromadze.blogapi.ServiceCall");
+        assertEquals(1, serviceCalls.size());
+        assertEquals("42", serviceCalls.get(0).getString("entityId"));
+        assertEquals("getPost", serviceCalls.get(0).getString("methodName"));
+        List<RecordedEvent> cacheAccesses = events(file, "com.sopromadze.blogapi.CacheAccess");
+        assertEquals(1, cacheAccesses.size());
+        assertTrue(cacheAccesses.get(0).getBoolean("hit"));
+    }
+
+    /*
+     * Test: Se comprueba que solo puede haber una grabación en curso y que su duración está acotada
+     * Entrada: start(null) dos veces, stop() dos veces
+     * Salida esperada: Test se realiza con éxito, la duración es la máxima y se lanza BadRequestException
+     */
+    @Test
+    @DisplayName("One bounded recording at a time")
+    void recording_bounded() {
+        assertEquals("NEW", flightRecordings.status().getState());
+        assertEquals(60L, flightRecordings.start(null).getDurationInSeconds());
+        assertEquals(10L * 1024 * 1024, flightRecordings.status().getMaxSizeInBytes());
+        assertThrows(BadRequestException.class, () -> flightRecordings.start(10L));
+
+        flightRecordings.stop();
+        assertThrows(BadRequestException.class, flightRecordings::stop);
+        assertThrows(BadRequestException.class, () -> flightRecordings.start(0L));
+    }
+
+    private static List<RecordedEvent> events(Path file, String name) throws Exception {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
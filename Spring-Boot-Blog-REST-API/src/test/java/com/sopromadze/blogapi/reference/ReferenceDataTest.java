@@ -0,0 +1,161 @@
+package com.sopromadze.blogapi.reference;
+
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.model.role.Role;
+import com.sopromadze.blogapi.model.role.RoleName;
+import com.sopromadze.blogapi.repository.CategoryRepository;
+import com.sopromadze.blogapi.repository.RoleRepository;
+import com.sopromadze.blogapi.repository.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ReferenceData.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataTest {
+
+    @Autowired
+    private ReferenceData referenceData;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+
+    private Tag tag;
+
+    private Role role;
+
+    @BeforeEach
+    void initData() {
+        Instant now = Instant.now();
+        category = new Category("reference-viajes");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        category = categoryRepository.save(category);
+
+        tag = new Tag("reference-java");
+        tag.setPostCount(2L);
+        tag.setCreatedAt(now);
+        tag.setUpdatedAt(now);
+        tag = tagRepository.save(tag);
+
+        role = roleRepository.save(new Role(RoleName.ROLE_ADMIN));
+
+        referenceData.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM categories WHERE name LIKE 'reference-%'");
+        jdbcTemplate.update("DELETE FROM tags WHERE name LIKE 'reference-%'");
+        roleRepository.deleteById(role.getId());
+    }
+
+    /*
+     * Test: Se comprueba que las tablas se cargan en memoria indexadas por id y por nombre
+     * Entrada: referenceData.refresh() dos veces sin cambios en las tablas
+     * Salida esperada: Test se realiza con éxito, las búsquedas devuelven copias iguales y la versión no cambia
+     */
+    @Test
+    @DisplayName("Tables are indexed by id and name, and unchanged refreshes keep the version")
+    void refresh_indexesAndKeepsVersion() {
+        long version = referenceData.tags().getVersion();
+
+        referenceData.refresh();
+
+        assertEquals("reference-viajes", referenceData.category(category.getId()).getName());
+        assertEquals(2L, referenceData.tag(tag.getId()).getPostCount());
+        assertSame(referenceData.tag(tag.getId()), referenceData.tags().getByName("reference-java"));
+        assertEquals(role.getId(), referenceData.role(RoleName.ROLE_ADMIN).getId());
+        assertEquals(version, referenceData.tags().getVersion());
+    }
+
+    /*
+     * Test: Se comprueba que una escritura se publica al confirmarse su transacción y nunca si se deshace
+     * Entrada: referenceData.put(tag renombrada) en una transacción deshecha y en otra confirmada
+     * Salida esperada: Test se realiza con éxito, solo la confirmada cambia el nombre y la versión
+     */
+    @Test
+    @DisplayName("Writes are published when their transaction commits")
+    void put_publishedOnCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long version = referenceData.tags().getVersion();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tag.setName("reference-rolled-back");
+            referenceData.put(tag);
+            status.setRollbackOnly();
+        });
+        assertEquals("reference-java", referenceData.tag(tag.getId()).getName());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tag.setName("reference-kotlin");
+            referenceData.put(tag);
+            assertEquals("reference-java", referenceData.tag(tag.getId()).getName());
+        });
+
+        assertEquals("reference-kotlin", referenceData.tag(tag.getId()).getName());
+        assertNull(referenceData.tags().getByName("reference-java"));
+        assertEquals(version + 1, referenceData.tags().getVersion());
+    }
+
+    /*
+     * Test: Se comprueba que los contadores se ajustan en memoria y que el refresco recoge cambios hechos por otros
+     * Entrada: referenceData.addToPostCount([tag], 3), una categoría insertada por SQL y referenceData.refresh()
+     * Salida esperada: Test se realiza con éxito, el contador pasa a 5 y tras refrescar aparece la nueva categoría y el
+     * contador vuelve al valor de la tabla
+     */
+    @Test
+    @DisplayName("Post counts follow deltas and refreshes pick up outside writes")
+    void addToPostCount_andRefreshPicksUpOutsideWrites() {
+        referenceData.addToPostCount(List.of(tag.getId()), 3L);
+        assertEquals(5L, referenceData.tag(tag.getId()).getPostCount());
+
+        jdbcTemplate.update("INSERT INTO categories (name, created_at, updated_at) VALUES ('reference-otra', ?, ?)",
+                Timestamp.from(Instant.now()), Timestamp.from(Instant.now()));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'reference-otra'", Long.class);
+        assertNull(referenceData.category(id));
+
+        referenceData.refresh();
+
+        assertNotNull(referenceData.category(id));
+        assertEquals(2L, referenceData.tag(tag.getId()).getPostCount());
+    }
+}
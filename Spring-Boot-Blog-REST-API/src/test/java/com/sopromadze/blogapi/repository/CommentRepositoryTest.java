@@ -2,6 +2,7 @@ package com.sopromadze.blogapi.repository;
 
 import com.sopromadze.blogapi.model.Comment;
 import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.utils.Cursor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -9,7 +10,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
@@ -70,5 +73,49 @@ class CommentRepositoryTest {
         assertEquals(0, comments.getTotalElements());
     }
 
+    /*
+     * Test: Se comprueba que la paginación por cursor recorre los comentarios sin repetir ni saltar filas,
+     *       aunque compartan createdAt
+     * Entrada: commentRepository.seekByPostId(postId, createdAt, id, PageRequest.of(0, 2))
+     * Salida esperada: Primera página con los dos comentarios más recientes y la siguiente con el restante
+     */
+    @Test
+    public void seekByPostId_pagesWithoutGapsOrDuplicates() {
+        Instant createdAt = Instant.parse("2021-11-20T10:15:30Z");
+
+        Post post = new Post();
+        post.setBody("Esta post tiene un gran significado para mí");
+        post.setCreatedAt(createdAt);
+        post.setUpdatedAt(createdAt);
+        testEntityManager.persist(post);
+
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setName("Comentario " + i);
+            comment.setBody("Fuimos a Francia y fue una gran experiencia para mi vida");
+            comment.setEmail("barco@gmail.com");
+            comment.setCreatedAt(createdAt);
+            comment.setUpdatedAt(createdAt);
+            comment.setPost(post);
+            testEntityManager.persist(comment);
+        }
+
+        Cursor first = Cursor.decode(null);
+        Slice<Comment> firstPage = commentRepository.seekByPostId(post.getId(), first.getCreatedAt(), first.getId(),
+                PageRequest.of(0, 2));
+
+        assertEquals(2, firstPage.getNumberOfElements());
+        assertTrue(firstPage.hasNext());
+        assertTrue(firstPage.getContent().get(0).getId() > firstPage.getContent().get(1).getId());
+
+        Comment lastRow = firstPage.getContent().get(1);
+        Cursor next = Cursor.decode(Cursor.encode(lastRow.getCreatedAt(), lastRow.getId()));
+        Slice<Comment> secondPage = commentRepository.seekByPostId(post.getId(), next.getCreatedAt(), next.getId(),
+                PageRequest.of(0, 2));
+
+        assertEquals(1, secondPage.getNumberOfElements());
+        assertFalse(secondPage.hasNext());
+        assertTrue(secondPage.getContent().get(0).getId() < lastRow.getId());
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.sopromadze.blogapi.repository;
+
+import com.sopromadze.blogapi.cache.CacheRegions;
+import com.sopromadze.blogapi.model.Album;
+import com.sopromadze.blogapi.model.Photo;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.perf.SqlAssertions;
+import com.sopromadze.blogapi.perf.SqlStatements;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("perf")
+@SpringBootTest(properties = {"app.perf.database=mem:perfgenerator", "app.perf.users=40", "app.perf.categories=4",
+        "app.perf.tags=20", "app.perf.posts=200", "app.perf.comments=600", "app.perf.albums=20", "app.perf.photos=100",
+        "app.perf.todos=50", "app.passwordHashing.strength=4"})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+     * Test: Se comprueba que un post leído se sirve desde la caché y que su actualización la refresca
+     * Entrada: findById(7) dos veces, cambio de título y findById(7)
+     * Salida esperada: Test se realiza con éxito, las lecturas repetidas no lanzan SQL y devuelven el nuevo título
+     */
+    @Test
+    @DisplayName("Posts are read from the cache and refreshed by updates")
+    void post_cachedAndUpdated() {
+        postRepository.findById(7L);
+        SqlAssertions.assertStatementCount(0, SqlAssertions.capture(() -> postRepository.findById(7L)));
+
+        transactionTemplate.executeWithoutResult(status -> postRepository.findById(7L).orElseThrow()
+                .setTitle("Cached post 7"));
+
+        SqlStatements statements = SqlStatements.start();
+        try {
+            assertEquals("Cached post 7", postRepository.findById(7L).orElseThrow().getTitle());
+            SqlAssertions.assertStatementCount(0, statements);
+        } finally {
+            SqlStatements.stop();
+        }
+        assertTrue(meterRegistry.get("blogapi.hibernate.cache.hit.ratio").tag("region", CacheRegions.POST).gauge()
+                .value() > 0);
+    }
+
+    /*
+     * Test: Se comprueba que la búsqueda por nombre de usuario se cachea y se invalida al escribir en users
+     * Entrada: findByUsername("user5") dos veces, cambio de teléfono y findByUsername("user5")
+     * Salida esperada: Test se realiza con éxito, la segunda búsqueda no lanza SQL y la tercera ve el teléfono nuevo
+     */
+    @Test
+    @DisplayName("Username lookups are cached until users change")
+    void username_cachedAndInvalidated() {
+        userRepository.findByUsername("user5");
+        SqlAssertions.assertStatementCount(0, SqlAssertions.capture(() -> userRepository.findByUsername("user5")));
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findByUsername("user5").orElseThrow()
+                .setPhone("555-0105"));
+
+        assertEquals("555-0105", userRepository.findByUsername("user5").orElseThrow().getPhone());
+    }
+
+    /*
+     * Test: Se comprueba que la búsqueda por email usa la caché de identificadores naturales
+     * Entrada: findByEmail(email de user6) dos veces
+     * Salida esperada: Test se realiza con éxito, la segunda búsqueda no lanza SQL y devuelve el mismo usuario
+     */
+    @Test
+    @DisplayName("Email lookups use the natural id cache")
+    void email_naturalIdCached() {
+        User user = userRepository.findByUsername("user6").orElseThrow();
+        userRepository.findByEmail(user.getEmail());
+
+        SqlStatements statements = SqlStatements.start();
+        try {
+            assertEquals(user.getId(), userRepository.findByEmail(user.getEmail()).orElseThrow().getId());
+            SqlAssertions.assertStatementCount(0, statements);
+        } finally {
+            SqlStatements.stop();
+        }
+    }
+
+    /*
+     * Test: Se comprueba que el recuento de fotos de un álbum se cachea y se invalida al añadir una foto
+     * Entrada: countByAlbumId(2) dos veces, alta de una foto en el álbum 2 y countByAlbumId(2)
+     * Salida esperada: Test se realiza con éxito, el segundo recuento no lanza SQL y el tercero suma la foto nueva
+     */
+    @Test
+    @DisplayName("Listing counts are cached until the listing changes")
+    void listingCount_cachedAndInvalidated() {
+        long count = photoRepository.countByAlbumId(2L);
+        SqlAssertions.assertStatementCount(0, SqlAssertions.capture(() -> photoRepository.countByAlbumId(2L)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Album album = albumRepository.findById(2L).orElseThrow();
+            photoRepository.save(new Photo("Cached photo", "https://via.placeholder.com/600/1",
+                    "https://via.placeholder.com/150/1", album));
+        });
+
+        assertEquals(count + 1, photoRepository.countByAlbumId(2L));
+    }
+}
@@ -1,6 +1,9 @@
 package com.sopromadze.blogapi.repository;
 
+import com.sopromadze.blogapi.cache.ResourceVersion;
 import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.perf.SqlAssertions;
+import com.sopromadze.blogapi.perf.SqlStatements;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -9,6 +12,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,4 +49,64 @@ class TagRepositoryTest {
     void findByName_nonExisting() {
         assertEquals(null, tagRepository.findByName("#VERANO"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findVersionById_success() {
+        Tag tag = new Tag();
+        tag.setName("#VERANO");
+        tag.setCreatedAt(Instant.now());
+        tag.setUpdatedAt(Instant.parse("2021-03-01T10:15:30Z"));
+
+        testEntityManager.persist(tag);
+
+        assertEquals(tag.getUpdatedAt(), tagRepository.findVersionById(tag.getId()).orElseThrow().getLastModified());
+    }
+
+    @Test
+    void findVersionById_changesWithPostCount() {
+        Tag tag = new Tag("#VERANO");
+        tag.setCreatedAt(Instant.parse("2021-03-01T10:15:30Z"));
+        tag.setUpdatedAt(Instant.parse("2021-03-01T10:15:30Z"));
+        Long id = testEntityManager.persistAndGetId(tag, Long.class);
+        String before = tagRepository.findVersionById(id).orElseThrow().getETag();
+
+        tagRepository.addToPostCount(List.of(id), 1L);
+        testEntityManager.clear();
+
+        ResourceVersion after = tagRepository.findVersionById(id).orElseThrow();
+        assertNotEquals(before, after.getETag());
+        assertEquals(tag.getUpdatedAt(), after.getLastModified());
+        assertEquals(tag.getCreatedAt(), tagRepository.findById(id).orElseThrow().getCreatedAt());
+    }
+
+    @Test
+    void findVersionById_nonExisting() {
+        assertTrue(tagRepository.findVersionById(1000L).isEmpty());
+    }
+
+    @Test
+    void findByName_singleStatement() {
+        SqlStatements statements = SqlAssertions.capture(() -> tagRepository.findByName("#VERANO"));
+
+        SqlAssertions.assertStatementCount(1, statements);
+    }
+
+    @Test
+    void findByIdPerTag_repeatsSelect() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("#VERANO", "#INVIERNO", "#OTOÑO")) {
+            Tag tag = new Tag(name);
+            tag.setCreatedAt(Instant.now());
+            tag.setUpdatedAt(Instant.now());
+            ids.add(testEntityManager.persistAndGetId(tag, Long.class));
+        }
+        testEntityManager.clear();
+
+        SqlStatements statements = SqlAssertions.capture(() -> ids.forEach(tagRepository::findById));
+
+        assertEquals(1, statements.getRepeatedSelects(1).size());
+        assertEquals(3, statements.getRepeatedSelects(1).values().iterator().next());
+        assertThrows(AssertionError.class, () -> SqlAssertions.assertNoRepeatedSelects(statements));
+        SqlAssertions.assertStatementCount(1, SqlAssertions.capture(() -> tagRepository.findAllById(ids)));
+    }
+}
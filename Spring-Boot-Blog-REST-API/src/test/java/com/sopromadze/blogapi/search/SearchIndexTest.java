@@ -0,0 +1,172 @@
+package com.sopromadze.blogapi.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<SearchIndex> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(SearchIndex::destroy);
+    }
+
+    /*
+     * Test: Se comprueba que un término en el título puntúa más que el mismo término en el cuerpo
+     * Entrada: searchIndex.search("paella", 10) con un documento que lo tiene en el título y otro en el cuerpo
+     * Salida esperada: Test se realiza con éxito, el documento con el término en el título va primero
+     */
+    @Test
+    @DisplayName("Title matches rank above body matches")
+    void search_ranksTitleAboveBody() throws IOException {
+        SearchIndex searchIndex = open(8);
+        searchIndex.index(2, 2, "Viaje a Valencia", "Comimos una paella junto al mar");
+        searchIndex.index(4, 4, "Paella valenciana", "Receta tradicional con arroz y azafrán");
+        searchIndex.index(6, 6, "Otra cosa", "Nada que ver con el arroz");
+
+        SearchIndex.Result result = searchIndex.search("paella", 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(4, result.getHits().get(0).getKey());
+        assertEquals(2, result.getHits().get(1).getKey());
+    }
+
+    /*
+     * Test: Se comprueba la búsqueda por prefijo, la búsqueda aproximada y la normalización de acentos
+     * Entrada: searchIndex.search con "valen*", "recta~" y "cancion"
+     * Salida esperada: Test se realiza con éxito, cada consulta encuentra su documento
+     */
+    @Test
+    @DisplayName("Prefix, fuzzy and accent-insensitive matching")
+    void search_prefixFuzzyAndAccents() throws IOException {
+        SearchIndex searchIndex = open(8);
+        searchIndex.index(2, 2, "Paella valenciana", "Receta tradicional");
+        searchIndex.index(4, 4, "Música", "Una canción de verano");
+
+        assertEquals(2, searchIndex.search("valen* arroz", 10).getHits().get(0).getKey());
+        assertEquals(2, searchIndex.search("recta~ arroz", 10).getHits().get(0).getKey());
+        assertEquals(4, searchIndex.search("cancion", 10).getHits().get(0).getKey());
+        assertTrue(searchIndex.search("cancion", 10).getMatchedTerms().contains("cancion"));
+    }
+
+    /*
+     * Test: Se comprueba que los documentos y los borrados sobreviven a un reinicio
+     * Entrada: se indexan tres documentos, se vuelca, se borra uno, se actualiza otro y se reabre el índice
+     * Salida esperada: Test se realiza con éxito, no hace falta reconstruir y solo aparecen las versiones vigentes
+     */
+    @Test
+    @DisplayName("Segments, deletes and updates survive a restart")
+    void open_reloadsCommittedSegments() throws IOException {
+        SearchIndex searchIndex = open(8);
+        assertTrue(searchIndex.isRebuildNeeded());
+        ReflectionTestUtils.setField(searchIndex, "rebuildNeeded", false);
+
+        searchIndex.index(2, 2, "Primero", "texto del primero");
+        searchIndex.index(4, 4, "Segundo", "texto del segundo");
+        searchIndex.index(6, 6, "Tercero", "texto del tercero");
+        searchIndex.flush();
+        searchIndex.delete(2);
+        searchIndex.index(4, 4, "Segundo", "texto corregido");
+        searchIndex.destroy();
+
+        SearchIndex reopened = open(8);
+
+        assertFalse(reopened.isRebuildNeeded());
+        assertEquals(2, reopened.size());
+        assertEquals(0, reopened.search("primero", 10).getTotal());
+        assertEquals(1, reopened.search("corregido", 10).getTotal());
+        assertEquals(0, reopened.search("segundo texto", 10).getHits().stream()
+                .filter(hit -> hit.getKey() == 2).count());
+        assertEquals(2, reopened.search("texto", 10).getTotal());
+    }
+
+    /*
+     * Test: Se comprueba que al superar el máximo de segmentos se fusionan sin perder ni duplicar documentos
+     * Entrada: tres volcados con maxSegments 2 y un documento actualizado entre ellos
+     * Salida esperada: Test se realiza con éxito, queda un segmento y cada documento aparece una vez
+     */
+    @Test
+    @DisplayName("Segments are merged without losing or duplicating documents")
+    void flush_mergesSegments() throws IOException {
+        SearchIndex searchIndex = open(2);
+        ReflectionTestUtils.setField(searchIndex, "rebuildNeeded", false);
+
+        searchIndex.index(2, 2, "Uno", "gato");
+        searchIndex.flush();
+        searchIndex.index(4, 4, "Dos", "gato");
+        searchIndex.flush();
+        searchIndex.index(2, 2, "Uno", "gato perro");
+        searchIndex.flush();
+
+        assertEquals(1, searchIndex.segmentCount());
+        assertEquals(2, searchIndex.search("gato", 10).getTotal());
+        assertEquals(1, searchIndex.search("perro", 10).getTotal());
+
+        searchIndex.destroy();
+        SearchIndex reopened = open(2);
+        assertEquals(2, reopened.search("gato", 10).getTotal());
+    }
+
+    /*
+     * Test: Se comprueba que el volcado guarda hasta dónde llegó la puesta al día y que se lee al reabrir
+     * Entrada: searchIndex.caughtUp(1000), un documento indexado, searchIndex.flush() y se reabre el índice
+     * Salida esperada: Test se realiza con éxito, el índice reabierto tiene la marca 1000 y el documento
+     */
+    @Test
+    @DisplayName("The manifest records how far the index was caught up")
+    void flush_recordsHighWaterMark() throws IOException {
+        SearchIndex searchIndex = open(8);
+        ReflectionTestUtils.setField(searchIndex, "rebuildNeeded", false);
+        assertEquals(0, searchIndex.getSyncedAt());
+
+        searchIndex.caughtUp(1000);
+        searchIndex.index(2, 2, "Uno", "gato");
+        searchIndex.flush();
+        searchIndex.destroy();
+
+        SearchIndex reopened = open(8);
+        assertFalse(reopened.isRebuildNeeded());
+        assertEquals(1000, reopened.getSyncedAt());
+        assertEquals(1, reopened.size());
+    }
+
+    /*
+     * Test: Se comprueba que el fragmento resalta los términos y escapa el HTML
+     * Entrada: Highlighter.snippet("Una <b>paella</b> rica", ["paella"], 160)
+     * Salida esperada: Test se realiza con éxito, "Una &lt;b&gt;<em>paella</em>&lt;/b&gt; rica"
+     */
+    @Test
+    @DisplayName("Snippets highlight matches and escape HTML")
+    void snippet_highlightsAndEscapes() {
+        assertEquals("Una &lt;b&gt;<em>paella</em>&lt;/b&gt; rica",
+                Highlighter.snippet("Una <b>paella</b> rica", Set.of("paella"), 160));
+    }
+
+    private SearchIndex open(int maxSegments) throws IOException {
+        SearchIndex searchIndex = new SearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "directory", directory.toString());
+        ReflectionTestUtils.setField(searchIndex, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(searchIndex, "flushIntervalInMs", 60000L);
+        ReflectionTestUtils.setField(searchIndex, "maxSegments", maxSegments);
+        searchIndex.open();
+        opened.add(searchIndex);
+        return searchIndex;
+    }
+}
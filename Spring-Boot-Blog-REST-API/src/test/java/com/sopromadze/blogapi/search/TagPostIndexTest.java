@@ -0,0 +1,239 @@
+package com.sopromadze.blogapi.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagPostIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<TagPostIndex> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(TagPostIndex::destroy);
+    }
+
+    /*
+     * Test: Se comprueba que intersección, unión y diferencia coinciden con BitSet con grupos dispersos y densos
+     * Entrada: un bitmap con múltiplos de 3 hasta 200000 y otro con múltiplos de 5 más un grupo lejano
+     * Salida esperada: Test se realiza con éxito, mismos valores y cardinalidad que BitSet, también tras serializar
+     */
+    @Test
+    @DisplayName("Bitmap set operations match BitSet across sparse and dense groups")
+    void bitmap_setOperationsMatchBitSet() throws IOException {
+        CompressedBitmap threes = new CompressedBitmap();
+        CompressedBitmap fives = new CompressedBitmap();
+        BitSet expectedThrees = new BitSet();
+        BitSet expectedFives = new BitSet();
+        for (int i = 0; i < 200000; i += 3) {
+            threes.add(i);
+            expectedThrees.set(i);
+        }
+        for (int i = 0; i < 200000; i += 5) {
+            fives.add(i);
+            expectedFives.set(i);
+        }
+        fives.add(5000000);
+        expectedFives.set(5000000);
+
+        BitSet and = (BitSet) expectedThrees.clone();
+        and.and(expectedFives);
+        BitSet or = (BitSet) expectedThrees.clone();
+        or.or(expectedFives);
+        BitSet andNot = (BitSet) expectedThrees.clone();
+        andNot.andNot(expectedFives);
+
+        assertBits(and, threes.and(fives));
+        assertBits(or, threes.or(fives));
+        assertBits(andNot, threes.andNot(fives));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        threes.or(fives).write(new DataOutputStream(bytes));
+        assertBits(or, CompressedBitmap.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        for (int i = 0; i < 200000; i += 3) {
+            threes.remove(i);
+        }
+        assertEquals(0, threes.cardinality());
+        assertFalse(threes.contains(0));
+    }
+
+    /*
+     * Test: Se comprueba que los filtros all, any y exclude devuelven los posts más recientes primero
+     * Entrada: posts 1 a 6 con las etiquetas 10 (pares), 20 (múltiplos de 3) y 30 (el 6)
+     * Salida esperada: Test se realiza con éxito, all = [6], any = [6, 4, 3, 2], exclude 30 sobre any = [4, 3, 2]
+     */
+    @Test
+    @DisplayName("All, any and exclude filters list newest posts first")
+    void query_allAnyAndExclude() {
+        TagPostIndex tagPostIndex = open();
+        for (long id = 1; id <= 6; id++) {
+            List<Long> tags = new ArrayList<>();
+            if (id % 2 == 0) {
+                tags.add(10L);
+            }
+            if (id % 3 == 0) {
+                tags.add(20L);
+            }
+            if (id == 6) {
+                tags.add(30L);
+            }
+            tagPostIndex.add(id, tags);
+        }
+
+        assertArrayEquals(new long[] { 6 }, tagPostIndex.query(List.of(10L, 20L), true, List.of(), 0, 10).getPostIds());
+        assertArrayEquals(new long[] { 6, 4, 3, 2 },
+                tagPostIndex.query(List.of(10L, 20L), false, List.of(), 0, 10).getPostIds());
+        TagPostIndex.Result result = tagPostIndex.query(List.of(10L, 20L), false, List.of(30L), 1, 1);
+        assertArrayEquals(new long[] { 3 }, result.getPostIds());
+        assertEquals(3, result.getTotal());
+        assertArrayEquals(new long[] { 5, 4, 3, 2, 1 },
+                tagPostIndex.query(List.of(), true, List.of(30L), 0, 10).getPostIds());
+
+        tagPostIndex.remove(6L);
+        assertEquals(0, tagPostIndex.query(List.of(30L), true, List.of(), 0, 10).getTotal());
+    }
+
+    /*
+     * Test: Se comprueba que los cambios hechos en una transacción se aplican al confirmarla y nunca si se deshace
+     * Entrada: tagPostIndex.add(1, [10]) en una transacción deshecha y add(2, [10]) y remove(3) en otra confirmada
+     * Salida esperada: Test se realiza con éxito, nada cambia antes de confirmar y después la etiqueta tiene [2]
+     */
+    @Test
+    @DisplayName("Changes are applied when their transaction commits")
+    void add_appliedOnCommit() {
+        TagPostIndex tagPostIndex = open();
+        tagPostIndex.add(3L, List.of(10L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tagPostIndex.add(1L, List.of(10L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertArrayEquals(new long[] { 3 }, tagPostIndex.query(List.of(10L), true, List.of(), 0, 10).getPostIds());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tagPostIndex.add(2L, List.of(10L));
+            tagPostIndex.remove(3L);
+            assertArrayEquals(new long[] { 3 }, tagPostIndex.query(List.of(10L), true, List.of(), 0, 10).getPostIds());
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertArrayEquals(new long[] { 2 }, tagPostIndex.query(List.of(10L), true, List.of(), 0, 10).getPostIds());
+    }
+
+    /*
+     * Test: Se comprueba que la instantánea se recarga al reiniciar y solo se cargan los posts posteriores
+     * Entrada: se indexan dos posts, se cierra el índice y se reabre
+     * Salida esperada: Test se realiza con éxito, la primera lectura parte del último id y los posts siguen indexados
+     */
+    @Test
+    @DisplayName("Snapshot is reloaded and only newer posts are loaded")
+    void open_reloadsSnapshot() throws InterruptedException {
+        TagPostIndex tagPostIndex = open();
+        tagPostIndex.add(7L, List.of(10L));
+        tagPostIndex.add(9L, List.of(10L, 20L));
+        tagPostIndex.destroy();
+
+        TagPostIndex reopened = open();
+        ReflectionTestUtils.setField(reopened, "ready", false);
+        SortedMap<Long, List<Long>> database = new TreeMap<>(Map.of(7L, List.of(10L), 9L, List.of(10L, 20L),
+                11L, List.of(20L)));
+        AtomicLong after = new AtomicLong(-1);
+        reopened.load(lastId -> {
+            after.compareAndSet(-1, lastId);
+            return new TreeMap<>(database.tailMap(lastId + 1));
+        });
+
+        awaitReady(reopened);
+        assertEquals(9, after.get());
+        assertArrayEquals(new long[] { 11, 9 }, reopened.query(List.of(20L), true, List.of(), 0, 10).getPostIds());
+        assertArrayEquals(new long[] { 9, 7 }, reopened.query(List.of(10L), true, List.of(), 0, 10).getPostIds());
+    }
+
+    /*
+     * Test: Se comprueba que la reconciliación sustituye el índice por la base de datos salvo los cambios locales
+     * Entrada: el índice tiene los posts 1 y 2, la base de datos 2 y 3, y durante la lectura se añade el 4 y se
+     * borra el 3 desde esta instancia
+     * Salida esperada: Test se realiza con éxito, la etiqueta queda con [4, 2] y el total es 2
+     */
+    @Test
+    @DisplayName("Reconciliation replaces the index with the database but keeps local changes")
+    void reconcile_replacesIndexKeepingLocalChanges() {
+        TagPostIndex tagPostIndex = open();
+        tagPostIndex.add(1L, List.of(10L));
+        tagPostIndex.add(2L, List.of(10L));
+
+        tagPostIndex.reconcile(lastId -> {
+            SortedMap<Long, List<Long>> batch = new TreeMap<>();
+            if (lastId == 0) {
+                batch.put(2L, List.of(10L));
+                batch.put(3L, List.of(10L));
+                tagPostIndex.add(4L, List.of(10L));
+                tagPostIndex.remove(3L);
+            }
+            return batch;
+        });
+
+        TagPostIndex.Result result = tagPostIndex.query(List.of(10L), true, List.of(), 0, 10);
+        assertArrayEquals(new long[] { 4, 2 }, result.getPostIds());
+        assertEquals(2, tagPostIndex.size());
+    }
+
+    private static void awaitReady(TagPostIndex tagPostIndex) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!tagPostIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(tagPostIndex.isReady());
+    }
+
+    private TagPostIndex open() {
+        TagPostIndex tagPostIndex = new TagPostIndex();
+        ReflectionTestUtils.setField(tagPostIndex, "snapshot", directory.resolve("tag-index").toString());
+        ReflectionTestUtils.setField(tagPostIndex, "snapshotIntervalInMs", 60000L);
+        tagPostIndex.open();
+        ReflectionTestUtils.setField(tagPostIndex, "ready", true);
+        opened.add(tagPostIndex);
+        return tagPostIndex;
+    }
+
+    private static void assertBits(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int[] values = actual.descending(0, expected.cardinality());
+        int index = values.length - 1;
+        for (int bit = expected.nextSetBit(0); bit >= 0; bit = expected.nextSetBit(bit + 1)) {
+            assertEquals(bit, values[index--]);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    void shutdown() {
+        boundedPasswordEncoder.destroy();
+    }
+
+    /*
+     * Test: Se comprueba que el codificador delega en BCrypt y registra la latencia
+     * Entrada: boundedPasswordEncoder.encode("1234")
+     * Salida esperada: Test se realiza con éxito
+     */
+    @Test
+    @DisplayName("Encode and match on the hashing pool")
+    void encodeAndMatches_success() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 4, 5000, meterRegistry);
+
+        String encoded = boundedPasswordEncoder.encode("1234");
+
+        assertTrue(boundedPasswordEncoder.matches("1234", encoded));
+        assertFalse(boundedPasswordEncoder.matches("4321", encoded));
+        assertEquals(1, meterRegistry.get("blogapi.password.hashing.latency").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("blogapi.password.hashing.latency").tag("operation", "matches").timer().count());
+    }
+
+    /*
+     * Test: Se comprueba que cuando el pool y la cola están llenos se rechaza la operación
+     * Entrada: boundedPasswordEncoder.encode("1234") con el pool ocupado
+     * Salida esperada: Test se realiza con éxito y lanza la excepción ServiceUnavailableException
+     */
+    @Test
+    @DisplayName("Saturated hashing pool fails fast")
+    void encode_saturated() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        boundedPasswordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, 5000, meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> boundedPasswordEncoder.encode("1234"));
+        started.await();
+        callers.submit(() -> boundedPasswordEncoder.encode("1234"));
+        while (boundedPasswordEncoder.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> boundedPasswordEncoder.encode("1234"));
+
+        release.countDown();
+        callers.shutdown();
+    }
+}
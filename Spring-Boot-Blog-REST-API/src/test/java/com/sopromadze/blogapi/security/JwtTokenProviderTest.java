@@ -0,0 +1,107 @@
+package com.sopromadze.blogapi.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void initData() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "secret");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", 3600000);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtStatelessPrincipal", true);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+
+        userPrincipal = new UserPrincipal(3L, "jesus", "garcia", "jesus", "jesus@gmail.com", "1234",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    /*
+     * Test: Se comprueba que el principal reconstruido desde los claims coincide con el original
+     * Entrada: jwtTokenProvider.getUserPrincipalFromClaims(claims)
+     * Salida esperada: Test se realiza con éxito
+     */
+    @Test
+    @DisplayName("Stateless principal round trip")
+    void getUserPrincipalFromClaims_success() {
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+
+        Claims claims = jwtTokenProvider.getClaimsFromJWT(token);
+        assertTrue(jwtTokenProvider.isStatelessPrincipal(claims));
+
+        UserPrincipal result = jwtTokenProvider.getUserPrincipalFromClaims(claims);
+        assertEquals(userPrincipal, result);
+        assertEquals("jesus", result.getUsername());
+        assertEquals("jesus@gmail.com", result.getEmail());
+        assertEquals(userPrincipal.getAuthorities(), result.getAuthorities());
+        assertNull(result.getPassword());
+    }
+
+    /*
+     * Test: Se comprueba que sin el modo stateless el token solo lleva el id del usuario
+     * Entrada: jwtTokenProvider.isStatelessPrincipal(claims)
+     * Salida esperada: Test se realiza con éxito, devuelve false
+     */
+    @Test
+    @DisplayName("Stateless principal disabled")
+    void isStatelessPrincipal_disabled() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtStatelessPrincipal", false);
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+
+        Claims claims = jwtTokenProvider.getClaimsFromJWT(token);
+        assertFalse(jwtTokenProvider.isStatelessPrincipal(claims));
+        assertEquals(3L, jwtTokenProvider.getUserIdFromJWT(token));
+    }
+
+    /*
+     * Test: Se comprueba que un token válido se verifica una sola vez y se reutiliza desde la caché
+     * Entrada: jwtTokenProvider.parseToken(token)
+     * Salida esperada: Test se realiza con éxito, devuelve los mismos claims
+     */
+    @Test
+    @DisplayName("Parse token is cached")
+    void parseToken_cached() {
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+
+        Claims claims = jwtTokenProvider.parseToken(token);
+        assertEquals("3", claims.getSubject());
+        assertSame(claims, jwtTokenProvider.parseToken(token));
+    }
+
+    /*
+     * Test: Se comprueba que un token manipulado no se acepta
+     * Entrada: jwtTokenProvider.parseToken(token + "x")
+     * Salida esperada: Test se realiza con éxito, devuelve null
+     */
+    @Test
+    @DisplayName("Parse token with invalid signature")
+    void parseToken_invalidSignature() {
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+
+        assertNull(jwtTokenProvider.parseToken(token + "x"));
+        assertFalse(jwtTokenProvider.validateToken(token + "x"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.model.PrincipalInvalidation;
+import com.sopromadze.blogapi.repository.PrincipalInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PrincipalInvalidationRegistryTest {
+
+    @Mock
+    private PrincipalInvalidationRepository principalInvalidationRepository;
+
+    @InjectMocks
+    private PrincipalInvalidationRegistry principalInvalidationRegistry;
+
+    @BeforeEach
+    void initData() {
+        ReflectionTestUtils.setField(principalInvalidationRegistry, "jwtExpirationInMs", 3600000);
+    }
+
+    /*
+     * Test: Se comprueba que sin estado compartido la invalidación solo se guarda en memoria
+     * Entrada: principalInvalidationRegistry.invalidate(1L)
+     * Salida esperada: Test se realiza con éxito, los tokens anteriores quedan obsoletos y no se persiste nada
+     */
+    @Test
+    @DisplayName("Invalidate user in memory")
+    void invalidate_inMemory() {
+        long issuedAt = System.currentTimeMillis() - 1000;
+
+        principalInvalidationRegistry.invalidate(1L);
+
+        assertTrue(principalInvalidationRegistry.isStale(1L, issuedAt));
+        assertFalse(principalInvalidationRegistry.isStale(1L, System.currentTimeMillis() + 1000));
+        assertFalse(principalInvalidationRegistry.isStale(2L, issuedAt));
+        verify(principalInvalidationRepository, never()).save(any(PrincipalInvalidation.class));
+    }
+
+    /*
+     * Test: Se comprueba que con estado compartido se guardan las invalidaciones y se leen las de otras instancias
+     * Entrada: principalInvalidationRegistry.invalidate(1L) y poll() con una invalidación del usuario 2 en la tabla
+     * Salida esperada: Test se realiza con éxito, se guarda la del usuario 1, la del 2 vuelve obsoletos sus tokens
+     * y se borran las caducadas
+     */
+    @Test
+    @DisplayName("Shared invalidations are saved and polled")
+    void poll_shared() {
+        ReflectionTestUtils.setField(principalInvalidationRegistry, "shared", true);
+        Instant elsewhere = Instant.now();
+        when(principalInvalidationRepository.findByInvalidatedAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new PrincipalInvalidation(2L, elsewhere)));
+
+        principalInvalidationRegistry.invalidate(1L);
+        principalInvalidationRegistry.poll();
+
+        verify(principalInvalidationRepository).save(any(PrincipalInvalidation.class));
+        assertTrue(principalInvalidationRegistry.isStale(2L, elsewhere.toEpochMilli() - 1000));
+        assertFalse(principalInvalidationRegistry.isStale(2L, elsewhere.toEpochMilli() + 1000));
+        verify(principalInvalidationRepository).deleteExpired(any(Instant.class));
+    }
+}
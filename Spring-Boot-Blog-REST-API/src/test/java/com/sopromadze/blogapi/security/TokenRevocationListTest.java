@@ -0,0 +1,136 @@
+package com.sopromadze.blogapi.security;
+
+import com.sopromadze.blogapi.model.RevokedToken;
+import com.sopromadze.blogapi.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void initData() {
+        ReflectionTestUtils.setField(tokenRevocationList, "compactionIntervalInMs", 60000L);
+        ReflectionTestUtils.setField(tokenRevocationList, "pollInMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenRevocationList.destroy();
+    }
+
+    /*
+     * Test: Se comprueba que un token revocado queda registrado y no se persiste si no está activado
+     * Entrada: tokenRevocationList.revoke("jti", expiresAt)
+     * Salida esperada: Test se realiza con éxito
+     */
+    @Test
+    @DisplayName("Revoke token in memory")
+    void revoke_inMemory() {
+        tokenRevocationList.revoke("jti", System.currentTimeMillis() + 60000);
+
+        assertTrue(tokenRevocationList.isRevoked("jti"));
+        assertFalse(tokenRevocationList.isRevoked("other"));
+        assertFalse(tokenRevocationList.isRevoked(null));
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    /*
+     * Test: Se comprueba que los tokens ya caducados se eliminan al compactar
+     * Entrada: tokenRevocationList.revoke("nuevo", expiresAt)
+     * Salida esperada: Test se realiza con éxito, solo queda el token vigente
+     */
+    @Test
+    @DisplayName("Expired revocations are compacted")
+    void revoke_compactsExpired() {
+        ReflectionTestUtils.setField(tokenRevocationList, "compactionIntervalInMs", 0L);
+        tokenRevocationList.revoke("caducado", System.currentTimeMillis() - 1000);
+        tokenRevocationList.revoke("nuevo", System.currentTimeMillis() + 60000);
+
+        assertFalse(tokenRevocationList.isRevoked("caducado"));
+        assertTrue(tokenRevocationList.isRevoked("nuevo"));
+        assertEquals(1, tokenRevocationList.size());
+    }
+
+    /*
+     * Test: Se comprueba que con persistencia activada se cargan y guardan las revocaciones
+     * Entrada: tokenRevocationList.load()
+     * Salida esperada: Test se realiza con éxito
+     */
+    @Test
+    @DisplayName("Persistent revocations are loaded on startup")
+    void load_persistent() {
+        ReflectionTestUtils.setField(tokenRevocationList, "persistent", true);
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("guardado", Instant.now().plusSeconds(60), Instant.now())));
+
+        tokenRevocationList.load();
+        tokenRevocationList.revoke("nuevo", System.currentTimeMillis() + 60000);
+
+        assertTrue(tokenRevocationList.isRevoked("guardado"));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    /*
+     * Test: Se comprueba que con persistencia activada se leen las revocaciones hechas en otras instancias
+     * Entrada: tokenRevocationList.poll() con una revocación nueva en la tabla
+     * Salida esperada: Test se realiza con éxito, el token revocado en otra instancia queda revocado
+     */
+    @Test
+    @DisplayName("Persistent revocations from other instances are polled")
+    void poll_persistent() {
+        ReflectionTestUtils.setField(tokenRevocationList, "persistent", true);
+        when(revokedTokenRepository.findByRevokedAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("otra", Instant.now().plusSeconds(60), Instant.now())));
+
+        tokenRevocationList.poll();
+
+        assertTrue(tokenRevocationList.isRevoked("otra"));
+    }
+
+    /*
+     * Test: Se comprueba que la compactación periódica borra las revocaciones caducadas sin nuevas revocaciones
+     * Entrada: tokenRevocationList.compactIfDue() con un token caducado cargado
+     * Salida esperada: Test se realiza con éxito, el token se elimina en memoria y en la tabla
+     */
+    @Test
+    @DisplayName("Compaction runs without new revocations")
+    void compactIfDue_withoutRevoke() {
+        ReflectionTestUtils.setField(tokenRevocationList, "persistent", true);
+        when(revokedTokenRepository.findByRevokedAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("caducado", Instant.now().minusSeconds(1), Instant.now())));
+        tokenRevocationList.poll();
+
+        tokenRevocationList.compactIfDue();
+
+        assertEquals(0, tokenRevocationList.size());
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+    }
+}
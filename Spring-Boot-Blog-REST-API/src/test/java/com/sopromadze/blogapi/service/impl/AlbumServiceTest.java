@@ -48,6 +48,9 @@ public class AlbumServiceTest {
     @Mock
     ModelMapper modelMapper;
 
+    @Mock
+    UserProfileUpdater userProfileUpdater;
+
     @InjectMocks
     AlbumServiceImpl albumService;
 
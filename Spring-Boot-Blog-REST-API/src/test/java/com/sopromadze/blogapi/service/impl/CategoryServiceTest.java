@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.model.Category;
 import com.sopromadze.blogapi.model.role.Role;
@@ -7,9 +8,14 @@ import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.repository.CategoryRepository;
+import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
+import com.sopromadze.blogapi.service.SearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,7 +35,11 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +52,27 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TagPostCounter tagPostCounter;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private ReferenceData referenceData;
+
+    @Mock
+    private UserProfileUpdater userProfileUpdater;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private TagPostIndex tagPostIndex;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -109,12 +140,38 @@ public class CategoryServiceTest {
     void getAllCategories_success(){
 
         when(categoryRepository.findAll(pageable)).thenReturn(resultado);
+        when(categoryRepository.findWithPostsByIdIn(Arrays.asList(category.getId()))).thenReturn(Arrays.asList(category));
 
         assertEquals(pagedResponse, categoryService.getAllCategories(1, 10));
 
 
     }
 
+    /*
+     * Test: Se comprueba que el listado de categorías se toma de los datos de referencia
+     * Entrada: categoryService.getAllCategories(0, 1) con dos categorías en memoria
+     * Salida esperada: Test se realiza con éxito, devuelve la más reciente cargada con sus posts y el total sin consultar la página
+     */
+    @Test
+    @DisplayName("Categories are listed from the reference data")
+    void getAllCategories_fromReferenceData() {
+        Category older = category(1L, "Older", Instant.parse("2021-01-01T00:00:00Z"));
+        Category newer = category(2L, "Newer", Instant.parse("2021-02-01T00:00:00Z"));
+        Category loaded = category(2L, "Newer", newer.getCreatedAt());
+        loaded.setPosts(Collections.emptyList());
+
+        when(referenceData.categories()).thenReturn(Snapshot.ofCategories(1L, Arrays.asList(older, newer)));
+        when(categoryRepository.findWithPostsByIdIn(Arrays.asList(2L))).thenReturn(Arrays.asList(loaded));
+
+        PagedResponse<Category> response = categoryService.getAllCategories(0, 1);
+
+        assertSame(loaded, response.getContent().get(0));
+        assertEquals(1, response.getContent().size());
+        assertEquals(2, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        verify(categoryRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void updateCategory_success(){
         ResponseEntity<Category> responseEntity = new ResponseEntity<>(newCategory, HttpStatus.OK);
@@ -219,11 +276,14 @@ public class CategoryServiceTest {
         category.setUpdatedBy(1L);
 
         when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        when(postRepository.findIdsByCategoryId(category.getId())).thenReturn(List.of(3L, 5L));
 
         ApiResponse apiResponse = new ApiResponse(Boolean.TRUE, "You successfully deleted category");
 
         assertEquals(true,userPrincipal.getAuthorities().contains(new SimpleGrantedAuthority(RoleName.ROLE_ADMIN.toString())));
         assertEquals(apiResponse, categoryService.deleteCategory(category.getId(), userPrincipal).getBody());
+        verify(searchService).removePosts(List.of(3L, 5L));
+        verify(tagPostIndex).removeAll(List.of(3L, 5L));
 
     }
 
@@ -260,4 +320,11 @@ public class CategoryServiceTest {
 
     }
 
+    private static Category category(Long id, String name, Instant createdAt) {
+        Category category = new Category(name);
+        category.setId(id);
+        category.setCreatedAt(createdAt);
+        category.setUpdatedAt(createdAt);
+        return category;
+    }
 }
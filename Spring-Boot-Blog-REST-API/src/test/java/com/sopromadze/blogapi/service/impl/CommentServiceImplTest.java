@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.BlogapiException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.model.Comment;
@@ -14,6 +15,8 @@ import com.sopromadze.blogapi.repository.CommentRepository;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
 import com.sopromadze.blogapi.security.UserPrincipal;
+import com.sopromadze.blogapi.service.SearchService;
+import com.sopromadze.blogapi.utils.Cursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +29,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.time.Instant;
@@ -36,6 +40,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +56,15 @@ class CommentServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private UserProfileUpdater userProfileUpdater;
+
     @InjectMocks
     CommentServiceImpl commentService;
 
@@ -439,6 +453,7 @@ class CommentServiceImplTest {
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
         assertEquals(comment, commentService.addComment(commentRequest,post.getId(),userPrincipal));
+        verify(responseCache).evict(ResponseCache.comments(post.getId()));
 
     }
 
@@ -621,6 +636,28 @@ class CommentServiceImplTest {
 
     }
 
+    /*
+     * Test: Se comprueba que el modo cursor devuelve el cursor de la última fila cuando hay más resultados
+     * Entrada: commentService.getAllComments(1L, "", 1)
+     * Salida esperada: PagedResponse con last a false y nextCursor apuntando al comentario devuelto
+     */
+    @Test
+    @DisplayName("Get all comments by cursor")
+    void getAllCommentsByCursor_success() {
+        Comment comment = new Comment();
+        comment.setId(7L);
+        comment.setCreatedAt(Instant.parse("2021-11-20T10:15:30Z"));
 
+        when(commentRepository.seekByPostId(any(Long.class), any(Instant.class), any(Long.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(comment), PageRequest.of(0, 1), true));
+
+        PagedResponse<Comment> response = commentService.getAllComments(1L, "", 1);
+
+        assertEquals(List.of(comment), response.getContent());
+        assertFalse(response.isLast());
+        Cursor next = Cursor.decode(response.getNextCursor());
+        assertEquals(comment.getCreatedAt(), next.getCreatedAt());
+        assertEquals(7L, next.getId());
+    }
 
-}
\ No newline at end of file
+}
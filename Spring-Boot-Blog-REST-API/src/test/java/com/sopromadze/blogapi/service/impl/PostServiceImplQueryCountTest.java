@@ -0,0 +1,159 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.PostSummary;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.search.TagPostIndex;
+import com.sopromadze.blogapi.service.SearchService;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ PostServiceImpl.class, ApproximateCountCache.class, TagResolver.class, TagPostCounter.class })
+class PostServiceImplQueryCountTest {
+
+    @Autowired
+    private PostServiceImpl postService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private TagPostIndex tagPostIndex;
+
+    @MockBean
+    private ResponseCache responseCache;
+
+    @MockBean
+    private ReferenceData referenceData;
+
+    @MockBean
+    private UserProfileUpdater userProfileUpdater;
+
+    private Statistics statistics;
+
+    private Category category;
+
+    private Tag tag;
+
+    @BeforeEach
+    void initData() {
+        Instant now = Instant.now();
+
+        category = new Category("Viajes");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        testEntityManager.persist(category);
+
+        tag = new Tag("francia");
+        tag.setCreatedAt(now);
+        tag.setUpdatedAt(now);
+        testEntityManager.persist(tag);
+
+        Tag secondTag = new Tag("barco");
+        secondTag.setCreatedAt(now);
+        secondTag.setUpdatedAt(now);
+        testEntityManager.persist(secondTag);
+
+        for (int i = 0; i < 12; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setBody("Fuimos a Francia y fue una gran experiencia para mi vida");
+            post.setCategory(category);
+            post.setTags(List.of(tag, secondTag));
+            post.setCreatedBy(1L);
+            post.setCreatedAt(now.minusSeconds(i));
+            post.setUpdatedAt(now);
+            testEntityManager.persist(post);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /*
+     * Test: Se comprueba que listar posts ejecuta un número fijo de sentencias SQL, sea cual sea el tamaño de página
+     * Entrada: postService.summarize(postService.getAllPosts(0, size)) con size 5 y 10
+     * Salida esperada: Tres sentencias por página (página con su categoría, COUNT y etiquetas de la página)
+     */
+    @Test
+    @DisplayName("Get all posts runs a fixed number of statements")
+    void getAllPosts_fixedStatementCount() {
+        PagedResponse<PostSummary> firstPage = postService.summarize(postService.getAllPosts(0, 5));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(5, firstPage.getContent().size());
+        assertEquals("Viajes", firstPage.getContent().get(0).getCategory());
+        assertEquals(2, firstPage.getContent().get(0).getTags().size());
+
+        statistics.clear();
+        testEntityManager.clear();
+        postService.summarize(postService.getAllPosts(0, 10));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    /*
+     * Test: Se comprueba que los listados por categoría y etiqueta no cargan perezosamente por fila
+     * Entrada: postService.summarize(...) sobre getPostsByCategory y getPostsByTag en modo cursor
+     * Salida esperada: Búsqueda de la categoría o etiqueta, página y etiquetas de la página
+     */
+    @Test
+    @DisplayName("Filtered post listings run a fixed number of statements")
+    void filteredPosts_fixedStatementCount() {
+        postService.summarize(postService.getPostsByCategory(category.getId(), "", 10));
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        testEntityManager.clear();
+        PagedResponse<PostSummary> byTag = postService.summarize(postService.getPostsByTag(tag.getId(), "", 10));
+        assertEquals(10, byTag.getContent().size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    /*
+     * Test: Se comprueba que el listado paginado por categoría consulta por el id de la categoría
+     * Entrada: postService.summarize(postService.getPostsByCategory(id, 0, 5))
+     * Salida esperada: Cinco posts de doce, con búsqueda de la categoría, página, COUNT y etiquetas de la página
+     */
+    @Test
+    @DisplayName("Posts by category in page mode")
+    void getPostsByCategory_pageMode() {
+        PagedResponse<PostSummary> byCategory = postService.summarize(postService.getPostsByCategory(category.getId(), 0, 5));
+
+        assertEquals(5, byCategory.getContent().size());
+        assertEquals(12, byCategory.getTotalElements());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
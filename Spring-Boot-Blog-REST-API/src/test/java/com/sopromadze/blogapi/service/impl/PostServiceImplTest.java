@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Category;
@@ -9,14 +10,20 @@ import com.sopromadze.blogapi.model.role.Role;
 import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
+import com.sopromadze.blogapi.payload.PageMode;
 import com.sopromadze.blogapi.payload.PagedResponse;
 import com.sopromadze.blogapi.payload.PostRequest;
 import com.sopromadze.blogapi.payload.PostResponse;
+import com.sopromadze.blogapi.payload.TagMatch;
+import com.sopromadze.blogapi.reference.ReferenceData;
 import com.sopromadze.blogapi.repository.CategoryRepository;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.TagRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
+import com.sopromadze.blogapi.service.SearchService;
+import com.sopromadze.blogapi.utils.ApproximateCountCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +41,7 @@ import java.util.stream.Collectors;
 
 import static com.sopromadze.blogapi.utils.AppConstants.CREATED_AT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -54,6 +62,30 @@ class PostServiceImplTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private ApproximateCountCache approximateCountCache;
+
+    @Mock
+    private TagResolver tagResolver;
+
+    @Mock
+    private TagPostCounter tagPostCounter;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private TagPostIndex tagPostIndex;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private ReferenceData referenceData;
+
+    @Mock
+    private UserProfileUpdater userProfileUpdater;
+
     @InjectMocks
     private PostServiceImpl postService;
 
@@ -509,13 +541,59 @@ class PostServiceImplTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(categoryRepository.findById(postRequest.getCategoryId())).thenReturn(Optional.of(category));
-        when(tagRepository.findByName(tag.getName())).thenReturn(tag);
-        when(tagRepository.save(tag)).thenReturn(tag);
+        when(tagResolver.resolve(tags, 1L)).thenReturn(Map.of(tag.getName(), 1L));
+        when(tagRepository.getById(1L)).thenReturn(tag);
         when(postRepository.save(post)).thenReturn(post);
         assertEquals(postResponse, postService.addPost(postRequest, userPrincipal));
 
     }
 
+    /*
+     * Test: Se comprueba que dos nombres que resuelven al mismo tag solo lo añaden y lo cuentan una vez
+     * Entrada: postService.addPost(postRequest, userPrincipal) con las etiquetas "Java" y "java" resueltas al id 1
+     * Salida esperada: Test se realiza con éxito, el post tiene un tag, se cuenta una vez y la respuesta tiene "Java"
+     */
+    @Test
+    @DisplayName("Add post, tags resolving to the same id are added once")
+    void addPost_dedupesResolvedTags() {
+        User user = new User();
+        user.setId(1L);
+
+        UserPrincipal userPrincipal = UserPrincipal.builder()
+                .id(user.getId())
+                .authorities(List.of(new SimpleGrantedAuthority(RoleName.ROLE_USER.name())))
+                .build();
+
+        Category category = new Category();
+        category.setId(2L);
+        category.setName("Programación");
+
+        Tag tag = new Tag();
+        tag.setId(1L);
+        tag.setName("Java");
+
+        PostRequest postRequest = new PostRequest();
+        postRequest.setCategoryId(category.getId());
+        postRequest.setTitle("Records en Java 17");
+        postRequest.setTags(List.of("Java", "java"));
+
+        Map<String, Long> resolved = new LinkedHashMap<>();
+        resolved.put("Java", 1L);
+        resolved.put("java", 1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        when(tagResolver.resolve(postRequest.getTags(), 1L)).thenReturn(resolved);
+        when(tagRepository.getById(1L)).thenReturn(tag);
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PostResponse postResponse = postService.addPost(postRequest, userPrincipal);
+
+        verify(postRepository).save(argThat(post -> post.getTags().equals(List.of(tag))));
+        verify(tagPostCounter).postAdded(Set.of(1L));
+        assertEquals(List.of("Java"), postResponse.getTags());
+    }
+
     @Test
     void addPost_throwsResourceNotFoundExceptionForUser(){
 
@@ -635,7 +713,7 @@ class PostServiceImplTest {
 
 
         when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
-        when(postRepository.findByCategory(category.getId(), pageable)).thenReturn(posts);
+        when(postRepository.findByCategoryId(category.getId(), pageable)).thenReturn(posts);
         assertEquals(result, postService.getPostsByCategory(category.getId(), 1, 1));
 
     }
@@ -722,4 +800,72 @@ class PostServiceImplTest {
 
     }
 
-}
\ No newline at end of file
+    /*
+     * Test: Se comprueba que el modo slice no ejecuta la consulta COUNT
+     * Entrada: postService.getAllPosts(0, 1, PageMode.SLICE)
+     * Salida esperada: PagedResponse sin totales (-1), last a false y sin llamadas a findAll ni count
+     */
+    @Test
+    @DisplayName("Get all posts in slice mode")
+    void getAllPostsSliceMode_success() {
+        Post post = new Post();
+        post.setId(1L);
+        post.setCreatedAt(Instant.now());
+
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.DESC, CREATED_AT);
+        when(postRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(post), pageable, true));
+
+        PagedResponse<Post> response = postService.getAllPosts(0, 1, PageMode.SLICE);
+
+        assertEquals(List.of(post), response.getContent());
+        assertEquals(-1, response.getTotalElements());
+        assertEquals(-1, response.getTotalPages());
+        assertFalse(response.isLast());
+        verify(postRepository, never()).findAll(any(Pageable.class));
+        verify(postRepository, never()).count();
+    }
+
+    /*
+     * Test: Se comprueba que el modo aproximado toma el total de la caché de conteos
+     * Entrada: postService.getAllPosts(0, 1, PageMode.APPROXIMATE)
+     * Salida esperada: PagedResponse con totalElements 40 y totalPages 40
+     */
+    @Test
+    @DisplayName("Get all posts in approximate mode")
+    void getAllPostsApproximateMode_success() {
+        Post post = new Post();
+        post.setId(1L);
+        post.setCreatedAt(Instant.now());
+
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.DESC, CREATED_AT);
+        when(postRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(post), pageable, true));
+        when(approximateCountCache.count(eq("posts"), any())).thenReturn(40L);
+
+        PagedResponse<Post> response = postService.getAllPosts(0, 1, PageMode.APPROXIMATE);
+
+        assertEquals(40, response.getTotalElements());
+        assertEquals(40, response.getTotalPages());
+        assertFalse(response.isLast());
+    }
+
+    /*
+     * Test: Se comprueba que si una de las etiquetas requeridas no existe no se consulta el índice ni la base de datos
+     * Entrada: postService.getPostsByTags(["java", "inexistente"], TagMatch.ALL, null, 0, 10)
+     * Salida esperada: PagedResponse vacío sin llamadas al índice ni a findByIdIn
+     */
+    @Test
+    @DisplayName("Get posts by tags with an unknown required tag")
+    void getPostsByTags_unknownTag() {
+        List<String> tags = List.of("java", "inexistente");
+        when(tagPostIndex.isReady()).thenReturn(true);
+        when(tagRepository.findIdAndNameByNameIn(tags)).thenReturn(List.<Object[]>of(new Object[] { 1L, "java" }));
+
+        PagedResponse<Post> response = postService.getPostsByTags(tags, TagMatch.ALL, null, 0, 10);
+
+        assertEquals(Collections.emptyList(), response.getContent());
+        assertEquals(0, response.getTotalElements());
+        verify(tagPostIndex, never()).query(any(), anyBoolean(), any(), anyLong(), anyInt());
+        verify(postRepository, never()).findByIdIn(any());
+    }
+
+}
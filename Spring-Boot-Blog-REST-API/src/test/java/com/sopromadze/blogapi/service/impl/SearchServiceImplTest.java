@@ -0,0 +1,177 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.exception.BlogapiException;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.payload.SearchResult;
+import com.sopromadze.blogapi.repository.CommentRepository;
+import com.sopromadze.blogapi.repository.PostRepository;
+import com.sopromadze.blogapi.search.SearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private SearchIndex searchIndex;
+
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        searchIndex = new SearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "directory", directory.toString());
+        ReflectionTestUtils.setField(searchIndex, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(searchIndex, "flushIntervalInMs", 60000L);
+        ReflectionTestUtils.setField(searchIndex, "maxSegments", 8);
+        searchIndex.open();
+        ReflectionTestUtils.setField(searchIndex, "rebuildNeeded", false);
+        searchService = new SearchServiceImpl(searchIndex, postRepository, commentRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        searchIndex.destroy();
+    }
+
+    /*
+     * Test: Se comprueba que un post solo se indexa cuando su transacción se confirma
+     * Entrada: searchService.indexPost(post) en una transacción deshecha y en otra confirmada
+     * Salida esperada: Test se realiza con éxito, el índice sigue vacío tras deshacer y tiene el post tras confirmar
+     */
+    @Test
+    @DisplayName("Posts are indexed when their transaction commits")
+    void indexPost_appliedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        searchService.indexPost(post(1L));
+        assertEquals(0, searchIndex.size());
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(0, searchIndex.size());
+
+        TransactionSynchronizationManager.initSynchronization();
+        searchService.indexPost(post(1L));
+        assertEquals(0, searchIndex.size());
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(1, searchIndex.size());
+    }
+
+    /*
+     * Test: Se comprueba que un resultado que la base de datos no devuelve se omite sin borrarlo del índice
+     * Entrada: searchService.search("paella", 0, 10) con dos posts indexados y solo uno devuelto por findAllById
+     * Salida esperada: Test se realiza con éxito, la página tiene el post devuelto y el índice conserva los dos
+     */
+    @Test
+    @DisplayName("Hits missing from the database are skipped and stay indexed")
+    void search_skipsMissingHits() {
+        searchService.indexPost(post(1L));
+        searchService.indexPost(post(2L));
+        when(postRepository.findAllById(any())).thenReturn(List.of(post(1L)));
+
+        PagedResponse<SearchResult> response = searchService.search("paella", 0, 10);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(1L, response.getContent().get(0).getPostId());
+        assertEquals(2, searchIndex.size());
+        assertTrue(response.getContent().get(0).getSnippet().contains("paella"));
+    }
+
+    /*
+     * Test: Se comprueba que una página cuyo límite desborda un int se rechaza como petición incorrecta
+     * Entrada: searchService.search("paella", Integer.MAX_VALUE, 10)
+     * Salida esperada: Test se realiza con éxito, se lanza BlogapiException con estado 400
+     */
+    @Test
+    @DisplayName("Pages past the result limit are rejected without overflowing")
+    void search_hugePageRejected() {
+        BlogapiException exception = assertThrows(BlogapiException.class,
+                () -> searchService.search("paella", Integer.MAX_VALUE, 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    /*
+     * Test: Se comprueba que la puesta al día indexa las filas cambiadas fuera de esta instancia y sube la marca
+     * Entrada: searchService.catchUp() con un post y un comentario devueltos como cambiados
+     * Salida esperada: Test se realiza con éxito, ambos quedan indexados y la marca de sincronización avanza
+     */
+    @Test
+    @DisplayName("Catch-up indexes rows changed elsewhere and advances the high-water mark")
+    void catchUp_indexesChangedRows() {
+        Instant updatedAt = Instant.now();
+        when(postRepository.findSearchRowsUpdatedAfter(any(), anyLong(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, "Paella", "Receta de paella", updatedAt }));
+        when(commentRepository.findSearchRowsUpdatedAfter(any(), anyLong(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 5L, 1L, "Qué buena paella", updatedAt }));
+        long before = System.currentTimeMillis();
+
+        searchService.catchUp();
+
+        assertArrayEquals(new long[] { 2, 11 }, searchIndex.keys());
+        assertTrue((long) ReflectionTestUtils.getField(searchIndex, "caughtUpTo") >= before);
+    }
+
+    /*
+     * Test: Se comprueba que el barrido elimina del índice los posts y comentarios que ya no existen
+     * Entrada: searchService.sweep() con los posts 1 y 2 y el comentario 1 indexados y solo el post 1 en la base
+     * de datos
+     * Salida esperada: Test se realiza con éxito, en el índice solo queda el post 1
+     */
+    @Test
+    @DisplayName("The sweep drops documents whose rows were deleted")
+    void sweep_dropsDeletedRows() {
+        searchIndex.index(2, 2, "Paella 1", "Receta");
+        searchIndex.index(3, 2, null, "Comentario");
+        searchIndex.index(4, 4, "Paella 2", "Receta");
+        when(postRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of(1L));
+        when(commentRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of());
+
+        searchService.sweep();
+
+        assertArrayEquals(new long[] { 2 }, searchIndex.keys());
+    }
+
+    private static Post post(Long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle("Paella " + id);
+        post.setBody("Receta de paella valenciana número " + id);
+        return post;
+    }
+}
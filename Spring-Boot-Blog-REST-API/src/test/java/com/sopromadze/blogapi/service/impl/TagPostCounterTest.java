@@ -0,0 +1,130 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.Tag;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TagPostCounter.class)
+class TagPostCounterTest {
+
+    @Autowired
+    private TagPostCounter tagPostCounter;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @MockBean
+    private ReferenceData referenceData;
+
+    private Category category;
+
+    private Post post;
+
+    private Tag popular;
+
+    private Tag rare;
+
+    @BeforeEach
+    void initData() {
+        Instant now = Instant.now();
+
+        category = new Category("Cocina");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        testEntityManager.persist(category);
+
+        popular = tag("receta", 3L, now);
+        rare = tag("postre", 1L, now);
+
+        for (int i = 0; i < 3; i++) {
+            post = new Post();
+            post.setTitle("Receta " + i);
+            post.setBody("Una receta sencilla para preparar en casa con pocos ingredientes");
+            post.setCategory(category);
+            post.setTags(i == 0 ? List.of(popular, rare) : List.of(popular));
+            post.setCreatedBy(1L);
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            testEntityManager.persist(post);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    /*
+     * Test: Se comprueba que añadir un post incrementa el contador de cada una de sus etiquetas
+     * Entrada: tagPostCounter.postAdded([popular, rare])
+     * Salida esperada: Test se realiza con éxito, los contadores pasan a 4 y 2 también en los datos de referencia
+     */
+    @Test
+    @DisplayName("Adding a post increments its tags")
+    void postAdded_incrementsTags() {
+        tagPostCounter.postAdded(List.of(popular.getId(), rare.getId()));
+
+        assertEquals(4L, postCount(popular));
+        assertEquals(2L, postCount(rare));
+        verify(referenceData).addToPostCount(List.of(popular.getId(), rare.getId()), 1L);
+    }
+
+    /*
+     * Test: Se comprueba que borrar un post decrementa solo sus etiquetas
+     * Entrada: tagPostCounter.removePost(id) sobre un post con la etiqueta popular
+     * Salida esperada: Test se realiza con éxito, popular pasa a 2 y rare sigue en 1 también en los datos de referencia
+     */
+    @Test
+    @DisplayName("Removing a post decrements only its tags")
+    void removePost_decrementsItsTags() {
+        tagPostCounter.removePost(post.getId());
+
+        assertEquals(2L, postCount(popular));
+        assertEquals(1L, postCount(rare));
+        verify(referenceData).addToPostCount(List.of(popular.getId()), -1L);
+    }
+
+    /*
+     * Test: Se comprueba que borrar los posts de una categoría descuenta cuántos posts tenía cada etiqueta
+     * Entrada: tagPostCounter.removePostsOfCategory(category.getId())
+     * Salida esperada: Test se realiza con éxito, ambos contadores quedan a 0
+     */
+    @Test
+    @DisplayName("Removing the posts of a category subtracts per tag")
+    void removePostsOfCategory_subtractsPerTag() {
+        tagPostCounter.removePostsOfCategory(category.getId());
+
+        assertEquals(0L, postCount(popular));
+        assertEquals(0L, postCount(rare));
+    }
+
+    private Tag tag(String name, long postCount, Instant now) {
+        Tag tag = new Tag(name);
+        tag.setPostCount(postCount);
+        tag.setCreatedAt(now);
+        tag.setUpdatedAt(now);
+        return testEntityManager.persist(tag);
+    }
+
+    private long postCount(Tag tag) {
+        testEntityManager.clear();
+        return testEntityManager.find(Tag.class, tag.getId()).getPostCount();
+    }
+}
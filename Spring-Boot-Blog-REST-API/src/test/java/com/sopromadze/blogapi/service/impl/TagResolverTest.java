@@ -0,0 +1,123 @@
+package com.sopromadze.blogapi.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TagResolver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TagResolverTest {
+
+    @Autowired
+    private TagResolver tagResolver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tags WHERE name LIKE 'resolver-%'");
+    }
+
+    /*
+     * Test: Se comprueba que se reutilizan las etiquetas existentes y se crean las que faltan
+     * Entrada: tagResolver.resolve(["resolver-spring", "resolver-java", "resolver-spring"], 1L) con "resolver-java" existente
+     * Salida esperada: Test se realiza con éxito, devuelve dos ids en orden y solo crea "resolver-spring"
+     */
+    @Test
+    @DisplayName("Resolve creates missing tags and reuses existing ones")
+    void resolve_createsMissingAndReusesExisting() {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO tags (name, post_count, created_at, updated_at, created_by, updated_by) VALUES (?, 0, ?, ?, ?, ?)",
+                "resolver-java", now, now, 1L, 1L);
+        Long javaId = jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = 'resolver-java'", Long.class);
+
+        Map<String, Long> resolved = tagResolver.resolve(
+                Arrays.asList("resolver-spring", "resolver-java", "resolver-spring"), 1L);
+
+        assertEquals(Arrays.asList("resolver-spring", "resolver-java"), new ArrayList<>(resolved.keySet()));
+        assertEquals(javaId, resolved.get("resolver-java"));
+        assertEquals(jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = 'resolver-spring'", Long.class),
+                resolved.get("resolver-spring"));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tags WHERE name LIKE 'resolver-%'", Integer.class));
+    }
+
+    /*
+     * Test: Se comprueba que al expulsar un tag por id deja de resolverse a la fila borrada
+     * Entrada: tagResolver.resolve(["resolver-borrado"], 1L), borrado de la fila, tagResolver.evict(id) y otro resolve
+     * Salida esperada: Test se realiza con éxito, el segundo resolve crea una fila nueva con otro id
+     */
+    @Test
+    @DisplayName("Evicting a tag by id stops resolving its cached names")
+    void evict_dropsCachedNamesOfTheTag() {
+        Long id = tagResolver.resolve(List.of("resolver-borrado"), 1L).get("resolver-borrado");
+        jdbcTemplate.update("DELETE FROM tags WHERE id = ?", id);
+
+        tagResolver.evict(id);
+        Long recreated = tagResolver.resolve(List.of("resolver-borrado"), 1L).get("resolver-borrado");
+
+        assertNotEquals(id, recreated);
+        assertEquals(recreated, jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = 'resolver-borrado'", Long.class));
+    }
+
+    /*
+     * Test: Se comprueba que varios hilos que crean la misma etiqueta a la vez obtienen una única fila
+     * Entrada: tagResolver.resolve(["resolver-new"], 1L) desde 8 hilos simultáneos
+     * Salida esperada: Test se realiza con éxito, todos obtienen el mismo id y solo existe una fila
+     */
+    @Test
+    @DisplayName("Concurrent creators of the same tag coalesce on one row")
+    void resolve_concurrentCreatorsCoalesce() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return tagResolver.resolve(Collections.singletonList("resolver-new"), 1L).get("resolver-new");
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<Long> future : futures) {
+                ids.add(future.get());
+            }
+
+            assertEquals(1, ids.size());
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tags WHERE name = 'resolver-new'", Integer.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
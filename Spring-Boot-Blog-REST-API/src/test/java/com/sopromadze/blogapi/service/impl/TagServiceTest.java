@@ -1,5 +1,7 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.exception.BadRequestException;
 import com.sopromadze.blogapi.exception.ResourceNotFoundException;
 import com.sopromadze.blogapi.exception.UnauthorizedException;
 import com.sopromadze.blogapi.model.Tag;
@@ -8,7 +10,10 @@ import com.sopromadze.blogapi.model.role.RoleName;
 import com.sopromadze.blogapi.model.user.User;
 import com.sopromadze.blogapi.payload.ApiResponse;
 import com.sopromadze.blogapi.payload.PagedResponse;
+import com.sopromadze.blogapi.reference.ReferenceData;
+import com.sopromadze.blogapi.reference.Snapshot;
 import com.sopromadze.blogapi.repository.TagRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
 import com.sopromadze.blogapi.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,15 +29,21 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +53,18 @@ public class TagServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private TagResolver tagResolver;
+
+    @Mock
+    private TagPostIndex tagPostIndex;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private ReferenceData referenceData;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -177,6 +200,34 @@ public class TagServiceTest {
 
     }
 
+    /*
+     * Test: Se comprueba que las etiquetas se listan por cursor y se leen desde los datos de referencia
+     * Entrada: tagService.getAllTags(null, 1), tagService.getAllTags(nextCursor, 1) y tagService.getTag(1L)
+     * Salida esperada: Test se realiza con éxito, devuelve primero la más reciente, luego la otra, y no consulta el repositorio
+     */
+    @Test
+    @DisplayName("Tags are listed and read from the reference data")
+    void getAllTags_fromReferenceData() {
+        Tag older = new Tag("Older");
+        older.setId(1L);
+        older.setCreatedAt(Instant.parse("2021-01-01T00:00:00Z"));
+        Tag newer = new Tag("Newer");
+        newer.setId(2L);
+        newer.setCreatedAt(Instant.parse("2021-02-01T00:00:00Z"));
+
+        when(referenceData.tags()).thenReturn(Snapshot.ofTags(1L, Arrays.asList(older, newer)));
+        when(referenceData.tag(1L)).thenReturn(older);
+
+        PagedResponse<Tag> first = tagService.getAllTags(null, 1);
+        PagedResponse<Tag> second = tagService.getAllTags(first.getNextCursor(), 1);
+
+        assertEquals(Arrays.asList(newer), first.getContent());
+        assertEquals(Arrays.asList(older), second.getContent());
+        assertTrue(second.isLast());
+        assertSame(older, tagService.getTag(1L));
+        verifyNoInteractions(tagRepository);
+    }
+
     @Test
     void updateTag_success() {
 
@@ -216,6 +267,24 @@ public class TagServiceTest {
 
     }
 
+    /*
+     * Test: Se comprueba que renombrar un tag con el nombre de otro devuelve un error de petición
+     * Entrada: tagService.updateTag(1L, tag, userPrincipal) con un nombre que ya tiene otro tag
+     * Salida esperada: Test se realiza con éxito, se lanza BadRequestException y no se guarda nada
+     */
+    @Test
+    @DisplayName("Update tag, name already taken")
+    void updateTag_nameTaken() {
+        tag.setId(1L);
+        Tag renamed = new Tag("Java");
+
+        when(tagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        when(tagRepository.existsByNameAndIdNot("Java", 1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> tagService.updateTag(1L, renamed, userPrincipal));
+        verify(tagRepository, never()).save(any());
+    }
+
     @Test
     void updateTag_ResourceNotFoundException_success() {
 
@@ -42,6 +42,9 @@ public class TodoServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserProfileUpdater userProfileUpdater;
+
     @InjectMocks
     private TodoServiceImpl todoService;
 
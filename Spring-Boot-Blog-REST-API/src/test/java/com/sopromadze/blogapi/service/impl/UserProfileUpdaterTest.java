@@ -0,0 +1,262 @@
+package com.sopromadze.blogapi.service.impl;
+
+import com.sopromadze.blogapi.cache.ResponseCache;
+import com.sopromadze.blogapi.exception.ResourceNotFoundException;
+import com.sopromadze.blogapi.model.Album;
+import com.sopromadze.blogapi.model.Category;
+import com.sopromadze.blogapi.model.Comment;
+import com.sopromadze.blogapi.model.Post;
+import com.sopromadze.blogapi.model.Todo;
+import com.sopromadze.blogapi.model.audit.DateAudit;
+import com.sopromadze.blogapi.model.user.Address;
+import com.sopromadze.blogapi.model.user.Company;
+import com.sopromadze.blogapi.model.user.Geo;
+import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.model.user.UserProfileView;
+import com.sopromadze.blogapi.repository.UserProfileViewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(UserProfileUpdater.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserProfileUpdaterTest {
+
+    @Autowired
+    private UserProfileUpdater userProfileUpdater;
+
+    @Autowired
+    private UserProfileViewRepository userProfileViewRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ResponseCache responseCache;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+
+    private User reader;
+
+    private Category category;
+
+    private Post post;
+
+    @BeforeEach
+    void initData() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            author = new User("Lucía", "Romero", "perfilautora", "perfilautora@gmail.com", "12345678");
+            author.setAddress(persist(new Address("Calle Feria", "2B", "Sevilla", "41003",
+                    persist(new Geo("37.3991", "-5.9914")))));
+            author.setCompany(persist(new Company("Triana SL", "Hecho en Sevilla", "cerámica")));
+            persist(author);
+            reader = persist(new User("Pablo", "Molina", "perfillector", "perfillector@gmail.com", "12345678"));
+
+            category = persist(new Category("perfil-viajes"));
+            post = post(author, "Un viaje a Sevilla");
+            post(author, "Un viaje a Cádiz");
+            comment(post, reader);
+            comment(post, reader);
+            comment(post, author);
+
+            Album album = new Album();
+            album.setTitle("Feria de abril");
+            album.setUser(author);
+            persist(album);
+
+            Todo todo = new Todo();
+            todo.setTitle("Comprar flores");
+            todo.setUser(author);
+            persist(todo);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> userIds = List.of(author.getId(), reader.getId());
+        userProfileViewRepository.deleteAll(userProfileViewRepository.findAllById(userIds));
+        jdbcTemplate.update("DELETE FROM comments WHERE post_id IN (SELECT id FROM posts WHERE category_id = ?)",
+                category.getId());
+        jdbcTemplate.update("DELETE FROM posts WHERE category_id = ?", category.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE id = ?", category.getId());
+        jdbcTemplate.update("DELETE FROM albums WHERE user_id = ?", author.getId());
+        jdbcTemplate.update("DELETE FROM todos WHERE user_id = ?", author.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", author.getId(), reader.getId());
+    }
+
+    /*
+     * Test: Se comprueba que el perfil se construye a partir de las tablas una sola vez
+     * Entrada: userProfileUpdater.build("perfilautora") dos veces y build("nadie")
+     * Salida esperada: Test se realiza con éxito, el perfil tiene la dirección, la empresa y los recuentos de la autora,
+     * no se duplica y un usuario que no existe lanza ResourceNotFoundException
+     */
+    @Test
+    @DisplayName("Profiles are built once from the tables")
+    void build_countsFromTables() {
+        UserProfileView profile = userProfileUpdater.build("perfilautora");
+
+        assertEquals(author.getId(), profile.getUserId());
+        assertEquals("Sevilla", profile.getCity());
+        assertEquals("-5.9914", profile.getLng());
+        assertEquals("Triana SL", profile.getCompanyName());
+        assertEquals(2L, profile.getPostCount());
+        assertEquals(1L, profile.getAlbumCount());
+        assertEquals(1L, profile.getTodoCount());
+        assertEquals(1L, profile.getCommentCount());
+
+        assertEquals(2L, userProfileUpdater.build("perfilautora").getPostCount());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_profiles WHERE user_id = ?",
+                Integer.class, author.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> userProfileUpdater.build("nadie"));
+    }
+
+    /*
+     * Test: Se comprueba que los recuentos se mueven con cada escritura y que se descarta el perfil cacheado
+     * Entrada: postAdded(autora), albumRemoved(autora) y commentAdded(lector) en una transacción
+     * Salida esperada: Test se realiza con éxito, la autora pasa a 3 posts y 0 álbumes y el lector a 3 comentarios
+     */
+    @Test
+    @DisplayName("Counts move with each write")
+    void counts_moveWithWrites() {
+        userProfileUpdater.build("perfilautora");
+        userProfileUpdater.build("perfillector");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userProfileUpdater.postAdded(author.getId());
+            userProfileUpdater.albumRemoved(author.getId());
+            userProfileUpdater.commentAdded(reader.getId());
+        });
+
+        assertEquals(3L, profile(author).getPostCount());
+        assertEquals(0L, profile(author).getAlbumCount());
+        assertEquals(3L, profile(reader).getCommentCount());
+        verify(responseCache, atLeastOnce()).evict(ResponseCache.profile("perfilautora"));
+    }
+
+    /*
+     * Test: Se comprueba que borrar un post descuenta el post a su autora y los comentarios a quienes los escribieron
+     * Entrada: userProfileUpdater.removePost(post, autora) con dos comentarios del lector y uno de la autora
+     * Salida esperada: Test se realiza con éxito, la autora queda con 1 post y 0 comentarios y el lector con 0
+     */
+    @Test
+    @DisplayName("Removing a post subtracts it and its comments")
+    void removePost_subtractsPostAndComments() {
+        userProfileUpdater.build("perfilautora");
+        userProfileUpdater.build("perfillector");
+
+        transactionTemplate.executeWithoutResult(status -> userProfileUpdater.removePost(post.getId(), author.getId()));
+
+        assertEquals(1L, profile(author).getPostCount());
+        assertEquals(0L, profile(author).getCommentCount());
+        assertEquals(0L, profile(reader).getCommentCount());
+    }
+
+    /*
+     * Test: Se comprueba que los cambios del usuario se copian al perfil, construyéndolo si no existía
+     * Entrada: userProfileUpdater.userUpdated(autora) con teléfono nuevo y sin empresa, sin perfil previo
+     * Salida esperada: Test se realiza con éxito, el perfil tiene el teléfono, ninguna empresa y los recuentos
+     */
+    @Test
+    @DisplayName("User changes are copied, building the profile if missing")
+    void userUpdated_copiesColumns() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = testEntityManager.find(User.class, author.getId());
+            user.setPhone("955 000 000");
+            user.setCompany(null);
+            userProfileUpdater.userUpdated(user);
+        });
+
+        UserProfileView profile = profile(author);
+        assertEquals("955 000 000", profile.getPhone());
+        assertNull(profile.getCompanyName());
+        assertEquals("Calle Feria", profile.getStreet());
+        assertEquals(2L, profile.getPostCount());
+    }
+
+    /*
+     * Test: Se comprueba que el recuento corrige los perfiles cuyos recuentos se desviaron y deja los demás
+     * Entrada: userProfileUpdater.recount([autora, lector]) con 7 posts y 5 álbumes anotados a la autora
+     * Salida esperada: Test se realiza con éxito, se corrige un perfil y la autora vuelve a 2 posts y 1 álbum
+     */
+    @Test
+    @DisplayName("Recounting corrects profiles whose counts drifted")
+    void recount_correctsDriftedCounts() {
+        userProfileUpdater.build("perfilautora");
+        userProfileUpdater.build("perfillector");
+        jdbcTemplate.update("UPDATE user_profiles SET post_count = 7, album_count = 5 WHERE user_id = ?",
+                author.getId());
+
+        int corrected = userProfileUpdater.recount(List.of(author.getId(), reader.getId()));
+
+        assertEquals(1, corrected);
+        assertEquals(2L, profile(author).getPostCount());
+        assertEquals(1L, profile(author).getAlbumCount());
+        assertEquals(2L, profile(reader).getCommentCount());
+        verify(responseCache).evict(ResponseCache.profile("perfilautora"));
+    }
+
+    private UserProfileView profile(User user) {
+        return userProfileViewRepository.findById(user.getId()).orElseThrow();
+    }
+
+    private Post post(User user, String title) {
+        Post newPost = new Post();
+        newPost.setTitle(title);
+        newPost.setBody("Una semana recorriendo los barrios de Sevilla en primavera");
+        newPost.setCategory(category);
+        newPost.setUser(user);
+        return persist(newPost);
+    }
+
+    private void comment(Post commented, User user) {
+        Comment comment = new Comment("Qué buena pinta tiene este viaje");
+        comment.setName(user.getUsername());
+        comment.setEmail(user.getEmail());
+        comment.setPost(commented);
+        comment.setUser(user);
+        comment.setCreatedBy(user.getId());
+        comment.setUpdatedBy(user.getId());
+        persist(comment);
+    }
+
+    private <T extends DateAudit> T persist(T entity) {
+        Instant now = Instant.now();
+        entity.setCreatedAt(now);
+        entity.setUpdatedAt(now);
+        return testEntityManager.persist(entity);
+    }
+}
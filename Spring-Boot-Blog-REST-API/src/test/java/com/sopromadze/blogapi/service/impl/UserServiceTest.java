@@ -1,5 +1,6 @@
 package com.sopromadze.blogapi.service.impl;
 
+import com.sopromadze.blogapi.cache.ResponseCache;
 import com.sopromadze.blogapi.exception.*;
 import com.sopromadze.blogapi.model.Post;
 import com.sopromadze.blogapi.model.role.Role;
@@ -8,11 +9,17 @@ import com.sopromadze.blogapi.model.user.Address;
 import com.sopromadze.blogapi.model.user.Company;
 import com.sopromadze.blogapi.model.user.Geo;
 import com.sopromadze.blogapi.model.user.User;
+import com.sopromadze.blogapi.model.user.UserProfileView;
 import com.sopromadze.blogapi.payload.*;
+import com.sopromadze.blogapi.reference.ReferenceData;
 import com.sopromadze.blogapi.repository.PostRepository;
 import com.sopromadze.blogapi.repository.RoleRepository;
+import com.sopromadze.blogapi.repository.UserProfileViewRepository;
 import com.sopromadze.blogapi.repository.UserRepository;
+import com.sopromadze.blogapi.search.TagPostIndex;
+import com.sopromadze.blogapi.security.PrincipalInvalidationRegistry;
 import com.sopromadze.blogapi.security.UserPrincipal;
+import com.sopromadze.blogapi.service.SearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +40,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +52,7 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PostRepository postRepository;
+    private UserProfileViewRepository userProfileViewRepository;
 
     @Mock
     private RoleRepository roleRepository;
@@ -51,6 +60,30 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalInvalidationRegistry principalInvalidationRegistry;
+
+    @Mock
+    private TagPostCounter tagPostCounter;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private ReferenceData referenceData;
+
+    @Mock
+    private UserProfileUpdater userProfileUpdater;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private TagPostIndex tagPostIndex;
+
     @InjectMocks
     UserServiceImpl userService;
 
@@ -199,11 +232,39 @@ public class UserServiceTest {
 
         UserProfile userProfile = new UserProfile(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
                 user.getCreatedAt(), user.getEmail(), user.getAddress(), user.getPhone(), user.getWebsite(),
-                user.getCompany(), user.getId());
+                user.getCompany(), 1L, 2L, 3L, 4L);
 
 
-        when(userRepository.getUserByName("Jesús")).thenReturn(user);
-        when(postRepository.countByCreatedBy(user.getId())).thenReturn(user.getId());
+        when(userProfileViewRepository.findByUsername("Jesús")).thenReturn(Optional.of(profileView(user)));
+        assertEquals(userProfile, userService.getUserProfile("Jesús"));
+        verifyNoInteractions(userRepository, userProfileUpdater);
+    }
+
+    /*
+     * Test: Se comprueba que el perfil de un usuario que aún no lo tiene se construye a partir de las tablas
+     * Entrada: userService.getUserProfile("Jesús") sin perfil guardado
+     * Salida esperada: Test se realiza con éxito, devuelve el perfil construido con su dirección y sus recuentos
+     */
+    @Test
+    @DisplayName("Get user profile, built on first read")
+    void getUserProfile_buildsMissingProfile() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("Jesús");
+        user.setFirstName("Jesús");
+        user.setCreatedAt(Instant.now());
+        UserProfileView profileView = profileView(user);
+        profileView.setStreet("Puente de triana");
+        profileView.setCity("Sevilla");
+        profileView.setLat("37.3827100");
+        profileView.setLng("-6.0025700");
+
+        UserProfile userProfile = new UserProfile(user.getId(), user.getUsername(), user.getFirstName(), null,
+                user.getCreatedAt(), null, new Address("Puente de triana", null, "Sevilla", null,
+                        new Geo("37.3827100", "-6.0025700")), null, null, null, 1L, 2L, 3L, 4L);
+
+        when(userProfileViewRepository.findByUsername("Jesús")).thenReturn(Optional.empty());
+        when(userProfileUpdater.build("Jesús")).thenReturn(profileView);
         assertEquals(userProfile, userService.getUserProfile("Jesús"));
     }
     /*
@@ -232,8 +293,12 @@ public class UserServiceTest {
         UserPrincipal userPrincipal  = UserPrincipal.create(user);
 
         when(userRepository.findByUsername("Jesús")).thenReturn(Optional.of(user));
+        when(postRepository.findIdsByUserId(1L)).thenReturn(List.of(3L));
         ApiResponse apiResponse = new ApiResponse(Boolean.TRUE, "You successfully deleted profile of: " + user.getFirstName());
         assertEquals(apiResponse, userService.deleteUser("Jesús",userPrincipal));
+        verify(searchService).removePosts(List.of(3L));
+        verify(searchService).removeCommentsOfUser(1L);
+        verify(tagPostIndex).removeAll(List.of(3L));
     }
 
     /*
@@ -343,12 +408,19 @@ public class UserServiceTest {
 
         when(userRepository.findByUsername("Jesús")).thenReturn(Optional.of(user));
         when(userRepository.save(user)).thenReturn(user);
-        when(postRepository.countByCreatedBy(user.getId())).thenReturn(user.getId());
+        UserProfileView profileView = profileView(user);
+        profileView.setStreet(address.getStreet());
+        profileView.setSuite(address.getSuite());
+        profileView.setCity(address.getCity());
+        profileView.setZipcode(address.getZipcode());
+        profileView.setLat(geo.getLat());
+        profileView.setLng(geo.getLng());
+        when(userProfileUpdater.userUpdated(user)).thenReturn(profileView);
 
         UserProfile userProfile =  new UserProfile(user.getId(), user.getUsername(),
                 user.getFirstName(), user.getLastName(), user.getCreatedAt(),
                 user.getEmail(), user.getAddress(), user.getPhone(), user.getWebsite(),
-                user.getCompany(), postRepository.countByCreatedBy(user.getId()));
+                null, 1L, 2L, 3L, 4L);
 
         assertEquals(userProfile, userService.setOrUpdateInfo(userPrincipal, infoRequest));
 
@@ -652,4 +724,18 @@ public class UserServiceTest {
 
     }
 
+    private UserProfileView profileView(User user) {
+        UserProfileView profileView = new UserProfileView();
+        profileView.setUserId(user.getId());
+        profileView.setUsername(user.getUsername());
+        profileView.setFirstName(user.getFirstName());
+        profileView.setLastName(user.getLastName());
+        profileView.setEmail(user.getEmail());
+        profileView.setJoinedAt(user.getCreatedAt());
+        profileView.setPostCount(1L);
+        profileView.setAlbumCount(2L);
+        profileView.setTodoCount(3L);
+        profileView.setCommentCount(4L);
+        return profileView;
+    }
 }
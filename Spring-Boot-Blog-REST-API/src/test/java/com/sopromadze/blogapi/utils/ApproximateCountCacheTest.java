@@ -0,0 +1,92 @@
+package com.sopromadze.blogapi.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApproximateCountCacheTest {
+
+    private final ApproximateCountCache approximateCountCache = new ApproximateCountCache();
+
+    @AfterEach
+    void tearDown() {
+        approximateCountCache.destroy();
+    }
+
+    /*
+     * Test: Se comprueba que el conteo se calcula una sola vez mientras está vigente
+     * Entrada: approximateCountCache.count("posts", counter) dos veces
+     * Salida esperada: Test se realiza con éxito, el contador se invoca una vez
+     */
+    @Test
+    @DisplayName("Count is cached while fresh")
+    void count_cachedWhileFresh() {
+        init(60000L, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(10L, approximateCountCache.count("posts", () -> 10L + calls.getAndIncrement()));
+        assertEquals(10L, approximateCountCache.count("posts", () -> 10L + calls.getAndIncrement()));
+        assertEquals(1, calls.get());
+    }
+
+    /*
+     * Test: Se comprueba que un conteo caducado se sigue sirviendo mientras se recalcula en segundo plano
+     * Entrada: approximateCountCache.count("posts", counter) con refreshInMs a 0
+     * Salida esperada: Test se realiza con éxito, devuelve el valor antiguo y después el recalculado
+     */
+    @Test
+    @DisplayName("Stale count is served while refreshing")
+    void count_staleWhileRefreshing() throws InterruptedException {
+        init(0L, 10);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        assertEquals(10L, approximateCountCache.count("posts", () -> 10L));
+        assertEquals(10L, approximateCountCache.count("posts", () -> {
+            refreshed.countDown();
+            return 20L;
+        }));
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        long count = 10L;
+        for (int i = 0; i < 50 && count != 20L; i++) {
+            Thread.sleep(10);
+            count = approximateCountCache.count("posts", () -> 20L);
+        }
+        assertEquals(20L, count);
+    }
+
+    /*
+     * Test: Se comprueba que la caché no crece por encima de su tamaño máximo
+     * Entrada: approximateCountCache.count("posts:createdBy:" + i, counter) para 100 usuarios con maxSize a 10
+     * Salida esperada: Test se realiza con éxito, quedan como mucho 10 conteos
+     */
+    @Test
+    @DisplayName("Counts are bounded by the maximum size")
+    void count_bounded() {
+        init(60000L, 10);
+
+        for (long i = 0; i < 100; i++) {
+            approximateCountCache.count("posts:createdBy:" + i, () -> 1L);
+        }
+
+        Cache<?, ?> counts = (Cache<?, ?>) ReflectionTestUtils.getField(approximateCountCache, "counts");
+        counts.cleanUp();
+        assertTrue(counts.estimatedSize() <= 10);
+    }
+
+    private void init(long refreshInMs, int maxSize) {
+        ReflectionTestUtils.setField(approximateCountCache, "refreshInMs", refreshInMs);
+        ReflectionTestUtils.setField(approximateCountCache, "expireInMs", 600000L);
+        ReflectionTestUtils.setField(approximateCountCache, "maxSize", maxSize);
+        approximateCountCache.init();
+    }
+}